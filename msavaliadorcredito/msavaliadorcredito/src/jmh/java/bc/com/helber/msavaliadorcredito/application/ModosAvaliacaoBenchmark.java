@@ -0,0 +1,161 @@
+package bc.com.helber.msavaliadorcredito.application;
+
+import bc.com.helber.msavaliadorcredito.AvaliadorCreditoApplication;
+import com.sun.net.httpserver.HttpServer;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Teste de carga dos dois modos com o mesmo orcamento de memoria: cada fork sobe a aplicacao inteira
+ * (servlet ou perfil {@code reativo}) com heap fixo, apontando msclientes e mscartoes para stubs HTTP
+ * locais que respondem depois de {@link #ATRASO_MS}. Cada invocacao dispara {@code emVoo} avaliacoes
+ * ao mesmo tempo; {@code concluidas} conta as que voltaram 200 e {@code falhas} as que voltaram outro
+ * status (504 por prazo, 503 por fila cheia) ou nao voltaram. Cache de clientes, catalogo local,
+ * resiliencia e limite de concorrencia (que so existe no modo servlet) ficam desligados para que toda
+ * avaliacao faca as duas chamadas remotas.
+ * <p>
+ * {@code mvn -Pjmh test-compile exec:exec -Djmh.benchmarks=ModosAvaliacaoBenchmark}. Os emVoo mais
+ * altos precisam de {@code ulimit -n} acima de 16384 (cliente, servidor e stubs no mesmo processo).
+ */
+@State(Scope.Thread)
+@AuxCounters(AuxCounters.Type.EVENTS)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xmx256m", "-XX:MaxDirectMemorySize=128m"})
+public class ModosAvaliacaoBenchmark {
+
+    private static final long ATRASO_MS = 100;
+
+    @Param({"servlet", "reativo"})
+    public String modo;
+
+    @Param({"250", "1000", "4000"})
+    public int emVoo;
+
+    public long concluidas;
+    public long falhas;
+
+    private final AtomicLong sequencia = new AtomicLong(1);
+    private ScheduledExecutorService atrasos;
+    private ExecutorService executorStubs;
+    private HttpServer clientes;
+    private HttpServer cartoes;
+    private ConfigurableApplicationContext contexto;
+    private HttpClient http;
+    private URI avaliacao;
+
+    @Setup(Level.Trial)
+    public void iniciar() throws IOException {
+        atrasos = Executors.newScheduledThreadPool(2);
+        executorStubs = Executors.newFixedThreadPool(4);
+        clientes = stub("{\"id\":1,\"cpf\":\"12345678900\",\"nome\":\"Cliente\",\"idade\":30}");
+        cartoes = stub("[{\"id\":1,\"nome\":\"Basico\",\"bandeira\":\"VISA\",\"renda\":1000,\"limiteBasico\":1000}]");
+
+        var builder = new SpringApplicationBuilder(AvaliadorCreditoApplication.class);
+        if ("reativo".equals(modo)) {
+            builder.profiles("reativo");
+        }
+        contexto = builder.run(
+                "--server.port=0",
+                "--EUREKA_SERVER=localhost",
+                "--RABBITMQ_SERVER=localhost",
+                "--eureka.client.enabled=false",
+                "--spring.cloud.discovery.client.simple.instances.msclientes[0].uri=http://localhost:"
+                        + clientes.getAddress().getPort(),
+                "--spring.cloud.discovery.client.simple.instances.mscartoes[0].uri=http://localhost:"
+                        + cartoes.getAddress().getPort(),
+                "--spring.rabbitmq.listener.simple.auto-startup=false",
+                "--spring.rabbitmq.listener.direct.auto-startup=false",
+                "--mq.journal.diretorio=" + Files.createTempDirectory("journal"),
+                "--avaliador.catalogo-cartoes.enabled=false",
+                "--avaliador.cache-clientes.tamanho-maximo=0",
+                "--avaliador.cache-clientes.nao-encontrados.tamanho-maximo=0",
+                "--avaliador.resiliencia.enabled=false",
+                "--avaliador.concorrencia.enabled=false");
+
+        avaliacao = URI.create("http://localhost:" + contexto.getEnvironment().getProperty("local.server.port")
+                + "/avaliacoes-credito");
+        http = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+    }
+
+    @Setup(Level.Iteration)
+    public void zerarContadores() {
+        concluidas = 0;
+        falhas = 0;
+    }
+
+    @Benchmark
+    public void avaliacoesSimultaneas() {
+        var ok = new LongAdder();
+        var erro = new LongAdder();
+        var respostas = new CompletableFuture<?>[emVoo];
+        for (int i = 0; i < emVoo; i++) {
+            String cpf = String.format("%011d", sequencia.getAndIncrement());
+            var request = HttpRequest.newBuilder(avaliacao)
+                    .timeout(Duration.ofSeconds(30))
+                    .header("Content-Type", "application/json")
+                    .POST(HttpRequest.BodyPublishers.ofString("{\"cpf\":\"" + cpf + "\",\"renda\":5000}"))
+                    .build();
+            respostas[i] = http.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                    .handle((resposta, e) -> {
+                        if (e == null && resposta.statusCode() == 200) {
+                            ok.increment();
+                        } else {
+                            erro.increment();
+                        }
+                        return null;
+                    });
+        }
+        CompletableFuture.allOf(respostas).join();
+        concluidas += ok.sum();
+        falhas += erro.sum();
+    }
+
+    @TearDown(Level.Trial)
+    public void encerrar() {
+        contexto.close();
+        clientes.stop(0);
+        cartoes.stop(0);
+        executorStubs.shutdownNow();
+        atrasos.shutdownNow();
+    }
+
+    private HttpServer stub(String corpo) throws IOException {
+        byte[] bytes = corpo.getBytes(StandardCharsets.UTF_8);
+        var servidor = HttpServer.create(new InetSocketAddress("localhost", 0), 4096);
+        servidor.createContext("/", troca -> atrasos.schedule(() -> {
+            try {
+                troca.getResponseHeaders().set("Content-Type", "application/json");
+                troca.sendResponseHeaders(200, bytes.length);
+                troca.getResponseBody().write(bytes);
+            } catch (IOException e) {
+                // cliente desistiu; nada a fazer no stub
+            } finally {
+                troca.close();
+            }
+        }, ATRASO_MS, TimeUnit.MILLISECONDS));
+        servidor.setExecutor(executorStubs);
+        servidor.start();
+        return servidor;
+    }
+}
@@ -0,0 +1,79 @@
+package bc.com.helber.msavaliadorcredito.domain.cpf;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Indice de 10M CPFs em {@link MapaCpf} contra {@code HashMap<String, ...>}.
+ * <p>
+ * Os benchmarks {@code construir*} rodam uma unica vez por iteracao com as estruturas
+ * pre-dimensionadas. No {@link MapaCpf} o {@code gc.alloc.rate.norm} de {@code -prof gc} e o tamanho
+ * retido do indice (os dois arrays). No {@code HashMap} ele inclui tambem o {@code char[11]} temporario
+ * que {@link Cpf#formatar} descarta a cada chave (40 bytes com compressed oops); o retido e o valor
+ * reportado menos {@code 40 * quantidade}. Os {@code consultar*} medem a busca.
+ */
+@State(Scope.Benchmark)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(value = 1, jvmArgsAppend = {"-Xms6g", "-Xmx6g"})
+public class MapaCpfBenchmark {
+
+    private static final Object VALOR = new Object();
+
+    @Param({"10000000"})
+    private int quantidade;
+
+    private long[] cpfs;
+    private MapaCpf<Object> mapaCpf;
+    private Map<String, Object> hashMap;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        cpfs = new long[quantidade];
+        for (int i = 0; i < quantidade; i++) {
+            cpfs[i] = ThreadLocalRandom.current().nextLong(Cpf.MAXIMO + 1);
+        }
+        mapaCpf = construirMapaCpf();
+        hashMap = construirHashMap();
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public MapaCpf<Object> construirMapaCpf() {
+        var mapa = new MapaCpf<>(quantidade);
+        for (long cpf : cpfs) {
+            mapa.put(cpf, VALOR);
+        }
+        return mapa;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.SingleShotTime)
+    @OutputTimeUnit(TimeUnit.MILLISECONDS)
+    public Map<String, Object> construirHashMap() {
+        Map<String, Object> mapa = new HashMap<>((int) (quantidade / 0.75f) + 1);
+        for (long cpf : cpfs) {
+            mapa.put(Cpf.formatar(cpf), VALOR);
+        }
+        return mapa;
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public Object consultarMapaCpf() {
+        return mapaCpf.get(cpfs[ThreadLocalRandom.current().nextInt(quantidade)]);
+    }
+
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    @OutputTimeUnit(TimeUnit.NANOSECONDS)
+    public Object consultarHashMap() {
+        return hashMap.get(Cpf.formatar(cpfs[ThreadLocalRandom.current().nextInt(quantidade)]));
+    }
+}
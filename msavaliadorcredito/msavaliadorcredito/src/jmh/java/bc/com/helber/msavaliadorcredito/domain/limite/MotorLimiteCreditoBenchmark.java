@@ -0,0 +1,68 @@
+package bc.com.helber.msavaliadorcredito.domain.limite;
+
+import bc.com.helber.msavaliadorcredito.domain.model.Cartao;
+import bc.com.helber.msavaliadorcredito.domain.model.CartaoAprovado;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MotorLimiteCreditoBenchmark {
+
+    @Param({"5", "50"})
+    private int quantidadeCartoes;
+
+    private List<Cartao> cartoes;
+    private TabelaLimites tabela;
+    private int idade;
+
+    @Setup
+    public void setUp() {
+        cartoes = new ArrayList<>();
+        for (int i = 0; i < quantidadeCartoes; i++) {
+            var cartao = new Cartao();
+            cartao.setNome("Cartao " + i);
+            cartao.setBandeira(i % 2 == 0 ? "VISA" : "MASTERCARD");
+            cartao.setRenda(BigDecimal.valueOf(1000L * i));
+            cartao.setLimiteBasico(new BigDecimal("1500.00").add(BigDecimal.valueOf(i * 100L)));
+            cartoes.add(cartao);
+        }
+        tabela = TabelaLimites.de(cartoes);
+        idade = 37;
+    }
+
+    @Benchmark
+    public List<CartaoAprovado> formulaBigDecimal() {
+        return cartoes.stream().map(cartao -> {
+            BigDecimal limiteBasico = cartao.getLimiteBasico();
+            BigDecimal idadeBD = BigDecimal.valueOf(idade);
+            var fator = idadeBD.divide(BigDecimal.valueOf(10));
+            BigDecimal limiteAprovado = fator.multiply(limiteBasico);
+
+            CartaoAprovado aprovado = new CartaoAprovado();
+            aprovado.setCartao(cartao.getNome());
+            aprovado.setBandeira(cartao.getBandeira());
+            aprovado.setLimiteAprovado(limiteAprovado);
+            return aprovado;
+        }).collect(Collectors.toList());
+    }
+
+    @Benchmark
+    public List<CartaoAprovado> motorComTabelaDoCatalogo() {
+        return MotorLimiteCredito.aprovar(idade, tabela);
+    }
+
+    @Benchmark
+    public List<CartaoAprovado> motorComListaRemota() {
+        return MotorLimiteCredito.aprovar(idade, cartoes);
+    }
+}
@@ -0,0 +1,111 @@
+package bc.com.helber.msavaliadorcredito.infra.http;
+
+import bc.com.helber.msavaliadorcredito.domain.model.Cartao;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.lang.reflect.Type;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Decodificacao de {@code List<Cartao>} (resposta de {@code getCartoesRendaAteh}) em JSON pelo Jackson
+ * contra a representacao binaria, pelos mesmos conversores que o decoder do Feign usa.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class CartoesBinarioBenchmark {
+
+    private static final Type CARTOES = new ParameterizedTypeReference<List<Cartao>>() {}.getType();
+    private static final String[] BANDEIRAS = {"MASTERCARD", "VISA"};
+
+    @Param({"10", "100", "1000"})
+    private int quantidade;
+
+    private final MappingJackson2HttpMessageConverter json = new MappingJackson2HttpMessageConverter(new ObjectMapper());
+    private final CartoesBinarioHttpMessageConverter binario = new CartoesBinarioHttpMessageConverter();
+    private byte[] payloadJson;
+    private byte[] payloadBinario;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        var cartoes = new ArrayList<Cartao>(quantidade);
+        var random = ThreadLocalRandom.current();
+        for (int i = 0; i < quantidade; i++) {
+            var cartao = new Cartao();
+            cartao.setId((long) i + 1);
+            cartao.setNome("Cartao " + (i + 1));
+            cartao.setBandeira(BANDEIRAS[i % 2]);
+            cartao.setRenda(BigDecimal.valueOf(random.nextLong(100_000, 2_000_000), 2));
+            cartao.setLimiteBasico(BigDecimal.valueOf(random.nextLong(50_000, 5_000_000), 2));
+            cartoes.add(cartao);
+        }
+        payloadJson = new ObjectMapper().writeValueAsBytes(cartoes);
+        payloadBinario = codificar(cartoes);
+    }
+
+    @Benchmark
+    public Object decodificarJson() throws IOException {
+        return json.read(CARTOES, null, mensagem(payloadJson));
+    }
+
+    @Benchmark
+    public Object decodificarBinario() throws IOException {
+        return binario.read(CARTOES, null, mensagem(payloadBinario));
+    }
+
+    private static HttpInputMessage mensagem(byte[] payload) {
+        return new HttpInputMessage() {
+            @Override
+            public InputStream getBody() {
+                return new ByteArrayInputStream(payload);
+            }
+
+            @Override
+            public HttpHeaders getHeaders() {
+                return HttpHeaders.EMPTY;
+            }
+        };
+    }
+
+    /** Mesma escrita do conversor do mscartoes, que nao esta no classpath deste modulo. */
+    private static byte[] codificar(List<Cartao> cartoes) throws IOException {
+        var bytes = new ByteArrayOutputStream();
+        var out = new DataOutputStream(bytes);
+        out.writeByte(CartoesBinarioHttpMessageConverter.VERSAO);
+        out.writeByte(2);
+        out.writeInt(cartoes.size());
+        for (Cartao cartao : cartoes) {
+            out.writeLong(cartao.getId());
+            escreverTexto(out, cartao.getNome());
+            escreverTexto(out, cartao.getBandeira());
+            out.writeLong(cartao.getRenda().unscaledValue().longValueExact());
+            out.writeLong(cartao.getLimiteBasico().unscaledValue().longValueExact());
+        }
+        out.flush();
+        return bytes.toByteArray();
+    }
+
+    private static void escreverTexto(DataOutputStream out, String texto) throws IOException {
+        byte[] bytes = texto.getBytes(StandardCharsets.UTF_8);
+        out.writeShort(bytes.length);
+        out.write(bytes);
+    }
+}
@@ -0,0 +1,46 @@
+package bc.com.helber.msavaliadorcredito.infra.mqueue;
+
+import bc.com.helber.msavaliadorcredito.domain.model.DadosSolicitacaoEmissaoCartao;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import bc.com.helber.msavaliadorcredito.infra.mqueue.journal.JournalEmissaoCartao;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.amqp.core.Queue;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class SolicitacaoEmissaoCartaoPublisherBenchmark {
+
+    private SolicitacaoEmissaoCartaoPublisher publisher;
+    private DadosSolicitacaoEmissaoCartao dados;
+
+    @Setup
+    public void setUp() throws IOException {
+        var registry = new SimpleMeterRegistry();
+        var journal = new JournalEmissaoCartao(registry,
+                Files.createTempDirectory("journal").toString(), 1 << 20, false);
+        publisher = new SolicitacaoEmissaoCartaoPublisher(new RabbitTemplate(), new Queue("emissao-cartoes"),
+                new ObjectMapper(), journal, registry, false, 5000, 1000);
+        dados = new DadosSolicitacaoEmissaoCartao();
+        dados.setIdCartao(42L);
+        dados.setCpf("12345678909");
+        dados.setEndereco("Rua das Flores, 123 - Centro");
+        dados.setLimiteLiberado(new BigDecimal("7400.00"));
+    }
+
+    @Benchmark
+    public String convertIntoJson() throws JsonProcessingException {
+        return publisher.convertIntoJson(dados);
+    }
+}
@@ -4,17 +4,27 @@ import bc.com.helber.msavaliadorcredito.application.ex.DadosClienteNotFoundExcep
 import bc.com.helber.msavaliadorcredito.application.ex.ErroComunicacaoMicroservicesException;
 import bc.com.helber.msavaliadorcredito.application.ex.ErroSolicitacaoCartaoException;
 import bc.com.helber.msavaliadorcredito.domain.model.*;
+import com.fasterxml.jackson.databind.ObjectMapper;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
 
 @RestController
 @RequestMapping("avaliacoes-credito")
 @RequiredArgsConstructor
+@Profile("!reativo")
 public class AvaliadorCreditoController {
 
     private final AvaliadorCreditoService avaliadorCreditoService;
+    private final ObjectMapper objectMapper;
 
     @GetMapping
     public String status(){
@@ -46,6 +56,26 @@ public class AvaliadorCreditoController {
         }
     }
 
+    @PostMapping(value = "lote", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<StreamingResponseBody> realizarAvaliacaoLote(@RequestBody List<DadosAvaliacao> dados) {
+        var writer = objectMapper.writerFor(RetornoAvaliacaoLote.class);
+        StreamingResponseBody body = out -> {
+            try {
+                avaliadorCreditoService.realizarAvaliacaoLote(dados, retorno -> {
+                    try {
+                        out.write(writer.writeValueAsBytes(retorno));
+                        out.write('\n');
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+        };
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(body);
+    }
+
     @PostMapping("solicitacoes-cartao")
     public ResponseEntity solicitarCartao(@RequestBody DadosSolicitacaoEmissaoCartao dados) {
         try {
@@ -0,0 +1,62 @@
+package bc.com.helber.msavaliadorcredito.application;
+
+import bc.com.helber.msavaliadorcredito.application.ex.DadosClienteNotFoundException;
+import bc.com.helber.msavaliadorcredito.application.ex.ErroComunicacaoMicroservicesException;
+import bc.com.helber.msavaliadorcredito.application.ex.ErroSolicitacaoCartaoException;
+import bc.com.helber.msavaliadorcredito.domain.model.*;
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("avaliacoes-credito")
+@RequiredArgsConstructor
+@Profile("reativo")
+public class AvaliadorCreditoReativoController {
+
+    private final AvaliadorCreditoReativoService avaliadorCreditoService;
+
+    @GetMapping
+    public String status(){
+        return "ok";
+    }
+
+    @GetMapping(value = "situacao-cliente", params = "cpf")
+    public Mono<ResponseEntity> consultarSituacaoCliente(@RequestParam("cpf") String cpf) {
+        return responder(avaliadorCreditoService.obterSituacaoCliente(cpf));
+    }
+
+    @PostMapping
+    public Mono<ResponseEntity> realizarAvaliacao(@RequestBody DadosAvaliacao dados) {
+        return responder(avaliadorCreditoService.realizarAvaliacao(dados.getCpf(), dados.getRenda()));
+    }
+
+    @PostMapping(value = "lote", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public Flux<RetornoAvaliacaoLote> realizarAvaliacaoLote(@RequestBody List<DadosAvaliacao> dados) {
+        return avaliadorCreditoService.realizarAvaliacaoLote(dados);
+    }
+
+    @PostMapping("solicitacoes-cartao")
+    public Mono<ResponseEntity> solicitarCartao(@RequestBody DadosSolicitacaoEmissaoCartao dados) {
+        return avaliadorCreditoService.solicitarEmissaoCartao(dados)
+                .<ResponseEntity>map(ResponseEntity::ok)
+                .onErrorResume(ErroSolicitacaoCartaoException.class,
+                        e -> Mono.just(ResponseEntity.internalServerError().body(e.getMessage())));
+    }
+
+    private Mono<ResponseEntity> responder(Mono<?> resultado) {
+        return resultado
+                .<ResponseEntity>map(ResponseEntity::ok)
+                .onErrorResume(DadosClienteNotFoundException.class,
+                        e -> Mono.just(ResponseEntity.notFound().build()))
+                .onErrorResume(ErroComunicacaoMicroservicesException.class,
+                        e -> Mono.just(ResponseEntity.status(HttpStatus.resolve(e.getStatus())).body(e.getMessage())));
+    }
+}
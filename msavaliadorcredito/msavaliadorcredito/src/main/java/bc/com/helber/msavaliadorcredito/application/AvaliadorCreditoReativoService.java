@@ -0,0 +1,108 @@
+package bc.com.helber.msavaliadorcredito.application;
+
+import bc.com.helber.msavaliadorcredito.application.ex.DadosClienteNotFoundException;
+import bc.com.helber.msavaliadorcredito.application.ex.ErroComunicacaoMicroservicesException;
+import bc.com.helber.msavaliadorcredito.domain.limite.MotorLimiteCredito;
+import bc.com.helber.msavaliadorcredito.domain.model.*;
+import bc.com.helber.msavaliadorcredito.infra.catalogo.CatalogoCartoes;
+import bc.com.helber.msavaliadorcredito.infra.clients.CartoesResourceClientReativo;
+import bc.com.helber.msavaliadorcredito.infra.clients.ClienteResourceClientReativo;
+import bc.com.helber.msavaliadorcredito.infra.clients.DadosClienteCache;
+import bc.com.helber.msavaliadorcredito.infra.resiliencia.CircuitoAbertoException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Mesmo contrato do {@link AvaliadorCreditoService}, com as duas consultas de cada avaliacao feitas
+ * via WebClient sem prender thread. Lote e solicitacao de cartao continuam no servico bloqueante,
+ * executados no scheduler elastico.
+ */
+@Service
+@Profile("reativo")
+public class AvaliadorCreditoReativoService {
+
+    private final DadosClienteCache dadosClienteCache;
+    private final ClienteResourceClientReativo clientesClient;
+    private final CartoesResourceClientReativo cartoesClient;
+    private final CatalogoCartoes catalogoCartoes;
+    private final AvaliadorCreditoService avaliadorCreditoService;
+    private final long prazoMs;
+
+    public AvaliadorCreditoReativoService(DadosClienteCache dadosClienteCache,
+                                          ClienteResourceClientReativo clientesClient,
+                                          CartoesResourceClientReativo cartoesClient,
+                                          CatalogoCartoes catalogoCartoes,
+                                          AvaliadorCreditoService avaliadorCreditoService,
+                                          @Value("${avaliador.consultas.paralelas.prazo-ms}") long prazoMs) {
+        this.dadosClienteCache = dadosClienteCache;
+        this.clientesClient = clientesClient;
+        this.cartoesClient = cartoesClient;
+        this.catalogoCartoes = catalogoCartoes;
+        this.avaliadorCreditoService = avaliadorCreditoService;
+        this.prazoMs = prazoMs;
+    }
+
+    public Mono<SituacaoCliente> obterSituacaoCliente(String cpf) {
+        return Mono.zip(dadosCliente(cpf), cartoesClient.getCartoesByCliente(cpf))
+                .map(consulta -> SituacaoCliente.builder()
+                        .cliente(consulta.getT1())
+                        .cartoes(consulta.getT2())
+                        .build())
+                .transform(this::comPrazoETraducaoDeErros);
+    }
+
+    public Mono<RetornoAvaliacaoCliente> realizarAvaliacao(String cpf, Long renda) {
+        return Mono.zip(dadosCliente(cpf), catalogoCartoes.limitesRendaAteh(renda, cartoesClient::getCartoesRendaAteh))
+                .map(consulta -> new RetornoAvaliacaoCliente(
+                        MotorLimiteCredito.aprovar(consulta.getT1().getIdade(), consulta.getT2())))
+                .transform(this::comPrazoETraducaoDeErros);
+    }
+
+    public Flux<RetornoAvaliacaoLote> realizarAvaliacaoLote(List<DadosAvaliacao> avaliacoes) {
+        return Flux.<RetornoAvaliacaoLote>create(saida -> {
+                    avaliadorCreditoService.realizarAvaliacaoLote(avaliacoes, saida::next);
+                    saida.complete();
+                })
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    public Mono<ProtocoloSolicitacaoCartao> solicitarEmissaoCartao(DadosSolicitacaoEmissaoCartao dados) {
+        return Mono.fromCallable(() -> avaliadorCreditoService.solicitarEmissaoCartao(dados))
+                .subscribeOn(Schedulers.boundedElastic());
+    }
+
+    private Mono<DadosCliente> dadosCliente(String cpf) {
+        return dadosClienteCache.dadosCliente(cpf, clientesClient::dadosCliente)
+                .switchIfEmpty(Mono.error(DadosClienteNotFoundException::new));
+    }
+
+    private <T> Mono<T> comPrazoETraducaoDeErros(Mono<T> consulta) {
+        return consulta
+                .timeout(Duration.ofMillis(prazoMs))
+                .onErrorMap(TimeoutException.class, e -> new ErroComunicacaoMicroservicesException(
+                        "Prazo de " + prazoMs + "ms excedido nas consultas aos microservices",
+                        HttpStatus.GATEWAY_TIMEOUT.value()))
+                .onErrorMap(CircuitoAbertoException.class,
+                        e -> new ErroComunicacaoMicroservicesException(e.getMessage(), e.status()))
+                .onErrorMap(e -> e instanceof WebClientResponseException
+                                && ((WebClientResponseException) e).getStatusCode().is4xxClientError(),
+                        e -> {
+                            var resposta = (WebClientResponseException) e;
+                            if (resposta.getRawStatusCode() == HttpStatus.NOT_FOUND.value()) {
+                                return new DadosClienteNotFoundException();
+                            }
+                            return new ErroComunicacaoMicroservicesException(resposta.getMessage(),
+                                    resposta.getRawStatusCode());
+                        });
+    }
+}
@@ -3,41 +3,57 @@ package bc.com.helber.msavaliadorcredito.application;
 import bc.com.helber.msavaliadorcredito.application.ex.DadosClienteNotFoundException;
 import bc.com.helber.msavaliadorcredito.application.ex.ErroComunicacaoMicroservicesException;
 import bc.com.helber.msavaliadorcredito.application.ex.ErroSolicitacaoCartaoException;
+import bc.com.helber.msavaliadorcredito.domain.cpf.Cpf;
+import bc.com.helber.msavaliadorcredito.domain.cpf.MapaCpf;
+import bc.com.helber.msavaliadorcredito.domain.limite.MotorLimiteCredito;
+import bc.com.helber.msavaliadorcredito.domain.limite.TabelaLimites;
 import bc.com.helber.msavaliadorcredito.domain.model.*;
+import bc.com.helber.msavaliadorcredito.infra.catalogo.CatalogoCartoes;
 import bc.com.helber.msavaliadorcredito.infra.clients.CartoesResourceClient;
-import bc.com.helber.msavaliadorcredito.infra.clients.ClienteResourceClient;
+import bc.com.helber.msavaliadorcredito.infra.clients.DadosClienteCache;
 import bc.com.helber.msavaliadorcredito.infra.mqueue.SolicitacaoEmissaoCartaoPublisher;
+import bc.com.helber.msavaliadorcredito.infra.resiliencia.CircuitoAbertoException;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import feign.FeignException;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.stereotype.Service;
 
-import java.math.BigDecimal;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
 import java.util.UUID;
+import java.util.function.Consumer;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class AvaliadorCreditoService {
 
-    private final ClienteResourceClient clientesClient;
+    private final DadosClienteCache dadosClienteCache;
     private final CartoesResourceClient cartoesClient;
     private final SolicitacaoEmissaoCartaoPublisher emissaoCartaoPublisher;
+    private final ConsultaParalela consultaParalela;
+    private final CatalogoCartoes catalogoCartoes;
+
+    @Value("${avaliador.lote.tamanho-bloco}")
+    private int tamanhoBlocoLote;
 
 
     public SituacaoCliente obterSituacaoCliente (String cpf) throws DadosClienteNotFoundException,
             ErroComunicacaoMicroservicesException{
         try {
-            ResponseEntity<DadosCliente> dadosClienteResponse = clientesClient.dadosCliente(cpf);
-            ResponseEntity<List<CartaoCliente>> cartoesResponse = cartoesClient.getCartoesByCliente(cpf);
+            var consulta = consultaParalela.executar(
+                    () -> dadosClienteCache.dadosCliente(cpf),
+                    () -> cartoesClient.getCartoesByCliente(cpf));
+            ResponseEntity<List<CartaoCliente>> cartoesResponse = consulta.getSegundo();
 
             return SituacaoCliente
                 .builder()
-                .cliente(dadosClienteResponse.getBody())
+                .cliente(consulta.getPrimeiro())
                 .cartoes(cartoesResponse.getBody())
                 .build();
         }catch (FeignException.FeignClientException e){
@@ -46,32 +62,19 @@ public class AvaliadorCreditoService {
                 throw new DadosClienteNotFoundException();
             }
             throw new ErroComunicacaoMicroservicesException(e.getMessage(), status);
+        } catch (CircuitoAbertoException e) {
+            throw new ErroComunicacaoMicroservicesException(e.getMessage(), e.status());
         }
     }
 
     public RetornoAvaliacaoCliente realizarAvaliacao(String cpf, Long renda)
             throws DadosClienteNotFoundException, ErroComunicacaoMicroservicesException {
         try {
-            ResponseEntity<DadosCliente> dadosClienteResponse = clientesClient.dadosCliente(cpf);
-            ResponseEntity<List<Cartao>> cartoesResponse = cartoesClient.getCartoesRendaAteh(renda);
-
-            List<Cartao> cartoes = cartoesResponse.getBody();
-            var listaCartoesAprovados = cartoes.stream().map(cartao -> {
-
-                DadosCliente dadosCliente = dadosClienteResponse.getBody();
-
-                BigDecimal limiteBasico = cartao.getLimiteBasico();
-                BigDecimal idadeBD = BigDecimal.valueOf(dadosCliente.getIdade());
-                var fator = idadeBD.divide(BigDecimal.valueOf(10));
-                BigDecimal limiteAprovado = fator.multiply(limiteBasico);
-
-                CartaoAprovado aprovado = new CartaoAprovado();
-                aprovado.setCartao(cartao.getNome());
-                aprovado.setBandeira(cartao.getBandeira());
-                aprovado.setLimiteAprovado(limiteAprovado);
-
-                return aprovado;
-            }).collect(Collectors.toList());
+            var consulta = consultaParalela.executar(
+                    () -> dadosClienteCache.dadosCliente(cpf),
+                    () -> catalogoCartoes.limitesRendaAteh(renda));
+            var listaCartoesAprovados = MotorLimiteCredito.aprovar(consulta.getPrimeiro().getIdade(),
+                    consulta.getSegundo());
 
             return new RetornoAvaliacaoCliente(listaCartoesAprovados);
 
@@ -81,13 +84,68 @@ public class AvaliadorCreditoService {
                 throw new DadosClienteNotFoundException();
             }
             throw new ErroComunicacaoMicroservicesException(e.getMessage(), status);
+        } catch (CircuitoAbertoException e) {
+            throw new ErroComunicacaoMicroservicesException(e.getMessage(), e.status());
         }
     }
 
+    public void realizarAvaliacaoLote(List<DadosAvaliacao> avaliacoes, Consumer<RetornoAvaliacaoLote> saida) {
+        Map<Long, TabelaLimites> cartoesPorRenda = new HashMap<>();
+        for (int inicio = 0; inicio < avaliacoes.size(); inicio += tamanhoBlocoLote) {
+            var bloco = avaliacoes.subList(inicio, Math.min(inicio + tamanhoBlocoLote, avaliacoes.size()));
+            avaliarBloco(bloco, cartoesPorRenda, saida);
+        }
+    }
+
+    private void avaliarBloco(List<DadosAvaliacao> bloco, Map<Long, TabelaLimites> cartoesPorRenda,
+                              Consumer<RetornoAvaliacaoLote> saida) {
+        MapaCpf<DadosCliente> clientes;
+        try {
+            clientes = dadosClienteCache.dadosClientes(
+                    bloco.stream().map(DadosAvaliacao::getCpf).collect(Collectors.toList()));
+        } catch (FeignException e) {
+            bloco.forEach(dados -> saida.accept(
+                    new RetornoAvaliacaoLote(dados.getCpf(), statusErro(e), null, e.getMessage())));
+            return;
+        }
+
+        for (DadosAvaliacao dados : bloco) {
+            long cpf = Cpf.empacotar(dados.getCpf());
+            if (cpf == Cpf.INVALIDO) {
+                saida.accept(new RetornoAvaliacaoLote(dados.getCpf(), HttpStatus.BAD_REQUEST.value(), null,
+                        "CPF inválido"));
+                continue;
+            }
+            if (dados.getRenda() == null) {
+                saida.accept(new RetornoAvaliacaoLote(dados.getCpf(), HttpStatus.BAD_REQUEST.value(), null,
+                        "Renda não informada"));
+                continue;
+            }
+            DadosCliente dadosCliente = clientes.get(cpf);
+            if (dadosCliente == null) {
+                saida.accept(new RetornoAvaliacaoLote(dados.getCpf(), HttpStatus.NOT_FOUND.value(), null,
+                        new DadosClienteNotFoundException().getMessage()));
+                continue;
+            }
+            try {
+                TabelaLimites cartoes = cartoesPorRenda.computeIfAbsent(dados.getRenda(),
+                        catalogoCartoes::limitesRendaAteh);
+                saida.accept(new RetornoAvaliacaoLote(dados.getCpf(), HttpStatus.OK.value(),
+                        MotorLimiteCredito.aprovar(dadosCliente.getIdade(), cartoes), null));
+            } catch (FeignException e) {
+                saida.accept(new RetornoAvaliacaoLote(dados.getCpf(), statusErro(e), null, e.getMessage()));
+            }
+        }
+    }
+
+    private int statusErro(FeignException e) {
+        return e.status() > 0 ? e.status() : HttpStatus.SERVICE_UNAVAILABLE.value();
+    }
+
         public ProtocoloSolicitacaoCartao solicitarEmissaoCartao(DadosSolicitacaoEmissaoCartao dados){
             try{
-                emissaoCartaoPublisher.solicitarCartao(dados);
                 var protocolo = UUID.randomUUID().toString();
+                emissaoCartaoPublisher.solicitarCartao(dados, protocolo);
                 return new ProtocoloSolicitacaoCartao(protocolo);
         }catch(Exception e){
                 throw new ErroSolicitacaoCartaoException(e.getMessage());
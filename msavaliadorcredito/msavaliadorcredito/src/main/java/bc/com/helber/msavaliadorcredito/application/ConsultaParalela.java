@@ -0,0 +1,96 @@
+package bc.com.helber.msavaliadorcredito.application;
+
+import bc.com.helber.msavaliadorcredito.application.ex.ErroComunicacaoMicroservicesException;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+@Component
+public class ConsultaParalela {
+
+    private final ExecutorService executor;
+    private final boolean habilitada;
+    private final long prazoMs;
+
+    public ConsultaParalela(@Qualifier("consultasExecutor") ExecutorService executor,
+                            @Value("${avaliador.consultas.paralelas.enabled}") boolean habilitada,
+                            @Value("${avaliador.consultas.paralelas.prazo-ms}") long prazoMs) {
+        this.executor = executor;
+        this.habilitada = habilitada;
+        this.prazoMs = prazoMs;
+    }
+
+    public <A, B> Resultado<A, B> executar(Supplier<A> primeira, Supplier<B> segunda)
+            throws ErroComunicacaoMicroservicesException {
+        if (!habilitada) {
+            return new Resultado<>(primeira.get(), segunda.get());
+        }
+
+        CompletableFuture<A> futuroPrimeira;
+        CompletableFuture<B> futuroSegunda;
+        try {
+            futuroPrimeira = CompletableFuture.supplyAsync(primeira, executor);
+            futuroSegunda = CompletableFuture.supplyAsync(segunda, executor);
+        } catch (RejectedExecutionException e) {
+            throw new ErroComunicacaoMicroservicesException("Limite de consultas simultaneas atingido",
+                    HttpStatus.SERVICE_UNAVAILABLE.value());
+        }
+
+        var falha = new CompletableFuture<Void>();
+        futuroPrimeira.whenComplete((r, e) -> { if (e != null) falha.completeExceptionally(e); });
+        futuroSegunda.whenComplete((r, e) -> { if (e != null) falha.completeExceptionally(e); });
+
+        try {
+            CompletableFuture.anyOf(CompletableFuture.allOf(futuroPrimeira, futuroSegunda), falha)
+                    .get(prazoMs, TimeUnit.MILLISECONDS);
+            return new Resultado<>(futuroPrimeira.join(), futuroSegunda.join());
+        } catch (TimeoutException e) {
+            futuroPrimeira.cancel(true);
+            futuroSegunda.cancel(true);
+            throw new ErroComunicacaoMicroservicesException(
+                    "Prazo de " + prazoMs + "ms excedido nas consultas aos microservices",
+                    HttpStatus.GATEWAY_TIMEOUT.value());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            futuroPrimeira.cancel(true);
+            futuroSegunda.cancel(true);
+            throw new ErroComunicacaoMicroservicesException("Consulta interrompida",
+                    HttpStatus.SERVICE_UNAVAILABLE.value());
+        } catch (ExecutionException | CompletionException e) {
+            futuroPrimeira.cancel(true);
+            futuroSegunda.cancel(true);
+            Throwable causa = e;
+            while ((causa instanceof ExecutionException || causa instanceof CompletionException)
+                    && causa.getCause() != null) {
+                causa = causa.getCause();
+            }
+            if (causa instanceof RuntimeException) {
+                throw (RuntimeException) causa;
+            }
+            if (causa instanceof Error) {
+                throw (Error) causa;
+            }
+            throw new ErroComunicacaoMicroservicesException(causa.getMessage(),
+                    HttpStatus.INTERNAL_SERVER_ERROR.value());
+        }
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    public static class Resultado<A, B> {
+        private final A primeiro;
+        private final B segundo;
+    }
+}
@@ -0,0 +1,29 @@
+package bc.com.helber.msavaliadorcredito.config;
+
+import bc.com.helber.msavaliadorcredito.infra.balanceamento.BalanceamentoLatenciaConfiguration;
+import bc.com.helber.msavaliadorcredito.infra.balanceamento.EstatisticasBalanceamentoLifecycle;
+import bc.com.helber.msavaliadorcredito.infra.balanceamento.EstatisticasInstancias;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cloud.loadbalancer.annotation.LoadBalancerClients;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConditionalOnProperty(value = "balanceamento.latencia.enabled", havingValue = "true")
+@LoadBalancerClients(defaultConfiguration = BalanceamentoLatenciaConfiguration.class)
+public class BalanceamentoConfig {
+
+    @Bean
+    public EstatisticasInstancias estatisticasInstancias(
+            @Value("${balanceamento.latencia.decaimento-ms}") long decaimentoMs,
+            @Value("${balanceamento.latencia.latencia-inicial-ms}") long latenciaInicialMs,
+            @Value("${balanceamento.latencia.penalidade-falha-ms}") long penalidadeFalhaMs) {
+        return new EstatisticasInstancias(decaimentoMs, latenciaInicialMs, penalidadeFalhaMs);
+    }
+
+    @Bean
+    public EstatisticasBalanceamentoLifecycle estatisticasBalanceamentoLifecycle(EstatisticasInstancias estatisticas) {
+        return new EstatisticasBalanceamentoLifecycle(estatisticas);
+    }
+}
@@ -0,0 +1,63 @@
+package bc.com.helber.msavaliadorcredito.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Configuration
+@Slf4j
+public class ExecutorConfig {
+
+    @Value("${avaliador.consultas.paralelas.threads}")
+    private int threads;
+
+    @Value("${avaliador.consultas.paralelas.fila}")
+    private int fila;
+
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService consultasExecutor() {
+        var executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(fila), fabricaThreads("consultas-"),
+                new ThreadPoolExecutor.AbortPolicy());
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    /** Separado do scheduler padrao: a drenagem do journal bloqueia esperando confirmacoes do broker. */
+    @Bean(destroyMethod = "shutdownNow")
+    public ScheduledExecutorService drenagemJournalExecutor() {
+        return Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "drenagem-journal");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    static ThreadFactory fabricaThreads(String prefixo) {
+        try {
+            Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+            Class<?> builderClass = Class.forName("java.lang.Thread$Builder");
+            builder = builderClass.getMethod("name", String.class, long.class).invoke(builder, prefixo, 0L);
+            ThreadFactory factory = (ThreadFactory) builderClass.getMethod("factory").invoke(builder);
+            log.info("Executor {} usando virtual threads", prefixo);
+            return factory;
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            var contador = new AtomicInteger();
+            return runnable -> {
+                Thread thread = new Thread(runnable, prefixo + contador.getAndIncrement());
+                thread.setDaemon(true);
+                return thread;
+            };
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package bc.com.helber.msavaliadorcredito.config;
+
+import bc.com.helber.msavaliadorcredito.infra.http.CartoesBinarioHttpMessageConverter;
+import bc.com.helber.msavaliadorcredito.infra.http.CompressaoRespostaInterceptor;
+import bc.com.helber.msavaliadorcredito.infra.http.FormatoBinarioInterceptor;
+import bc.com.helber.msavaliadorcredito.infra.http.MetricasPoolConexoes;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.httpcomponents.PoolingHttpClientConnectionManagerMetricsBinder;
+import org.apache.http.client.protocol.ResponseContentEncoding;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClientBuilder;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Transporte dos clientes Feign: Apache HttpClient com pool. Como este {@link CloseableHttpClient}
+ * existe, a autoconfiguracao do Spring Cloud OpenFeign o usa por baixo do balanceador no lugar do
+ * HttpURLConnection.
+ */
+@Configuration
+public class FeignHttpClientConfig {
+
+    @Bean(destroyMethod = "shutdown")
+    public PoolingHttpClientConnectionManager conexoesFeign(
+            @Value("${avaliador.http.max-conexoes}") int maxConexoes,
+            @Value("${avaliador.http.max-conexoes-por-rota}") int maxConexoesPorRota,
+            @Value("${avaliador.http.ttl-ms}") long ttlMs,
+            @Value("${avaliador.http.validar-apos-inatividade-ms}") int validarAposInatividadeMs) {
+        var conexoes = new PoolingHttpClientConnectionManager(ttlMs, TimeUnit.MILLISECONDS);
+        conexoes.setMaxTotal(maxConexoes);
+        conexoes.setDefaultMaxPerRoute(maxConexoesPorRota);
+        conexoes.setValidateAfterInactivity(validarAposInatividadeMs);
+        return conexoes;
+    }
+
+    /**
+     * A compressao automatica do HttpClient fica desligada para que so os metodos de
+     * {@link CompressaoRespostaInterceptor} pecam gzip; a descompressao continua valendo para qualquer
+     * resposta que venha com Content-Encoding.
+     */
+    @Bean(destroyMethod = "close")
+    public CloseableHttpClient feignHttpClient(PoolingHttpClientConnectionManager conexoesFeign,
+                                               @Value("${avaliador.http.ociosa-ms}") long ociosaMs) {
+        return HttpClientBuilder.create()
+                .setConnectionManager(conexoesFeign)
+                .evictIdleConnections(ociosaMs, TimeUnit.MILLISECONDS)
+                .evictExpiredConnections()
+                .disableContentCompression()
+                .addInterceptorLast(new ResponseContentEncoding())
+                .build();
+    }
+
+    @Bean
+    public CompressaoRespostaInterceptor compressaoRespostaInterceptor(
+            @Value("${avaliador.http.gzip.metodos}") Set<String> metodos) {
+        return new CompressaoRespostaInterceptor(metodos);
+    }
+
+    /**
+     * Como bean, entra nos {@code HttpMessageConverters} do Boot e dai no decoder dos clientes Feign.
+     */
+    @Bean
+    public CartoesBinarioHttpMessageConverter cartoesBinarioHttpMessageConverter() {
+        return new CartoesBinarioHttpMessageConverter();
+    }
+
+    @Bean
+    public FormatoBinarioInterceptor formatoBinarioInterceptor(
+            @Value("${avaliador.http.binario.metodos}") Set<String> metodos) {
+        return new FormatoBinarioInterceptor(metodos);
+    }
+
+    @Bean
+    public MetricasPoolConexoes metricasPoolConexoes(PoolingHttpClientConnectionManager conexoesFeign,
+                                                     MeterRegistry registry) {
+        new PoolingHttpClientConnectionManagerMetricsBinder(conexoesFeign, "feign").bindTo(registry);
+        return new MetricasPoolConexoes(conexoesFeign, registry);
+    }
+}
@@ -0,0 +1,75 @@
+package bc.com.helber.msavaliadorcredito.config;
+
+import bc.com.helber.msavaliadorcredito.infra.concorrencia.LimiteConcorrenciaAdaptativo;
+import bc.com.helber.msavaliadorcredito.infra.concorrencia.LimiteConcorrenciaFilter;
+import bc.com.helber.msavaliadorcredito.infra.concorrencia.LimiteConcorrenciaFilter.Prioridade;
+import bc.com.helber.msavaliadorcredito.infra.concorrencia.LimiteConcorrenciaWebFilter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import java.util.Map;
+
+/**
+ * O limite e um so; o filtro que o aplica depende do tipo da aplicacao: servlet no modo padrao, WebFilter no
+ * perfil {@code reativo}.
+ */
+@Configuration
+@ConditionalOnProperty(value = "avaliador.concorrencia.enabled", havingValue = "true")
+public class LimiteConcorrenciaConfig {
+
+    @Bean
+    public LimiteConcorrenciaAdaptativo limiteConcorrencia(
+            @Value("${avaliador.concorrencia.limite-inicial}") int limiteInicial,
+            @Value("${avaliador.concorrencia.limite-minimo}") int limiteMinimo,
+            @Value("${avaliador.concorrencia.limite-maximo}") int limiteMaximo,
+            @Value("${avaliador.concorrencia.janela-ms}") long janelaMs,
+            @Value("${avaliador.concorrencia.amostras-minimas}") int amostrasMinimas,
+            @Value("${avaliador.concorrencia.janelas-longas}") int janelasLongas,
+            @Value("${avaliador.concorrencia.tolerancia}") double tolerancia,
+            @Value("${avaliador.concorrencia.suavizacao}") double suavizacao) {
+        return new LimiteConcorrenciaAdaptativo(limiteInicial, limiteMinimo, limiteMaximo, janelaMs, amostrasMinimas,
+                janelasLongas, tolerancia, suavizacao);
+    }
+
+    private static Map<Prioridade, Double> parcelas(double baixa, double normal, double alta) {
+        return Map.of(Prioridade.BAIXA, baixa, Prioridade.NORMAL, normal, Prioridade.ALTA, alta);
+    }
+
+    @Configuration
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+    static class Servlet {
+
+        @Bean
+        public FilterRegistrationBean<LimiteConcorrenciaFilter> limiteConcorrenciaFilter(
+                LimiteConcorrenciaAdaptativo limite, MeterRegistry registry,
+                @Value("${avaliador.concorrencia.parcelas.baixa}") double baixa,
+                @Value("${avaliador.concorrencia.parcelas.normal}") double normal,
+                @Value("${avaliador.concorrencia.parcelas.alta}") double alta) {
+            var filtro = new LimiteConcorrenciaFilter(limite, parcelas(baixa, normal, alta), registry);
+            var registro = new FilterRegistrationBean<>(filtro);
+            registro.addUrlPatterns("/avaliacoes-credito", "/avaliacoes-credito/*");
+            registro.setOrder(Ordered.HIGHEST_PRECEDENCE + 10);
+            return registro;
+        }
+    }
+
+    @Configuration
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+    static class Reativo {
+
+        @Bean
+        public LimiteConcorrenciaWebFilter limiteConcorrenciaWebFilter(
+                LimiteConcorrenciaAdaptativo limite, MeterRegistry registry,
+                @Value("${avaliador.concorrencia.parcelas.baixa}") double baixa,
+                @Value("${avaliador.concorrencia.parcelas.normal}") double normal,
+                @Value("${avaliador.concorrencia.parcelas.alta}") double alta) {
+            return new LimiteConcorrenciaWebFilter(limite, parcelas(baixa, normal, alta), registry);
+        }
+    }
+}
@@ -1,5 +1,9 @@
 package bc.com.helber.msavaliadorcredito.config;
 
+import org.springframework.amqp.core.AnonymousQueue;
+import org.springframework.amqp.core.Binding;
+import org.springframework.amqp.core.BindingBuilder;
+import org.springframework.amqp.core.FanoutExchange;
 import org.springframework.amqp.core.Queue;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
@@ -11,8 +15,44 @@ public class MQconfig {
     @Value("${mq.queues.emissao-cartoes}")
     private String emissaoCartoesFila;
 
+    @Value("${mq.exchanges.catalogo-cartoes}")
+    private String catalogoCartoesExchange;
+
+    @Value("${mq.exchanges.clientes-alterados}")
+    private String clientesAlteradosExchange;
+
     @Bean
     public Queue queueEmissaoCartoes(){
         return new Queue(emissaoCartoesFila , true);
     }
+
+    @Bean
+    public FanoutExchange exchangeCatalogoCartoes(){
+        return new FanoutExchange(catalogoCartoesExchange, true, false);
+    }
+
+    @Bean
+    public Queue queueCatalogoCartoes(){
+        return new AnonymousQueue();
+    }
+
+    @Bean
+    public Binding bindingCatalogoCartoes(){
+        return BindingBuilder.bind(queueCatalogoCartoes()).to(exchangeCatalogoCartoes());
+    }
+
+    @Bean
+    public FanoutExchange exchangeClientesAlterados(){
+        return new FanoutExchange(clientesAlteradosExchange, true, false);
+    }
+
+    @Bean
+    public Queue queueClientesAlterados(){
+        return new AnonymousQueue();
+    }
+
+    @Bean
+    public Binding bindingClientesAlterados(){
+        return BindingBuilder.bind(queueClientesAlterados()).to(exchangeClientesAlterados());
+    }
 }
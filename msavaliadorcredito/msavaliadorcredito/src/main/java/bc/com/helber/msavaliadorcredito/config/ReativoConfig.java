@@ -0,0 +1,54 @@
+package bc.com.helber.msavaliadorcredito.config;
+
+import bc.com.helber.msavaliadorcredito.infra.balanceamento.EstatisticasInstancias;
+import bc.com.helber.msavaliadorcredito.infra.resiliencia.PoliticasResiliencia;
+import bc.com.helber.msavaliadorcredito.infra.resiliencia.ResilienciaReativa;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.autoconfigure.http.HttpMessageConverters;
+import org.springframework.boot.web.reactive.function.client.WebClientCustomizer;
+import org.springframework.cloud.client.loadbalancer.LoadBalanced;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Profile;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Configuration
+@Profile("reativo")
+public class ReativoConfig {
+
+    @Bean
+    @LoadBalanced
+    public WebClient.Builder webClientBalanceado(ObjectProvider<WebClientCustomizer> customizers) {
+        var builder = WebClient.builder();
+        customizers.orderedStream().forEach(customizer -> customizer.customize(builder));
+        return builder;
+    }
+
+    @Bean
+    public ResilienciaReativa resilienciaReativa(ObjectProvider<PoliticasResiliencia> politicas,
+                                                 ObjectProvider<EstatisticasInstancias> estatisticas) {
+        return new ResilienciaReativa(politicas.getIfAvailable(), estatisticas.getIfAvailable());
+    }
+
+    /**
+     * Os clientes Feign (recarga do catalogo, lote) continuam ativos, mas numa aplicacao reativa o Boot
+     * nao registra os conversores de mensagem de que eles dependem. Os conversores declarados como bean
+     * (formato binario dos cartoes) entram antes do Jackson.
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public HttpMessageConverters feignHttpMessageConverters(ObjectMapper objectMapper,
+                                                            ObjectProvider<HttpMessageConverter<?>> conversores) {
+        List<HttpMessageConverter<?>> lista = new ArrayList<>();
+        conversores.orderedStream().forEach(lista::add);
+        lista.add(new MappingJackson2HttpMessageConverter(objectMapper));
+        return new HttpMessageConverters(lista);
+    }
+}
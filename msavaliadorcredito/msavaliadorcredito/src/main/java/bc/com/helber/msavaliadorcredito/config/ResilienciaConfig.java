@@ -0,0 +1,58 @@
+package bc.com.helber.msavaliadorcredito.config;
+
+import bc.com.helber.msavaliadorcredito.infra.balanceamento.EstatisticasInstancias;
+import bc.com.helber.msavaliadorcredito.infra.resiliencia.ClienteResiliente;
+import bc.com.helber.msavaliadorcredito.infra.resiliencia.PoliticasResiliencia;
+import bc.com.helber.msavaliadorcredito.infra.resiliencia.ResilienciaEndpoint;
+import feign.Capability;
+import feign.Client;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+@Configuration
+@ConditionalOnProperty(value = "avaliador.resiliencia.enabled", havingValue = "true")
+public class ResilienciaConfig {
+
+    @Bean
+    public PoliticasResiliencia politicasResiliencia(Environment environment, MeterRegistry registry) {
+        return new PoliticasResiliencia(environment, registry);
+    }
+
+    @Bean(destroyMethod = "shutdown")
+    public ExecutorService hedgeExecutor(@Value("${avaliador.resiliencia.hedge.threads}") int threads,
+                                         @Value("${avaliador.resiliencia.hedge.fila}") int fila) {
+        var executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(fila), ExecutorConfig.fabricaThreads("hedge-"),
+                new ThreadPoolExecutor.AbortPolicy());
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+
+    @Bean
+    public Capability resilienciaFeign(PoliticasResiliencia politicas,
+                                       @Qualifier("hedgeExecutor") ExecutorService executor,
+                                       ObjectProvider<EstatisticasInstancias> estatisticas) {
+        return new Capability() {
+            @Override
+            public Client enrich(Client client) {
+                return new ClienteResiliente(client, politicas, executor, estatisticas.getIfAvailable());
+            }
+        };
+    }
+
+    @Bean
+    public ResilienciaEndpoint resilienciaEndpoint(PoliticasResiliencia politicas) {
+        return new ResilienciaEndpoint(politicas);
+    }
+}
@@ -0,0 +1,173 @@
+package bc.com.helber.msavaliadorcredito.domain.cpf;
+
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.LongSupplier;
+
+/**
+ * Cache de CPF empacotado para valor, com expiracao apos a escrita e tamanho maximo, sobre
+ * {@link MapaCpf}: nem a entrada nem a consulta criam um {@code Long}.
+ * <p>
+ * Dividido em segmentos com lock proprio. Em cada segmento as chaves entram numa fila circular e,
+ * com o segmento cheio, a mais antiga sai (FIFO); basta para entradas escritas uma vez e mantidas
+ * ate expirar ou ser invalidadas. Entradas vencidas saem na leitura ou quando a fila chega nelas.
+ * <p>
+ * Invalidar ou expirar tira a chave do mapa mas deixa a posicao dela na fila. Cada entrada guarda a
+ * ordem em que foi enfileirada, e a posicao antiga so despeja a chave se a ordem ainda for a mesma:
+ * um CPF invalidado e regravado nao sai antes da hora pela posicao que sobrou.
+ */
+public class CacheCpf<V> {
+
+    private static final int SEGMENTOS = 16;
+
+    private final Segmento<V>[] segmentos;
+    private final int mascara;
+    private final long ttlNanos;
+    private final LongSupplier relogio;
+
+    private final LongAdder acertos = new LongAdder();
+    private final LongAdder faltas = new LongAdder();
+    private final LongAdder despejos = new LongAdder();
+
+    public CacheCpf(long tamanhoMaximo, long ttlNanos) {
+        this(tamanhoMaximo, ttlNanos, SEGMENTOS, System::nanoTime);
+    }
+
+    @SuppressWarnings("unchecked")
+    CacheCpf(long tamanhoMaximo, long ttlNanos, int quantidadeSegmentos, LongSupplier relogio) {
+        if (Integer.bitCount(quantidadeSegmentos) != 1) {
+            throw new IllegalArgumentException("Quantidade de segmentos deve ser potencia de 2: "
+                    + quantidadeSegmentos);
+        }
+        int porSegmento = (int) Math.max(1, Math.min(1 << 29, (tamanhoMaximo + quantidadeSegmentos - 1)
+                / quantidadeSegmentos));
+        this.segmentos = new Segmento[quantidadeSegmentos];
+        for (int i = 0; i < quantidadeSegmentos; i++) {
+            segmentos[i] = new Segmento<>(porSegmento);
+        }
+        this.mascara = quantidadeSegmentos - 1;
+        this.ttlNanos = ttlNanos;
+        this.relogio = relogio;
+    }
+
+    public V get(long cpf) {
+        Segmento<V> segmento = segmento(cpf);
+        V valor = null;
+        synchronized (segmento) {
+            Entrada<V> entrada = segmento.entradas.get(cpf);
+            if (entrada != null) {
+                if (relogio.getAsLong() - entrada.expiraEm < 0) {
+                    valor = entrada.valor;
+                } else {
+                    segmento.entradas.remove(cpf);
+                    despejos.increment();
+                }
+            }
+        }
+        (valor == null ? faltas : acertos).increment();
+        return valor;
+    }
+
+    public void put(long cpf, V valor) {
+        long expiraEm = relogio.getAsLong() + ttlNanos;
+        Segmento<V> segmento = segmento(cpf);
+        synchronized (segmento) {
+            Entrada<V> anterior = segmento.entradas.get(cpf);
+            if (anterior != null) {
+                segmento.entradas.put(cpf, new Entrada<>(valor, expiraEm, anterior.ordem));
+                return;
+            }
+            long ordem = segmento.proximaOrdem++;
+            if (segmento.enfileirar(cpf, ordem)) {
+                despejos.increment();
+            }
+            segmento.entradas.put(cpf, new Entrada<>(valor, expiraEm, ordem));
+        }
+    }
+
+    public void invalidate(long cpf) {
+        Segmento<V> segmento = segmento(cpf);
+        synchronized (segmento) {
+            segmento.entradas.remove(cpf);
+        }
+    }
+
+    public long size() {
+        long tamanho = 0;
+        for (Segmento<V> segmento : segmentos) {
+            synchronized (segmento) {
+                tamanho += segmento.entradas.size();
+            }
+        }
+        return tamanho;
+    }
+
+    public long getAcertos() {
+        return acertos.sum();
+    }
+
+    public long getFaltas() {
+        return faltas.sum();
+    }
+
+    public long getDespejos() {
+        return despejos.sum();
+    }
+
+    private Segmento<V> segmento(long cpf) {
+        // multiplicador diferente do usado pelo MapaCpf, para nao concentrar os bits do indice
+        return segmentos[(int) ((cpf * 0xC2B2AE3D27D4EB4FL) >>> 40) & mascara];
+    }
+
+    private static final class Segmento<V> {
+
+        private final MapaCpf<Entrada<V>> entradas;
+        private final long[] fila;
+        private final long[] ordens;
+        private int inicio;
+        private int ocupadas;
+        private long proximaOrdem;
+
+        Segmento(int capacidade) {
+            this.entradas = new MapaCpf<>(capacidade);
+            this.fila = new long[capacidade];
+            this.ordens = new long[capacidade];
+        }
+
+        /**
+         * Poe a chave no fim da fila; com a fila cheia, tira a mais antiga do mapa. A chave antiga pode
+         * ja ter sido invalidada, ou regravada depois com outra ordem, e entao nada sai.
+         */
+        boolean enfileirar(long cpf, long ordem) {
+            if (ocupadas < fila.length) {
+                int posicao = (inicio + ocupadas++) % fila.length;
+                fila[posicao] = cpf;
+                ordens[posicao] = ordem;
+                return false;
+            }
+            long antiga = fila[inicio];
+            long ordemAntiga = ordens[inicio];
+            fila[inicio] = cpf;
+            ordens[inicio] = ordem;
+            inicio = (inicio + 1) % fila.length;
+            Entrada<V> entrada = entradas.get(antiga);
+            if (entrada == null || entrada.ordem != ordemAntiga) {
+                return false;
+            }
+            entradas.remove(antiga);
+            return true;
+        }
+    }
+
+    private static final class Entrada<V> {
+
+        private final V valor;
+        private final long expiraEm;
+        private final long ordem;
+
+        Entrada(V valor, long expiraEm, long ordem) {
+            this.valor = valor;
+            this.expiraEm = expiraEm;
+            this.ordem = ordem;
+        }
+    }
+}
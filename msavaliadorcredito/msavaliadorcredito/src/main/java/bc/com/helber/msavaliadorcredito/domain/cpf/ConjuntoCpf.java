@@ -0,0 +1,143 @@
+package bc.com.helber.msavaliadorcredito.domain.cpf;
+
+import java.util.Arrays;
+import java.util.function.LongConsumer;
+
+/**
+ * Conjunto de CPFs empacotados com o mesmo layout de {@link MapaCpf}, sem o array de valores.
+ * Nao e thread-safe.
+ */
+public class ConjuntoCpf {
+
+    private static final float CARGA_MAXIMA = 0.75f;
+
+    private long[] chaves;
+    private int mascara;
+    private int deslocamento;
+    private int tamanho;
+    private int limite;
+
+    public ConjuntoCpf() {
+        this(16);
+    }
+
+    public ConjuntoCpf(int capacidadeEsperada) {
+        alocar(MapaCpf.capacidadePara(capacidadeEsperada));
+    }
+
+    public boolean add(long cpf) {
+        MapaCpf.verificar(cpf);
+        long chave = cpf + 1;
+        int posicao = indice(chave);
+        while (chaves[posicao] != 0) {
+            if (chaves[posicao] == chave) {
+                return false;
+            }
+            posicao = (posicao + 1) & mascara;
+        }
+        chaves[posicao] = chave;
+        if (++tamanho > limite) {
+            redimensionar();
+        }
+        return true;
+    }
+
+    public boolean contains(long cpf) {
+        return localizar(cpf) >= 0;
+    }
+
+    public boolean remove(long cpf) {
+        int livre = localizar(cpf);
+        if (livre < 0) {
+            return false;
+        }
+        int atual = livre;
+        while (true) {
+            atual = (atual + 1) & mascara;
+            long chave = chaves[atual];
+            if (chave == 0) {
+                break;
+            }
+            int ideal = indice(chave);
+            if (((atual - ideal) & mascara) >= ((atual - livre) & mascara)) {
+                chaves[livre] = chave;
+                livre = atual;
+            }
+        }
+        chaves[livre] = 0;
+        tamanho--;
+        return true;
+    }
+
+    public int size() {
+        return tamanho;
+    }
+
+    public boolean isEmpty() {
+        return tamanho == 0;
+    }
+
+    public void clear() {
+        Arrays.fill(chaves, 0);
+        tamanho = 0;
+    }
+
+    public void forEach(LongConsumer consumidor) {
+        for (long chave : chaves) {
+            if (chave != 0) {
+                consumidor.accept(chave - 1);
+            }
+        }
+    }
+
+    public long[] toArray() {
+        long[] cpfs = new long[tamanho];
+        int i = 0;
+        for (long chave : chaves) {
+            if (chave != 0) {
+                cpfs[i++] = chave - 1;
+            }
+        }
+        return cpfs;
+    }
+
+    private int localizar(long cpf) {
+        if (cpf < 0 || cpf > Cpf.MAXIMO) {
+            return -1;
+        }
+        long chave = cpf + 1;
+        int posicao = indice(chave);
+        while (chaves[posicao] != 0) {
+            if (chaves[posicao] == chave) {
+                return posicao;
+            }
+            posicao = (posicao + 1) & mascara;
+        }
+        return -1;
+    }
+
+    private int indice(long chave) {
+        return (int) ((chave * 0x9E3779B97F4A7C15L) >>> deslocamento);
+    }
+
+    private void redimensionar() {
+        long[] antigas = chaves;
+        alocar(chaves.length << 1);
+        for (long chave : antigas) {
+            if (chave != 0) {
+                int posicao = indice(chave);
+                while (chaves[posicao] != 0) {
+                    posicao = (posicao + 1) & mascara;
+                }
+                chaves[posicao] = chave;
+            }
+        }
+    }
+
+    private void alocar(int capacidade) {
+        chaves = new long[capacidade];
+        mascara = capacidade - 1;
+        deslocamento = 64 - Integer.numberOfTrailingZeros(capacidade);
+        limite = (int) (capacidade * CARGA_MAXIMA);
+    }
+}
@@ -0,0 +1,46 @@
+package bc.com.helber.msavaliadorcredito.domain.cpf;
+
+/**
+ * Normalizacao do CPF para os 11 digitos empacotados num {@code long}, e de volta para texto.
+ * <p>
+ * Aceita pontuacao ({@code 123.456.789-09}) e zeros a esquerda omitidos; qualquer outro caractere
+ * ou mais de 11 digitos torna o valor invalido. Os digitos verificadores nao sao exigidos na
+ * normalizacao, ja que a base de clientes aceita CPFs sem essa checagem.
+ */
+public final class Cpf {
+
+    public static final long INVALIDO = -1;
+    static final long MAXIMO = 99_999_999_999L;
+
+    private Cpf() {
+    }
+
+    public static long empacotar(String cpf) {
+        if (cpf == null) {
+            return INVALIDO;
+        }
+        long valor = 0;
+        int digitos = 0;
+        for (int i = 0; i < cpf.length(); i++) {
+            char c = cpf.charAt(i);
+            if (c >= '0' && c <= '9') {
+                if (++digitos > 11) {
+                    return INVALIDO;
+                }
+                valor = valor * 10 + (c - '0');
+            } else if (c != '.' && c != '-' && c != ' ') {
+                return INVALIDO;
+            }
+        }
+        return digitos == 0 ? INVALIDO : valor;
+    }
+
+    public static String formatar(long valor) {
+        char[] digitos = new char[11];
+        for (int i = 10; i >= 0; i--) {
+            digitos[i] = (char) ('0' + valor % 10);
+            valor /= 10;
+        }
+        return new String(digitos);
+    }
+}
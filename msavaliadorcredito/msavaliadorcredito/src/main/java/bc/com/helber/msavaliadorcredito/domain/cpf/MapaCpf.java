@@ -0,0 +1,178 @@
+package bc.com.helber.msavaliadorcredito.domain.cpf;
+
+import java.util.Arrays;
+
+/**
+ * Mapa de CPF empacotado para valor com enderecamento aberto e sondagem linear.
+ * <p>
+ * Chaves e valores ficam em dois arrays paralelos, sem objeto de entrada nem {@code Long} por
+ * chave. A chave e gravada somada de 1 para que o zero marque posicao livre; a remocao desloca
+ * o cluster seguinte para tras, entao nao ha lapides. Nao e thread-safe.
+ */
+public class MapaCpf<V> {
+
+    private static final float CARGA_MAXIMA = 0.75f;
+
+    private long[] chaves;
+    private Object[] valores;
+    private int mascara;
+    private int deslocamento;
+    private int tamanho;
+    private int limite;
+
+    public MapaCpf() {
+        this(16);
+    }
+
+    public MapaCpf(int capacidadeEsperada) {
+        alocar(capacidadePara(capacidadeEsperada));
+    }
+
+    @SuppressWarnings("unchecked")
+    public V get(long cpf) {
+        int posicao = localizar(cpf);
+        return posicao < 0 ? null : (V) valores[posicao];
+    }
+
+    public boolean containsKey(long cpf) {
+        return localizar(cpf) >= 0;
+    }
+
+    @SuppressWarnings("unchecked")
+    public V put(long cpf, V valor) {
+        verificar(cpf);
+        long chave = cpf + 1;
+        int posicao = indice(chave);
+        while (chaves[posicao] != 0) {
+            if (chaves[posicao] == chave) {
+                V anterior = (V) valores[posicao];
+                valores[posicao] = valor;
+                return anterior;
+            }
+            posicao = (posicao + 1) & mascara;
+        }
+        chaves[posicao] = chave;
+        valores[posicao] = valor;
+        if (++tamanho > limite) {
+            redimensionar();
+        }
+        return null;
+    }
+
+    @SuppressWarnings("unchecked")
+    public V remove(long cpf) {
+        int posicao = localizar(cpf);
+        if (posicao < 0) {
+            return null;
+        }
+        V anterior = (V) valores[posicao];
+        removerPosicao(posicao);
+        return anterior;
+    }
+
+    public int size() {
+        return tamanho;
+    }
+
+    public boolean isEmpty() {
+        return tamanho == 0;
+    }
+
+    public void clear() {
+        Arrays.fill(chaves, 0);
+        Arrays.fill(valores, null);
+        tamanho = 0;
+    }
+
+    @SuppressWarnings("unchecked")
+    public void forEach(Consumidor<? super V> consumidor) {
+        for (int i = 0; i < chaves.length; i++) {
+            if (chaves[i] != 0) {
+                consumidor.aceitar(chaves[i] - 1, (V) valores[i]);
+            }
+        }
+    }
+
+    @FunctionalInterface
+    public interface Consumidor<V> {
+        void aceitar(long cpf, V valor);
+    }
+
+    private int localizar(long cpf) {
+        if (cpf < 0 || cpf > Cpf.MAXIMO) {
+            return -1;
+        }
+        long chave = cpf + 1;
+        int posicao = indice(chave);
+        while (chaves[posicao] != 0) {
+            if (chaves[posicao] == chave) {
+                return posicao;
+            }
+            posicao = (posicao + 1) & mascara;
+        }
+        return -1;
+    }
+
+    private void removerPosicao(int livre) {
+        int atual = livre;
+        while (true) {
+            atual = (atual + 1) & mascara;
+            long chave = chaves[atual];
+            if (chave == 0) {
+                break;
+            }
+            int ideal = indice(chave);
+            if (((atual - ideal) & mascara) >= ((atual - livre) & mascara)) {
+                chaves[livre] = chave;
+                valores[livre] = valores[atual];
+                livre = atual;
+            }
+        }
+        chaves[livre] = 0;
+        valores[livre] = null;
+        tamanho--;
+    }
+
+    private int indice(long chave) {
+        return (int) ((chave * 0x9E3779B97F4A7C15L) >>> deslocamento);
+    }
+
+    private void redimensionar() {
+        long[] chavesAntigas = chaves;
+        Object[] valoresAntigos = valores;
+        alocar(chaves.length << 1);
+        for (int i = 0; i < chavesAntigas.length; i++) {
+            long chave = chavesAntigas[i];
+            if (chave != 0) {
+                int posicao = indice(chave);
+                while (chaves[posicao] != 0) {
+                    posicao = (posicao + 1) & mascara;
+                }
+                chaves[posicao] = chave;
+                valores[posicao] = valoresAntigos[i];
+            }
+        }
+    }
+
+    private void alocar(int capacidade) {
+        chaves = new long[capacidade];
+        valores = new Object[capacidade];
+        mascara = capacidade - 1;
+        deslocamento = 64 - Integer.numberOfTrailingZeros(capacidade);
+        limite = (int) (capacidade * CARGA_MAXIMA);
+    }
+
+    static int capacidadePara(int esperado) {
+        long minimo = Math.max(16, (long) Math.ceil(esperado / (double) CARGA_MAXIMA) + 1);
+        if (minimo > (1 << 30)) {
+            throw new IllegalArgumentException("Capacidade excessiva: " + esperado);
+        }
+        return Integer.highestOneBit((int) (minimo - 1)) << 1;
+    }
+
+    static void verificar(long cpf) {
+        if (cpf < 0 || cpf > Cpf.MAXIMO) {
+            throw new IllegalArgumentException("CPF inválido: " + cpf);
+        }
+    }
+}
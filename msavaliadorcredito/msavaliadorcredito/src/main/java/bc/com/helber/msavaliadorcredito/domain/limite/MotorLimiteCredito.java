@@ -0,0 +1,55 @@
+package bc.com.helber.msavaliadorcredito.domain.limite;
+
+import bc.com.helber.msavaliadorcredito.domain.model.Cartao;
+import bc.com.helber.msavaliadorcredito.domain.model.CartaoAprovado;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Calcula o limite aprovado de cada cartao como {@code idade / 10 * limiteBasico}.
+ * <p>
+ * O fator e calculado uma vez por avaliacao como um decimal escalonado em {@code long}
+ * (idade / 10 com escala 0 ou 1) e multiplicado pelo valor nao escalonado de cada limite,
+ * pre-calculado na {@link TabelaLimites}. A conta e exata, portanto nao ha arredondamento,
+ * e o resultado tem o mesmo valor e a mesma escala da formula original com {@code BigDecimal}.
+ */
+public final class MotorLimiteCredito {
+
+    private MotorLimiteCredito() {
+    }
+
+    public static List<CartaoAprovado> aprovar(Integer idade, List<Cartao> cartoes) {
+        return aprovar(idade, TabelaLimites.de(cartoes));
+    }
+
+    public static List<CartaoAprovado> aprovar(Integer idade, TabelaLimites tabela) {
+        int tamanho = tabela.tamanho();
+        var aprovados = new ArrayList<CartaoAprovado>(tamanho);
+        if (tamanho == 0) {
+            return aprovados;
+        }
+
+        int anos = idade;
+        long fatorUnscaled;
+        int fatorEscala;
+        if (anos % 10 == 0) {
+            fatorUnscaled = anos / 10;
+            fatorEscala = 0;
+        } else {
+            fatorUnscaled = anos;
+            fatorEscala = 1;
+        }
+
+        List<Cartao> cartoes = tabela.getCartoes();
+        for (int i = 0; i < tamanho; i++) {
+            Cartao cartao = cartoes.get(i);
+            CartaoAprovado aprovado = new CartaoAprovado();
+            aprovado.setCartao(cartao.getNome());
+            aprovado.setBandeira(cartao.getBandeira());
+            aprovado.setLimiteAprovado(tabela.limiteAprovado(i, fatorUnscaled, fatorEscala));
+            aprovados.add(aprovado);
+        }
+        return aprovados;
+    }
+}
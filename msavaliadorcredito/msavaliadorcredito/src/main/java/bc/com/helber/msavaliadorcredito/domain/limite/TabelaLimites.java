@@ -0,0 +1,73 @@
+package bc.com.helber.msavaliadorcredito.domain.limite;
+
+import bc.com.helber.msavaliadorcredito.domain.model.Cartao;
+
+import java.math.BigDecimal;
+import java.util.Collections;
+import java.util.List;
+
+public final class TabelaLimites {
+
+    private final List<Cartao> cartoes;
+    private final BigDecimal[] limites;
+    private final long[] unscaled;
+    private final int[] escalas;
+    private final boolean[] compactos;
+
+    private TabelaLimites(List<Cartao> cartoes, BigDecimal[] limites, long[] unscaled, int[] escalas,
+                          boolean[] compactos) {
+        this.cartoes = cartoes;
+        this.limites = limites;
+        this.unscaled = unscaled;
+        this.escalas = escalas;
+        this.compactos = compactos;
+    }
+
+    public static TabelaLimites de(List<Cartao> cartoes) {
+        int tamanho = cartoes.size();
+        var limites = new BigDecimal[tamanho];
+        var unscaled = new long[tamanho];
+        var escalas = new int[tamanho];
+        var compactos = new boolean[tamanho];
+        for (int i = 0; i < tamanho; i++) {
+            BigDecimal limite = cartoes.get(i).getLimiteBasico();
+            limites[i] = limite;
+            if (limite != null && limite.unscaledValue().bitLength() < Long.SIZE) {
+                unscaled[i] = limite.unscaledValue().longValue();
+                escalas[i] = limite.scale();
+                compactos[i] = true;
+            }
+        }
+        return new TabelaLimites(Collections.unmodifiableList(cartoes), limites, unscaled, escalas, compactos);
+    }
+
+    public TabelaLimites prefixo(int tamanho) {
+        if (tamanho == cartoes.size()) {
+            return this;
+        }
+        return new TabelaLimites(cartoes.subList(0, tamanho), limites, unscaled, escalas, compactos);
+    }
+
+    public List<Cartao> getCartoes() {
+        return cartoes;
+    }
+
+    public int tamanho() {
+        return cartoes.size();
+    }
+
+    BigDecimal limiteAprovado(int indice, long fatorUnscaled, int fatorEscala) {
+        BigDecimal limite = limites[indice];
+        if (limite == null) {
+            throw new NullPointerException("limiteBasico");
+        }
+        if (compactos[indice]) {
+            long valor = unscaled[indice];
+            long produto = fatorUnscaled * valor;
+            if (Math.multiplyHigh(fatorUnscaled, valor) == (produto >> 63)) {
+                return BigDecimal.valueOf(produto, fatorEscala + escalas[indice]);
+            }
+        }
+        return BigDecimal.valueOf(fatorUnscaled, fatorEscala).multiply(limite);
+    }
+}
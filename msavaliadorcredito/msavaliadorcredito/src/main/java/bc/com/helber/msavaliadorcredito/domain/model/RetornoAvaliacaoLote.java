@@ -0,0 +1,17 @@
+package bc.com.helber.msavaliadorcredito.domain.model;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class RetornoAvaliacaoLote {
+    private String cpf;
+    private Integer status;
+    private List<CartaoAprovado> cartoes;
+    private String erro;
+}
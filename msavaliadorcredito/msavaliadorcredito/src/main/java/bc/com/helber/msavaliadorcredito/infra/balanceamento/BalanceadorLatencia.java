@@ -0,0 +1,104 @@
+package bc.com.helber.msavaliadorcredito.infra.balanceamento;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.DefaultResponse;
+import org.springframework.cloud.client.loadbalancer.EmptyResponse;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.RequestData;
+import org.springframework.cloud.client.loadbalancer.RequestDataContext;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.loadbalancer.core.NoopServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.core.ReactorServiceInstanceLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.stream.Collectors;
+
+/**
+ * Power-of-two-choices: sorteia duas instancias distintas e fica com a de menor custo segundo
+ * {@link EstatisticasInstancias}. Comparar so duas evita que todas as requisicoes corram para a
+ * mesma instancia "mais rapida" entre uma amostra e outra.
+ * <p>
+ * Tentativas de um mesmo pedido hedged chegam com o cabecalho {@link #CABECALHO_HEDGE}; a segunda
+ * tentativa nunca cai na instancia escolhida pela primeira enquanto houver outra disponivel.
+ */
+@Slf4j
+public class BalanceadorLatencia implements ReactorServiceInstanceLoadBalancer {
+
+    public static final String CABECALHO_HEDGE = "X-Hedge-Id";
+
+    private final ObjectProvider<ServiceInstanceListSupplier> fornecedorInstancias;
+    private final String servico;
+    private final EstatisticasInstancias estatisticas;
+
+    public BalanceadorLatencia(ObjectProvider<ServiceInstanceListSupplier> fornecedorInstancias,
+                               String servico,
+                               EstatisticasInstancias estatisticas) {
+        this.fornecedorInstancias = fornecedorInstancias;
+        this.servico = servico;
+        this.estatisticas = estatisticas;
+    }
+
+    @Override
+    public Mono<Response<ServiceInstance>> choose(Request request) {
+        ServiceInstanceListSupplier fornecedor = fornecedorInstancias
+                .getIfAvailable(NoopServiceInstanceListSupplier::new);
+        String hedgeId = hedgeId(request);
+        return fornecedor.get(request).next().map(instancias -> {
+            estatisticas.manter(servico, instancias);
+            return escolher(instancias, hedgeId);
+        });
+    }
+
+    Response<ServiceInstance> escolher(List<ServiceInstance> instancias, String hedgeId) {
+        if (hedgeId == null) {
+            return escolher(instancias);
+        }
+        String anterior = estatisticas.escolhaHedge(hedgeId);
+        List<ServiceInstance> candidatas = instancias;
+        if (anterior != null && instancias.size() > 1) {
+            candidatas = instancias.stream()
+                    .filter(instancia -> !anterior.equals(EstatisticasInstancias.chave(instancia)))
+                    .collect(Collectors.toList());
+            if (candidatas.isEmpty()) {
+                candidatas = instancias;
+            }
+        }
+        Response<ServiceInstance> resposta = escolher(candidatas);
+        if (resposta.hasServer()) {
+            estatisticas.registrarEscolhaHedge(hedgeId, resposta.getServer());
+        }
+        return resposta;
+    }
+
+    Response<ServiceInstance> escolher(List<ServiceInstance> instancias) {
+        if (instancias.isEmpty()) {
+            log.warn("Nenhuma instância disponível para o serviço {}", servico);
+            return new EmptyResponse();
+        }
+        if (instancias.size() == 1) {
+            return new DefaultResponse(instancias.get(0));
+        }
+        var random = ThreadLocalRandom.current();
+        int a = random.nextInt(instancias.size());
+        int b = random.nextInt(instancias.size() - 1);
+        if (b >= a) {
+            b++;
+        }
+        ServiceInstance primeira = instancias.get(a);
+        ServiceInstance segunda = instancias.get(b);
+        return new DefaultResponse(estatisticas.custo(primeira) <= estatisticas.custo(segunda) ? primeira : segunda);
+    }
+
+    private static String hedgeId(Request request) {
+        if (!(request.getContext() instanceof RequestDataContext)) {
+            return null;
+        }
+        RequestData dados = ((RequestDataContext) request.getContext()).getClientRequest();
+        return dados == null || dados.getHeaders() == null ? null : dados.getHeaders().getFirst(CABECALHO_HEDGE);
+    }
+}
@@ -0,0 +1,61 @@
+package bc.com.helber.msavaliadorcredito.infra.balanceamento;
+
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.CompletionContext;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerLifecycle;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.client.loadbalancer.TimedRequestContext;
+
+/**
+ * Alimenta {@link EstatisticasInstancias} com as requisicoes feitas pelos clientes balanceados
+ * (Feign e rotas {@code lb://} do gateway), que chamam os lifecycles registrados no contexto.
+ */
+public class EstatisticasBalanceamentoLifecycle implements LoadBalancerLifecycle<Object, Object, ServiceInstance> {
+
+    private final EstatisticasInstancias estatisticas;
+
+    public EstatisticasBalanceamentoLifecycle(EstatisticasInstancias estatisticas) {
+        this.estatisticas = estatisticas;
+    }
+
+    @Override
+    public boolean supports(Class requestContextClass, Class responseClass, Class serverTypeClass) {
+        return ServiceInstance.class.isAssignableFrom(serverTypeClass);
+    }
+
+    @Override
+    public void onStart(Request<Object> request) {
+    }
+
+    @Override
+    public void onStartRequest(Request<Object> request, Response<ServiceInstance> lbResponse) {
+        if (!lbResponse.hasServer()) {
+            return;
+        }
+        if (request.getContext() instanceof TimedRequestContext) {
+            var contexto = (TimedRequestContext) request.getContext();
+            if (contexto.getRequestStartTime() == 0) {
+                contexto.setRequestStartTime(System.nanoTime());
+            }
+        }
+        estatisticas.iniciar(lbResponse.getServer());
+    }
+
+    @Override
+    public void onComplete(CompletionContext<Object, ServiceInstance, Object> completionContext) {
+        Response<ServiceInstance> lbResponse = completionContext.getLoadBalancerResponse();
+        if (completionContext.status() == CompletionContext.Status.DISCARD
+                || lbResponse == null || !lbResponse.hasServer()) {
+            return;
+        }
+        long latencia = -1;
+        Object contexto = completionContext.getLoadBalancerRequest() == null
+                ? null : completionContext.getLoadBalancerRequest().getContext();
+        if (contexto instanceof TimedRequestContext && ((TimedRequestContext) contexto).getRequestStartTime() > 0) {
+            latencia = System.nanoTime() - ((TimedRequestContext) contexto).getRequestStartTime();
+        }
+        estatisticas.concluir(lbResponse.getServer(), latencia,
+                completionContext.status() == CompletionContext.Status.FAILED);
+    }
+}
@@ -0,0 +1,119 @@
+package bc.com.helber.msavaliadorcredito.infra.catalogo;
+
+import bc.com.helber.msavaliadorcredito.domain.limite.TabelaLimites;
+import bc.com.helber.msavaliadorcredito.domain.model.Cartao;
+import bc.com.helber.msavaliadorcredito.infra.clients.CartoesResourceClient;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Component
+@Slf4j
+public class CatalogoCartoes {
+
+    private final CartoesResourceClient cartoesClient;
+    private final boolean habilitado;
+
+    private final Counter consultasLocais;
+    private final Counter consultasRemotas;
+    private final Counter recargas;
+    private final Counter falhasRecarga;
+
+    private volatile Snapshot snapshot;
+
+    public CatalogoCartoes(CartoesResourceClient cartoesClient,
+                           MeterRegistry registry,
+                           @Value("${avaliador.catalogo-cartoes.enabled}") boolean habilitado) {
+        this.cartoesClient = cartoesClient;
+        this.habilitado = habilitado;
+        this.consultasLocais = Counter.builder("catalogo.cartoes.consultas").tag("origem", "local").register(registry);
+        this.consultasRemotas = Counter.builder("catalogo.cartoes.consultas").tag("origem", "remota").register(registry);
+        this.recargas = Counter.builder("catalogo.cartoes.recargas").tag("resultado", "sucesso").register(registry);
+        this.falhasRecarga = Counter.builder("catalogo.cartoes.recargas").tag("resultado", "falha").register(registry);
+        Gauge.builder("catalogo.cartoes.tamanho", this, CatalogoCartoes::tamanho).register(registry);
+    }
+
+    public List<Cartao> getCartoesRendaAteh(Long renda) {
+        return limitesRendaAteh(renda).getCartoes();
+    }
+
+    public TabelaLimites limitesRendaAteh(Long renda) {
+        Snapshot atual = snapshot;
+        if (atual == null) {
+            consultasRemotas.increment();
+            return TabelaLimites.de(cartoesClient.getCartoesRendaAteh(renda).getBody());
+        }
+        consultasLocais.increment();
+        return atual.rendaAteh(BigDecimal.valueOf(renda));
+    }
+
+    public Mono<TabelaLimites> limitesRendaAteh(Long renda, Function<Long, Mono<List<Cartao>>> consulta) {
+        Snapshot atual = snapshot;
+        if (atual == null) {
+            consultasRemotas.increment();
+            return consulta.apply(renda).map(TabelaLimites::de);
+        }
+        consultasLocais.increment();
+        return Mono.just(atual.rendaAteh(BigDecimal.valueOf(renda)));
+    }
+
+    @Scheduled(fixedDelayString = "${avaliador.catalogo-cartoes.recarga-ms}")
+    public void recarregar() {
+        if (!habilitado) {
+            return;
+        }
+        try {
+            List<Cartao> catalogo = cartoesClient.getCatalogo().getBody();
+            snapshot = new Snapshot(catalogo);
+            recargas.increment();
+        } catch (Exception e) {
+            falhasRecarga.increment();
+            log.warn("Não foi possível recarregar o catálogo de cartões: {}", e.getMessage());
+        }
+    }
+
+    private double tamanho() {
+        Snapshot atual = snapshot;
+        return atual == null ? 0 : atual.limites.tamanho();
+    }
+
+    static final class Snapshot {
+
+        private final BigDecimal[] rendas;
+        private final TabelaLimites limites;
+
+        Snapshot(List<Cartao> catalogo) {
+            List<Cartao> cartoes = catalogo.stream()
+                    .filter(c -> c.getRenda() != null)
+                    .sorted(Comparator.comparing(Cartao::getRenda))
+                    .collect(Collectors.toList());
+            this.rendas = cartoes.stream().map(Cartao::getRenda).toArray(BigDecimal[]::new);
+            this.limites = TabelaLimites.de(cartoes);
+        }
+
+        TabelaLimites rendaAteh(BigDecimal renda) {
+            int inicio = 0;
+            int fim = rendas.length;
+            while (inicio < fim) {
+                int meio = (inicio + fim) >>> 1;
+                if (rendas[meio].compareTo(renda) <= 0) {
+                    inicio = meio + 1;
+                } else {
+                    fim = meio;
+                }
+            }
+            return limites.prefixo(inicio);
+        }
+    }
+}
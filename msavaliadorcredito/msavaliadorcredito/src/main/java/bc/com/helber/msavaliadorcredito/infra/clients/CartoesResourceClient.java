@@ -17,4 +17,7 @@ public interface CartoesResourceClient {
 
     @GetMapping(params = "renda")
     ResponseEntity<List<Cartao>> getCartoesRendaAteh(@RequestParam("renda") Long renda);
+
+    @GetMapping("catalogo")
+    ResponseEntity<List<Cartao>> getCatalogo();
 }
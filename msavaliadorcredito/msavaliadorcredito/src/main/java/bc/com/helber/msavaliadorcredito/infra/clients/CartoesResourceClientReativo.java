@@ -0,0 +1,65 @@
+package bc.com.helber.msavaliadorcredito.infra.clients;
+
+import bc.com.helber.msavaliadorcredito.domain.model.Cartao;
+import bc.com.helber.msavaliadorcredito.domain.model.CartaoCliente;
+import bc.com.helber.msavaliadorcredito.infra.balanceamento.BalanceadorLatencia;
+import bc.com.helber.msavaliadorcredito.infra.resiliencia.ResilienciaReativa;
+import org.springframework.cloud.client.loadbalancer.LoadBalanced;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.util.UriBuilder;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Equivalente nao bloqueante de {@link CartoesResourceClient}.
+ */
+@Component
+@Profile("reativo")
+public class CartoesResourceClientReativo {
+
+    private static final String CLIENTE = "mscartoes";
+
+    private final WebClient webClient;
+    private final ResilienciaReativa resiliencia;
+
+    public CartoesResourceClientReativo(@LoadBalanced WebClient.Builder builder, ResilienciaReativa resiliencia) {
+        this.webClient = builder.baseUrl("http://" + CLIENTE + "/cartoes").build();
+        this.resiliencia = resiliencia;
+    }
+
+    public Mono<List<CartaoCliente>> getCartoesByCliente(String cpf) {
+        return resiliencia.executar(CLIENTE, "getCartoesByCliente",
+                consultar(uri -> uri.queryParam("cpf", cpf).build(),
+                        new ParameterizedTypeReference<List<CartaoCliente>>() {}));
+    }
+
+    public Mono<List<Cartao>> getCartoesRendaAteh(Long renda) {
+        return resiliencia.executar(CLIENTE, "getCartoesRendaAteh",
+                consultar(uri -> uri.queryParam("renda", renda).build(),
+                        new ParameterizedTypeReference<List<Cartao>>() {}));
+    }
+
+    public Mono<List<Cartao>> getCatalogo() {
+        return resiliencia.executar(CLIENTE, "getCatalogo",
+                consultar(uri -> uri.path("/catalogo").build(), new ParameterizedTypeReference<List<Cartao>>() {}));
+    }
+
+    private <T> Function<String, Mono<T>> consultar(Function<UriBuilder, URI> uri,
+                                                    ParameterizedTypeReference<T> tipo) {
+        return hedgeId -> webClient.get()
+                .uri(uri)
+                .headers(headers -> {
+                    if (hedgeId != null) {
+                        headers.set(BalanceadorLatencia.CABECALHO_HEDGE, hedgeId);
+                    }
+                })
+                .retrieve()
+                .bodyToMono(tipo);
+    }
+}
@@ -4,8 +4,12 @@ import bc.com.helber.msavaliadorcredito.domain.model.DadosCliente;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestParam;
 
+import java.util.List;
+
 @FeignClient(value = "msclientes", path = "/clientes")
 public interface ClienteResourceClient {
 
@@ -13,5 +17,7 @@ public interface ClienteResourceClient {
     @GetMapping(params = "cpf")
     ResponseEntity<DadosCliente> dadosCliente(@RequestParam("cpf") String cpf);
 
+    @PostMapping("lote")
+    ResponseEntity<List<DadosCliente>> dadosClientes(@RequestBody List<String> cpfs);
 
 }
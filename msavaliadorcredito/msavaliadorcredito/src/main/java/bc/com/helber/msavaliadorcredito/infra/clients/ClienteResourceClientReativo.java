@@ -0,0 +1,54 @@
+package bc.com.helber.msavaliadorcredito.infra.clients;
+
+import bc.com.helber.msavaliadorcredito.domain.model.DadosCliente;
+import bc.com.helber.msavaliadorcredito.infra.balanceamento.BalanceadorLatencia;
+import bc.com.helber.msavaliadorcredito.infra.resiliencia.ResilienciaReativa;
+import org.springframework.cloud.client.loadbalancer.LoadBalanced;
+import org.springframework.context.annotation.Profile;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * Equivalente nao bloqueante de {@link ClienteResourceClient}. Cliente inexistente (404) vira
+ * {@code Mono.empty()}.
+ */
+@Component
+@Profile("reativo")
+public class ClienteResourceClientReativo {
+
+    private static final String CLIENTE = "msclientes";
+
+    private final WebClient webClient;
+    private final ResilienciaReativa resiliencia;
+
+    public ClienteResourceClientReativo(@LoadBalanced WebClient.Builder builder, ResilienciaReativa resiliencia) {
+        this.webClient = builder.baseUrl("http://" + CLIENTE + "/clientes").build();
+        this.resiliencia = resiliencia;
+    }
+
+    public Mono<DadosCliente> dadosCliente(String cpf) {
+        return resiliencia.executar(CLIENTE, "dadosCliente", hedgeId -> webClient.get()
+                .uri(uri -> uri.queryParam("cpf", cpf).build())
+                .headers(headers -> {
+                    if (hedgeId != null) {
+                        headers.set(BalanceadorLatencia.CABECALHO_HEDGE, hedgeId);
+                    }
+                })
+                .retrieve()
+                .bodyToMono(DadosCliente.class)
+                .onErrorResume(WebClientResponseException.NotFound.class, e -> Mono.empty()));
+    }
+
+    public Mono<List<DadosCliente>> dadosClientes(List<String> cpfs) {
+        return resiliencia.executar(CLIENTE, "dadosClientes", hedgeId -> webClient.post()
+                .uri("/lote")
+                .bodyValue(cpfs)
+                .retrieve()
+                .bodyToMono(new ParameterizedTypeReference<List<DadosCliente>>() {}));
+    }
+}
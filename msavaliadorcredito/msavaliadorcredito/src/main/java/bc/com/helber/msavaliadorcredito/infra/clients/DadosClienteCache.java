@@ -0,0 +1,155 @@
+package bc.com.helber.msavaliadorcredito.infra.clients;
+
+import bc.com.helber.msavaliadorcredito.domain.cpf.CacheCpf;
+import bc.com.helber.msavaliadorcredito.domain.cpf.ConjuntoCpf;
+import bc.com.helber.msavaliadorcredito.domain.cpf.Cpf;
+import bc.com.helber.msavaliadorcredito.domain.cpf.MapaCpf;
+import bc.com.helber.msavaliadorcredito.domain.model.DadosCliente;
+import feign.FeignException;
+import feign.Request;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+@Component
+public class DadosClienteCache {
+
+    private final ClienteResourceClient clientesClient;
+    private final CacheCpf<DadosCliente> cache;
+    private final CacheCpf<Boolean> naoEncontrados;
+
+    public DadosClienteCache(ClienteResourceClient clientesClient,
+                             MeterRegistry registry,
+                             @Value("${avaliador.cache-clientes.tamanho-maximo}") long tamanhoMaximo,
+                             @Value("${avaliador.cache-clientes.ttl-ms}") long ttlMs,
+                             @Value("${avaliador.cache-clientes.nao-encontrados.tamanho-maximo}") long tamanhoMaximoNaoEncontrados,
+                             @Value("${avaliador.cache-clientes.nao-encontrados.ttl-ms}") long ttlNaoEncontradosMs) {
+        this.clientesClient = clientesClient;
+        this.cache = new CacheCpf<>(tamanhoMaximo, TimeUnit.MILLISECONDS.toNanos(ttlMs));
+        this.naoEncontrados = new CacheCpf<>(tamanhoMaximoNaoEncontrados,
+                TimeUnit.MILLISECONDS.toNanos(ttlNaoEncontradosMs));
+        monitorar(registry, cache, "dados-cliente");
+        monitorar(registry, naoEncontrados, "dados-cliente-nao-encontrado");
+    }
+
+    public DadosCliente dadosCliente(String cpf) {
+        long chave = Cpf.empacotar(cpf);
+        if (chave == Cpf.INVALIDO) {
+            return clientesClient.dadosCliente(cpf).getBody();
+        }
+        DadosCliente dadosCliente = cache.get(chave);
+        if (dadosCliente != null) {
+            return dadosCliente;
+        }
+        if (naoEncontrados.get(chave) != null) {
+            throw naoEncontrado(cpf);
+        }
+        try {
+            dadosCliente = clientesClient.dadosCliente(cpf).getBody();
+        } catch (FeignException.NotFound e) {
+            naoEncontrados.put(chave, Boolean.TRUE);
+            throw e;
+        }
+        if (dadosCliente != null) {
+            cache.put(chave, dadosCliente);
+        }
+        return dadosCliente;
+    }
+
+    /**
+     * Versao nao bloqueante de {@link #dadosCliente(String)}: {@code consulta} devolve vazio quando o
+     * cliente nao existe, e o resultado segue a mesma convencao.
+     */
+    public Mono<DadosCliente> dadosCliente(String cpf, Function<String, Mono<DadosCliente>> consulta) {
+        long chave = Cpf.empacotar(cpf);
+        if (chave == Cpf.INVALIDO) {
+            return consulta.apply(cpf);
+        }
+        DadosCliente dadosCliente = cache.get(chave);
+        if (dadosCliente != null) {
+            return Mono.just(dadosCliente);
+        }
+        if (naoEncontrados.get(chave) != null) {
+            return Mono.empty();
+        }
+        return consulta.apply(cpf)
+                .doOnNext(encontrado -> cache.put(chave, encontrado))
+                .switchIfEmpty(Mono.fromRunnable(() -> naoEncontrados.put(chave, Boolean.TRUE)));
+    }
+
+    /**
+     * Consulta em lote: o que nao estiver em cache vai ao msclientes numa unica chamada. O resultado e
+     * indexado pelo CPF empacotado, mas ao msclientes vao os CPFs como o chamador os escreveu, ja que
+     * la a busca compara o texto. CPFs mal formados ficam de fora do resultado.
+     */
+    public MapaCpf<DadosCliente> dadosClientes(Collection<String> cpfs) {
+        MapaCpf<DadosCliente> encontrados = new MapaCpf<>(cpfs.size());
+        ConjuntoCpf ausentes = new ConjuntoCpf(cpfs.size());
+        Set<String> consulta = new LinkedHashSet<>();
+        for (String cpf : cpfs) {
+            long chave = Cpf.empacotar(cpf);
+            if (chave == Cpf.INVALIDO || encontrados.containsKey(chave)) {
+                continue;
+            }
+            if (ausentes.contains(chave)) {
+                consulta.add(cpf);
+                continue;
+            }
+            DadosCliente dadosCliente = cache.get(chave);
+            if (dadosCliente != null) {
+                encontrados.put(chave, dadosCliente);
+            } else if (naoEncontrados.get(chave) == null) {
+                ausentes.add(chave);
+                consulta.add(cpf);
+            }
+        }
+        if (!consulta.isEmpty()) {
+            for (DadosCliente dadosCliente : clientesClient.dadosClientes(new ArrayList<>(consulta)).getBody()) {
+                long chave = Cpf.empacotar(dadosCliente.getCpf());
+                if (ausentes.remove(chave)) {
+                    cache.put(chave, dadosCliente);
+                    encontrados.put(chave, dadosCliente);
+                }
+            }
+            ausentes.forEach(cpf -> naoEncontrados.put(cpf, Boolean.TRUE));
+        }
+        return encontrados;
+    }
+
+    public void invalidar(String cpf) {
+        long chave = Cpf.empacotar(cpf);
+        if (chave != Cpf.INVALIDO) {
+            cache.invalidate(chave);
+            naoEncontrados.invalidate(chave);
+        }
+    }
+
+    /** Mesmos nomes de metrica que o {@code CaffeineCacheMetrics} registrava para estes caches. */
+    private static void monitorar(MeterRegistry registry, CacheCpf<?> cache, String nome) {
+        Gauge.builder("cache.size", cache, CacheCpf::size).tag("cache", nome).register(registry);
+        FunctionCounter.builder("cache.gets", cache, CacheCpf::getAcertos)
+                .tags("cache", nome, "result", "hit").register(registry);
+        FunctionCounter.builder("cache.gets", cache, CacheCpf::getFaltas)
+                .tags("cache", nome, "result", "miss").register(registry);
+        FunctionCounter.builder("cache.evictions", cache, CacheCpf::getDespejos).tag("cache", nome)
+                .register(registry);
+    }
+
+    private static FeignException naoEncontrado(String cpf) {
+        var request = Request.create(Request.HttpMethod.GET, "/clientes?cpf=" + cpf, Map.of(), null,
+                StandardCharsets.UTF_8, null);
+        return new FeignException.NotFound("Cliente não encontrado (cache negativo)", request, null, Map.of());
+    }
+}
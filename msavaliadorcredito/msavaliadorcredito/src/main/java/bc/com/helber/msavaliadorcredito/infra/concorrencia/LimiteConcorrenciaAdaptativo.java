@@ -0,0 +1,176 @@
+package bc.com.helber.msavaliadorcredito.infra.concorrencia;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+/**
+ * Limite de requisicoes simultaneas ajustado pela latencia medida, no estilo gradiente. As amostras se
+ * acumulam em janelas de pelo menos {@code janelaMs} e {@code amostrasMinimas}; ao fechar cada janela a
+ * latencia media dela e comparada com uma media longa (a latencia "sem fila", sobre {@code janelasLongas}
+ * janelas) e o limite encolhe quando a media da janela passa da longa vezes {@code tolerancia}. Com
+ * latencia estavel o limite cresce em direcao a {@code limite + sqrt(limite)}, mas so quando houve carga
+ * para usa-lo (pico de em voo acima da metade do limite).
+ * <p>
+ * Uma lentidao que dura muitas janelas acaba virando a nova media longa e o limite volta a crescer; o
+ * corte vale para o inicio da degradacao, quando a fila ainda pode ser evitada. Janela com descarte
+ * (erro do servidor ou timeout) recua o limite em {@link #RECUO}, como no Vegas.
+ */
+public class LimiteConcorrenciaAdaptativo {
+
+    static final double RECUO = 0.9;
+
+    private final int limiteMinimo;
+    private final int limiteMaximo;
+    private final long janelaNanos;
+    private final int amostrasMinimas;
+    private final double alfaLongo;
+    private final double tolerancia;
+    private final double suavizacao;
+    private final LongSupplier relogio;
+    private final AtomicInteger emVoo = new AtomicInteger();
+
+    private volatile double limite;
+    private double rttLongo;
+    private long inicioJanela;
+    private long somaRtt;
+    private int amostras;
+    private int picoEmVoo;
+    private boolean descarte;
+
+    public LimiteConcorrenciaAdaptativo(int limiteInicial, int limiteMinimo, int limiteMaximo, long janelaMs,
+                                       int amostrasMinimas, int janelasLongas, double tolerancia,
+                                       double suavizacao) {
+        this(limiteInicial, limiteMinimo, limiteMaximo, janelaMs, amostrasMinimas, janelasLongas, tolerancia,
+                suavizacao, System::nanoTime);
+    }
+
+    LimiteConcorrenciaAdaptativo(int limiteInicial, int limiteMinimo, int limiteMaximo, long janelaMs,
+                                 int amostrasMinimas, int janelasLongas, double tolerancia, double suavizacao,
+                                 LongSupplier relogio) {
+        if (limiteMinimo <= 0 || limiteMaximo < limiteMinimo || amostrasMinimas <= 0 || janelasLongas <= 0) {
+            throw new IllegalArgumentException("limites e janelas devem ser positivos");
+        }
+        this.limiteMinimo = limiteMinimo;
+        this.limiteMaximo = limiteMaximo;
+        this.janelaNanos = TimeUnit.MILLISECONDS.toNanos(janelaMs);
+        this.amostrasMinimas = amostrasMinimas;
+        this.alfaLongo = 2.0 / (janelasLongas + 1);
+        this.tolerancia = tolerancia;
+        this.suavizacao = suavizacao;
+        this.relogio = relogio;
+        this.limite = Math.min(Math.max(limiteInicial, limiteMinimo), limiteMaximo);
+        this.inicioJanela = relogio.getAsLong();
+    }
+
+    /**
+     * Reserva uma vaga se houver menos de {@code parcela * limite} em voo; prioridades menores recebem
+     * parcelas menores e sao recusadas antes quando o limite encolhe. Devolve {@code null} se nao houver.
+     */
+    public Permissao adquirir(double parcela) {
+        int teto = Math.max(1, (int) (limite * parcela));
+        int atual;
+        do {
+            atual = emVoo.get();
+            if (atual >= teto) {
+                return null;
+            }
+        } while (!emVoo.compareAndSet(atual, atual + 1));
+        return new Permissao(relogio.getAsLong(), atual + 1);
+    }
+
+    public int limite() {
+        return (int) limite;
+    }
+
+    public int emVoo() {
+        return emVoo.get();
+    }
+
+    private synchronized void registrar(long agora, long rttNanos, int emVooNoInicio, boolean descartada) {
+        picoEmVoo = Math.max(picoEmVoo, emVooNoInicio);
+        if (descartada) {
+            descarte = true;
+        } else {
+            somaRtt += rttNanos;
+            amostras++;
+        }
+        if (agora - inicioJanela >= janelaNanos && (amostras >= amostrasMinimas || descarte)) {
+            fecharJanela(agora);
+        }
+    }
+
+    private void fecharJanela(long agora) {
+        double atual = limite;
+        if (descarte) {
+            ajustar(atual * RECUO);
+        } else {
+            double rttJanela = (double) somaRtt / amostras;
+            if (rttLongo == 0) {
+                rttLongo = rttJanela;
+            } else {
+                rttLongo += alfaLongo * (rttJanela - rttLongo);
+                // depois de uma lentidao a media longa demora a descer; sem isso a proxima so seria percebida
+                // quando passasse da media antiga
+                if (rttLongo > 2 * rttJanela) {
+                    rttLongo *= 0.95;
+                }
+            }
+            double gradiente = Math.max(0.5, Math.min(1.0, tolerancia * rttLongo / Math.max(rttJanela, 1)));
+            double novo = atual * gradiente + Math.sqrt(atual);
+            if (novo < atual || picoEmVoo * 2 >= atual) {
+                ajustar(atual * (1 - suavizacao) + novo * suavizacao);
+            }
+        }
+        inicioJanela = agora;
+        somaRtt = 0;
+        amostras = 0;
+        picoEmVoo = 0;
+        descarte = false;
+    }
+
+    private void ajustar(double novo) {
+        limite = Math.min(Math.max(novo, limiteMinimo), limiteMaximo);
+    }
+
+    public final class Permissao {
+
+        private final long inicio;
+        private final int emVooNoInicio;
+        private boolean liberada;
+
+        private Permissao(long inicio, int emVooNoInicio) {
+            this.inicio = inicio;
+            this.emVooNoInicio = emVooNoInicio;
+        }
+
+        /** Resposta normal: a latencia entra na janela. */
+        public void sucesso() {
+            if (liberar()) {
+                long agora = relogio.getAsLong();
+                registrar(agora, agora - inicio, emVooNoInicio, false);
+            }
+        }
+
+        /** Erro do servidor ou timeout: a janela recua o limite em vez de usar a latencia. */
+        public void descartada() {
+            if (liberar()) {
+                registrar(relogio.getAsLong(), 0, emVooNoInicio, true);
+            }
+        }
+
+        /** Libera a vaga sem amostra, para requisicoes cuja duracao nao reflete a saude dos servicos. */
+        public void ignorar() {
+            liberar();
+        }
+
+        private synchronized boolean liberar() {
+            if (liberada) {
+                return false;
+            }
+            liberada = true;
+            emVoo.decrementAndGet();
+            return true;
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package bc.com.helber.msavaliadorcredito.infra.concorrencia;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import javax.servlet.AsyncEvent;
+import javax.servlet.AsyncListener;
+import javax.servlet.FilterChain;
+import javax.servlet.ServletException;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * Poe o {@link LimiteConcorrenciaAdaptativo} na frente dos endpoints de avaliacao: acima do limite a
+ * requisicao volta 503 na hora, em vez de esperar thread do Tomcat. Cada endpoint tem uma
+ * {@link Prioridade}; a consulta de situacao e a primeira a ser recusada e a solicitacao de cartao, que
+ * ja passou pela avaliacao, a ultima.
+ * <p>
+ * O lote responde em streaming (async) e dura proporcionalmente ao tamanho; ocupa vaga ate terminar, mas
+ * nao entra nas medias de latencia.
+ */
+public class LimiteConcorrenciaFilter extends OncePerRequestFilter {
+
+    public enum Prioridade { BAIXA, NORMAL, ALTA }
+
+    private final LimiteConcorrenciaAdaptativo limite;
+    private final Map<Prioridade, Double> parcelas;
+    private final Map<Prioridade, Counter> rejeitadas;
+
+    public LimiteConcorrenciaFilter(LimiteConcorrenciaAdaptativo limite, Map<Prioridade, Double> parcelas,
+                                    MeterRegistry registry) {
+        this.limite = limite;
+        this.parcelas = new EnumMap<>(parcelas);
+        this.rejeitadas = monitorar(limite, this.parcelas, registry);
+    }
+
+    /**
+     * Valida as parcelas e registra os contadores de rejeicao e os gauges do limite; comum a este filtro e ao
+     * {@link LimiteConcorrenciaWebFilter}.
+     */
+    static Map<Prioridade, Counter> monitorar(LimiteConcorrenciaAdaptativo limite, Map<Prioridade, Double> parcelas,
+                                              MeterRegistry registry) {
+        Map<Prioridade, Counter> rejeitadas = new EnumMap<>(Prioridade.class);
+        for (Prioridade prioridade : Prioridade.values()) {
+            if (!parcelas.containsKey(prioridade)) {
+                throw new IllegalArgumentException("parcela ausente para a prioridade " + prioridade);
+            }
+            rejeitadas.put(prioridade, Counter.builder("avaliador.concorrencia.rejeitadas")
+                    .tag("prioridade", prioridade.name().toLowerCase())
+                    .register(registry));
+        }
+        registry.gauge("avaliador.concorrencia.limite", Tags.empty(), limite, LimiteConcorrenciaAdaptativo::limite);
+        registry.gauge("avaliador.concorrencia.em-voo", Tags.empty(), limite, LimiteConcorrenciaAdaptativo::emVoo);
+        return rejeitadas;
+    }
+
+    static String caminho(HttpServletRequest request) {
+        return request.getRequestURI().substring(request.getContextPath().length());
+    }
+
+    /** Devolve {@code null} para o que nao passa pelo limite (o GET de status). */
+    static Prioridade prioridade(String caminho, String metodo) {
+        if (caminho.endsWith("/")) {
+            caminho = caminho.substring(0, caminho.length() - 1);
+        }
+        boolean post = HttpMethod.POST.matches(metodo);
+        if (caminho.equals("/avaliacoes-credito/solicitacoes-cartao") && post) {
+            return Prioridade.ALTA;
+        }
+        if ((caminho.equals("/avaliacoes-credito") || caminho.equals("/avaliacoes-credito/lote")) && post) {
+            return Prioridade.NORMAL;
+        }
+        if (caminho.equals("/avaliacoes-credito/situacao-cliente")) {
+            return Prioridade.BAIXA;
+        }
+        return null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        String caminho = caminho(request);
+        Prioridade prioridade = prioridade(caminho, request.getMethod());
+        if (prioridade == null) {
+            chain.doFilter(request, response);
+            return;
+        }
+        LimiteConcorrenciaAdaptativo.Permissao permissao = limite.adquirir(parcelas.get(prioridade));
+        if (permissao == null) {
+            rejeitadas.get(prioridade).increment();
+            response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+            response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+            return;
+        }
+
+        boolean lote = lote(caminho);
+        try {
+            chain.doFilter(request, response);
+        } catch (IOException | ServletException | RuntimeException e) {
+            permissao.descartada();
+            throw e;
+        }
+        if (request.isAsyncStarted()) {
+            request.getAsyncContext().addListener(new Liberacao(permissao, lote));
+        } else {
+            liberar(permissao, response.getStatus(), lote);
+        }
+    }
+
+    static boolean lote(String caminho) {
+        return caminho.endsWith("/lote") || caminho.endsWith("/lote/");
+    }
+
+    static void liberar(LimiteConcorrenciaAdaptativo.Permissao permissao, int status, boolean lote) {
+        if (status >= 500) {
+            permissao.descartada();
+        } else if (lote) {
+            permissao.ignorar();
+        } else {
+            permissao.sucesso();
+        }
+    }
+
+    private static final class Liberacao implements AsyncListener {
+
+        private final LimiteConcorrenciaAdaptativo.Permissao permissao;
+        private final boolean lote;
+
+        Liberacao(LimiteConcorrenciaAdaptativo.Permissao permissao, boolean lote) {
+            this.permissao = permissao;
+            this.lote = lote;
+        }
+
+        @Override
+        public void onComplete(AsyncEvent event) {
+            liberar(permissao, ((HttpServletResponse) event.getSuppliedResponse()).getStatus(), lote);
+        }
+
+        @Override
+        public void onTimeout(AsyncEvent event) {
+            permissao.descartada();
+        }
+
+        @Override
+        public void onError(AsyncEvent event) {
+            permissao.descartada();
+        }
+
+        @Override
+        public void onStartAsync(AsyncEvent event) {
+            event.getAsyncContext().addListener(this);
+        }
+    }
+}
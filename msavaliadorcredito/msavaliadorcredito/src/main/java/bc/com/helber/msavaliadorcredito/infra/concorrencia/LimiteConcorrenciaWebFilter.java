@@ -0,0 +1,70 @@
+package bc.com.helber.msavaliadorcredito.infra.concorrencia;
+
+import bc.com.helber.msavaliadorcredito.infra.concorrencia.LimiteConcorrenciaFilter.Prioridade;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+/**
+ * O {@link LimiteConcorrenciaFilter} no modo reativo: mesmo limite, mesmas prioridades e parcelas. A vaga
+ * fica ocupada ate a resposta terminar de ser escrita, o que no lote em NDJSON e o fim do streaming; erro
+ * ou cancelamento descartam a amostra, como o erro e o timeout assincronos do servlet.
+ */
+public class LimiteConcorrenciaWebFilter implements WebFilter, Ordered {
+
+    private final LimiteConcorrenciaAdaptativo limite;
+    private final Map<Prioridade, Double> parcelas;
+    private final Map<Prioridade, Counter> rejeitadas;
+
+    public LimiteConcorrenciaWebFilter(LimiteConcorrenciaAdaptativo limite, Map<Prioridade, Double> parcelas,
+                                       MeterRegistry registry) {
+        this.limite = limite;
+        this.parcelas = new EnumMap<>(parcelas);
+        this.rejeitadas = LimiteConcorrenciaFilter.monitorar(limite, this.parcelas, registry);
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE + 10;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        String caminho = request.getPath().pathWithinApplication().value();
+        Prioridade prioridade = LimiteConcorrenciaFilter.prioridade(caminho, request.getMethodValue());
+        if (prioridade == null) {
+            return chain.filter(exchange);
+        }
+        LimiteConcorrenciaAdaptativo.Permissao permissao = limite.adquirir(parcelas.get(prioridade));
+        ServerHttpResponse response = exchange.getResponse();
+        if (permissao == null) {
+            rejeitadas.get(prioridade).increment();
+            response.setStatusCode(HttpStatus.SERVICE_UNAVAILABLE);
+            response.getHeaders().set(HttpHeaders.RETRY_AFTER, "1");
+            return response.setComplete();
+        }
+
+        boolean lote = LimiteConcorrenciaFilter.lote(caminho);
+        return chain.filter(exchange).doFinally(sinal -> {
+            if (sinal == SignalType.ON_COMPLETE) {
+                Integer status = response.getRawStatusCode();
+                LimiteConcorrenciaFilter.liberar(permissao, status != null ? status : HttpStatus.OK.value(), lote);
+            } else {
+                permissao.descartada();
+            }
+        });
+    }
+}
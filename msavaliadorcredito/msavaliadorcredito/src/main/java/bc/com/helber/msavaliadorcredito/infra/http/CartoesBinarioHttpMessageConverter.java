@@ -0,0 +1,121 @@
+package bc.com.helber.msavaliadorcredito.infra.http;
+
+import bc.com.helber.msavaliadorcredito.domain.model.Cartao;
+import bc.com.helber.msavaliadorcredito.domain.model.CartaoCliente;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractGenericHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Leitura da representacao binaria que o mscartoes devolve para {@value #TIPO} nas listas de cartoes
+ * (ver {@code CartoesBinarioHttpMessageConverter} do mscartoes para o formato). A bandeira chega pelo
+ * nome, como no JSON, entao bandeiras novas no mscartoes nao exigem mudanca aqui.
+ */
+public class CartoesBinarioHttpMessageConverter extends AbstractGenericHttpMessageConverter<List<?>> {
+
+    public static final String TIPO = "application/x-cartoes";
+    public static final MediaType MEDIA_TYPE = MediaType.parseMediaType(TIPO);
+
+    static final byte VERSAO = 2;
+    static final long NULO = Long.MIN_VALUE;
+
+    public CartoesBinarioHttpMessageConverter() {
+        super(MEDIA_TYPE);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return List.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    public boolean canRead(Type type, Class<?> contextClass, MediaType mediaType) {
+        Class<?> elemento = elemento(type);
+        return (elemento == Cartao.class || elemento == CartaoCliente.class) && canRead(mediaType);
+    }
+
+    @Override
+    public boolean canWrite(Type type, Class<?> clazz, MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    public List<?> read(Type type, Class<?> contextClass, HttpInputMessage inputMessage) throws IOException {
+        var in = new DataInputStream(new BufferedInputStream(inputMessage.getBody()));
+        byte versao = in.readByte();
+        if (versao != VERSAO) {
+            throw new HttpMessageNotReadableException("Versao " + versao + " de " + TIPO + " nao suportada",
+                    inputMessage);
+        }
+        int escala = in.readByte();
+        int quantidade = in.readInt();
+        boolean cartoes = elemento(type) == Cartao.class;
+        var lista = new ArrayList<>(quantidade);
+        for (int i = 0; i < quantidade; i++) {
+            if (cartoes) {
+                var cartao = new Cartao();
+                long id = in.readLong();
+                cartao.setId(id == NULO ? null : id);
+                cartao.setNome(lerTexto(in));
+                cartao.setBandeira(lerTexto(in));
+                cartao.setRenda(valor(in.readLong(), escala));
+                cartao.setLimiteBasico(valor(in.readLong(), escala));
+                lista.add(cartao);
+            } else {
+                var cartao = new CartaoCliente();
+                cartao.setNome(lerTexto(in));
+                cartao.setBandeira(lerTexto(in));
+                cartao.setLimiteLiberado(valor(in.readLong(), escala));
+                lista.add(cartao);
+            }
+        }
+        return lista;
+    }
+
+    @Override
+    protected List<?> readInternal(Class<? extends List<?>> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Tipo do elemento necessario para ler " + TIPO, inputMessage);
+    }
+
+    @Override
+    protected void writeInternal(List<?> lista, Type type, HttpOutputMessage outputMessage) {
+        throw new HttpMessageNotWritableException("Escrita de " + TIPO + " nao suportada");
+    }
+
+    private static Class<?> elemento(Type type) {
+        if (type instanceof ParameterizedType) {
+            Type argumento = ((ParameterizedType) type).getActualTypeArguments()[0];
+            if (argumento instanceof Class) {
+                return (Class<?>) argumento;
+            }
+        }
+        return null;
+    }
+
+    private static String lerTexto(DataInputStream in) throws IOException {
+        short tamanho = in.readShort();
+        if (tamanho < 0) {
+            return null;
+        }
+        byte[] bytes = new byte[tamanho];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static BigDecimal valor(long escalonado, int escala) {
+        return escalonado == NULO ? null : BigDecimal.valueOf(escalonado, escala);
+    }
+}
@@ -0,0 +1,32 @@
+package bc.com.helber.msavaliadorcredito.infra.http;
+
+import feign.RequestInterceptor;
+import feign.RequestTemplate;
+import org.springframework.http.HttpHeaders;
+
+import java.util.Set;
+
+/**
+ * Pede resposta comprimida so aos metodos configurados ({@code cliente.metodo}), que devolvem listas
+ * grandes; nas respostas pequenas o custo de comprimir nao compensa.
+ */
+public class CompressaoRespostaInterceptor implements RequestInterceptor {
+
+    private final Set<String> metodos;
+
+    public CompressaoRespostaInterceptor(Set<String> metodos) {
+        this.metodos = metodos;
+    }
+
+    @Override
+    public void apply(RequestTemplate template) {
+        if (template.feignTarget() == null || template.methodMetadata() == null
+                || template.methodMetadata().method() == null) {
+            return;
+        }
+        String chave = template.feignTarget().name() + "." + template.methodMetadata().method().getName();
+        if (metodos.contains(chave)) {
+            template.header(HttpHeaders.ACCEPT_ENCODING, "gzip");
+        }
+    }
+}
@@ -0,0 +1,37 @@
+package bc.com.helber.msavaliadorcredito.infra.http;
+
+import feign.RequestInterceptor;
+import feign.RequestTemplate;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+
+import java.util.Set;
+
+/**
+ * Pede a representacao binaria aos metodos configurados ({@code cliente.metodo}), aceitando JSON como
+ * alternativa para instancias do mscartoes que ainda nao a conhecem; o decoder do Feign escolhe o
+ * conversor pelo Content-Type da resposta.
+ */
+public class FormatoBinarioInterceptor implements RequestInterceptor {
+
+    private static final String JSON_ALTERNATIVO = MediaType.APPLICATION_JSON_VALUE + ";q=0.9";
+
+    private final Set<String> metodos;
+
+    public FormatoBinarioInterceptor(Set<String> metodos) {
+        this.metodos = metodos;
+    }
+
+    @Override
+    public void apply(RequestTemplate template) {
+        if (template.feignTarget() == null || template.methodMetadata() == null
+                || template.methodMetadata().method() == null) {
+            return;
+        }
+        String chave = template.feignTarget().name() + "." + template.methodMetadata().method().getName();
+        if (metodos.contains(chave)) {
+            template.removeHeader(HttpHeaders.ACCEPT);
+            template.header(HttpHeaders.ACCEPT, CartoesBinarioHttpMessageConverter.TIPO, JSON_ALTERNATIVO);
+        }
+    }
+}
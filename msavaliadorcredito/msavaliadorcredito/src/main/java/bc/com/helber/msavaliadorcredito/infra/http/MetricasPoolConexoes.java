@@ -0,0 +1,43 @@
+package bc.com.helber.msavaliadorcredito.infra.http;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.MultiGauge;
+import io.micrometer.core.instrument.Tags;
+import org.apache.http.conn.routing.HttpRoute;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.pool.PoolStats;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Conexoes do pool por destino ({@code host:porta} de cada instancia) e estado: em uso, aguardando
+ * conexao e ociosas. As instancias sobem em porta aleatoria, entao as rotas sao relidas periodicamente
+ * e as que sairam do pool deixam de ser publicadas.
+ */
+public class MetricasPoolConexoes {
+
+    private final PoolingHttpClientConnectionManager conexoes;
+    private final MultiGauge porAlvo;
+
+    public MetricasPoolConexoes(PoolingHttpClientConnectionManager conexoes, MeterRegistry registry) {
+        this.conexoes = conexoes;
+        this.porAlvo = MultiGauge.builder("avaliador.feign.pool.conexoes")
+                .description("Conexoes HTTP dos clientes Feign por destino e estado")
+                .register(registry);
+    }
+
+    @Scheduled(fixedDelayString = "${avaliador.http.metricas-ms}")
+    public void atualizar() {
+        List<MultiGauge.Row<?>> linhas = new ArrayList<>();
+        for (HttpRoute rota : conexoes.getRoutes()) {
+            PoolStats stats = conexoes.getStats(rota);
+            String alvo = rota.getTargetHost().toHostString();
+            linhas.add(MultiGauge.Row.of(Tags.of("alvo", alvo, "estado", "leased"), stats.getLeased()));
+            linhas.add(MultiGauge.Row.of(Tags.of("alvo", alvo, "estado", "pending"), stats.getPending()));
+            linhas.add(MultiGauge.Row.of(Tags.of("alvo", alvo, "estado", "idle"), stats.getAvailable()));
+        }
+        porAlvo.register(linhas, true);
+    }
+}
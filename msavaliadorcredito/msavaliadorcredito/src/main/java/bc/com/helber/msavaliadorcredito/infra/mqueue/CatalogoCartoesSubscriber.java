@@ -0,0 +1,22 @@
+package bc.com.helber.msavaliadorcredito.infra.mqueue;
+
+import bc.com.helber.msavaliadorcredito.infra.catalogo.CatalogoCartoes;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.messaging.handler.annotation.Payload;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CatalogoCartoesSubscriber {
+
+    private final CatalogoCartoes catalogoCartoes;
+
+    @RabbitListener(queues = "#{queueCatalogoCartoes.name}")
+    public void receberAlteracaoCatalogo(@Payload String payload) {
+        log.info("Catálogo de cartões alterado (cartão {}), recarregando", payload);
+        catalogoCartoes.recarregar();
+    }
+}
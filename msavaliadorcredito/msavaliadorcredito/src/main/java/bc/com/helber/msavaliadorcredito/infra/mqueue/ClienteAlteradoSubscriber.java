@@ -0,0 +1,19 @@
+package bc.com.helber.msavaliadorcredito.infra.mqueue;
+
+import bc.com.helber.msavaliadorcredito.infra.clients.DadosClienteCache;
+import lombok.RequiredArgsConstructor;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.messaging.handler.annotation.Payload;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+public class ClienteAlteradoSubscriber {
+
+    private final DadosClienteCache dadosClienteCache;
+
+    @RabbitListener(queues = "#{queueClientesAlterados.name}")
+    public void receberClienteAlterado(@Payload String cpf) {
+        dadosClienteCache.invalidar(cpf);
+    }
+}
@@ -0,0 +1,115 @@
+package bc.com.helber.msavaliadorcredito.infra.mqueue;
+
+import bc.com.helber.msavaliadorcredito.infra.mqueue.journal.JournalEmissaoCartao;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.AmqpException;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.concurrent.ListenableFuture;
+
+import javax.annotation.PostConstruct;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Reenvia ao broker as solicitacoes desviadas para o journal.
+ * <p>
+ * Roda no seu proprio executor, ja que espera confirmacoes do broker e nao pode segurar o scheduler
+ * padrao (de uma thread so) usado pelas outras tarefas {@code @Scheduled}. Cada lote e publicado de
+ * uma vez e as confirmacoes sao aguardadas juntas; so o prefixo confirmado sai do journal. Cada
+ * execucao drena no maximo {@code maximoPorExecucao} registros.
+ */
+@Component
+@Slf4j
+public class DrenagemJournalEmissaoCartao {
+
+    private final JournalEmissaoCartao journal;
+    private final SolicitacaoEmissaoCartaoPublisher publisher;
+    private final ScheduledExecutorService executor;
+    private final long intervaloMs;
+    private final long esperaConfirmacaoMs;
+    private final int tamanhoLote;
+    private final int maximoPorExecucao;
+
+    public DrenagemJournalEmissaoCartao(JournalEmissaoCartao journal,
+                                        SolicitacaoEmissaoCartaoPublisher publisher,
+                                        @Qualifier("drenagemJournalExecutor") ScheduledExecutorService executor,
+                                        @Value("${mq.journal.drenagem-ms}") long intervaloMs,
+                                        @Value("${mq.journal.espera-confirmacao-ms}") long esperaConfirmacaoMs,
+                                        @Value("${mq.journal.drenagem-lote}") int tamanhoLote,
+                                        @Value("${mq.journal.drenagem-maximo}") int maximoPorExecucao) {
+        this.journal = journal;
+        this.publisher = publisher;
+        this.executor = executor;
+        this.intervaloMs = intervaloMs;
+        this.esperaConfirmacaoMs = esperaConfirmacaoMs;
+        this.tamanhoLote = tamanhoLote;
+        this.maximoPorExecucao = maximoPorExecucao;
+    }
+
+    @PostConstruct
+    public void agendar() {
+        executor.scheduleWithFixedDelay(this::drenar, intervaloMs, intervaloMs, TimeUnit.MILLISECONDS);
+    }
+
+    public void drenar() {
+        int drenados = 0;
+        try {
+            while (drenados < maximoPorExecucao) {
+                var lote = journal.proximos(Math.min(tamanhoLote, maximoPorExecucao - drenados));
+                if (lote.isEmpty()) {
+                    return;
+                }
+                int confirmados = publicar(lote);
+                journal.confirmarLeituras(confirmados);
+                drenados += confirmados;
+                if (confirmados < lote.size()) {
+                    return;
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (Exception e) {
+            log.warn("Drenagem do journal de emissão de cartões interrompida, {} pendentes: {}",
+                    journal.profundidade(), e.getMessage());
+        }
+    }
+
+    /** Publica o lote e devolve quantos registros, a partir do primeiro, o broker confirmou. */
+    private int publicar(List<JournalEmissaoCartao.Registro> lote) throws InterruptedException {
+        List<ListenableFuture<CorrelationData.Confirm>> confirmacoes = new ArrayList<>(lote.size());
+        try {
+            for (var registro : lote) {
+                confirmacoes.add(publisher.enviar(registro.getJson(), registro.getProtocolo()));
+            }
+        } catch (AmqpException e) {
+            log.warn("Falha ao reenviar a solicitação {} do journal: {}",
+                    lote.get(confirmacoes.size()).getProtocolo(), e.getMessage());
+        }
+
+        long limite = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(esperaConfirmacaoMs);
+        for (int i = 0; i < confirmacoes.size(); i++) {
+            String protocolo = lote.get(i).getProtocolo();
+            try {
+                var confirmacao = confirmacoes.get(i).get(Math.max(0, limite - System.nanoTime()),
+                        TimeUnit.NANOSECONDS);
+                if (!confirmacao.isAck()) {
+                    log.warn("Solicitação {} do journal rejeitada pelo broker: {}", protocolo,
+                            confirmacao.getReason());
+                    return i;
+                }
+            } catch (TimeoutException | ExecutionException e) {
+                log.warn("Solicitação {} do journal sem confirmação do broker em {}ms", protocolo,
+                        esperaConfirmacaoMs);
+                return i;
+            }
+        }
+        return confirmacoes.size();
+    }
+}
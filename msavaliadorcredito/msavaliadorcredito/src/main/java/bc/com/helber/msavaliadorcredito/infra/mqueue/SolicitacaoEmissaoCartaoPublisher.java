@@ -1,31 +1,161 @@
 package bc.com.helber.msavaliadorcredito.infra.mqueue;
 
 import bc.com.helber.msavaliadorcredito.domain.model.DadosSolicitacaoEmissaoCartao;
+import bc.com.helber.msavaliadorcredito.infra.mqueue.journal.JournalEmissaoCartao;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import lombok.RequiredArgsConstructor;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.AmqpException;
 import org.springframework.amqp.core.Queue;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
 import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Component;
+import org.springframework.util.concurrent.ListenableFuture;
+
+import java.io.IOException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 
 @Component
-@RequiredArgsConstructor
+@Slf4j
 public class SolicitacaoEmissaoCartaoPublisher {
 
     private final RabbitTemplate rabbitTemplate;
     private final Queue queueEmissaoCartoes;
+    private final ObjectWriter writer;
+    private final JournalEmissaoCartao journal;
+    private final boolean confirmacaoEstrita;
+    private final long esperaConfirmacaoMs;
+    private final int limiteEmVoo;
+
+    private final AtomicInteger emVoo = new AtomicInteger();
+    private final Counter confirmadas;
+    private final Counter rejeitadas;
+    private final Counter desviadas;
+
+    public SolicitacaoEmissaoCartaoPublisher(RabbitTemplate rabbitTemplate,
+                                             Queue queueEmissaoCartoes,
+                                             ObjectMapper mapper,
+                                             JournalEmissaoCartao journal,
+                                             MeterRegistry registry,
+                                             @Value("${mq.publisher.confirmacao-estrita}") boolean confirmacaoEstrita,
+                                             @Value("${mq.publisher.espera-confirmacao-ms}") long esperaConfirmacaoMs,
+                                             @Value("${mq.journal.limite-em-voo}") int limiteEmVoo) {
+        this.rabbitTemplate = rabbitTemplate;
+        this.queueEmissaoCartoes = queueEmissaoCartoes;
+        this.writer = mapper.writerFor(DadosSolicitacaoEmissaoCartao.class);
+        this.journal = journal;
+        this.confirmacaoEstrita = confirmacaoEstrita;
+        this.esperaConfirmacaoMs = esperaConfirmacaoMs;
+        this.limiteEmVoo = limiteEmVoo;
+        Gauge.builder("emissao.cartoes.publicacoes.em-voo", emVoo, AtomicInteger::get).register(registry);
+        this.confirmadas = Counter.builder("emissao.cartoes.publicacoes")
+                .tag("resultado", "confirmada").register(registry);
+        this.rejeitadas = Counter.builder("emissao.cartoes.publicacoes")
+                .tag("resultado", "rejeitada").register(registry);
+        this.desviadas = Counter.builder("emissao.cartoes.publicacoes")
+                .tag("resultado", "journal").register(registry);
+    }
 
-    public void solicitarCartao(DadosSolicitacaoEmissaoCartao dados) throws JsonProcessingException {
+    public void solicitarCartao(DadosSolicitacaoEmissaoCartao dados, String protocolo) throws JsonProcessingException {
         var json = convertIntoJson(dados);
-        rabbitTemplate.convertAndSend(queueEmissaoCartoes.getName(), json);
 
+        if (journal.possuiPendencias() || emVoo.get() >= limiteEmVoo) {
+            desviarParaJournal(protocolo, json);
+            return;
+        }
+
+        ListenableFuture<CorrelationData.Confirm> confirmacao;
+        emVoo.incrementAndGet();
+        try {
+            confirmacao = enviar(json, protocolo);
+        } catch (AmqpException e) {
+            emVoo.decrementAndGet();
+            rejeitadas.increment();
+            log.warn("Falha ao publicar a solicitação {}, gravando no journal: {}", protocolo, e.getMessage());
+            desviarParaJournal(protocolo, json);
+            return;
+        }
+
+        confirmacao.addCallback(confirm -> {
+            emVoo.decrementAndGet();
+            if (confirm != null && confirm.isAck()) {
+                confirmadas.increment();
+            } else {
+                rejeitadas.increment();
+                log.error("Solicitação {} rejeitada pelo broker: {}", protocolo,
+                        confirm == null ? null : confirm.getReason());
+                desviarAposRejeicao(protocolo, json);
+            }
+        }, erro -> {
+            emVoo.decrementAndGet();
+            rejeitadas.increment();
+            log.error("Solicitação {} sem confirmação do broker: {}", protocolo, erro.getMessage());
+            desviarAposRejeicao(protocolo, json);
+        });
+
+        if (confirmacaoEstrita && !aguardarConfirmacao(confirmacao, protocolo)) {
+            desviarParaJournal(protocolo, json);
+        }
+    }
+
+    public int getEmVoo() {
+        return emVoo.get();
+    }
+
+    ListenableFuture<CorrelationData.Confirm> enviar(String json, String protocolo) {
+        var correlacao = new CorrelationData(protocolo);
+        rabbitTemplate.convertAndSend("", queueEmissaoCartoes.getName(), json, mensagem -> {
+            mensagem.getMessageProperties().setMessageId(protocolo);
+            mensagem.getMessageProperties().setCorrelationId(protocolo);
+            return mensagem;
+        }, correlacao);
+        return correlacao.getFuture();
+    }
+
+    private boolean aguardarConfirmacao(ListenableFuture<CorrelationData.Confirm> confirmacao, String protocolo) {
+        try {
+            return confirmacao.get(esperaConfirmacaoMs, TimeUnit.MILLISECONDS).isAck();
+        } catch (TimeoutException e) {
+            log.warn("Solicitação {} sem confirmação do broker em {}ms", protocolo, esperaConfirmacaoMs);
+            return false;
+        } catch (ExecutionException e) {
+            return false;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new AmqpException("Espera pela confirmação da solicitação " + protocolo + " interrompida", e);
+        }
+    }
+
+    private void desviarAposRejeicao(String protocolo, String json) {
+        if (confirmacaoEstrita) {
+            return;
+        }
+        try {
+            desviarParaJournal(protocolo, json);
+        } catch (AmqpException e) {
+            log.error("Solicitação {} perdida: {}", protocolo, e.getMessage());
+        }
     }
 
-    private String convertIntoJson(DadosSolicitacaoEmissaoCartao dados) throws JsonProcessingException{
-        ObjectMapper mapper = new ObjectMapper();
-        var json = mapper.writeValueAsString(dados);
-        return json;
+    private void desviarParaJournal(String protocolo, String json) {
+        try {
+            journal.registrar(protocolo, json);
+            desviadas.increment();
+        } catch (IOException e) {
+            throw new AmqpException("Não foi possível gravar a solicitação " + protocolo + " no journal", e);
+        }
+    }
 
+    String convertIntoJson(DadosSolicitacaoEmissaoCartao dados) throws JsonProcessingException{
+        return writer.writeValueAsString(dados);
     }
 
 }
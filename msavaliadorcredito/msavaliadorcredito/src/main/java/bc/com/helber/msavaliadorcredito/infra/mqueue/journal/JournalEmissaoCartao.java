@@ -0,0 +1,96 @@
+package bc.com.helber.msavaliadorcredito.infra.mqueue.journal;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.Data;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import javax.annotation.PreDestroy;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+@Component
+public class JournalEmissaoCartao {
+
+    private final JournalSegmentado journal;
+    private final Counter gravados;
+    private final Counter drenados;
+
+    public JournalEmissaoCartao(MeterRegistry registry,
+                                @Value("${mq.journal.diretorio}") String diretorio,
+                                @Value("${mq.journal.tamanho-segmento}") int tamanhoSegmento,
+                                @Value("${mq.journal.forcar-escrita}") boolean forcarEscrita) {
+        try {
+            this.journal = new JournalSegmentado(Path.of(diretorio), tamanhoSegmento, forcarEscrita);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Não foi possível abrir o journal em " + diretorio, e);
+        }
+        Gauge.builder("emissao.cartoes.journal.profundidade", journal, JournalSegmentado::profundidade)
+                .register(registry);
+        Gauge.builder("emissao.cartoes.journal.segmentos", journal, JournalSegmentado::segmentos)
+                .register(registry);
+        this.gravados = Counter.builder("emissao.cartoes.journal.registros")
+                .tag("operacao", "gravado").register(registry);
+        this.drenados = Counter.builder("emissao.cartoes.journal.registros")
+                .tag("operacao", "drenado").register(registry);
+    }
+
+    public void registrar(String protocolo, String json) throws IOException {
+        byte[] protocoloBytes = protocolo.getBytes(StandardCharsets.UTF_8);
+        byte[] jsonBytes = json.getBytes(StandardCharsets.UTF_8);
+        journal.anexar(ByteBuffer.allocate(2 + protocoloBytes.length + jsonBytes.length)
+                .putShort((short) protocoloBytes.length)
+                .put(protocoloBytes)
+                .put(jsonBytes)
+                .array());
+        gravados.increment();
+    }
+
+    public boolean possuiPendencias() {
+        return journal.profundidade() > 0;
+    }
+
+    public long profundidade() {
+        return journal.profundidade();
+    }
+
+    public List<Registro> proximos(int maximo) throws IOException {
+        List<byte[]> lote = journal.proximos(maximo);
+        List<Registro> registros = new ArrayList<>(lote.size());
+        for (byte[] dados : lote) {
+            registros.add(decodificar(dados));
+        }
+        return registros;
+    }
+
+    public void confirmarLeituras(int quantidade) throws IOException {
+        journal.confirmarLeituras(quantidade);
+        drenados.increment(quantidade);
+    }
+
+    private static Registro decodificar(byte[] dados) {
+        int tamanhoProtocolo = ByteBuffer.wrap(dados).getShort() & 0xFFFF;
+        String protocolo = new String(dados, 2, tamanhoProtocolo, StandardCharsets.UTF_8);
+        String json = new String(dados, 2 + tamanhoProtocolo, dados.length - 2 - tamanhoProtocolo,
+                StandardCharsets.UTF_8);
+        return new Registro(protocolo, json);
+    }
+
+    @PreDestroy
+    public void fechar() throws IOException {
+        journal.close();
+    }
+
+    @Data
+    public static class Registro {
+        private final String protocolo;
+        private final String json;
+    }
+}
@@ -0,0 +1,282 @@
+package bc.com.helber.msavaliadorcredito.infra.mqueue.journal;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.CRC32;
+
+/**
+ * Journal append-only em segmentos mapeados em memoria.
+ * <p>
+ * Cada registro e gravado como {@code [tamanho][crc32][dados]}; na recuperacao um registro
+ * so e considerado valido se o tamanho couber no segmento e o CRC conferir, entao uma escrita
+ * interrompida no meio descarta apenas o ultimo registro. A posicao de leitura e persistida em
+ * {@code cursor.dat} apos cada confirmacao e os segmentos totalmente lidos sao apagados.
+ * <p>
+ * A leitura e feita em lotes ({@link #proximos}) que nao atravessam o fim de um segmento; so o que
+ * for confirmado ({@link #confirmarLeituras}) avanca o cursor, e o restante volta no proximo lote.
+ */
+public class JournalSegmentado implements Closeable {
+
+    private static final int CABECALHO = 8;
+    private static final String PREFIXO = "segmento-";
+    private static final String SUFIXO = ".jnl";
+    private static final String CURSOR = "cursor.dat";
+    private static final int[] NENHUM = new int[0];
+
+    private final Path diretorio;
+    private final int tamanhoSegmento;
+    private final boolean forcarEscrita;
+    private final FileChannel cursor;
+
+    private long segmentoEscrita;
+    private MappedByteBuffer escrita;
+
+    private long segmentoLeitura;
+    private MappedByteBuffer leitura;
+    private int posicaoLeitura;
+    private int[] tamanhosPendentes = NENHUM;
+
+    private long profundidade;
+
+    public JournalSegmentado(Path diretorio, int tamanhoSegmento, boolean forcarEscrita) throws IOException {
+        this.diretorio = diretorio;
+        this.tamanhoSegmento = tamanhoSegmento;
+        this.forcarEscrita = forcarEscrita;
+        Files.createDirectories(diretorio);
+        this.cursor = FileChannel.open(diretorio.resolve(CURSOR),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        recuperar();
+    }
+
+    public synchronized void anexar(byte[] dados) throws IOException {
+        int necessario = CABECALHO + dados.length;
+        if (necessario > tamanhoSegmento) {
+            throw new IllegalArgumentException("Registro de " + dados.length
+                    + " bytes maior que o segmento de " + tamanhoSegmento + " bytes");
+        }
+        if (escrita.remaining() < necessario) {
+            rotacionar();
+        }
+
+        int inicio = escrita.position();
+        var crc = new CRC32();
+        crc.update(dados);
+        escrita.put(inicio + CABECALHO, dados);
+        escrita.putInt(inicio + 4, (int) crc.getValue());
+        escrita.putInt(inicio, dados.length);
+        escrita.position(inicio + necessario);
+        if (forcarEscrita) {
+            escrita.force(inicio, necessario);
+        }
+        profundidade++;
+    }
+
+    public synchronized byte[] proximo() throws IOException {
+        List<byte[]> lote = proximos(1);
+        return lote.isEmpty() ? null : lote.get(0);
+    }
+
+    public synchronized List<byte[]> proximos(int maximo) throws IOException {
+        List<byte[]> lote = new ArrayList<>(Math.min(maximo, 64));
+        int[] tamanhos = new int[maximo];
+        int posicao = posicaoLeitura;
+        while (lote.size() < maximo) {
+            if (segmentoLeitura == segmentoEscrita && posicao >= escrita.position()) {
+                break;
+            }
+            ByteBuffer buffer = segmentoLeitura == segmentoEscrita ? escrita : leitura;
+            int tamanho = tamanhoValido(buffer, posicao);
+            if (tamanho < 0) {
+                if (segmentoLeitura == segmentoEscrita || !lote.isEmpty()) {
+                    break;
+                }
+                avancarSegmento();
+                posicao = posicaoLeitura;
+                continue;
+            }
+            byte[] dados = new byte[tamanho];
+            buffer.get(posicao + CABECALHO, dados);
+            tamanhos[lote.size()] = tamanho;
+            lote.add(dados);
+            posicao += CABECALHO + tamanho;
+        }
+        tamanhosPendentes = Arrays.copyOf(tamanhos, lote.size());
+        return lote;
+    }
+
+    public synchronized void confirmarLeitura() throws IOException {
+        if (tamanhosPendentes.length == 0) {
+            throw new IllegalStateException("Nenhum registro lido para confirmar");
+        }
+        confirmarLeituras(1);
+    }
+
+    /** Confirma os {@code quantidade} primeiros registros do ultimo lote lido. */
+    public synchronized void confirmarLeituras(int quantidade) throws IOException {
+        if (quantidade < 0 || quantidade > tamanhosPendentes.length) {
+            throw new IllegalStateException("Confirmação de " + quantidade + " registros, "
+                    + tamanhosPendentes.length + " lidos");
+        }
+        for (int i = 0; i < quantidade; i++) {
+            posicaoLeitura += CABECALHO + tamanhosPendentes[i];
+        }
+        tamanhosPendentes = NENHUM;
+        if (quantidade > 0) {
+            profundidade -= quantidade;
+            gravarCursor();
+        }
+    }
+
+    public synchronized long profundidade() {
+        return profundidade;
+    }
+
+    public synchronized long segmentos() {
+        return segmentoEscrita - segmentoLeitura + 1;
+    }
+
+    @Override
+    public synchronized void close() throws IOException {
+        escrita.force();
+        cursor.close();
+    }
+
+    private void recuperar() throws IOException {
+        List<Long> existentes = listarSegmentos();
+        long segmentoCursor = -1;
+        int posicaoCursor = 0;
+
+        var bufferCursor = ByteBuffer.allocate(16);
+        if (cursor.read(bufferCursor, 0) == 16) {
+            bufferCursor.flip();
+            long segmento = bufferCursor.getLong();
+            int posicao = bufferCursor.getInt();
+            var crc = new CRC32();
+            crc.update(bufferCursor.array(), 0, 12);
+            if (bufferCursor.getInt() == (int) crc.getValue() && existentes.contains(segmento)) {
+                segmentoCursor = segmento;
+                posicaoCursor = posicao;
+            }
+        }
+        if (segmentoCursor < 0) {
+            segmentoCursor = existentes.isEmpty() ? 0 : existentes.get(0);
+            posicaoCursor = 0;
+        }
+
+        for (Long segmento : existentes) {
+            if (segmento < segmentoCursor) {
+                Files.deleteIfExists(caminho(segmento));
+            }
+        }
+
+        segmentoLeitura = segmentoCursor;
+        posicaoLeitura = posicaoCursor;
+        profundidade = 0;
+
+        long ultimo = existentes.isEmpty() ? segmentoCursor : Math.max(segmentoCursor, existentes.get(existentes.size() - 1));
+        for (long segmento = segmentoCursor; segmento <= ultimo; segmento++) {
+            MappedByteBuffer buffer = mapear(segmento);
+            int posicao = 0;
+            int tamanho;
+            while ((tamanho = tamanhoValido(buffer, posicao)) >= 0) {
+                if (segmento > segmentoCursor || posicao >= posicaoCursor) {
+                    profundidade++;
+                }
+                posicao += CABECALHO + tamanho;
+            }
+            if (segmento == ultimo) {
+                for (int i = posicao; i < buffer.capacity(); i++) {
+                    buffer.put(i, (byte) 0);
+                }
+                buffer.position(posicao);
+                segmentoEscrita = segmento;
+                escrita = buffer;
+            }
+            if (segmento == segmentoCursor && segmento != ultimo) {
+                leitura = buffer;
+            }
+        }
+        if (posicaoLeitura > escrita.position() && segmentoLeitura == segmentoEscrita) {
+            posicaoLeitura = escrita.position();
+        }
+        gravarCursor();
+    }
+
+    private void rotacionar() throws IOException {
+        escrita.force();
+        if (segmentoLeitura == segmentoEscrita) {
+            leitura = escrita;
+        }
+        segmentoEscrita++;
+        escrita = mapear(segmentoEscrita);
+    }
+
+    private void avancarSegmento() throws IOException {
+        Files.deleteIfExists(caminho(segmentoLeitura));
+        segmentoLeitura++;
+        posicaoLeitura = 0;
+        leitura = segmentoLeitura == segmentoEscrita ? null : mapear(segmentoLeitura);
+        gravarCursor();
+    }
+
+    private int tamanhoValido(ByteBuffer buffer, int posicao) {
+        if (posicao + CABECALHO > buffer.capacity()) {
+            return -1;
+        }
+        int tamanho = buffer.getInt(posicao);
+        if (tamanho <= 0 || tamanho > buffer.capacity() - posicao - CABECALHO) {
+            return -1;
+        }
+        var crc = new CRC32();
+        crc.update(buffer.slice(posicao + CABECALHO, tamanho));
+        return buffer.getInt(posicao + 4) == (int) crc.getValue() ? tamanho : -1;
+    }
+
+    private void gravarCursor() throws IOException {
+        var buffer = ByteBuffer.allocate(16);
+        buffer.putLong(segmentoLeitura);
+        buffer.putInt(posicaoLeitura);
+        var crc = new CRC32();
+        crc.update(buffer.array(), 0, 12);
+        buffer.putInt((int) crc.getValue());
+        buffer.flip();
+        cursor.write(buffer, 0);
+        if (forcarEscrita) {
+            cursor.force(false);
+        }
+    }
+
+    private MappedByteBuffer mapear(long segmento) throws IOException {
+        try (FileChannel canal = FileChannel.open(caminho(segmento),
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE)) {
+            long tamanho = Math.max(canal.size(), tamanhoSegmento);
+            return canal.map(FileChannel.MapMode.READ_WRITE, 0, tamanho);
+        }
+    }
+
+    private Path caminho(long segmento) {
+        return diretorio.resolve(String.format("%s%016d%s", PREFIXO, segmento, SUFIXO));
+    }
+
+    private List<Long> listarSegmentos() throws IOException {
+        try (Stream<Path> arquivos = Files.list(diretorio)) {
+            return arquivos
+                    .map(arquivo -> arquivo.getFileName().toString())
+                    .filter(nome -> nome.startsWith(PREFIXO) && nome.endsWith(SUFIXO))
+                    .map(nome -> Long.parseLong(nome.substring(PREFIXO.length(), nome.length() - SUFIXO.length())))
+                    .sorted()
+                    .collect(Collectors.toList());
+        }
+    }
+}
@@ -0,0 +1,11 @@
+package bc.com.helber.msavaliadorcredito.infra.resiliencia;
+
+import feign.FeignException;
+import feign.Request;
+
+public class CircuitoAbertoException extends FeignException {
+
+    public CircuitoAbertoException(String chave, Request request) {
+        super(503, "Circuito aberto para " + chave, request);
+    }
+}
@@ -0,0 +1,189 @@
+package bc.com.helber.msavaliadorcredito.infra.resiliencia;
+
+import bc.com.helber.msavaliadorcredito.infra.balanceamento.BalanceadorLatencia;
+import bc.com.helber.msavaliadorcredito.infra.balanceamento.EstatisticasInstancias;
+import feign.Client;
+import feign.Request;
+import feign.RequestTemplate;
+import feign.Response;
+
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Envolve o {@link Client} do Feign (ja balanceado) aplicando a {@link PoliticaMetodo} do metodo
+ * chamado: com o disjuntor aberto falha na hora com {@link CircuitoAbertoException}; com hedge
+ * habilitado faz a primeira tentativa e, se ela nao responder dentro do atraso da politica, dispara
+ * uma segunda, ficando com a primeira resposta que nao seja 5xx. As duas tentativas levam o mesmo
+ * {@link BalanceadorLatencia#CABECALHO_HEDGE}, o que faz o balanceador mandar a segunda para outra
+ * instancia.
+ * <p>
+ * A primeira tentativa roda na thread de quem chamou; so o hedge vai para o executor limitado, que
+ * assim fica livre para os hedges mesmo sob carga. Com o executor cheio o hedge nao sai e vale so a
+ * primeira. Como a chamada bloqueante nao pode ser abandonada, a resposta so volta quando a primeira
+ * termina: o hedge cobre a primeira que falha, responde 5xx ou estoura o read timeout.
+ */
+public class ClienteResiliente implements Client {
+
+    private final Client delegate;
+    private final PoliticasResiliencia politicas;
+    private final ExecutorService executor;
+    private final EstatisticasInstancias estatisticas;
+
+    public ClienteResiliente(Client delegate, PoliticasResiliencia politicas, ExecutorService executor,
+                             EstatisticasInstancias estatisticas) {
+        this.delegate = delegate;
+        this.politicas = politicas;
+        this.executor = executor;
+        this.estatisticas = estatisticas;
+    }
+
+    @Override
+    public Response execute(Request request, Request.Options options) throws IOException {
+        PoliticaMetodo politica = politica(request);
+        if (politica == null) {
+            return delegate.execute(request, options);
+        }
+        if (!politica.permitir()) {
+            throw new CircuitoAbertoException(politica.chave(), request);
+        }
+        boolean falha = true;
+        try {
+            Response response = politica.isHedgeHabilitado() && request.httpMethod() == Request.HttpMethod.GET
+                    ? executarComHedge(request, options, politica)
+                    : executarDireto(request, options, politica);
+            falha = response.status() >= 500;
+            return response;
+        } finally {
+            politica.registrarChamada(falha);
+        }
+    }
+
+    private Response executarDireto(Request request, Request.Options options, PoliticaMetodo politica)
+            throws IOException {
+        long inicio = System.nanoTime();
+        try {
+            return delegate.execute(request, options);
+        } finally {
+            politica.registrarTentativa(System.nanoTime() - inicio);
+        }
+    }
+
+    private Response executarComHedge(Request request, Request.Options options, PoliticaMetodo politica)
+            throws IOException {
+        var corrida = new Corrida(politica, UUID.randomUUID().toString());
+        Request marcada = comCabecalhoHedge(request, corrida.hedgeId);
+        // executor cheio rejeita o disparo dentro do agendador do CompletableFuture, e o hedge nao sai
+        CompletableFuture.delayedExecutor(politica.atrasoHedgeNanos(), TimeUnit.NANOSECONDS, executor)
+                .execute(() -> corrida.hedge(marcada, options));
+        corrida.tentar(marcada, options, false);
+        return corrida.aguardar();
+    }
+
+    private PoliticaMetodo politica(Request request) {
+        RequestTemplate template = request.requestTemplate();
+        if (template == null || template.feignTarget() == null || template.methodMetadata() == null
+                || template.methodMetadata().method() == null) {
+            return null;
+        }
+        return politicas.de(template.feignTarget().name(), template.methodMetadata().method().getName());
+    }
+
+    private static Request comCabecalhoHedge(Request request, String hedgeId) {
+        Map<String, Collection<String>> headers = new LinkedHashMap<>(request.headers());
+        headers.put(BalanceadorLatencia.CABECALHO_HEDGE, List.of(hedgeId));
+        return Request.create(request.httpMethod(), request.url(), headers, request.body(), request.charset(),
+                request.requestTemplate());
+    }
+
+    private final class Corrida {
+
+        private final PoliticaMetodo politica;
+        private final String hedgeId;
+        private final CompletableFuture<Response> resultado = new CompletableFuture<>();
+        private int pendentes = 1;
+
+        Corrida(PoliticaMetodo politica, String hedgeId) {
+            this.politica = politica;
+            this.hedgeId = hedgeId;
+        }
+
+        /** Ja no executor, depois do atraso; nada faz se a primeira tentativa ja terminou. */
+        void hedge(Request request, Request.Options options) {
+            synchronized (this) {
+                if (pendentes == 0) {
+                    return;
+                }
+                pendentes++;
+            }
+            politica.hedgeDisparado();
+            tentar(request, options, true);
+        }
+
+        void tentar(Request request, Request.Options options, boolean hedge) {
+            long inicio = System.nanoTime();
+            Response response = null;
+            Throwable falha = null;
+            try {
+                response = delegate.execute(request, options);
+            } catch (Throwable e) {
+                falha = e;
+            } finally {
+                politica.registrarTentativa(System.nanoTime() - inicio);
+            }
+            concluir(response, falha, hedge);
+        }
+
+        private void concluir(Response response, Throwable falha, boolean hedge) {
+            boolean ultima;
+            synchronized (this) {
+                ultima = --pendentes == 0;
+            }
+            boolean aceitavel = falha == null && response.status() < 500;
+            boolean entregue = false;
+            if (aceitavel || ultima) {
+                entregue = falha == null ? resultado.complete(response) : resultado.completeExceptionally(falha);
+            }
+            if (entregue && hedge && aceitavel) {
+                politica.hedgeVenceu();
+            }
+            if (!entregue && response != null) {
+                response.close();
+            }
+            if (ultima && estatisticas != null) {
+                estatisticas.encerrarHedge(hedgeId);
+            }
+        }
+
+        Response aguardar() throws IOException {
+            try {
+                return resultado.get();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                resultado.thenAccept(Response::close);
+                throw new InterruptedIOException("Chamada interrompida aguardando " + politica.chave());
+            } catch (ExecutionException e) {
+                Throwable causa = e.getCause();
+                if (causa instanceof IOException) {
+                    throw (IOException) causa;
+                }
+                if (causa instanceof RuntimeException) {
+                    throw (RuntimeException) causa;
+                }
+                if (causa instanceof Error) {
+                    throw (Error) causa;
+                }
+                throw new IOException(causa);
+            }
+        }
+    }
+}
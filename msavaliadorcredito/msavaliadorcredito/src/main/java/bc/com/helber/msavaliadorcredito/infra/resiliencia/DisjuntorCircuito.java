@@ -0,0 +1,121 @@
+package bc.com.helber.msavaliadorcredito.infra.resiliencia;
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Circuit breaker por contagem: guarda o resultado das ultimas {@code janela} chamadas e abre quando a
+ * taxa de falha atinge o limite (com pelo menos {@code chamadasMinimas} na janela). Aberto, rejeita
+ * tudo ate {@code aberturaMs} passar; depois deixa passar {@code chamadasSemiAberto} sondas e fecha se
+ * todas derem certo, ou reabre na primeira falha.
+ */
+public class DisjuntorCircuito {
+
+    public enum Estado { FECHADO, ABERTO, SEMI_ABERTO }
+
+    private final boolean[] falhas;
+    private final int chamadasMinimas;
+    private final double taxaFalhaLimite;
+    private final long aberturaNanos;
+    private final int chamadasSemiAberto;
+    private final LongSupplier relogio;
+
+    private Estado estado = Estado.FECHADO;
+    private int posicao;
+    private int registradas;
+    private int falhasNaJanela;
+    private long abertoEm;
+    private int sondasLiberadas;
+    private int sondasComSucesso;
+
+    public DisjuntorCircuito(int janela, int chamadasMinimas, double taxaFalhaPercentual, long aberturaMs,
+                             int chamadasSemiAberto) {
+        this(janela, chamadasMinimas, taxaFalhaPercentual, aberturaMs, chamadasSemiAberto, System::nanoTime);
+    }
+
+    DisjuntorCircuito(int janela, int chamadasMinimas, double taxaFalhaPercentual, long aberturaMs,
+                      int chamadasSemiAberto, LongSupplier relogio) {
+        if (janela <= 0 || chamadasSemiAberto <= 0) {
+            throw new IllegalArgumentException("janela e chamadas em semi-aberto devem ser positivas");
+        }
+        this.falhas = new boolean[janela];
+        this.chamadasMinimas = Math.min(Math.max(1, chamadasMinimas), janela);
+        this.taxaFalhaLimite = taxaFalhaPercentual / 100.0;
+        this.aberturaNanos = TimeUnit.MILLISECONDS.toNanos(aberturaMs);
+        this.chamadasSemiAberto = chamadasSemiAberto;
+        this.relogio = relogio;
+    }
+
+    public synchronized boolean permitir() {
+        if (estado == Estado.ABERTO) {
+            if (relogio.getAsLong() - abertoEm < aberturaNanos) {
+                return false;
+            }
+            estado = Estado.SEMI_ABERTO;
+            sondasLiberadas = 0;
+            sondasComSucesso = 0;
+        }
+        if (estado == Estado.SEMI_ABERTO) {
+            if (sondasLiberadas >= chamadasSemiAberto) {
+                return false;
+            }
+            sondasLiberadas++;
+        }
+        return true;
+    }
+
+    public synchronized void registrar(boolean falha) {
+        switch (estado) {
+            case ABERTO:
+                return;
+            case SEMI_ABERTO:
+                if (falha) {
+                    abrir();
+                } else if (++sondasComSucesso >= chamadasSemiAberto) {
+                    fechar();
+                }
+                return;
+            default:
+                if (registradas == falhas.length) {
+                    if (falhas[posicao]) {
+                        falhasNaJanela--;
+                    }
+                } else {
+                    registradas++;
+                }
+                falhas[posicao] = falha;
+                if (falha) {
+                    falhasNaJanela++;
+                }
+                posicao = (posicao + 1) % falhas.length;
+                if (registradas >= chamadasMinimas && taxaFalha() >= taxaFalhaLimite) {
+                    abrir();
+                }
+        }
+    }
+
+    public synchronized Estado estado() {
+        if (estado == Estado.ABERTO && relogio.getAsLong() - abertoEm >= aberturaNanos) {
+            return Estado.SEMI_ABERTO;
+        }
+        return estado;
+    }
+
+    public synchronized double taxaFalha() {
+        return registradas == 0 ? 0 : (double) falhasNaJanela / registradas;
+    }
+
+    private void abrir() {
+        estado = Estado.ABERTO;
+        abertoEm = relogio.getAsLong();
+    }
+
+    private void fechar() {
+        estado = Estado.FECHADO;
+        posicao = 0;
+        registradas = 0;
+        falhasNaJanela = 0;
+        Arrays.fill(falhas, false);
+    }
+}
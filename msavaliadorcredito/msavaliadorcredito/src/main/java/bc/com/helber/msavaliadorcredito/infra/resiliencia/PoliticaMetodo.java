@@ -0,0 +1,129 @@
+package bc.com.helber.msavaliadorcredito.infra.resiliencia;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import lombok.Getter;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latencia por tentativa e contadores de hedge de um metodo Feign ({@code cliente.metodo}), mais o
+ * disjuntor do cliente, que e o mesmo para todos os metodos dele. O atraso do hedge e o percentil
+ * configurado da latencia recente das tentativas, recalculado no maximo uma vez por segundo; ate juntar
+ * {@code amostrasMinimas} usa o atraso inicial.
+ */
+public class PoliticaMetodo {
+
+    private static final long RECALCULO_ATRASO_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    @Getter
+    private final String cliente;
+    @Getter
+    private final String metodo;
+    @Getter
+    private final DisjuntorCircuito disjuntor;
+    @Getter
+    private final boolean hedgeHabilitado;
+
+    private final double percentil;
+    private final long atrasoMinimoNanos;
+    private final long atrasoInicialNanos;
+    private final long amostrasMinimas;
+
+    private final Timer latencia;
+    private final Counter rejeitadas;
+    private final Counter hedgesDisparados;
+    private final Counter hedgesVencedores;
+
+    private volatile long atrasoHedgeNanos;
+    private volatile long atrasoCalculadoEm;
+
+    PoliticaMetodo(String cliente, String metodo, DisjuntorCircuito disjuntor, boolean hedgeHabilitado,
+                   double percentil, long atrasoMinimoMs, long atrasoInicialMs, long amostrasMinimas,
+                   MeterRegistry registry) {
+        this.cliente = cliente;
+        this.metodo = metodo;
+        this.disjuntor = disjuntor;
+        this.hedgeHabilitado = hedgeHabilitado;
+        this.percentil = percentil;
+        this.atrasoMinimoNanos = TimeUnit.MILLISECONDS.toNanos(atrasoMinimoMs);
+        this.atrasoInicialNanos = TimeUnit.MILLISECONDS.toNanos(atrasoInicialMs);
+        this.amostrasMinimas = amostrasMinimas;
+        this.atrasoHedgeNanos = Math.max(atrasoMinimoNanos, atrasoInicialNanos);
+        this.atrasoCalculadoEm = System.nanoTime();
+
+        Tags tags = Tags.of("cliente", cliente, "metodo", metodo);
+        this.latencia = Timer.builder("avaliador.feign.tentativas")
+                .tags(tags)
+                .publishPercentiles(percentil)
+                .distributionStatisticExpiry(Duration.ofMinutes(1))
+                .register(registry);
+        this.rejeitadas = Counter.builder("avaliador.feign.disjuntor.rejeitadas").tags(tags).register(registry);
+        this.hedgesDisparados = Counter.builder("avaliador.feign.hedge").tags(tags).tag("resultado", "disparado")
+                .register(registry);
+        this.hedgesVencedores = Counter.builder("avaliador.feign.hedge").tags(tags).tag("resultado", "vencedor")
+                .register(registry);
+    }
+
+    public String chave() {
+        return cliente + "." + metodo;
+    }
+
+    public boolean permitir() {
+        if (disjuntor == null || disjuntor.permitir()) {
+            return true;
+        }
+        rejeitadas.increment();
+        return false;
+    }
+
+    public void registrarChamada(boolean falha) {
+        if (disjuntor != null) {
+            disjuntor.registrar(falha);
+        }
+    }
+
+    public void registrarTentativa(long latenciaNanos) {
+        latencia.record(latenciaNanos, TimeUnit.NANOSECONDS);
+    }
+
+    public void hedgeDisparado() {
+        hedgesDisparados.increment();
+    }
+
+    public void hedgeVenceu() {
+        hedgesVencedores.increment();
+    }
+
+    public long atrasoHedgeNanos() {
+        long agora = System.nanoTime();
+        if (agora - atrasoCalculadoEm < RECALCULO_ATRASO_NANOS) {
+            return atrasoHedgeNanos;
+        }
+        atrasoCalculadoEm = agora;
+        if (latencia.count() >= amostrasMinimas) {
+            for (ValueAtPercentile valor : latencia.takeSnapshot().percentileValues()) {
+                if (valor.percentile() == percentil && valor.value() > 0) {
+                    atrasoHedgeNanos = Math.max(atrasoMinimoNanos, (long) valor.value(TimeUnit.NANOSECONDS));
+                }
+            }
+        }
+        return atrasoHedgeNanos;
+    }
+
+    public long rejeitadas() {
+        return (long) rejeitadas.count();
+    }
+
+    public long hedgesDisparados() {
+        return (long) hedgesDisparados.count();
+    }
+
+    public long hedgesVencedores() {
+        return (long) hedgesVencedores.count();
+    }
+}
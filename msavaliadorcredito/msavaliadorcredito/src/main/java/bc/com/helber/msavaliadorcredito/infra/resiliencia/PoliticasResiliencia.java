@@ -0,0 +1,78 @@
+package bc.com.helber.msavaliadorcredito.infra.resiliencia;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.core.env.Environment;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Resolve a politica de cada metodo Feign na primeira chamada. O hedge e por metodo: cada propriedade
+ * e procurada primeiro em {@code avaliador.resiliencia.metodos.<cliente>.<metodo>} e depois em
+ * {@code avaliador.resiliencia.padrao}. O disjuntor e um so por cliente, compartilhado pelos metodos:
+ * com o servico fora, a primeira rota que falha abre o circuito para todas. As propriedades dele vem
+ * de {@code avaliador.resiliencia.clientes.<cliente>} e depois do padrao.
+ */
+public class PoliticasResiliencia {
+
+    private static final String PREFIXO_CLIENTES = "avaliador.resiliencia.clientes.";
+    private static final String PREFIXO_METODOS = "avaliador.resiliencia.metodos.";
+    private static final String PREFIXO_PADRAO = "avaliador.resiliencia.padrao.";
+
+    private final Environment environment;
+    private final MeterRegistry registry;
+    private final ConcurrentMap<String, PoliticaMetodo> porMetodo = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, DisjuntorCircuito> disjuntores = new ConcurrentHashMap<>();
+
+    public PoliticasResiliencia(Environment environment, MeterRegistry registry) {
+        this.environment = environment;
+        this.registry = registry;
+    }
+
+    public PoliticaMetodo de(String cliente, String metodo) {
+        return porMetodo.computeIfAbsent(cliente + "." + metodo, chave -> criar(cliente, metodo));
+    }
+
+    public Collection<PoliticaMetodo> todas() {
+        return Collections.unmodifiableCollection(porMetodo.values());
+    }
+
+    private PoliticaMetodo criar(String cliente, String metodo) {
+        String prefixo = PREFIXO_METODOS + cliente + "." + metodo + ".";
+        // sem disjuntor o computeIfAbsent nao guarda nada e a consulta se repete so por metodo novo
+        DisjuntorCircuito disjuntor = disjuntores.computeIfAbsent(cliente, this::criarDisjuntor);
+        return new PoliticaMetodo(cliente, metodo, disjuntor,
+                propriedade(prefixo, "hedge.enabled", Boolean.class),
+                propriedade(prefixo, "hedge.percentil", Double.class),
+                propriedade(prefixo, "hedge.atraso-minimo-ms", Long.class),
+                propriedade(prefixo, "hedge.atraso-inicial-ms", Long.class),
+                propriedade(prefixo, "hedge.amostras-minimas", Long.class),
+                registry);
+    }
+
+    private DisjuntorCircuito criarDisjuntor(String cliente) {
+        String prefixo = PREFIXO_CLIENTES + cliente + ".";
+        if (!propriedade(prefixo, "disjuntor.enabled", Boolean.class)) {
+            return null;
+        }
+        var disjuntor = new DisjuntorCircuito(
+                propriedade(prefixo, "disjuntor.janela", Integer.class),
+                propriedade(prefixo, "disjuntor.chamadas-minimas", Integer.class),
+                propriedade(prefixo, "disjuntor.taxa-falha", Double.class),
+                propriedade(prefixo, "disjuntor.aberto-ms", Long.class),
+                propriedade(prefixo, "disjuntor.chamadas-semi-aberto", Integer.class));
+        Gauge.builder("avaliador.feign.disjuntor.estado", disjuntor, d -> d.estado().ordinal())
+                .tag("cliente", cliente).register(registry);
+        Gauge.builder("avaliador.feign.disjuntor.taxa-falha", disjuntor, DisjuntorCircuito::taxaFalha)
+                .tag("cliente", cliente).register(registry);
+        return disjuntor;
+    }
+
+    private <T> T propriedade(String prefixo, String nome, Class<T> tipo) {
+        T valor = environment.getProperty(prefixo + nome, tipo);
+        return valor != null ? valor : environment.getRequiredProperty(PREFIXO_PADRAO + nome, tipo);
+    }
+}
@@ -0,0 +1,51 @@
+package bc.com.helber.msavaliadorcredito.infra.resiliencia;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+@Endpoint(id = "resiliencia")
+public class ResilienciaEndpoint {
+
+    private final PoliticasResiliencia politicas;
+
+    public ResilienciaEndpoint(PoliticasResiliencia politicas) {
+        this.politicas = politicas;
+    }
+
+    @ReadOperation
+    public Map<String, Object> resiliencia() {
+        Map<String, Object> metodos = new TreeMap<>();
+        for (PoliticaMetodo politica : politicas.todas()) {
+            Map<String, Object> metodo = new LinkedHashMap<>();
+
+            Map<String, Object> disjuntor = new LinkedHashMap<>();
+            disjuntor.put("habilitado", politica.getDisjuntor() != null);
+            if (politica.getDisjuntor() != null) {
+                disjuntor.put("estado", politica.getDisjuntor().estado());
+                disjuntor.put("taxaFalha", politica.getDisjuntor().taxaFalha());
+            }
+            disjuntor.put("rejeitadas", politica.rejeitadas());
+            metodo.put("disjuntor", disjuntor);
+
+            Map<String, Object> hedge = new LinkedHashMap<>();
+            hedge.put("habilitado", politica.isHedgeHabilitado());
+            if (politica.isHedgeHabilitado()) {
+                long disparados = politica.hedgesDisparados();
+                long vencedores = politica.hedgesVencedores();
+                hedge.put("atrasoMs", TimeUnit.NANOSECONDS.toMillis(politica.atrasoHedgeNanos()));
+                hedge.put("disparados", disparados);
+                hedge.put("vencedores", vencedores);
+                hedge.put("taxaVitoria", disparados == 0 ? 0.0 : (double) vencedores / disparados);
+            }
+            metodo.put("hedge", hedge);
+
+            metodos.put(politica.chave(), metodo);
+        }
+        return metodos;
+    }
+}
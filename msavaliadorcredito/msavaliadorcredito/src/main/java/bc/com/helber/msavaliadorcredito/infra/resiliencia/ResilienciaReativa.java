@@ -0,0 +1,100 @@
+package bc.com.helber.msavaliadorcredito.infra.resiliencia;
+
+import bc.com.helber.msavaliadorcredito.infra.balanceamento.EstatisticasInstancias;
+import feign.Request;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Signal;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Function;
+
+/**
+ * A mesma {@link PoliticaMetodo} do {@link ClienteResiliente}, aplicada as chamadas WebClient do modo
+ * reativo. A chamada recebe o id do hedge (ou {@code null}) para repassar no cabecalho do balanceador.
+ * Sem {@link PoliticasResiliencia} (resiliencia desligada) apenas executa a chamada.
+ */
+public class ResilienciaReativa {
+
+    private final PoliticasResiliencia politicas;
+    private final EstatisticasInstancias estatisticas;
+
+    public ResilienciaReativa(PoliticasResiliencia politicas, EstatisticasInstancias estatisticas) {
+        this.politicas = politicas;
+        this.estatisticas = estatisticas;
+    }
+
+    public <T> Mono<T> executar(String cliente, String metodo, Function<String, Mono<T>> chamada) {
+        if (politicas == null) {
+            return chamada.apply(null);
+        }
+        return Mono.defer(() -> {
+            PoliticaMetodo politica = politicas.de(cliente, metodo);
+            if (!politica.permitir()) {
+                return Mono.error(circuitoAberto(politica));
+            }
+            Mono<T> resultado = politica.isHedgeHabilitado()
+                    ? comHedge(politica, chamada)
+                    : tentativa(politica, chamada.apply(null));
+            var falha = new AtomicBoolean();
+            return resultado
+                    .doOnError(e -> falha.set(falhaDoServico(e)))
+                    .doFinally(sinal -> politica.registrarChamada(falha.get()));
+        });
+    }
+
+    private <T> Mono<T> comHedge(PoliticaMetodo politica, Function<String, Mono<T>> chamada) {
+        String hedgeId = UUID.randomUUID().toString();
+        Mono<Signal<T>> primeira = aceitavel(tentativa(politica, chamada.apply(hedgeId)));
+        Mono<Signal<T>> segunda = Mono.delay(Duration.ofNanos(politica.atrasoHedgeNanos()))
+                .doOnNext(tick -> politica.hedgeDisparado())
+                .then(aceitavel(tentativa(politica, chamada.apply(hedgeId))))
+                .doOnNext(sinal -> politica.hedgeVenceu());
+        return Mono.firstWithValue(primeira, segunda)
+                .onErrorMap(NoSuchElementException.class, ResilienciaReativa::primeiraFalha)
+                .<T>dematerialize()
+                .doFinally(sinal -> {
+                    if (estatisticas != null) {
+                        estatisticas.encerrarHedge(hedgeId);
+                    }
+                });
+    }
+
+    private static <T> Mono<T> tentativa(PoliticaMetodo politica, Mono<T> chamada) {
+        return Mono.defer(() -> {
+            long inicio = System.nanoTime();
+            return chamada.doOnTerminate(() -> politica.registrarTentativa(System.nanoTime() - inicio));
+        });
+    }
+
+    /** Resposta, vazio ou erro 4xx encerram a corrida; so falhas do servico deixam a outra tentativa seguir. */
+    private static <T> Mono<Signal<T>> aceitavel(Mono<T> tentativa) {
+        return tentativa.materialize().flatMap(sinal -> sinal.isOnError() && falhaDoServico(sinal.getThrowable())
+                ? Mono.error(sinal.getThrowable())
+                : Mono.just(sinal));
+    }
+
+    private static boolean falhaDoServico(Throwable e) {
+        return !(e instanceof WebClientResponseException)
+                || ((WebClientResponseException) e).getRawStatusCode() >= 500;
+    }
+
+    private static Throwable primeiraFalha(NoSuchElementException e) {
+        if (e.getCause() != null) {
+            return Exceptions.unwrapMultiple(e.getCause()).get(0);
+        }
+        return e.getSuppressed().length > 0 ? e.getSuppressed()[0] : e;
+    }
+
+    private static CircuitoAbertoException circuitoAberto(PoliticaMetodo politica) {
+        var request = Request.create(Request.HttpMethod.GET, politica.chave(), Map.of(), null,
+                StandardCharsets.UTF_8, null);
+        return new CircuitoAbertoException(politica.chave(), request);
+    }
+}
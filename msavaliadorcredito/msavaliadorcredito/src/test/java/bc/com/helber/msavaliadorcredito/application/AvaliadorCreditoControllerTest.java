@@ -0,0 +1,105 @@
+package bc.com.helber.msavaliadorcredito.application;
+
+import bc.com.helber.msavaliadorcredito.domain.model.DadosCliente;
+import bc.com.helber.msavaliadorcredito.infra.catalogo.CatalogoCartoes;
+import bc.com.helber.msavaliadorcredito.infra.clients.CartoesResourceClient;
+import bc.com.helber.msavaliadorcredito.infra.clients.ClienteResourceClient;
+import bc.com.helber.msavaliadorcredito.infra.clients.DadosClienteCache;
+import bc.com.helber.msavaliadorcredito.infra.mqueue.SolicitacaoEmissaoCartaoPublisher;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+
+import static bc.com.helber.msavaliadorcredito.application.AvaliadorCreditoServiceTest.cartao;
+import static bc.com.helber.msavaliadorcredito.application.AvaliadorCreditoServiceTest.cliente;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class AvaliadorCreditoControllerTest {
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private ClienteResourceClient clientesClient;
+    private CartoesResourceClient cartoesClient;
+    private ExecutorService executor;
+    private MockMvc mvc;
+
+    @BeforeEach
+    void setUp() {
+        clientesClient = mock(ClienteResourceClient.class);
+        cartoesClient = mock(CartoesResourceClient.class);
+        executor = Executors.newSingleThreadExecutor();
+        var service = new AvaliadorCreditoService(
+                new DadosClienteCache(clientesClient, new SimpleMeterRegistry(), 1000, 60000, 1000, 30000),
+                cartoesClient, mock(SolicitacaoEmissaoCartaoPublisher.class),
+                new ConsultaParalela(executor, false, 2000),
+                new CatalogoCartoes(cartoesClient, new SimpleMeterRegistry(), false));
+        ReflectionTestUtils.setField(service, "tamanhoBlocoLote", 2);
+        mvc = MockMvcBuilders.standaloneSetup(new AvaliadorCreditoController(service, mapper)).build();
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void loteRespondeUmaLinhaNdjsonPorCpfComOsAusentesComo404() throws Exception {
+        when(clientesClient.dadosClientes(anyList())).thenAnswer(inv -> {
+            List<String> consulta = inv.getArgument(0);
+            List<DadosCliente> encontrados = new ArrayList<>();
+            if (consulta.contains("00000000001")) {
+                encontrados.add(cliente("00000000001", 40));
+            }
+            return ResponseEntity.ok(encontrados);
+        });
+        when(cartoesClient.getCartoesRendaAteh(anyLong()))
+                .thenReturn(ResponseEntity.ok(List.of(cartao("Basico", "1000"))));
+
+        MvcResult inicio = mvc.perform(post("/avaliacoes-credito/lote")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[{\"cpf\":\"00000000001\",\"renda\":5000},"
+                                + "{\"cpf\":\"00000000002\",\"renda\":5000},"
+                                + "{\"cpf\":\"00000000003\",\"renda\":5000}]"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String corpo = mvc.perform(asyncDispatch(inicio))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString();
+
+        assertTrue(corpo.endsWith("\n"));
+        List<JsonNode> linhas = new ArrayList<>();
+        for (String linha : corpo.split("\n")) {
+            linhas.add(mapper.readTree(linha));
+        }
+        assertEquals(List.of("00000000001", "00000000002", "00000000003"),
+                linhas.stream().map(linha -> linha.get("cpf").asText()).collect(Collectors.toList()));
+        assertEquals(List.of(200, 404, 404),
+                linhas.stream().map(linha -> linha.get("status").asInt()).collect(Collectors.toList()));
+        assertEquals("4000", linhas.get(0).get("cartoes").get(0).get("limiteAprovado").decimalValue()
+                .stripTrailingZeros().toPlainString());
+        assertTrue(linhas.get(1).get("cartoes").isNull());
+        assertFalse(linhas.get(2).get("erro").isNull());
+        verify(clientesClient, times(2)).dadosClientes(anyList());
+    }
+}
@@ -0,0 +1,139 @@
+package bc.com.helber.msavaliadorcredito.application;
+
+import bc.com.helber.msavaliadorcredito.application.ex.DadosClienteNotFoundException;
+import bc.com.helber.msavaliadorcredito.application.ex.ErroComunicacaoMicroservicesException;
+import bc.com.helber.msavaliadorcredito.domain.model.Cartao;
+import bc.com.helber.msavaliadorcredito.domain.model.CartaoCliente;
+import bc.com.helber.msavaliadorcredito.domain.model.DadosCliente;
+import bc.com.helber.msavaliadorcredito.infra.catalogo.CatalogoCartoes;
+import bc.com.helber.msavaliadorcredito.infra.clients.CartoesResourceClient;
+import bc.com.helber.msavaliadorcredito.infra.clients.CartoesResourceClientReativo;
+import bc.com.helber.msavaliadorcredito.infra.clients.ClienteResourceClient;
+import bc.com.helber.msavaliadorcredito.infra.clients.ClienteResourceClientReativo;
+import bc.com.helber.msavaliadorcredito.infra.clients.DadosClienteCache;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class AvaliadorCreditoReativoServiceTest {
+
+    private static final long ATRASO_MS = 300;
+
+    private ClienteResourceClientReativo clientesClient;
+    private CartoesResourceClientReativo cartoesClient;
+
+    @BeforeEach
+    void setUp() {
+        clientesClient = mock(ClienteResourceClientReativo.class);
+        cartoesClient = mock(CartoesResourceClientReativo.class);
+    }
+
+    private AvaliadorCreditoReativoService service(long prazoMs) {
+        var cache = new DadosClienteCache(mock(ClienteResourceClient.class), new SimpleMeterRegistry(),
+                1000, 60000, 1000, 30000);
+        var catalogo = new CatalogoCartoes(mock(CartoesResourceClient.class), new SimpleMeterRegistry(), false);
+        return new AvaliadorCreditoReativoService(cache, clientesClient, cartoesClient, catalogo,
+                mock(AvaliadorCreditoService.class), prazoMs);
+    }
+
+    private void comAtraso() {
+        var cliente = new DadosCliente();
+        cliente.setIdade(30);
+        var cartao = new Cartao();
+        cartao.setNome("Basico");
+        cartao.setBandeira("VISA");
+        cartao.setLimiteBasico(new BigDecimal("1000"));
+
+        when(clientesClient.dadosCliente(anyString()))
+                .thenReturn(Mono.just(cliente).delayElement(Duration.ofMillis(ATRASO_MS)));
+        when(cartoesClient.getCartoesRendaAteh(anyLong()))
+                .thenReturn(Mono.just(List.of(cartao)).delayElement(Duration.ofMillis(ATRASO_MS)));
+        when(cartoesClient.getCartoesByCliente(anyString()))
+                .thenReturn(Mono.just(List.<CartaoCliente>of()).delayElement(Duration.ofMillis(ATRASO_MS)));
+    }
+
+    @Test
+    void avaliacaoLevaOMaiorTempoENaoASoma() {
+        comAtraso();
+
+        long inicio = System.nanoTime();
+        var retorno = service(2000).realizarAvaliacao("12345678900", 5000L).block();
+        long decorridoMs = (System.nanoTime() - inicio) / 1_000_000;
+
+        assertEquals(1, retorno.getCartoes().size());
+        assertTrue(decorridoMs < ATRASO_MS * 2 - 100, "decorrido: " + decorridoMs + "ms");
+    }
+
+    @Test
+    void situacaoLevaOMaiorTempoENaoASoma() {
+        comAtraso();
+
+        long inicio = System.nanoTime();
+        var situacao = service(2000).obterSituacaoCliente("12345678900").block();
+        long decorridoMs = (System.nanoTime() - inicio) / 1_000_000;
+
+        assertEquals(30, situacao.getCliente().getIdade());
+        assertTrue(decorridoMs < ATRASO_MS * 2 - 100, "decorrido: " + decorridoMs + "ms");
+    }
+
+    @Test
+    void prazoExcedidoViraErroDeComunicacao() {
+        comAtraso();
+
+        var erro = erro(service(100).realizarAvaliacao("12345678900", 5000L));
+
+        assertInstanceOf(ErroComunicacaoMicroservicesException.class, erro);
+        assertEquals(504, ((ErroComunicacaoMicroservicesException) erro).getStatus());
+    }
+
+    @Test
+    void clienteNaoEncontradoMantemMapeamentoEUsaCacheNegativo() {
+        when(clientesClient.dadosCliente(anyString())).thenReturn(Mono.empty());
+        when(cartoesClient.getCartoesRendaAteh(anyLong())).thenReturn(Mono.just(List.of()));
+        var service = service(2000);
+
+        assertInstanceOf(DadosClienteNotFoundException.class, erro(service.realizarAvaliacao("12345678900", 5000L)));
+        assertInstanceOf(DadosClienteNotFoundException.class, erro(service.realizarAvaliacao("12345678900", 5000L)));
+        verify(clientesClient, times(1)).dadosCliente("12345678900");
+    }
+
+    @Test
+    void erroDoClienteMantemOStatus() {
+        when(clientesClient.dadosCliente(anyString())).thenReturn(Mono.just(new DadosCliente()));
+        when(cartoesClient.getCartoesByCliente(anyString())).thenReturn(Mono.error(
+                WebClientResponseException.create(400, "Bad Request", null, null, null)));
+
+        var erro = erro(service(2000).obterSituacaoCliente("12345678900"));
+
+        assertInstanceOf(ErroComunicacaoMicroservicesException.class, erro);
+        assertEquals(400, ((ErroComunicacaoMicroservicesException) erro).getStatus());
+    }
+
+    @Test
+    void erroDoServicoNaoViraErroDeComunicacao() {
+        when(clientesClient.dadosCliente(anyString())).thenReturn(Mono.just(new DadosCliente()));
+        when(cartoesClient.getCartoesByCliente(anyString())).thenReturn(Mono.error(
+                WebClientResponseException.create(503, "Service Unavailable", null, null, null)));
+
+        assertInstanceOf(WebClientResponseException.class, erro(service(2000).obterSituacaoCliente("12345678900")));
+    }
+
+    private static Throwable erro(Mono<?> resultado) {
+        try {
+            resultado.block();
+        } catch (RuntimeException e) {
+            return Exceptions.unwrap(e);
+        }
+        return fail("deveria ter falhado");
+    }
+}
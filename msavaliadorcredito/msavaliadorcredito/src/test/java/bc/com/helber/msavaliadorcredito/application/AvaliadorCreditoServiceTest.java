@@ -0,0 +1,268 @@
+package bc.com.helber.msavaliadorcredito.application;
+
+import bc.com.helber.msavaliadorcredito.application.ex.DadosClienteNotFoundException;
+import bc.com.helber.msavaliadorcredito.application.ex.ErroComunicacaoMicroservicesException;
+import bc.com.helber.msavaliadorcredito.domain.model.Cartao;
+import bc.com.helber.msavaliadorcredito.domain.model.CartaoCliente;
+import bc.com.helber.msavaliadorcredito.domain.model.DadosAvaliacao;
+import bc.com.helber.msavaliadorcredito.domain.model.DadosCliente;
+import bc.com.helber.msavaliadorcredito.domain.model.RetornoAvaliacaoLote;
+import bc.com.helber.msavaliadorcredito.infra.catalogo.CatalogoCartoes;
+import bc.com.helber.msavaliadorcredito.infra.clients.CartoesResourceClient;
+import bc.com.helber.msavaliadorcredito.infra.clients.ClienteResourceClient;
+import bc.com.helber.msavaliadorcredito.infra.clients.DadosClienteCache;
+import bc.com.helber.msavaliadorcredito.infra.mqueue.SolicitacaoEmissaoCartaoPublisher;
+import feign.FeignException;
+import feign.Request;
+import feign.Response;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class AvaliadorCreditoServiceTest {
+
+    private static final long ATRASO_MS = 300;
+
+    private ClienteResourceClient clientesClient;
+    private CartoesResourceClient cartoesClient;
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setUp() {
+        clientesClient = mock(ClienteResourceClient.class);
+        cartoesClient = mock(CartoesResourceClient.class);
+        executor = Executors.newFixedThreadPool(4);
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    private AvaliadorCreditoService service(boolean paralela, long prazoMs) {
+        return new AvaliadorCreditoService(
+                new DadosClienteCache(clientesClient, new SimpleMeterRegistry(), 1000, 60000, 1000, 30000), cartoesClient,
+                mock(SolicitacaoEmissaoCartaoPublisher.class),
+                new ConsultaParalela(executor, paralela, prazoMs),
+                new CatalogoCartoes(cartoesClient, new SimpleMeterRegistry(), false));
+    }
+
+    private void comAtraso() {
+        var cliente = new DadosCliente();
+        cliente.setIdade(30);
+        var cartao = new Cartao();
+        cartao.setNome("Basico");
+        cartao.setBandeira("VISA");
+        cartao.setLimiteBasico(new BigDecimal("1000"));
+
+        when(clientesClient.dadosCliente(anyString())).thenAnswer(inv -> {
+            Thread.sleep(ATRASO_MS);
+            return ResponseEntity.ok(cliente);
+        });
+        when(cartoesClient.getCartoesRendaAteh(anyLong())).thenAnswer(inv -> {
+            Thread.sleep(ATRASO_MS);
+            return ResponseEntity.ok(List.of(cartao));
+        });
+        when(cartoesClient.getCartoesByCliente(anyString())).thenAnswer(inv -> {
+            Thread.sleep(ATRASO_MS);
+            return ResponseEntity.ok(List.<CartaoCliente>of());
+        });
+    }
+
+    @Test
+    void avaliacaoParalelaLevaOMaiorTempoENaoASoma() throws Exception {
+        comAtraso();
+        var service = service(true, 2000);
+
+        long inicio = System.nanoTime();
+        var retorno = service.realizarAvaliacao("12345678900", 5000L);
+        long decorridoMs = (System.nanoTime() - inicio) / 1_000_000;
+
+        assertEquals(1, retorno.getCartoes().size());
+        assertTrue(decorridoMs < ATRASO_MS * 2 - 100, "decorrido: " + decorridoMs + "ms");
+    }
+
+    @Test
+    void situacaoParalelaLevaOMaiorTempoENaoASoma() throws Exception {
+        comAtraso();
+        var service = service(true, 2000);
+
+        long inicio = System.nanoTime();
+        service.obterSituacaoCliente("12345678900");
+        long decorridoMs = (System.nanoTime() - inicio) / 1_000_000;
+
+        assertTrue(decorridoMs < ATRASO_MS * 2 - 100, "decorrido: " + decorridoMs + "ms");
+    }
+
+    @Test
+    void modoSequencialSomaOsTempos() throws Exception {
+        comAtraso();
+        var service = service(false, 2000);
+
+        long inicio = System.nanoTime();
+        service.realizarAvaliacao("12345678900", 5000L);
+        long decorridoMs = (System.nanoTime() - inicio) / 1_000_000;
+
+        assertTrue(decorridoMs >= ATRASO_MS * 2, "decorrido: " + decorridoMs + "ms");
+    }
+
+    @Test
+    void prazoExcedidoViraErroDeComunicacao() {
+        comAtraso();
+        var service = service(true, 100);
+
+        var erro = assertThrows(ErroComunicacaoMicroservicesException.class,
+                () -> service.realizarAvaliacao("12345678900", 5000L));
+        assertEquals(504, erro.getStatus());
+    }
+
+    @Test
+    void clienteNaoEncontradoMantemMapeamento() {
+        var request = Request.create(Request.HttpMethod.GET, "/clientes?cpf=1", Map.of(), null,
+                StandardCharsets.UTF_8, null);
+        var response = Response.builder().status(404).reason("Not Found")
+                .request(request).headers(Map.of()).build();
+        when(clientesClient.dadosCliente(anyString()))
+                .thenThrow(FeignException.errorStatus("ClienteResourceClient#dadosCliente(String)", response));
+        when(cartoesClient.getCartoesRendaAteh(anyLong())).thenAnswer(inv -> {
+            Thread.sleep(ATRASO_MS);
+            return ResponseEntity.ok(List.<Cartao>of());
+        });
+        var service = service(true, 2000);
+
+        long inicio = System.nanoTime();
+        assertThrows(DadosClienteNotFoundException.class,
+                () -> service.realizarAvaliacao("1", 5000L));
+        assertTrue((System.nanoTime() - inicio) / 1_000_000 < ATRASO_MS);
+    }
+
+    static DadosAvaliacao avaliacao(String cpf, long renda) {
+        var dados = new DadosAvaliacao();
+        dados.setCpf(cpf);
+        dados.setRenda(renda);
+        return dados;
+    }
+
+    static DadosCliente cliente(String cpf, int idade) {
+        var cliente = new DadosCliente();
+        cliente.setCpf(cpf);
+        cliente.setIdade(idade);
+        return cliente;
+    }
+
+    static Cartao cartao(String nome, String limiteBasico) {
+        var cartao = new Cartao();
+        cartao.setNome(nome);
+        cartao.setBandeira("VISA");
+        cartao.setLimiteBasico(new BigDecimal(limiteBasico));
+        return cartao;
+    }
+
+    private void clientesExistentes(String... cpfs) {
+        var existentes = List.of(cpfs);
+        when(clientesClient.dadosClientes(anyList())).thenAnswer(inv -> {
+            List<String> consulta = inv.getArgument(0);
+            return ResponseEntity.ok(consulta.stream()
+                    .filter(existentes::contains)
+                    .map(cpf -> cliente(cpf, 30))
+                    .collect(Collectors.toList()));
+        });
+    }
+
+    private AvaliadorCreditoService serviceLote(int tamanhoBloco) {
+        var service = service(false, 2000);
+        ReflectionTestUtils.setField(service, "tamanhoBlocoLote", tamanhoBloco);
+        return service;
+    }
+
+    @Test
+    void loteFazUmaConsultaEmMassaPorBloco() {
+        clientesExistentes("00000000001", "00000000002", "00000000003", "00000000004", "00000000005");
+        when(cartoesClient.getCartoesRendaAteh(anyLong()))
+                .thenReturn(ResponseEntity.ok(List.of(cartao("Basico", "1000"))));
+        List<RetornoAvaliacaoLote> retornos = new ArrayList<>();
+
+        serviceLote(2).realizarAvaliacaoLote(List.of(
+                avaliacao("00000000001", 5000), avaliacao("00000000002", 5000), avaliacao("00000000003", 5000),
+                avaliacao("00000000004", 5000), avaliacao("00000000005", 5000)), retornos::add);
+
+        assertEquals(5, retornos.size());
+        verify(clientesClient).dadosClientes(List.of("00000000001", "00000000002"));
+        verify(clientesClient).dadosClientes(List.of("00000000003", "00000000004"));
+        verify(clientesClient).dadosClientes(List.of("00000000005"));
+        verify(clientesClient, never()).dadosCliente(anyString());
+    }
+
+    @Test
+    void loteConsultaOCatalogoUmaVezPorRenda() {
+        clientesExistentes("00000000001", "00000000002", "00000000003", "00000000004");
+        when(cartoesClient.getCartoesRendaAteh(5000L))
+                .thenReturn(ResponseEntity.ok(List.of(cartao("Basico", "1000"))));
+        when(cartoesClient.getCartoesRendaAteh(8000L))
+                .thenReturn(ResponseEntity.ok(List.of(cartao("Basico", "1000"), cartao("Gold", "3000"))));
+        List<RetornoAvaliacaoLote> retornos = new ArrayList<>();
+
+        serviceLote(3).realizarAvaliacaoLote(List.of(
+                avaliacao("00000000001", 5000), avaliacao("00000000002", 8000),
+                avaliacao("00000000003", 5000), avaliacao("00000000004", 8000)), retornos::add);
+
+        verify(cartoesClient, times(1)).getCartoesRendaAteh(5000L);
+        verify(cartoesClient, times(1)).getCartoesRendaAteh(8000L);
+        assertEquals(List.of(1, 2, 1, 2), retornos.stream()
+                .map(retorno -> retorno.getCartoes().size())
+                .collect(Collectors.toList()));
+    }
+
+    @Test
+    void loteRespondeCadaCpfNaOrdemMesmoComCpfsAusentesEInvalidos() {
+        clientesExistentes("00000000001", "00000000003");
+        when(cartoesClient.getCartoesRendaAteh(anyLong()))
+                .thenReturn(ResponseEntity.ok(List.of(cartao("Basico", "1000"))));
+        List<RetornoAvaliacaoLote> retornos = new ArrayList<>();
+
+        serviceLote(10).realizarAvaliacaoLote(List.of(
+                avaliacao("00000000001", 5000), avaliacao("00000000002", 5000),
+                avaliacao("abc", 5000), avaliacao("00000000003", 5000)), retornos::add);
+
+        assertEquals(List.of("00000000001", "00000000002", "abc", "00000000003"),
+                retornos.stream().map(RetornoAvaliacaoLote::getCpf).collect(Collectors.toList()));
+        assertEquals(List.of(200, 404, 400, 200),
+                retornos.stream().map(RetornoAvaliacaoLote::getStatus).collect(Collectors.toList()));
+        assertNull(retornos.get(1).getCartoes());
+        assertNotNull(retornos.get(1).getErro());
+        verify(clientesClient).dadosClientes(List.of("00000000001", "00000000002", "00000000003"));
+    }
+
+    @Test
+    void loteRespondeRendaAusenteComo400SemInterromperOsDemais() {
+        clientesExistentes("00000000001", "00000000002");
+        when(cartoesClient.getCartoesRendaAteh(anyLong()))
+                .thenReturn(ResponseEntity.ok(List.of(cartao("Basico", "1000"))));
+        var semRenda = avaliacao("00000000001", 0);
+        semRenda.setRenda(null);
+        List<RetornoAvaliacaoLote> retornos = new ArrayList<>();
+
+        serviceLote(10).realizarAvaliacaoLote(List.of(semRenda, avaliacao("00000000002", 5000)), retornos::add);
+
+        assertEquals(List.of(400, 200),
+                retornos.stream().map(RetornoAvaliacaoLote::getStatus).collect(Collectors.toList()));
+        assertNull(retornos.get(0).getCartoes());
+        assertNotNull(retornos.get(0).getErro());
+        verify(cartoesClient, never()).getCartoesRendaAteh(isNull());
+    }
+}
@@ -0,0 +1,96 @@
+package bc.com.helber.msavaliadorcredito.domain.cpf;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CacheCpfTest {
+
+    private final long[] agora = {0};
+
+    @Test
+    void entradaExpiraNoTtl() {
+        var cache = new CacheCpf<String>(10, 100, 1, () -> agora[0]);
+        cache.put(1, "um");
+
+        agora[0] = 99;
+        assertEquals("um", cache.get(1));
+        agora[0] = 100;
+        assertNull(cache.get(1));
+
+        assertEquals(0, cache.size());
+        assertEquals(1, cache.getAcertos());
+        assertEquals(1, cache.getFaltas());
+        assertEquals(1, cache.getDespejos());
+    }
+
+    @Test
+    void segmentoCheioDespejaOMaisAntigo() {
+        var cache = new CacheCpf<String>(2, 1000, 1, () -> agora[0]);
+        cache.put(1, "um");
+        cache.put(2, "dois");
+        cache.put(1, "um de novo");
+        cache.put(3, "tres");
+
+        assertNull(cache.get(1));
+        assertEquals("dois", cache.get(2));
+        assertEquals("tres", cache.get(3));
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.getDespejos());
+    }
+
+    @Test
+    void chaveInvalidadaNaoContaComoDespejo() {
+        var cache = new CacheCpf<String>(2, 1000, 1, () -> agora[0]);
+        cache.put(1, "um");
+        cache.put(2, "dois");
+        cache.invalidate(1);
+        cache.put(3, "tres");
+
+        assertNull(cache.get(1));
+        assertEquals("dois", cache.get(2));
+        assertEquals("tres", cache.get(3));
+        assertEquals(0, cache.getDespejos());
+    }
+
+    @Test
+    void chaveInvalidadaERegravadaNaoSaiPelaPosicaoAntiga() {
+        var cache = new CacheCpf<String>(2, 1000, 1, () -> agora[0]);
+        cache.put(1, "um");
+        cache.invalidate(1);
+        cache.put(1, "um de novo");
+        cache.put(2, "dois");
+
+        assertEquals("um de novo", cache.get(1));
+        assertEquals("dois", cache.get(2));
+        assertEquals(0, cache.getDespejos());
+
+        cache.put(3, "tres");
+        assertNull(cache.get(1));
+        assertEquals("dois", cache.get(2));
+        assertEquals("tres", cache.get(3));
+        assertEquals(1, cache.getDespejos());
+    }
+
+    @Test
+    void chaveExpiradaERegravadaNaoSaiPelaPosicaoAntiga() {
+        var cache = new CacheCpf<String>(2, 100, 1, () -> agora[0]);
+        cache.put(1, "um");
+        agora[0] = 100;
+        assertNull(cache.get(1));
+        cache.put(1, "um de novo");
+        cache.put(2, "dois");
+
+        assertEquals("um de novo", cache.get(1));
+        assertEquals("dois", cache.get(2));
+        assertEquals(2, cache.size());
+    }
+
+    @Test
+    void cpfInvalidoEFalta() {
+        var cache = new CacheCpf<String>(10, 1000);
+
+        assertNull(cache.get(Cpf.INVALIDO));
+        assertEquals(1, cache.getFaltas());
+    }
+}
@@ -0,0 +1,84 @@
+package bc.com.helber.msavaliadorcredito.domain.cpf;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Random;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MapaCpfTest {
+
+    @Test
+    void cpfNormalizaPontuacaoEZerosAEsquerda() {
+        assertEquals(12345678909L, Cpf.empacotar("123.456.789-09"));
+        assertEquals(Cpf.empacotar("00000000191"), Cpf.empacotar("191"));
+        assertEquals("00000000191", Cpf.formatar(Cpf.empacotar("191")));
+        assertEquals(Cpf.INVALIDO, Cpf.empacotar("123456789012"));
+        assertEquals(Cpf.INVALIDO, Cpf.empacotar("12345a78909"));
+        assertEquals(Cpf.INVALIDO, Cpf.empacotar(""));
+        assertEquals(Cpf.INVALIDO, Cpf.empacotar(null));
+        assertEquals(Cpf.INVALIDO, Cpf.empacotar("abc"));
+    }
+
+    @Test
+    void mapaSeComportaComoHashMap() {
+        var mapa = new MapaCpf<String>();
+        Map<Long, String> referencia = new HashMap<>();
+        var random = new Random(42);
+
+        for (int i = 0; i < 200_000; i++) {
+            long cpf = random.nextInt(50_000) * 1_000_003L % (Cpf.MAXIMO + 1);
+            int operacao = random.nextInt(3);
+            if (operacao == 0) {
+                assertEquals(referencia.put(cpf, "v" + i), mapa.put(cpf, "v" + i));
+            } else if (operacao == 1) {
+                assertEquals(referencia.remove(cpf), mapa.remove(cpf));
+            } else {
+                assertEquals(referencia.get(cpf), mapa.get(cpf));
+                assertEquals(referencia.containsKey(cpf), mapa.containsKey(cpf));
+            }
+            assertEquals(referencia.size(), mapa.size());
+        }
+
+        Map<Long, String> percorridos = new HashMap<>();
+        mapa.forEach(percorridos::put);
+        assertEquals(referencia, percorridos);
+    }
+
+    @Test
+    void conjuntoSeComportaComoHashSet() {
+        var conjunto = new ConjuntoCpf();
+        Set<Long> referencia = new HashSet<>();
+        var random = new Random(7);
+
+        for (int i = 0; i < 200_000; i++) {
+            long cpf = random.nextInt(50_000);
+            if (random.nextBoolean()) {
+                assertEquals(referencia.add(cpf), conjunto.add(cpf));
+            } else {
+                assertEquals(referencia.remove(cpf), conjunto.remove(cpf));
+            }
+        }
+
+        assertEquals(referencia.size(), conjunto.size());
+        for (long cpf : conjunto.toArray()) {
+            assertTrue(referencia.contains(cpf));
+        }
+    }
+
+    @Test
+    void aceitaOsLimitesDoCpf() {
+        var mapa = new MapaCpf<String>();
+        mapa.put(0, "zero");
+        mapa.put(Cpf.MAXIMO, "maximo");
+
+        assertEquals("zero", mapa.get(0));
+        assertEquals("maximo", mapa.get(Cpf.MAXIMO));
+        assertNull(mapa.get(Cpf.INVALIDO));
+        assertThrows(IllegalArgumentException.class, () -> mapa.put(Cpf.MAXIMO + 1, "x"));
+    }
+}
@@ -0,0 +1,126 @@
+package bc.com.helber.msavaliadorcredito.domain.limite;
+
+import bc.com.helber.msavaliadorcredito.domain.model.Cartao;
+import bc.com.helber.msavaliadorcredito.domain.model.CartaoAprovado;
+import org.junit.jupiter.api.Test;
+
+import java.lang.management.ManagementFactory;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MotorLimiteCreditoTest {
+
+    private static List<CartaoAprovado> formulaOriginal(Integer idade, List<Cartao> cartoes) {
+        return cartoes.stream().map(cartao -> {
+            BigDecimal limiteBasico = cartao.getLimiteBasico();
+            BigDecimal idadeBD = BigDecimal.valueOf(idade);
+            var fator = idadeBD.divide(BigDecimal.valueOf(10));
+            BigDecimal limiteAprovado = fator.multiply(limiteBasico);
+
+            CartaoAprovado aprovado = new CartaoAprovado();
+            aprovado.setCartao(cartao.getNome());
+            aprovado.setBandeira(cartao.getBandeira());
+            aprovado.setLimiteAprovado(limiteAprovado);
+            return aprovado;
+        }).collect(Collectors.toList());
+    }
+
+    private static Cartao cartao(int i, BigDecimal limite) {
+        var cartao = new Cartao();
+        cartao.setNome("Cartao " + i);
+        cartao.setBandeira(i % 2 == 0 ? "VISA" : "MASTERCARD");
+        cartao.setLimiteBasico(limite);
+        return cartao;
+    }
+
+    private static BigDecimal limiteAleatorio(Random random) {
+        switch (random.nextInt(4)) {
+            case 0:
+                return BigDecimal.valueOf(random.nextInt(1_000_000), random.nextInt(4));
+            case 1:
+                return BigDecimal.valueOf(random.nextLong(), random.nextInt(7) - 2);
+            case 2:
+                return new BigDecimal(new BigInteger(96, random), random.nextInt(3));
+            default:
+                return BigDecimal.valueOf(random.nextInt(100) * 100L);
+        }
+    }
+
+    @Test
+    void resultadoIdenticoAFormulaOriginal() {
+        var random = new Random(20240611L);
+        for (int rodada = 0; rodada < 5_000; rodada++) {
+            int idade = random.nextInt(140) - 10;
+            List<Cartao> cartoes = new ArrayList<>();
+            for (int i = 0; i < 1 + random.nextInt(8); i++) {
+                cartoes.add(cartao(i, limiteAleatorio(random)));
+            }
+
+            List<CartaoAprovado> esperado = formulaOriginal(idade, cartoes);
+            List<CartaoAprovado> obtido = MotorLimiteCredito.aprovar(idade, cartoes);
+
+            assertEquals(esperado, obtido, "idade " + idade + ", cartoes " + cartoes);
+        }
+    }
+
+    @Test
+    void prefixoDaTabelaUsaOsMesmosLimites() {
+        List<Cartao> cartoes = List.of(cartao(0, new BigDecimal("1000.00")), cartao(1, new BigDecimal("2500")),
+                cartao(2, new BigDecimal("7000.5")));
+        var tabela = TabelaLimites.de(cartoes);
+
+        assertEquals(formulaOriginal(35, cartoes.subList(0, 2)),
+                MotorLimiteCredito.aprovar(35, tabela.prefixo(2)));
+        assertTrue(MotorLimiteCredito.aprovar(35, tabela.prefixo(0)).isEmpty());
+    }
+
+    @Test
+    void limiteNuloFalhaComoAFormulaOriginal() {
+        List<Cartao> cartoes = List.of(cartao(0, null));
+
+        assertThrows(NullPointerException.class, () -> formulaOriginal(30, cartoes));
+        assertThrows(NullPointerException.class, () -> MotorLimiteCredito.aprovar(30, cartoes));
+    }
+
+    @Test
+    void alocaMenosQueFormulaOriginal() {
+        var threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        List<Cartao> cartoes = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            cartoes.add(cartao(i, BigDecimal.valueOf(1000L + i * 250L)));
+        }
+        var tabela = TabelaLimites.de(cartoes);
+        int iteracoes = 20_000;
+
+        for (int i = 0; i < iteracoes; i++) {
+            formulaOriginal(25 + i % 50, cartoes);
+            MotorLimiteCredito.aprovar(25 + i % 50, tabela);
+        }
+
+        long id = Thread.currentThread().getId();
+        long inicio = threads.getThreadAllocatedBytes(id);
+        for (int i = 0; i < iteracoes; i++) {
+            formulaOriginal(25 + i % 50, cartoes);
+        }
+        long original = threads.getThreadAllocatedBytes(id) - inicio;
+
+        inicio = threads.getThreadAllocatedBytes(id);
+        for (int i = 0; i < iteracoes; i++) {
+            MotorLimiteCredito.aprovar(25 + i % 50, tabela);
+        }
+        long motor = threads.getThreadAllocatedBytes(id) - inicio;
+
+        long originalPorAvaliacao = original / iteracoes;
+        long motorPorAvaliacao = motor / iteracoes;
+        String bytes = "bytes por avaliacao: original=" + originalPorAvaliacao + " motor=" + motorPorAvaliacao;
+        // o motor so aloca o resultado: a lista, e um CartaoAprovado e um BigDecimal por cartao
+        assertTrue(motorPorAvaliacao <= cartoes.size() * 128L, bytes);
+        assertTrue(motorPorAvaliacao * 4 <= originalPorAvaliacao * 3, bytes);
+    }
+}
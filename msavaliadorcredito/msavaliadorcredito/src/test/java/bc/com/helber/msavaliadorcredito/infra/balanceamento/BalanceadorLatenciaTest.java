@@ -0,0 +1,262 @@
+package bc.com.helber.msavaliadorcredito.infra.balanceamento;
+
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.CompletionContext;
+import org.springframework.cloud.client.loadbalancer.DefaultRequest;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.RequestData;
+import org.springframework.cloud.client.loadbalancer.RequestDataContext;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.loadbalancer.core.ReactorServiceInstanceLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.RoundRobinLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.util.LinkedMultiValueMap;
+import reactor.core.publisher.Flux;
+
+import java.net.InetSocketAddress;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BalanceadorLatenciaTest {
+
+    private static final String SERVICO = "mscartoes";
+    private static final long ATRASO_LENTA_MS = 100;
+    private static final long ATRASO_RAPIDA_MS = 2;
+    private static final int CLIENTES = 8;
+    private static final int REQUISICOES = 800;
+
+    private final List<HttpServer> servidores = new ArrayList<>();
+    private final List<ServiceInstance> instancias = new ArrayList<>();
+    private final Map<String, AtomicInteger> atendidas = new ConcurrentHashMap<>();
+    private final HttpClient httpClient = HttpClient.newHttpClient();
+    private ServiceInstance lenta;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        for (int i = 0; i < 4; i++) {
+            long atraso = i == 0 ? ATRASO_LENTA_MS : ATRASO_RAPIDA_MS;
+            var servidor = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+            servidor.setExecutor(Executors.newCachedThreadPool());
+            servidor.createContext("/", troca -> {
+                try {
+                    Thread.sleep(atraso);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                troca.sendResponseHeaders(200, 2);
+                troca.getResponseBody().write("ok".getBytes());
+                troca.close();
+            });
+            servidor.start();
+            servidores.add(servidor);
+            var instancia = new DefaultServiceInstance("instancia-" + i, SERVICO, "localhost",
+                    servidor.getAddress().getPort(), false);
+            instancias.add(instancia);
+            atendidas.put(instancia.getInstanceId(), new AtomicInteger());
+        }
+        lenta = instancias.get(0);
+    }
+
+    @AfterEach
+    void tearDown() {
+        servidores.forEach(servidor -> servidor.stop(0));
+    }
+
+    private ServiceInstanceListSupplier fornecedor() {
+        return new ServiceInstanceListSupplier() {
+            @Override
+            public String getServiceId() {
+                return SERVICO;
+            }
+
+            @Override
+            public Flux<List<ServiceInstance>> get() {
+                return Flux.just(instancias);
+            }
+        };
+    }
+
+    private long[] executar(ReactorServiceInstanceLoadBalancer balanceador,
+                            EstatisticasBalanceamentoLifecycle lifecycle) throws Exception {
+        List<Long> latencias = Collections.synchronizedList(new ArrayList<>());
+        ExecutorService clientes = Executors.newFixedThreadPool(CLIENTES);
+        try {
+            List<Future<?>> tarefas = new ArrayList<>();
+            for (int c = 0; c < CLIENTES; c++) {
+                tarefas.add(clientes.submit(() -> {
+                    for (int i = 0; i < REQUISICOES / CLIENTES; i++) {
+                        latencias.add(requisitar(balanceador, lifecycle));
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> tarefa : tarefas) {
+                tarefa.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            clientes.shutdownNow();
+        }
+        return latencias.stream().mapToLong(Long::longValue).sorted().toArray();
+    }
+
+    private long requisitar(ReactorServiceInstanceLoadBalancer balanceador,
+                            EstatisticasBalanceamentoLifecycle lifecycle) throws Exception {
+        var uri = URI.create("http://" + SERVICO + "/cartoes");
+        Request<Object> request = new DefaultRequest<>(new RequestDataContext(
+                new RequestData(HttpMethod.GET, uri, new HttpHeaders(), new LinkedMultiValueMap<>(), Map.of())));
+        Response<ServiceInstance> resposta = balanceador.choose(request).block();
+        ServiceInstance instancia = resposta.getServer();
+        atendidas.get(instancia.getInstanceId()).incrementAndGet();
+
+        long inicio = System.nanoTime();
+        if (lifecycle != null) {
+            lifecycle.onStartRequest(request, resposta);
+        }
+        httpClient.send(HttpRequest.newBuilder(instancia.getUri().resolve("/cartoes")).build(),
+                HttpResponse.BodyHandlers.discarding());
+        if (lifecycle != null) {
+            lifecycle.onComplete(new CompletionContext<>(CompletionContext.Status.SUCCESS, request, resposta, null));
+        }
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicio);
+    }
+
+    private static long p99(long[] latencias) {
+        return latencias[(int) Math.ceil(latencias.length * 0.99) - 1];
+    }
+
+    @Test
+    void latenciaDeCaudaMelhoraComInstanciaLenta() throws Exception {
+        var beanFactory = new DefaultListableBeanFactory();
+        beanFactory.registerSingleton("fornecedor", fornecedor());
+        var provider = beanFactory.getBeanProvider(ServiceInstanceListSupplier.class);
+
+        long[] roundRobin = executar(new RoundRobinLoadBalancer(provider, SERVICO), null);
+        int lentaRoundRobin = atendidas.get(lenta.getInstanceId()).getAndSet(0);
+
+        var estatisticas = new EstatisticasInstancias(10_000, 50, 1_000);
+        long[] latenciaAware = executar(new BalanceadorLatencia(provider, SERVICO, estatisticas),
+                new EstatisticasBalanceamentoLifecycle(estatisticas));
+        int lentaLatenciaAware = atendidas.get(lenta.getInstanceId()).get();
+
+        assertTrue(p99(roundRobin) >= ATRASO_LENTA_MS, "p99 round robin: " + p99(roundRobin));
+        assertTrue(p99(latenciaAware) * 2 < p99(roundRobin),
+                "p99 round robin: " + p99(roundRobin) + "ms, p99 p2c: " + p99(latenciaAware) + "ms");
+        assertTrue(lentaLatenciaAware < lentaRoundRobin / 10,
+                "instância lenta atendeu " + lentaLatenciaAware + " contra " + lentaRoundRobin);
+    }
+
+    @Test
+    void instanciaEvitadaVoltaASerTentadaComODecaimento() {
+        long[] agora = {0};
+        var estatisticas = new EstatisticasInstancias(1_000, 50, 1_000, () -> agora[0]);
+        var rapida = instancias.get(1);
+
+        estatisticas.concluir(lenta, TimeUnit.MILLISECONDS.toNanos(500), false);
+        estatisticas.concluir(rapida, TimeUnit.MILLISECONDS.toNanos(5), false);
+        assertTrue(estatisticas.custo(lenta) > estatisticas.custo(rapida));
+
+        agora[0] = TimeUnit.SECONDS.toNanos(5);
+        assertTrue(estatisticas.custo(lenta) < TimeUnit.MILLISECONDS.toNanos(5));
+    }
+
+    @Test
+    void requisicoesEmVooEncarecemAInstancia() {
+        var estatisticas = new EstatisticasInstancias(10_000, 50, 1_000, () -> 0);
+        var a = instancias.get(1);
+        var b = instancias.get(2);
+        estatisticas.concluir(a, TimeUnit.MILLISECONDS.toNanos(10), false);
+        estatisticas.concluir(b, TimeUnit.MILLISECONDS.toNanos(10), false);
+
+        estatisticas.iniciar(a);
+        estatisticas.iniciar(a);
+
+        assertEquals(2, estatisticas.emVoo(a));
+        assertEquals(3 * estatisticas.custo(b), estatisticas.custo(a), 1);
+    }
+
+    @Test
+    void falhaContaComoPenalidade() {
+        var estatisticas = new EstatisticasInstancias(10_000, 50, 1_000, () -> 0);
+        var a = instancias.get(1);
+
+        estatisticas.iniciar(a);
+        estatisticas.concluir(a, TimeUnit.MILLISECONDS.toNanos(3), true);
+
+        assertEquals(0, estatisticas.emVoo(a));
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(1_000), estatisticas.custo(a), 1);
+    }
+
+    @Test
+    void instanciaQueSaiDaListaEEsquecidaQuandoNaoTemRequisicaoEmVoo() {
+        var estatisticas = new EstatisticasInstancias(10_000, 50, 1_000, () -> 0);
+        var saiu = instancias.get(1);
+        var ocupada = instancias.get(2);
+        var nova = instancias.get(3);
+        estatisticas.manter(SERVICO, List.of(saiu, ocupada));
+        estatisticas.concluir(saiu, TimeUnit.MILLISECONDS.toNanos(500), false);
+        estatisticas.concluir(ocupada, TimeUnit.MILLISECONDS.toNanos(500), false);
+        estatisticas.iniciar(ocupada);
+
+        estatisticas.manter(SERVICO, List.of(nova));
+
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(50), estatisticas.custo(saiu), 1);
+        assertEquals(1, estatisticas.emVoo(ocupada));
+        assertEquals(2 * TimeUnit.MILLISECONDS.toNanos(500), estatisticas.custo(ocupada), 1);
+
+        estatisticas.concluir(ocupada, -1, false);
+        estatisticas.manter(SERVICO, List.of(nova));
+
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(50), estatisticas.custo(ocupada), 1);
+    }
+
+    @Test
+    void listaDeOutroServicoNaoEsqueceAsInstanciasDeste() {
+        var estatisticas = new EstatisticasInstancias(10_000, 50, 1_000, () -> 0);
+        var instancia = instancias.get(1);
+        estatisticas.manter(SERVICO, List.of(instancia));
+        estatisticas.concluir(instancia, TimeUnit.MILLISECONDS.toNanos(500), false);
+
+        estatisticas.manter("msclientes", List.of());
+
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(500), estatisticas.custo(instancia), 1);
+    }
+
+    @Test
+    void tentativaDeHedgeNaoRepeteAInstanciaDaPrimeira() {
+        var estatisticas = new EstatisticasInstancias(10_000, 50, 1_000, () -> 0);
+        var balanceador = new BalanceadorLatencia(null, SERVICO, estatisticas);
+        var duas = List.of(instancias.get(1), instancias.get(2));
+
+        for (int i = 0; i < 50; i++) {
+            String hedgeId = "hedge-" + i;
+            ServiceInstance primeira = balanceador.escolher(duas, hedgeId).getServer();
+            ServiceInstance segunda = balanceador.escolher(duas, hedgeId).getServer();
+            estatisticas.encerrarHedge(hedgeId);
+
+            assertNotEquals(primeira.getInstanceId(), segunda.getInstanceId());
+        }
+        assertNull(estatisticas.escolhaHedge("hedge-0"));
+    }
+}
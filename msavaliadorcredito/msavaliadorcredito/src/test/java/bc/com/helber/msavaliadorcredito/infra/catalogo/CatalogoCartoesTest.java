@@ -0,0 +1,62 @@
+package bc.com.helber.msavaliadorcredito.infra.catalogo;
+
+import bc.com.helber.msavaliadorcredito.domain.model.Cartao;
+import bc.com.helber.msavaliadorcredito.infra.clients.CartoesResourceClient;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class CatalogoCartoesTest {
+
+    private static Cartao cartao(String nome, String renda) {
+        var cartao = new Cartao();
+        cartao.setNome(nome);
+        cartao.setBandeira("VISA");
+        cartao.setRenda(new BigDecimal(renda));
+        cartao.setLimiteBasico(new BigDecimal("1000"));
+        return cartao;
+    }
+
+    @Test
+    void consultaPorRendaUsaSnapshotLocalOrdenado() {
+        var client = mock(CartoesResourceClient.class);
+        when(client.getCatalogo()).thenReturn(ResponseEntity.ok(List.of(
+                cartao("Gold", "5000"), cartao("Basico", "1000"),
+                cartao("Platinum", "10000"), cartao("Prata", "2000.50"))));
+        var registry = new SimpleMeterRegistry();
+        var catalogo = new CatalogoCartoes(client, registry, true);
+
+        catalogo.recarregar();
+
+        assertEquals(List.of(), nomes(catalogo.getCartoesRendaAteh(999L)));
+        assertEquals(List.of("Basico"), nomes(catalogo.getCartoesRendaAteh(2000L)));
+        assertEquals(List.of("Basico", "Prata", "Gold"), nomes(catalogo.getCartoesRendaAteh(5000L)));
+        assertEquals(4, catalogo.getCartoesRendaAteh(Long.MAX_VALUE).size());
+        verify(client, never()).getCartoesRendaAteh(anyLong());
+        assertEquals(4.0, registry.get("catalogo.cartoes.consultas").tag("origem", "local").counter().count());
+        assertEquals(4.0, registry.get("catalogo.cartoes.tamanho").gauge().value());
+    }
+
+    @Test
+    void semSnapshotConsultaRemota() {
+        var client = mock(CartoesResourceClient.class);
+        when(client.getCartoesRendaAteh(3000L)).thenReturn(ResponseEntity.ok(List.of(cartao("Basico", "1000"))));
+        var catalogo = new CatalogoCartoes(client, new SimpleMeterRegistry(), false);
+
+        catalogo.recarregar();
+
+        assertEquals(List.of("Basico"), nomes(catalogo.getCartoesRendaAteh(3000L)));
+        verify(client, never()).getCatalogo();
+    }
+
+    private static List<String> nomes(List<Cartao> cartoes) {
+        return cartoes.stream().map(Cartao::getNome).collect(Collectors.toList());
+    }
+}
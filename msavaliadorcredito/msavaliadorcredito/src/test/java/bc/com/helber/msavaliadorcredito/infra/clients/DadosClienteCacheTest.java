@@ -0,0 +1,89 @@
+package bc.com.helber.msavaliadorcredito.infra.clients;
+
+import bc.com.helber.msavaliadorcredito.domain.model.DadosCliente;
+import feign.FeignException;
+import feign.Request;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.ResponseEntity;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class DadosClienteCacheTest {
+
+    private ClienteResourceClient clientesClient;
+    private DadosClienteCache cache;
+
+    @BeforeEach
+    void setUp() {
+        clientesClient = mock(ClienteResourceClient.class);
+        cache = new DadosClienteCache(clientesClient, new SimpleMeterRegistry(), 1000, 60000, 1000, 60000);
+    }
+
+    private static FeignException.NotFound notFound() {
+        var request = Request.create(Request.HttpMethod.GET, "/clientes?cpf=1", Map.of(), null,
+                StandardCharsets.UTF_8, null);
+        return new FeignException.NotFound("Not Found", request, null, Map.of());
+    }
+
+    @Test
+    void cpfNaoEncontradoNaoRepeteAChamadaRemota() {
+        when(clientesClient.dadosCliente("1")).thenThrow(notFound());
+
+        assertThrows(FeignException.NotFound.class, () -> cache.dadosCliente("1"));
+        var erro = assertThrows(FeignException.NotFound.class, () -> cache.dadosCliente("1"));
+
+        assertEquals(404, erro.status());
+        verify(clientesClient, times(1)).dadosCliente("1");
+    }
+
+    @Test
+    void invalidacaoRemoveOCacheNegativo() {
+        var cliente = new DadosCliente();
+        cliente.setCpf("1");
+        when(clientesClient.dadosCliente("1")).thenThrow(notFound()).thenReturn(ResponseEntity.ok(cliente));
+
+        assertThrows(FeignException.NotFound.class, () -> cache.dadosCliente("1"));
+        cache.invalidar("1");
+
+        assertSame(cliente, cache.dadosCliente("1"));
+    }
+
+    @Test
+    void loteNaoConsultaCpfsSabidamenteInexistentes() {
+        var cliente = new DadosCliente();
+        cliente.setCpf("1");
+        when(clientesClient.dadosClientes(anyList())).thenReturn(ResponseEntity.ok(List.of(cliente)));
+        var cpfs = List.of("1", "2");
+
+        for (int i = 0; i < 2; i++) {
+            var encontrados = cache.dadosClientes(cpfs);
+            assertEquals(1, encontrados.size());
+            assertSame(cliente, encontrados.get(1));
+        }
+
+        verify(clientesClient, times(1)).dadosClientes(anyList());
+        verifyNoMoreInteractions(clientesClient);
+        assertThrows(FeignException.NotFound.class, () -> cache.dadosCliente("2"));
+    }
+
+    @Test
+    void loteEnviaOsCpfsComoOChamadorEscreveu() {
+        var cliente = new DadosCliente();
+        cliente.setCpf("123.456.789-09");
+        when(clientesClient.dadosClientes(anyList())).thenReturn(ResponseEntity.ok(List.of(cliente)));
+
+        var encontrados = cache.dadosClientes(List.of("123.456.789-09", "12345678909", "abc", "00000000001"));
+
+        verify(clientesClient).dadosClientes(List.of("123.456.789-09", "12345678909", "00000000001"));
+        assertEquals(1, encontrados.size());
+        assertSame(cliente, encontrados.get(12345678909L));
+        assertSame(cliente, cache.dadosCliente("12345678909"));
+    }
+}
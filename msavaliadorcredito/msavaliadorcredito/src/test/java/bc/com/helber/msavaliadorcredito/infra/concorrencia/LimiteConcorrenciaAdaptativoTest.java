@@ -0,0 +1,160 @@
+package bc.com.helber.msavaliadorcredito.infra.concorrencia;
+
+import bc.com.helber.msavaliadorcredito.infra.concorrencia.LimiteConcorrenciaFilter.Prioridade;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LimiteConcorrenciaAdaptativoTest {
+
+    private static final long RAPIDO = TimeUnit.MILLISECONDS.toNanos(20);
+    private static final long LENTO = TimeUnit.MILLISECONDS.toNanos(400);
+
+    private final long[] agora = {0};
+    private final LimiteConcorrenciaAdaptativo limite =
+            new LimiteConcorrenciaAdaptativo(20, 4, 200, 100, 5, 100, 1.5, 0.2, () -> agora[0]);
+
+    @Test
+    void cresceComLatenciaEstavelESobCarga() {
+        rodadas(400, RAPIDO);
+
+        assertTrue(limite.limite() > 100, "limite " + limite.limite());
+        assertEquals(0, limite.emVoo());
+    }
+
+    @Test
+    void naoCresceSemCarga() {
+        for (int i = 0; i < 200; i++) {
+            var permissao = limite.adquirir(1.0);
+            agora[0] += RAPIDO;
+            permissao.sucesso();
+        }
+
+        assertEquals(20, limite.limite());
+    }
+
+    @Test
+    void lentidaoNosServicosEncolheOLimite() {
+        rodadas(300, RAPIDO);
+        int antes = limite.limite();
+
+        rodadas(12, LENTO);
+
+        assertTrue(limite.limite() < antes / 2, antes + " -> " + limite.limite());
+    }
+
+    @Test
+    void lentidaoPersistenteViraANovaReferencia() {
+        rodadas(300, RAPIDO);
+        rodadas(12, LENTO);
+        int noPior = limite.limite();
+
+        rodadas(300, LENTO);
+
+        assertTrue(limite.limite() > noPior * 2, noPior + " -> " + limite.limite());
+    }
+
+    @Test
+    void descarteRecuaOLimite() {
+        var permissao = limite.adquirir(1.0);
+        agora[0] += LENTO;
+        permissao.descartada();
+        permissao.descartada();
+
+        assertEquals((int) (20 * LimiteConcorrenciaAdaptativo.RECUO), limite.limite());
+        assertEquals(0, limite.emVoo());
+    }
+
+    @Test
+    void parcelaMenorERecusadaPrimeiro() {
+        var ocupadas = new ArrayList<LimiteConcorrenciaAdaptativo.Permissao>();
+        for (int i = 0; i < 10; i++) {
+            ocupadas.add(limite.adquirir(1.0));
+        }
+
+        assertNull(limite.adquirir(0.5));
+        assertNotNull(limite.adquirir(1.0));
+
+        ocupadas.forEach(LimiteConcorrenciaAdaptativo.Permissao::ignorar);
+        assertEquals(1, limite.emVoo());
+    }
+
+    @Test
+    void filtroRecusaCom503EPreservaASolicitacaoDeCartao() throws Exception {
+        var registry = new SimpleMeterRegistry();
+        var filtro = new LimiteConcorrenciaFilter(limite,
+                Map.of(Prioridade.BAIXA, 0.5, Prioridade.NORMAL, 0.8, Prioridade.ALTA, 1.0), registry);
+        var ocupadas = new ArrayList<LimiteConcorrenciaAdaptativo.Permissao>();
+        for (int i = 0; i < 16; i++) {
+            ocupadas.add(limite.adquirir(1.0));
+        }
+
+        var situacao = executar(filtro, "GET", "/avaliacoes-credito/situacao-cliente");
+        var avaliacao = executar(filtro, "POST", "/avaliacoes-credito");
+        var solicitacao = executar(filtro, "POST", "/avaliacoes-credito/solicitacoes-cartao");
+        var status = executar(filtro, "GET", "/avaliacoes-credito");
+
+        assertEquals(503, situacao.getStatus());
+        assertEquals("1", situacao.getHeader("Retry-After"));
+        assertEquals(503, avaliacao.getStatus());
+        assertEquals(200, solicitacao.getStatus());
+        assertEquals(200, status.getStatus());
+        assertEquals(16, limite.emVoo());
+        assertEquals(1, registry.get("avaliador.concorrencia.rejeitadas").tag("prioridade", "baixa")
+                .counter().count());
+        assertEquals(0, registry.get("avaliador.concorrencia.rejeitadas").tag("prioridade", "alta")
+                .counter().count());
+        assertEquals(16, registry.get("avaliador.concorrencia.em-voo").gauge().value());
+        assertEquals(20, registry.get("avaliador.concorrencia.limite").gauge().value());
+        ocupadas.forEach(LimiteConcorrenciaAdaptativo.Permissao::ignorar);
+    }
+
+    @Test
+    void filtroDescartaRespostaDeErroDoServidor() throws Exception {
+        var filtro = new LimiteConcorrenciaFilter(limite,
+                Map.of(Prioridade.BAIXA, 0.5, Prioridade.NORMAL, 0.8, Prioridade.ALTA, 1.0),
+                new SimpleMeterRegistry());
+        var request = new MockHttpServletRequest("POST", "/avaliacoes-credito");
+        var response = new MockHttpServletResponse();
+
+        filtro.doFilter(request, response, (req, resp) -> {
+            agora[0] += LENTO;
+            ((MockHttpServletResponse) resp).setStatus(504);
+        });
+
+        assertEquals(18, limite.limite());
+        assertEquals(0, limite.emVoo());
+    }
+
+    /**
+     * Cada rodada enche o limite com requisicoes simultaneas que levam
+     * {@code latencia} e depois libera todas, como um pico de chegadas.
+     */
+    private void rodadas(int quantidade, long latencia) {
+        for (int r = 0; r < quantidade; r++) {
+            List<LimiteConcorrenciaAdaptativo.Permissao> emVoo = new ArrayList<>();
+            LimiteConcorrenciaAdaptativo.Permissao permissao;
+            while ((permissao = limite.adquirir(1.0)) != null) {
+                emVoo.add(permissao);
+            }
+            agora[0] += latencia;
+            emVoo.forEach(LimiteConcorrenciaAdaptativo.Permissao::sucesso);
+        }
+    }
+
+    private static MockHttpServletResponse executar(LimiteConcorrenciaFilter filtro, String metodo, String caminho)
+            throws Exception {
+        var response = new MockHttpServletResponse();
+        filtro.doFilter(new MockHttpServletRequest(metodo, caminho), response, new MockFilterChain());
+        return response;
+    }
+}
@@ -0,0 +1,91 @@
+package bc.com.helber.msavaliadorcredito.infra.concorrencia;
+
+import bc.com.helber.msavaliadorcredito.infra.concorrencia.LimiteConcorrenciaFilter.Prioridade;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LimiteConcorrenciaWebFilterTest {
+
+    private final long[] agora = {0};
+    private final LimiteConcorrenciaAdaptativo limite =
+            new LimiteConcorrenciaAdaptativo(20, 4, 200, 100, 5, 100, 1.5, 0.2, () -> agora[0]);
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final LimiteConcorrenciaWebFilter filtro = new LimiteConcorrenciaWebFilter(limite,
+            Map.of(Prioridade.BAIXA, 0.5, Prioridade.NORMAL, 0.8, Prioridade.ALTA, 1.0), registry);
+
+    @Test
+    void recusaCom503EPreservaASolicitacaoDeCartao() {
+        var ocupadas = new ArrayList<LimiteConcorrenciaAdaptativo.Permissao>();
+        for (int i = 0; i < 16; i++) {
+            ocupadas.add(limite.adquirir(1.0));
+        }
+
+        var situacao = executar(MockServerHttpRequest.get("/avaliacoes-credito/situacao-cliente"), ok());
+        var avaliacao = executar(MockServerHttpRequest.post("/avaliacoes-credito"), ok());
+        var solicitacao = executar(MockServerHttpRequest.post("/avaliacoes-credito/solicitacoes-cartao"), ok());
+
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, situacao.getResponse().getStatusCode());
+        assertEquals("1", situacao.getResponse().getHeaders().getFirst("Retry-After"));
+        assertEquals(HttpStatus.SERVICE_UNAVAILABLE, avaliacao.getResponse().getStatusCode());
+        assertEquals(HttpStatus.OK, solicitacao.getResponse().getStatusCode());
+        assertEquals(16, limite.emVoo());
+        assertEquals(1, registry.get("avaliador.concorrencia.rejeitadas").tag("prioridade", "baixa")
+                .counter().count());
+        ocupadas.forEach(LimiteConcorrenciaAdaptativo.Permissao::ignorar);
+    }
+
+    @Test
+    void vagaSoVoltaQuandoARespostaTermina() {
+        var exchange = MockServerWebExchange.from(MockServerHttpRequest.post("/avaliacoes-credito/lote"));
+        var emVooDuranteResposta = new int[1];
+
+        filtro.filter(exchange, ex -> Mono.fromRunnable(() -> emVooDuranteResposta[0] = limite.emVoo())).block();
+
+        assertEquals(1, emVooDuranteResposta[0]);
+        assertEquals(0, limite.emVoo());
+    }
+
+    @Test
+    void respostaDeErroDoServidorDescartaAAmostra() {
+        executar(MockServerHttpRequest.post("/avaliacoes-credito"), exchange -> {
+            agora[0] += TimeUnit.MILLISECONDS.toNanos(400);
+            exchange.getResponse().setStatusCode(HttpStatus.GATEWAY_TIMEOUT);
+            return Mono.empty();
+        });
+
+        assertEquals(18, limite.limite());
+        assertEquals(0, limite.emVoo());
+    }
+
+    @Test
+    void erroNaCadeiaDescartaAAmostra() {
+        var exchange = MockServerWebExchange.from(MockServerHttpRequest.post("/avaliacoes-credito"));
+
+        assertThrows(IllegalStateException.class, () -> filtro.filter(exchange,
+                ex -> Mono.error(new IllegalStateException("falha"))).block());
+
+        assertEquals(18, limite.limite());
+        assertEquals(0, limite.emVoo());
+    }
+
+    private static WebFilterChain ok() {
+        return exchange -> Mono.empty();
+    }
+
+    private MockServerWebExchange executar(MockServerHttpRequest.BaseBuilder<?> request, WebFilterChain chain) {
+        var exchange = MockServerWebExchange.from(request);
+        filtro.filter(exchange, chain).block();
+        return exchange;
+    }
+}
@@ -0,0 +1,162 @@
+package bc.com.helber.msavaliadorcredito.infra.http;
+
+import bc.com.helber.msavaliadorcredito.domain.model.Cartao;
+import bc.com.helber.msavaliadorcredito.domain.model.CartaoCliente;
+import bc.com.helber.msavaliadorcredito.infra.clients.CartoesResourceClient;
+import feign.MethodMetadata;
+import feign.RequestTemplate;
+import feign.Target;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.openfeign.support.SpringMvcContract;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.mock.http.MockHttpInputMessage;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.reflect.Type;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CartoesBinarioHttpMessageConverterTest {
+
+    private static final Type CARTOES = new ParameterizedTypeReference<List<Cartao>>() {}.getType();
+    private static final Type CARTOES_CLIENTE = new ParameterizedTypeReference<List<CartaoCliente>>() {}.getType();
+
+    private final CartoesBinarioHttpMessageConverter conversor = new CartoesBinarioHttpMessageConverter();
+
+    @Test
+    void leCartoesComValoresEscalonados() throws IOException {
+        var bytes = new ByteArrayOutputStream();
+        var out = cabecalho(bytes, 2);
+        out.writeLong(7);
+        texto(out, "Basico");
+        texto(out, "VISA");
+        out.writeLong(100_000);
+        out.writeLong(150_050);
+        out.writeLong(CartoesBinarioHttpMessageConverter.NULO);
+        texto(out, null);
+        texto(out, null);
+        out.writeLong(CartoesBinarioHttpMessageConverter.NULO);
+        out.writeLong(0);
+
+        @SuppressWarnings("unchecked")
+        var cartoes = (List<Cartao>) conversor.read(CARTOES, null, new MockHttpInputMessage(bytes.toByteArray()));
+
+        assertEquals(2, cartoes.size());
+        var basico = cartoes.get(0);
+        assertEquals(7L, basico.getId());
+        assertEquals("Basico", basico.getNome());
+        assertEquals("VISA", basico.getBandeira());
+        assertEquals(0, new BigDecimal("1000").compareTo(basico.getRenda()));
+        assertEquals(new BigDecimal("1500.50"), basico.getLimiteBasico());
+        var vazio = cartoes.get(1);
+        assertNull(vazio.getId());
+        assertNull(vazio.getNome());
+        assertNull(vazio.getBandeira());
+        assertNull(vazio.getRenda());
+        assertEquals(0, BigDecimal.ZERO.compareTo(vazio.getLimiteBasico()));
+    }
+
+    @Test
+    void leCartoesDoCliente() throws IOException {
+        var bytes = new ByteArrayOutputStream();
+        var out = cabecalho(bytes, 1);
+        texto(out, "Ouro Açaí");
+        texto(out, "MASTERCARD");
+        out.writeLong(250_075);
+
+        @SuppressWarnings("unchecked")
+        var cartoes = (List<CartaoCliente>) conversor.read(CARTOES_CLIENTE, null,
+                new MockHttpInputMessage(bytes.toByteArray()));
+
+        assertEquals("Ouro Açaí", cartoes.get(0).getNome());
+        assertEquals("MASTERCARD", cartoes.get(0).getBandeira());
+        assertEquals(new BigDecimal("2500.75"), cartoes.get(0).getLimiteLiberado());
+    }
+
+    @Test
+    void bandeiraNovaChegaPeloNome() throws IOException {
+        var bytes = new ByteArrayOutputStream();
+        var out = cabecalho(bytes, 1);
+        texto(out, "Novo");
+        texto(out, "ELO");
+        out.writeLong(0);
+
+        @SuppressWarnings("unchecked")
+        var cartoes = (List<CartaoCliente>) conversor.read(CARTOES_CLIENTE, null,
+                new MockHttpInputMessage(bytes.toByteArray()));
+
+        assertEquals("ELO", cartoes.get(0).getBandeira());
+    }
+
+    @Test
+    void versaoComBandeiraPorOrdinalNaoEAceita() {
+        byte[] versaoAnterior = {1, 2, 0, 0, 0, 0};
+
+        assertThrows(HttpMessageNotReadableException.class, () -> conversor.read(CARTOES_CLIENTE, null,
+                new MockHttpInputMessage(versaoAnterior)));
+    }
+
+    @Test
+    void soLeListasDeCartoesNoTipoBinario() {
+        Type catalogos = new ParameterizedTypeReference<List<String>>() {}.getType();
+
+        assertTrue(conversor.canRead(CARTOES, null, CartoesBinarioHttpMessageConverter.MEDIA_TYPE));
+        assertTrue(conversor.canRead(CARTOES_CLIENTE, null, CartoesBinarioHttpMessageConverter.MEDIA_TYPE));
+        assertFalse(conversor.canRead(CARTOES, null, MediaType.APPLICATION_JSON));
+        assertFalse(conversor.canRead(catalogos, null, CartoesBinarioHttpMessageConverter.MEDIA_TYPE));
+        assertFalse(conversor.canWrite(CARTOES, List.class, CartoesBinarioHttpMessageConverter.MEDIA_TYPE));
+    }
+
+    @Test
+    void soOsMetodosConfiguradosPedemBinario() {
+        var interceptor = new FormatoBinarioInterceptor(Set.of("mscartoes.getCartoesRendaAteh"));
+
+        var lista = template("getCartoesRendaAteh");
+        var catalogo = template("getCatalogo");
+        interceptor.apply(lista);
+        interceptor.apply(catalogo);
+
+        assertEquals(List.of(CartoesBinarioHttpMessageConverter.TIPO, "application/json;q=0.9"),
+                List.copyOf(lista.headers().get("Accept")));
+        assertFalse(catalogo.headers().containsKey("Accept"));
+    }
+
+    private static DataOutputStream cabecalho(ByteArrayOutputStream bytes, int quantidade) throws IOException {
+        var out = new DataOutputStream(bytes);
+        out.writeByte(CartoesBinarioHttpMessageConverter.VERSAO);
+        out.writeByte(2);
+        out.writeInt(quantidade);
+        return out;
+    }
+
+    private static void texto(DataOutputStream out, String texto) throws IOException {
+        if (texto == null) {
+            out.writeShort(-1);
+            return;
+        }
+        byte[] bytes = texto.getBytes(StandardCharsets.UTF_8);
+        out.writeShort(bytes.length);
+        out.write(bytes);
+    }
+
+    private static RequestTemplate template(String metodo) {
+        MethodMetadata metadata = new SpringMvcContract().parseAndValidateMetadata(CartoesResourceClient.class)
+                .stream()
+                .filter(m -> m.method().getName().equals(metodo))
+                .findFirst()
+                .orElseThrow();
+        var template = new RequestTemplate();
+        template.feignTarget(new Target.HardCodedTarget<>(CartoesResourceClient.class, "mscartoes",
+                "http://mscartoes"));
+        template.methodMetadata(metadata);
+        return template;
+    }
+}
@@ -0,0 +1,168 @@
+package bc.com.helber.msavaliadorcredito.infra.http;
+
+import bc.com.helber.msavaliadorcredito.config.FeignHttpClientConfig;
+import bc.com.helber.msavaliadorcredito.infra.clients.CartoesResourceClient;
+import com.sun.net.httpserver.HttpServer;
+import feign.MethodMetadata;
+import feign.RequestTemplate;
+import feign.Target;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.apache.http.client.methods.CloseableHttpResponse;
+import org.apache.http.client.methods.HttpGet;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.apache.http.util.EntityUtils;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.openfeign.support.SpringMvcContract;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TransporteFeignTest {
+
+    private static final String CORPO = "[{\"nome\":\"Basico\",\"bandeira\":\"VISA\"}]";
+
+    private final List<String> encodingsRecebidos = new CopyOnWriteArrayList<>();
+    private final CountDownLatch liberarLenta = new CountDownLatch(1);
+    private HttpServer servidor;
+    private PoolingHttpClientConnectionManager conexoes;
+    private CloseableHttpClient http;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        servidor = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        servidor.createContext("/cartoes", troca -> {
+            String encoding = troca.getRequestHeaders().getFirst("Accept-Encoding");
+            encodingsRecebidos.add(String.valueOf(encoding));
+            byte[] corpo = CORPO.getBytes(StandardCharsets.UTF_8);
+            if (encoding != null && encoding.contains("gzip")) {
+                var comprimido = new ByteArrayOutputStream();
+                try (OutputStream gzip = new GZIPOutputStream(comprimido)) {
+                    gzip.write(corpo);
+                }
+                corpo = comprimido.toByteArray();
+                troca.getResponseHeaders().set("Content-Encoding", "gzip");
+            }
+            troca.sendResponseHeaders(200, corpo.length);
+            troca.getResponseBody().write(corpo);
+            troca.close();
+        });
+        servidor.createContext("/lenta", troca -> {
+            try {
+                liberarLenta.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            troca.sendResponseHeaders(200, 2);
+            troca.getResponseBody().write("ok".getBytes(StandardCharsets.UTF_8));
+            troca.close();
+        });
+        servidor.start();
+
+        var config = new FeignHttpClientConfig();
+        conexoes = config.conexoesFeign(10, 5, 60_000, 2_000);
+        http = config.feignHttpClient(conexoes, 30_000);
+    }
+
+    @AfterEach
+    void tearDown() throws IOException {
+        liberarLenta.countDown();
+        http.close();
+        servidor.stop(0);
+    }
+
+    @Test
+    void soOsMetodosConfiguradosPedemGzip() {
+        var interceptor = new CompressaoRespostaInterceptor(
+                Set.of("mscartoes.getCartoesRendaAteh", "mscartoes.getCartoesByCliente"));
+
+        var lista = template("getCartoesRendaAteh");
+        var catalogo = template("getCatalogo");
+        interceptor.apply(lista);
+        interceptor.apply(catalogo);
+
+        assertEquals(List.of("gzip"), List.copyOf(lista.headers().get("Accept-Encoding")));
+        assertFalse(catalogo.headers().containsKey("Accept-Encoding"));
+    }
+
+    @Test
+    void respostaComprimidaChegaDescomprimida() throws IOException {
+        var comGzip = new HttpGet(url("/cartoes?renda=5000"));
+        comGzip.setHeader("Accept-Encoding", "gzip");
+        try (CloseableHttpResponse resposta = http.execute(comGzip)) {
+            assertEquals(CORPO, EntityUtils.toString(resposta.getEntity(), StandardCharsets.UTF_8));
+        }
+
+        try (CloseableHttpResponse resposta = http.execute(new HttpGet(url("/cartoes/catalogo")))) {
+            assertEquals(CORPO, EntityUtils.toString(resposta.getEntity(), StandardCharsets.UTF_8));
+        }
+
+        assertEquals(List.of("gzip", "null"), encodingsRecebidos);
+    }
+
+    @Test
+    void metricasPorDestinoAcompanhamOPool() throws Exception {
+        var registry = new SimpleMeterRegistry();
+        var metricas = new MetricasPoolConexoes(conexoes, registry);
+        String alvo = "localhost:" + servidor.getAddress().getPort();
+
+        var emVoo = new Thread(() -> {
+            try (CloseableHttpResponse resposta = http.execute(new HttpGet(url("/lenta")))) {
+                EntityUtils.consume(resposta.getEntity());
+            } catch (IOException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+        emVoo.start();
+        long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (conexoes.getTotalStats().getLeased() == 0 && System.nanoTime() < limite) {
+            Thread.sleep(10);
+        }
+
+        metricas.atualizar();
+        assertEquals(1, valor(registry, alvo, "leased"));
+        assertEquals(0, valor(registry, alvo, "idle"));
+
+        liberarLenta.countDown();
+        emVoo.join(5_000);
+        metricas.atualizar();
+        assertEquals(0, valor(registry, alvo, "leased"));
+        assertEquals(1, valor(registry, alvo, "idle"));
+        assertEquals(0, valor(registry, alvo, "pending"));
+    }
+
+    private String url(String caminho) {
+        return "http://localhost:" + servidor.getAddress().getPort() + caminho;
+    }
+
+    private static double valor(SimpleMeterRegistry registry, String alvo, String estado) {
+        return registry.get("avaliador.feign.pool.conexoes").tag("alvo", alvo).tag("estado", estado)
+                .gauge().value();
+    }
+
+    private static RequestTemplate template(String metodo) {
+        MethodMetadata metadata = new SpringMvcContract().parseAndValidateMetadata(CartoesResourceClient.class)
+                .stream()
+                .filter(m -> m.method().getName().equals(metodo))
+                .findFirst()
+                .orElseThrow();
+        var template = new RequestTemplate();
+        template.feignTarget(new Target.HardCodedTarget<>(CartoesResourceClient.class, "mscartoes",
+                "http://mscartoes"));
+        template.methodMetadata(metadata);
+        return template;
+    }
+}
@@ -0,0 +1,176 @@
+package bc.com.helber.msavaliadorcredito.infra.mqueue;
+
+import bc.com.helber.msavaliadorcredito.domain.model.DadosSolicitacaoEmissaoCartao;
+import bc.com.helber.msavaliadorcredito.infra.mqueue.journal.JournalEmissaoCartao;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.amqp.AmqpConnectException;
+import org.springframework.amqp.core.MessagePostProcessor;
+import org.springframework.amqp.core.Queue;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+
+import java.math.BigDecimal;
+import java.net.ConnectException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ScheduledExecutorService;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+class DrenagemJournalEmissaoCartaoTest {
+
+    @TempDir
+    Path diretorio;
+
+    private final List<String> entregues = new ArrayList<>();
+    private final Set<String> rejeitar = new HashSet<>();
+    private boolean brokerDisponivel;
+    private JournalEmissaoCartao journal;
+    private SolicitacaoEmissaoCartaoPublisher publisher;
+    private DrenagemJournalEmissaoCartao drenagem;
+
+    @BeforeEach
+    void setUp() {
+        var rabbitTemplate = mock(RabbitTemplate.class);
+        doAnswer(inv -> {
+            if (!brokerDisponivel) {
+                throw new AmqpConnectException(new ConnectException("Connection refused"));
+            }
+            entregues.add(inv.getArgument(2));
+            CorrelationData correlacao = inv.getArgument(4);
+            correlacao.getFuture().set(rejeitar.remove(correlacao.getId())
+                    ? new CorrelationData.Confirm(false, "nack")
+                    : new CorrelationData.Confirm(true, null));
+            return null;
+        }).when(rabbitTemplate).convertAndSend(anyString(), anyString(), any(Object.class),
+                any(MessagePostProcessor.class), any(CorrelationData.class));
+
+        var registry = new SimpleMeterRegistry();
+        journal = new JournalEmissaoCartao(registry, diretorio.toString(), 4096, false);
+        publisher = new SolicitacaoEmissaoCartaoPublisher(rabbitTemplate, new Queue("emissao-cartoes"),
+                new ObjectMapper(), journal, registry, false, 1000, 1000);
+        drenagem = drenagem(1000);
+    }
+
+    private DrenagemJournalEmissaoCartao drenagem(int maximoPorExecucao) {
+        return new DrenagemJournalEmissaoCartao(journal, publisher, mock(ScheduledExecutorService.class),
+                1000, 1000, 20, maximoPorExecucao);
+    }
+
+    @AfterEach
+    void tearDown() throws Exception {
+        journal.fechar();
+    }
+
+    private static DadosSolicitacaoEmissaoCartao solicitacao(long idCartao) {
+        var dados = new DadosSolicitacaoEmissaoCartao();
+        dados.setIdCartao(idCartao);
+        dados.setCpf("12345678909");
+        dados.setEndereco("Rua das Flores, 123");
+        dados.setLimiteLiberado(new BigDecimal("1000"));
+        return dados;
+    }
+
+    @Test
+    void falhaDePublicacaoVaiParaOJournalEDrenaNaOrdem() throws Exception {
+        for (long i = 1; i <= 100; i++) {
+            publisher.solicitarCartao(solicitacao(i), "protocolo-" + i);
+        }
+        assertTrue(entregues.isEmpty());
+        assertEquals(100, journal.profundidade());
+
+        brokerDisponivel = true;
+        publisher.solicitarCartao(solicitacao(101), "protocolo-101");
+        assertTrue(entregues.isEmpty());
+
+        drenagem.drenar();
+
+        assertEquals(0, journal.profundidade());
+        assertEquals(101, entregues.size());
+        for (int i = 0; i < entregues.size(); i++) {
+            assertTrue(entregues.get(i).contains("\"idCartao\":" + (i + 1)), entregues.get(i));
+        }
+
+        publisher.solicitarCartao(solicitacao(102), "protocolo-102");
+        assertEquals(102, entregues.size());
+        assertEquals(0, journal.profundidade());
+    }
+
+    @Test
+    void drenagemParaQuandoOBrokerCaiEContinuaDepois() throws Exception {
+        for (long i = 1; i <= 10; i++) {
+            publisher.solicitarCartao(solicitacao(i), "protocolo-" + i);
+        }
+
+        drenagem.drenar();
+        assertEquals(10, journal.profundidade());
+
+        brokerDisponivel = true;
+        drenagem.drenar();
+        assertEquals(0, journal.profundidade());
+        assertEquals(10, entregues.size());
+    }
+
+    @Test
+    void journalSobreviveAoReinicio() throws Exception {
+        for (long i = 1; i <= 5; i++) {
+            publisher.solicitarCartao(solicitacao(i), "protocolo-" + i);
+        }
+        journal.fechar();
+
+        setUp();
+        assertEquals(5, journal.profundidade());
+
+        brokerDisponivel = true;
+        drenagem.drenar();
+        assertEquals(5, entregues.size());
+        assertTrue(entregues.get(0).contains("\"idCartao\":1"));
+    }
+
+    @Test
+    void cadaExecucaoDrenaNoMaximoOLimite() throws Exception {
+        for (long i = 1; i <= 50; i++) {
+            publisher.solicitarCartao(solicitacao(i), "protocolo-" + i);
+        }
+        brokerDisponivel = true;
+        var limitada = drenagem(30);
+
+        limitada.drenar();
+        assertEquals(20, journal.profundidade());
+        assertEquals(30, entregues.size());
+
+        limitada.drenar();
+        assertEquals(0, journal.profundidade());
+        assertEquals(50, entregues.size());
+    }
+
+    @Test
+    void rejeicaoNoLoteConfirmaSoOPrefixo() throws Exception {
+        for (long i = 1; i <= 10; i++) {
+            publisher.solicitarCartao(solicitacao(i), "protocolo-" + i);
+        }
+        brokerDisponivel = true;
+        rejeitar.add("protocolo-5");
+
+        drenagem.drenar();
+        assertEquals(6, journal.profundidade());
+        assertEquals(10, entregues.size());
+
+        drenagem.drenar();
+        assertEquals(0, journal.profundidade());
+        assertEquals(16, entregues.size());
+        assertTrue(entregues.get(10).contains("\"idCartao\":5"), entregues.get(10));
+    }
+}
@@ -0,0 +1,176 @@
+package bc.com.helber.msavaliadorcredito.infra.mqueue;
+
+import bc.com.helber.msavaliadorcredito.domain.model.DadosSolicitacaoEmissaoCartao;
+import bc.com.helber.msavaliadorcredito.infra.mqueue.journal.JournalEmissaoCartao;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessagePostProcessor;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.amqp.core.Queue;
+import org.springframework.amqp.rabbit.connection.CorrelationData;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+
+import java.math.BigDecimal;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+
+class SolicitacaoEmissaoCartaoPublisherTest {
+
+    @TempDir
+    Path diretorio;
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final List<CorrelationData> pendentes = new ArrayList<>();
+    private final List<MessageProperties> propriedades = new ArrayList<>();
+    private JournalEmissaoCartao journal;
+
+    @AfterEach
+    void tearDown() throws Exception {
+        journal.fechar();
+    }
+
+    /** {@code broker} recebe a correlacao de cada publicacao e decide se e quando confirma. */
+    private SolicitacaoEmissaoCartaoPublisher publisher(boolean estrita, int limiteEmVoo,
+                                                        Consumer<CorrelationData> broker) {
+        var rabbitTemplate = mock(RabbitTemplate.class);
+        doAnswer(inv -> {
+            MessagePostProcessor processador = inv.getArgument(3);
+            propriedades.add(processador.postProcessMessage(new Message(new byte[0], new MessageProperties()))
+                    .getMessageProperties());
+            CorrelationData correlacao = inv.getArgument(4);
+            pendentes.add(correlacao);
+            broker.accept(correlacao);
+            return null;
+        }).when(rabbitTemplate).convertAndSend(anyString(), anyString(), any(Object.class),
+                any(MessagePostProcessor.class), any(CorrelationData.class));
+        journal = new JournalEmissaoCartao(registry, diretorio.toString(), 4096, false);
+        return new SolicitacaoEmissaoCartaoPublisher(rabbitTemplate, new Queue("emissao-cartoes"),
+                new ObjectMapper(), journal, registry, estrita, 50, limiteEmVoo);
+    }
+
+    private static DadosSolicitacaoEmissaoCartao solicitacao() {
+        var dados = new DadosSolicitacaoEmissaoCartao();
+        dados.setIdCartao(1L);
+        dados.setCpf("12345678909");
+        dados.setEndereco("Rua das Flores, 123");
+        dados.setLimiteLiberado(new BigDecimal("1000"));
+        return dados;
+    }
+
+    private static void ack(CorrelationData correlacao) {
+        correlacao.getFuture().set(new CorrelationData.Confirm(true, null));
+    }
+
+    private static void nack(CorrelationData correlacao) {
+        correlacao.getFuture().set(new CorrelationData.Confirm(false, "fila cheia"));
+    }
+
+    private double contador(String resultado) {
+        return registry.get("emissao.cartoes.publicacoes").tag("resultado", resultado).counter().count();
+    }
+
+    private double emVoo() {
+        return registry.get("emissao.cartoes.publicacoes.em-voo").gauge().value();
+    }
+
+    @Test
+    void confirmacaoECorrelacionadaPeloProtocolo() throws Exception {
+        var publisher = publisher(false, 10, correlacao -> { });
+
+        publisher.solicitarCartao(solicitacao(), "protocolo-1");
+        publisher.solicitarCartao(solicitacao(), "protocolo-2");
+
+        assertEquals("protocolo-1", pendentes.get(0).getId());
+        assertEquals("protocolo-2", pendentes.get(1).getId());
+        assertEquals("protocolo-1", propriedades.get(0).getMessageId());
+        assertEquals("protocolo-1", propriedades.get(0).getCorrelationId());
+        assertEquals(2, emVoo());
+
+        ack(pendentes.get(1));
+        assertEquals(1, emVoo());
+        assertEquals(1, contador("confirmada"));
+
+        ack(pendentes.get(0));
+        assertEquals(0, emVoo());
+        assertEquals(2, contador("confirmada"));
+        assertEquals(0, journal.profundidade());
+    }
+
+    @Test
+    void nackVaiParaOJournal() throws Exception {
+        var publisher = publisher(false, 10, correlacao -> { });
+
+        publisher.solicitarCartao(solicitacao(), "protocolo-1");
+        nack(pendentes.get(0));
+
+        assertEquals(0, emVoo());
+        assertEquals(1, contador("rejeitada"));
+        assertEquals(1, contador("journal"));
+        assertEquals(0, contador("confirmada"));
+        assertEquals(1, journal.profundidade());
+    }
+
+    @Test
+    void limiteEmVooDesviaParaOJournalSemPublicar() throws Exception {
+        var publisher = publisher(false, 1, correlacao -> { });
+
+        publisher.solicitarCartao(solicitacao(), "protocolo-1");
+        publisher.solicitarCartao(solicitacao(), "protocolo-2");
+
+        assertEquals(1, pendentes.size());
+        assertEquals(1, emVoo());
+        assertEquals(1, contador("journal"));
+        assertEquals(1, journal.profundidade());
+    }
+
+    @Test
+    void estritaComAckRetornaSoDepoisDaConfirmacao() throws Exception {
+        var publisher = publisher(true, 10, SolicitacaoEmissaoCartaoPublisherTest::ack);
+
+        publisher.solicitarCartao(solicitacao(), "protocolo-1");
+
+        assertEquals(1, contador("confirmada"));
+        assertEquals(0, emVoo());
+        assertEquals(0, journal.profundidade());
+    }
+
+    @Test
+    void estritaComNackGravaNoJournalUmaVezSo() throws Exception {
+        var publisher = publisher(true, 10, SolicitacaoEmissaoCartaoPublisherTest::nack);
+
+        publisher.solicitarCartao(solicitacao(), "protocolo-1");
+
+        assertEquals(1, contador("rejeitada"));
+        assertEquals(1, contador("journal"));
+        assertEquals(1, journal.profundidade());
+        assertEquals(0, emVoo());
+    }
+
+    @Test
+    void estritaSemConfirmacaoNoPrazoGravaNoJournal() throws Exception {
+        var publisher = publisher(true, 10, correlacao -> { });
+
+        publisher.solicitarCartao(solicitacao(), "protocolo-1");
+
+        assertEquals(1, contador("journal"));
+        assertEquals(1, journal.profundidade());
+        assertEquals(1, emVoo());
+
+        ack(pendentes.get(0));
+        assertEquals(0, emVoo());
+        assertEquals(1, contador("confirmada"));
+        assertEquals(1, journal.profundidade());
+    }
+}
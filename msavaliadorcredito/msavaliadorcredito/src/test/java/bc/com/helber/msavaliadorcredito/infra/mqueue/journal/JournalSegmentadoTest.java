@@ -0,0 +1,124 @@
+package bc.com.helber.msavaliadorcredito.infra.mqueue.journal;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class JournalSegmentadoTest {
+
+    @TempDir
+    Path diretorio;
+
+    private static byte[] registro(int i) {
+        return ("registro-" + i).getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static List<String> drenar(JournalSegmentado journal) throws IOException {
+        List<String> lidos = new ArrayList<>();
+        byte[] dados;
+        while ((dados = journal.proximo()) != null) {
+            lidos.add(new String(dados, StandardCharsets.UTF_8));
+            journal.confirmarLeitura();
+        }
+        return lidos;
+    }
+
+    private long arquivosDeSegmento() throws IOException {
+        try (Stream<Path> arquivos = Files.list(diretorio)) {
+            return arquivos.filter(p -> p.getFileName().toString().endsWith(".jnl")).count();
+        }
+    }
+
+    @Test
+    void leNaOrdemDeEscritaRotacionandoSegmentos() throws IOException {
+        try (var journal = new JournalSegmentado(diretorio, 128, false)) {
+            for (int i = 0; i < 50; i++) {
+                journal.anexar(registro(i));
+            }
+            assertEquals(50, journal.profundidade());
+            assertTrue(journal.segmentos() > 1);
+
+            List<String> lidos = drenar(journal);
+
+            assertEquals(50, lidos.size());
+            for (int i = 0; i < 50; i++) {
+                assertEquals("registro-" + i, lidos.get(i));
+            }
+            assertEquals(0, journal.profundidade());
+            assertEquals(1, arquivosDeSegmento());
+        }
+    }
+
+    @Test
+    void registroNaoConfirmadoELidoNovamente() throws IOException {
+        try (var journal = new JournalSegmentado(diretorio, 1024, false)) {
+            journal.anexar(registro(1));
+            journal.anexar(registro(2));
+
+            assertEquals("registro-1", new String(journal.proximo(), StandardCharsets.UTF_8));
+            assertEquals("registro-1", new String(journal.proximo(), StandardCharsets.UTF_8));
+            journal.confirmarLeitura();
+            assertEquals("registro-2", new String(journal.proximo(), StandardCharsets.UTF_8));
+        }
+    }
+
+    @Test
+    void recuperaPendenciasAposReinicio() throws IOException {
+        try (var journal = new JournalSegmentado(diretorio, 128, true)) {
+            for (int i = 0; i < 20; i++) {
+                journal.anexar(registro(i));
+            }
+            for (int i = 0; i < 7; i++) {
+                journal.proximo();
+                journal.confirmarLeitura();
+            }
+        }
+
+        try (var journal = new JournalSegmentado(diretorio, 128, true)) {
+            assertEquals(13, journal.profundidade());
+            journal.anexar(registro(20));
+
+            List<String> lidos = drenar(journal);
+
+            assertEquals(14, lidos.size());
+            assertEquals("registro-7", lidos.get(0));
+            assertEquals("registro-20", lidos.get(13));
+        }
+    }
+
+    @Test
+    void descartaRegistroCorrompidoNoFinal() throws IOException {
+        try (var journal = new JournalSegmentado(diretorio, 1024, true)) {
+            journal.anexar(registro(1));
+            journal.anexar(registro(2));
+        }
+        Path segmento;
+        try (Stream<Path> arquivos = Files.list(diretorio)) {
+            segmento = arquivos.filter(p -> p.getFileName().toString().endsWith(".jnl"))
+                    .collect(Collectors.toList()).get(0);
+        }
+        int inicioSegundo = 8 + registro(1).length;
+        try (var canal = FileChannel.open(segmento, StandardOpenOption.WRITE)) {
+            canal.write(java.nio.ByteBuffer.wrap(new byte[]{'X'}), inicioSegundo + 8);
+        }
+
+        try (var journal = new JournalSegmentado(diretorio, 1024, true)) {
+            assertEquals(1, journal.profundidade());
+            journal.anexar(registro(3));
+
+            assertEquals(List.of("registro-1", "registro-3"), drenar(journal));
+        }
+    }
+}
@@ -0,0 +1,217 @@
+package bc.com.helber.msavaliadorcredito.infra.resiliencia;
+
+import bc.com.helber.msavaliadorcredito.infra.balanceamento.BalanceadorLatencia;
+import bc.com.helber.msavaliadorcredito.infra.clients.ClienteResourceClient;
+import feign.Client;
+import feign.MethodMetadata;
+import feign.Request;
+import feign.RequestTemplate;
+import feign.Response;
+import feign.Target;
+import feign.Util;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.openfeign.support.SpringMvcContract;
+import org.springframework.mock.env.MockEnvironment;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ClienteResilienteTest {
+
+    private final MockEnvironment environment = new MockEnvironment()
+            .withProperty("avaliador.resiliencia.padrao.disjuntor.enabled", "true")
+            .withProperty("avaliador.resiliencia.padrao.disjuntor.janela", "10")
+            .withProperty("avaliador.resiliencia.padrao.disjuntor.chamadas-minimas", "5")
+            .withProperty("avaliador.resiliencia.padrao.disjuntor.taxa-falha", "50")
+            .withProperty("avaliador.resiliencia.padrao.disjuntor.aberto-ms", "60000")
+            .withProperty("avaliador.resiliencia.padrao.disjuntor.chamadas-semi-aberto", "1")
+            .withProperty("avaliador.resiliencia.padrao.hedge.enabled", "false")
+            .withProperty("avaliador.resiliencia.padrao.hedge.percentil", "0.95")
+            .withProperty("avaliador.resiliencia.padrao.hedge.atraso-minimo-ms", "10")
+            .withProperty("avaliador.resiliencia.padrao.hedge.atraso-inicial-ms", "50")
+            .withProperty("avaliador.resiliencia.padrao.hedge.amostras-minimas", "1000")
+            .withProperty("avaliador.resiliencia.metodos.msclientes.dadosCliente.hedge.enabled", "true");
+
+    private final List<Request> recebidas = new CopyOnWriteArrayList<>();
+    private ExecutorService executor;
+    private PoliticasResiliencia politicas;
+
+    @BeforeEach
+    void setUp() {
+        executor = Executors.newCachedThreadPool();
+        politicas = new PoliticasResiliencia(environment, new SimpleMeterRegistry());
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void hedgeCobreAPrimeiraQueDemoraEFalha() throws Exception {
+        var tentativas = new AtomicInteger();
+        var cliente = cliente((request, options) -> {
+            if (tentativas.getAndIncrement() == 0) {
+                Thread.sleep(200);
+                return resposta(request, 503, "lenta");
+            }
+            return resposta(request, 200, "rapida");
+        });
+
+        Response response = cliente.execute(request("dadosCliente"), new Request.Options());
+
+        assertEquals(200, response.status());
+        assertEquals("rapida", Util.toString(response.body().asReader(StandardCharsets.UTF_8)));
+        assertEquals(2, recebidas.size());
+        String hedgeId = recebidas.get(0).headers().get(BalanceadorLatencia.CABECALHO_HEDGE).iterator().next();
+        assertEquals(List.of(hedgeId),
+                List.copyOf(recebidas.get(1).headers().get(BalanceadorLatencia.CABECALHO_HEDGE)));
+
+        PoliticaMetodo politica = politicas.de("msclientes", "dadosCliente");
+        assertEquals(1, politica.hedgesDisparados());
+        assertEquals(1, politica.hedgesVencedores());
+    }
+
+    @Test
+    void primeiraTentativaRodaNaThreadDoChamadorESoOHedgeVaiParaOExecutor() throws Exception {
+        var threads = new CopyOnWriteArrayList<Thread>();
+        var cliente = cliente((request, options) -> {
+            threads.add(Thread.currentThread());
+            if (threads.size() == 1) {
+                Thread.sleep(200);
+            }
+            return resposta(request, 200, "ok");
+        });
+
+        cliente.execute(request("dadosCliente"), new Request.Options());
+
+        assertEquals(2, threads.size());
+        assertSame(Thread.currentThread(), threads.get(0));
+        assertNotSame(Thread.currentThread(), threads.get(1));
+    }
+
+    @Test
+    void executorCheioNaoImpedeAPrimeiraTentativa() throws Exception {
+        executor.shutdown();
+        var cliente = cliente((request, options) -> {
+            Thread.sleep(100);
+            return resposta(request, 200, "ok");
+        });
+
+        assertEquals(200, cliente.execute(request("dadosCliente"), new Request.Options()).status());
+        assertEquals(1, recebidas.size());
+        assertEquals(0, politicas.de("msclientes", "dadosCliente").hedgesDisparados());
+    }
+
+    @Test
+    void semHedgeQuandoAPrimeiraRespondeNoPrazo() throws Exception {
+        var cliente = cliente((request, options) -> resposta(request, 200, "ok"));
+
+        cliente.execute(request("dadosCliente"), new Request.Options());
+
+        assertEquals(1, recebidas.size());
+        assertEquals(0, politicas.de("msclientes", "dadosCliente").hedgesDisparados());
+    }
+
+    @Test
+    void metodoSemHedgeNaoMarcaARequisicao() throws Exception {
+        var cliente = cliente((request, options) -> resposta(request, 200, "[]"));
+
+        cliente.execute(request("dadosClientes"), new Request.Options());
+
+        assertEquals(1, recebidas.size());
+        assertFalse(recebidas.get(0).headers().containsKey(BalanceadorLatencia.CABECALHO_HEDGE));
+    }
+
+    @Test
+    void disjuntorAbertoFalhaSemChamarOServico() throws Exception {
+        var cliente = cliente((request, options) -> resposta(request, 503, "indisponivel"));
+
+        for (int i = 0; i < 5; i++) {
+            assertEquals(503, cliente.execute(request("dadosClientes"), new Request.Options()).status());
+        }
+        var erro = assertThrows(CircuitoAbertoException.class,
+                () -> cliente.execute(request("dadosClientes"), new Request.Options()));
+
+        assertEquals(503, erro.status());
+        assertEquals(5, recebidas.size());
+        assertEquals(1, politicas.de("msclientes", "dadosClientes").rejeitadas());
+    }
+
+    @Test
+    void disjuntorECompartilhadoPelosMetodosDoCliente() throws Exception {
+        var cliente = cliente((request, options) -> resposta(request, 503, "indisponivel"));
+
+        for (int i = 0; i < 5; i++) {
+            cliente.execute(request("dadosClientes"), new Request.Options());
+        }
+
+        assertThrows(CircuitoAbertoException.class,
+                () -> cliente.execute(request("dadosCliente"), new Request.Options()));
+        assertEquals(5, recebidas.size());
+        assertSame(politicas.de("msclientes", "dadosClientes").getDisjuntor(),
+                politicas.de("msclientes", "dadosCliente").getDisjuntor());
+    }
+
+    @Test
+    void errosDoClienteNaoAbremODisjuntor() throws Exception {
+        var cliente = cliente((request, options) -> resposta(request, 404, "nao encontrado"));
+
+        for (int i = 0; i < 20; i++) {
+            assertEquals(404, cliente.execute(request("dadosClientes"), new Request.Options()).status());
+        }
+
+        assertEquals(DisjuntorCircuito.Estado.FECHADO,
+                politicas.de("msclientes", "dadosClientes").getDisjuntor().estado());
+    }
+
+    private ClienteResiliente cliente(Servico servico) {
+        Client delegate = (request, options) -> {
+            recebidas.add(request);
+            try {
+                return servico.responder(request, options);
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+        };
+        return new ClienteResiliente(delegate, politicas, executor, null);
+    }
+
+    private static Request request(String metodo) {
+        MethodMetadata metadata = new SpringMvcContract().parseAndValidateMetadata(ClienteResourceClient.class)
+                .stream()
+                .filter(m -> m.method().getName().equals(metodo))
+                .findFirst()
+                .orElseThrow();
+        var template = new RequestTemplate();
+        template.feignTarget(new Target.HardCodedTarget<>(ClienteResourceClient.class, "msclientes",
+                "http://msclientes"));
+        template.methodMetadata(metadata);
+        return Request.create(Request.HttpMethod.GET, "http://msclientes/clientes?cpf=1", Map.of(), null,
+                StandardCharsets.UTF_8, template);
+    }
+
+    private static Response resposta(Request request, int status, String corpo) {
+        return Response.builder()
+                .status(status)
+                .reason("")
+                .request(request)
+                .headers(Map.of())
+                .body(corpo, StandardCharsets.UTF_8)
+                .build();
+    }
+
+    private interface Servico {
+        Response responder(Request request, Request.Options options) throws InterruptedException;
+    }
+}
@@ -0,0 +1,87 @@
+package bc.com.helber.msavaliadorcredito.infra.resiliencia;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DisjuntorCircuitoTest {
+
+    private final long[] agora = {0};
+    private final DisjuntorCircuito disjuntor = new DisjuntorCircuito(10, 5, 50, 1_000, 2, () -> agora[0]);
+
+    @Test
+    void naoAbreAntesDasChamadasMinimas() {
+        for (int i = 0; i < 4; i++) {
+            assertTrue(disjuntor.permitir());
+            disjuntor.registrar(true);
+        }
+        assertEquals(DisjuntorCircuito.Estado.FECHADO, disjuntor.estado());
+    }
+
+    @Test
+    void abreQuandoATaxaDeFalhaAtingeOLimite() {
+        for (int i = 0; i < 5; i++) {
+            disjuntor.registrar(i % 2 == 0);
+        }
+        assertEquals(DisjuntorCircuito.Estado.ABERTO, disjuntor.estado());
+        assertFalse(disjuntor.permitir());
+    }
+
+    @Test
+    void janelaDescartaResultadosAntigos() {
+        for (int i = 0; i < 6; i++) {
+            disjuntor.registrar(false);
+        }
+        for (int i = 0; i < 4; i++) {
+            disjuntor.registrar(true);
+        }
+        assertEquals(0.4, disjuntor.taxaFalha(), 1e-9);
+        for (int i = 0; i < 10; i++) {
+            disjuntor.registrar(false);
+        }
+        assertEquals(0.0, disjuntor.taxaFalha(), 1e-9);
+        assertEquals(DisjuntorCircuito.Estado.FECHADO, disjuntor.estado());
+    }
+
+    @Test
+    void semiAbertoFechaDepoisDasSondasComSucesso() {
+        abrir();
+        agora[0] = TimeUnit.MILLISECONDS.toNanos(1_000);
+
+        assertEquals(DisjuntorCircuito.Estado.SEMI_ABERTO, disjuntor.estado());
+        assertTrue(disjuntor.permitir());
+        assertTrue(disjuntor.permitir());
+        assertFalse(disjuntor.permitir());
+
+        disjuntor.registrar(false);
+        disjuntor.registrar(false);
+
+        assertEquals(DisjuntorCircuito.Estado.FECHADO, disjuntor.estado());
+        assertEquals(0.0, disjuntor.taxaFalha(), 1e-9);
+        assertTrue(disjuntor.permitir());
+    }
+
+    @Test
+    void falhaNaSondaReabre() {
+        abrir();
+        agora[0] = TimeUnit.MILLISECONDS.toNanos(1_000);
+        assertTrue(disjuntor.permitir());
+
+        disjuntor.registrar(true);
+
+        assertEquals(DisjuntorCircuito.Estado.ABERTO, disjuntor.estado());
+        agora[0] += TimeUnit.MILLISECONDS.toNanos(999);
+        assertFalse(disjuntor.permitir());
+        agora[0] += TimeUnit.MILLISECONDS.toNanos(1);
+        assertTrue(disjuntor.permitir());
+    }
+
+    private void abrir() {
+        for (int i = 0; i < 5; i++) {
+            disjuntor.registrar(true);
+        }
+        assertFalse(disjuntor.permitir());
+    }
+}
@@ -0,0 +1,49 @@
+package br.com.helber.mscartoes.application.representation;
+
+import br.com.helber.mscartoes.domain.BandeiraCartao;
+import br.com.helber.mscartoes.domain.Cartao;
+import br.com.helber.mscartoes.domain.ClienteCartao;
+import org.openjdk.jmh.annotations.*;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class CartoesPorClienteResponseBenchmark {
+
+    @Param({"100", "10000", "100000"})
+    private int quantidade;
+
+    private List<ClienteCartao> lista;
+
+    @Setup
+    public void setUp() {
+        var cartoes = List.of(
+                new Cartao("Basico", BandeiraCartao.VISA, new BigDecimal("1000"), new BigDecimal("1500")),
+                new Cartao("Gold", BandeiraCartao.MASTERCARD, new BigDecimal("5000"), new BigDecimal("7000")));
+        lista = new ArrayList<>(quantidade);
+        for (int i = 0; i < quantidade; i++) {
+            var clienteCartao = new ClienteCartao();
+            clienteCartao.setId((long) i);
+            clienteCartao.setCpf("12345678909");
+            clienteCartao.setCartao(cartoes.get(i % cartoes.size()));
+            clienteCartao.setLimite(BigDecimal.valueOf(1000L + i));
+            lista.add(clienteCartao);
+        }
+    }
+
+    @Benchmark
+    public List<CartoesPorClienteResponse> fromModel() {
+        return lista.stream()
+                .map(CartoesPorClienteResponse::fromModel)
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,59 @@
+package br.com.helber.mscartoes.infra.mqueue;
+
+import br.com.helber.mscartoes.domain.BandeiraCartao;
+import br.com.helber.mscartoes.domain.Cartao;
+import br.com.helber.mscartoes.infra.repository.CartaoRepository;
+import br.com.helber.mscartoes.infra.repository.ClienteCartaoRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.amqp.core.FanoutExchange;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+
+import java.lang.reflect.Proxy;
+import java.math.BigDecimal;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class EmissaoCartaoSubscriberBenchmark {
+
+    private static final String PAYLOAD = "{\"idCartao\":1,\"cpf\":\"12345678909\","
+            + "\"endereco\":\"Rua das Flores, 123 - Centro\",\"limiteLiberado\":7400.00}";
+
+    private EmissaoCartaoSubscriber subscriber;
+
+    @Setup
+    public void setUp() {
+        var cartao = new Cartao("Basico", BandeiraCartao.VISA, new BigDecimal("1000"), new BigDecimal("1500"));
+        cartao.setId(1L);
+
+        CartaoRepository cartaoRepository = (CartaoRepository) Proxy.newProxyInstance(
+                getClass().getClassLoader(), new Class<?>[]{CartaoRepository.class},
+                (proxy, method, args) -> Optional.of(cartao));
+        ClienteCartaoRepository clienteCartaoRepository = (ClienteCartaoRepository) Proxy.newProxyInstance(
+                getClass().getClassLoader(), new Class<?>[]{ClienteCartaoRepository.class},
+                (proxy, method, args) -> args[0]);
+        var publisher = new CartoesClientePublisher(new RabbitTemplateSemBroker(),
+                new FanoutExchange("cartoes-cliente"), new SimpleMeterRegistry());
+        subscriber = new EmissaoCartaoSubscriber(cartaoRepository, clienteCartaoRepository, publisher,
+                new ObjectMapper());
+    }
+
+    @Benchmark
+    public void receberSolicitacaoEmissao() {
+        subscriber.receberSolicitacaoEmissao(PAYLOAD);
+    }
+
+    /** Descarta a publicacao; o benchmark mede so o consumo e a gravacao. */
+    private static final class RabbitTemplateSemBroker extends RabbitTemplate {
+        @Override
+        public void convertAndSend(String exchange, String routingKey, Object object) {
+        }
+    }
+}
@@ -0,0 +1,73 @@
+package br.com.helber.mscartoes.infra.repository;
+
+import br.com.helber.mscartoes.application.representation.CartoesPorClienteResponse;
+import br.com.helber.mscartoes.domain.Cartao;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latencia (p50/p90/p99) das duas consultas que {@code idx_cliente_cartao_cpf} e {@code idx_cartao_renda}
+ * atendem, com e sem os indices, sobre {@link #EMITIDOS} cartoes emitidos gerados no H2. A consulta por
+ * renda so le as faixas mais baixas, onde o indice e seletivo.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class IndicesBenchmark {
+
+    private static final int CARTOES = 100_000;
+    private static final int CPFS = 1_000_000;
+    private static final int EMITIDOS = 2_000_000;
+
+    @Param({"true", "false"})
+    private boolean indices;
+
+    private ConfigurableApplicationContext context;
+    private CartaoRepository cartaoRepository;
+    private ClienteCartaoRepository clienteCartaoRepository;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = RepositoryBenchmark.iniciarContexto("indicesbenchmark");
+        cartaoRepository = context.getBean(CartaoRepository.class);
+        clienteCartaoRepository = context.getBean(ClienteCartaoRepository.class);
+
+        var jdbc = context.getBean(JdbcTemplate.class);
+        jdbc.update("insert into cartao (id, nome, bandeira, renda, limite_basico) "
+                + "select x, 'Cartao ' || x, 'VISA', x * 10, 1000 + x from system_range(1, ?)", CARTOES);
+        jdbc.update("insert into cliente_cartao (id, cpf, id_cartao, limite) "
+                + "select x, lpad(cast(mod(x, ?) as varchar), 11, '0'), 1 + mod(x, ?), 1000 "
+                + "from system_range(1, ?)", CPFS, CARTOES, EMITIDOS);
+        if (!indices) {
+            jdbc.execute("drop index idx_cliente_cartao_cpf");
+            jdbc.execute("drop index idx_cartao_renda");
+        }
+        jdbc.execute("analyze");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<CartoesPorClienteResponse> findCartoesPorClienteByCpf() {
+        return clienteCartaoRepository.findCartoesPorClienteByCpf(
+                RepositoryBenchmark.cpf(ThreadLocalRandom.current().nextInt(CPFS)));
+    }
+
+    @Benchmark
+    public List<Cartao> findByRendaLessThanEqual() {
+        return cartaoRepository.findByRendaLessThanEqual(
+                BigDecimal.valueOf(10L * (1 + ThreadLocalRandom.current().nextInt(100))));
+    }
+}
@@ -0,0 +1,98 @@
+package br.com.helber.mscartoes.infra.repository;
+
+import br.com.helber.mscartoes.MscartoesApplication;
+import br.com.helber.mscartoes.domain.BandeiraCartao;
+import br.com.helber.mscartoes.domain.Cartao;
+import br.com.helber.mscartoes.domain.ClienteCartao;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class RepositoryBenchmark {
+
+    private static final int CARTOES = 200;
+    private static final int CPFS = 10_000;
+
+    @Param({"50000"})
+    private int cartoesEmitidos;
+
+    private ConfigurableApplicationContext context;
+    private CartaoRepository cartaoRepository;
+    private ClienteCartaoRepository clienteCartaoRepository;
+
+    static ConfigurableApplicationContext iniciarContexto(String banco) {
+        return new SpringApplicationBuilder(MscartoesApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "RABBITMQ_SERVER=localhost",
+                        "EUREKA_SERVER=localhost",
+                        "eureka.client.enabled=false",
+                        "spring.rabbitmq.listener.simple.auto-startup=false",
+                        "spring.datasource.url=jdbc:h2:mem:" + banco + ";DB_CLOSE_DELAY=-1",
+                        "spring.jpa.properties.hibernate.jdbc.batch_size=1000",
+                        "spring.main.banner-mode=off",
+                        "logging.level.root=WARN")
+                .run();
+    }
+
+    static String cpf(int i) {
+        return String.format("%011d", i);
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = iniciarContexto("repositorybenchmark");
+        cartaoRepository = context.getBean(CartaoRepository.class);
+        clienteCartaoRepository = context.getBean(ClienteCartaoRepository.class);
+
+        List<Cartao> cartoes = new ArrayList<>();
+        for (int i = 0; i < CARTOES; i++) {
+            cartoes.add(new Cartao("Cartao " + i, i % 2 == 0 ? BandeiraCartao.VISA : BandeiraCartao.MASTERCARD,
+                    BigDecimal.valueOf(500L * (i + 1)), BigDecimal.valueOf(1000L + 100L * i)));
+        }
+        cartoes = cartaoRepository.saveAll(cartoes);
+
+        List<ClienteCartao> emitidos = new ArrayList<>();
+        for (int i = 0; i < cartoesEmitidos; i++) {
+            var clienteCartao = new ClienteCartao();
+            clienteCartao.setCpf(cpf(i % CPFS));
+            clienteCartao.setCartao(cartoes.get(i % CARTOES));
+            clienteCartao.setLimite(BigDecimal.valueOf(1000L + i % 5000));
+            emitidos.add(clienteCartao);
+            if (emitidos.size() == 5_000) {
+                clienteCartaoRepository.saveAll(emitidos);
+                emitidos.clear();
+            }
+        }
+        clienteCartaoRepository.saveAll(emitidos);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public List<ClienteCartao> findByCpf() {
+        return clienteCartaoRepository.findByCpf(cpf(ThreadLocalRandom.current().nextInt(CPFS)));
+    }
+
+    @Benchmark
+    public List<Cartao> findByRendaLessThanEqual() {
+        long renda = 500L * (1 + ThreadLocalRandom.current().nextInt(CARTOES));
+        return cartaoRepository.findByRendaLessThanEqual(BigDecimal.valueOf(renda));
+    }
+}
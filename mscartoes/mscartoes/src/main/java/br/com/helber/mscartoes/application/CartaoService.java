@@ -24,4 +24,8 @@ public class CartaoService {
         var rendaBigDecimal = BigDecimal.valueOf(renda);
         return repository.findByRendaLessThanEqual(rendaBigDecimal);
     }
+
+    public List<Cartao> getCatalogo() {
+        return repository.findAll();
+    }
 }
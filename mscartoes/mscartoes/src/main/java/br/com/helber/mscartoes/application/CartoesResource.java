@@ -1,16 +1,26 @@
 package br.com.helber.mscartoes.application;
 
 import br.com.helber.mscartoes.application.representation.CartoesPorClienteResponse;
+import br.com.helber.mscartoes.application.representation.ClienteCartaoExportacao;
 import br.com.helber.mscartoes.domain.Cartao;
-import br.com.helber.mscartoes.domain.ClienteCartao;
+import br.com.helber.mscartoes.infra.mqueue.CatalogoCartoesPublisher;
 import br.com.helber.mscartoes.representation.CartaoSaveRequest;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
 
 @RestController
 @RequestMapping("cartoes")
@@ -19,6 +29,15 @@ public class CartoesResource {
 
     private final CartaoService cartaoService;
     private final ClienteCartaoService clienteCartaoService;
+    private final CatalogoCartoesPublisher catalogoCartoesPublisher;
+    private final ObjectMapper objectMapper;
+    private final Executor exportacaoExecutor;
+
+    @Value("${mscartoes.exportacao.tamanho-pagina}")
+    private int tamanhoPaginaExportacao;
+
+    @Value("${mscartoes.exportacao.timeout-ms}")
+    private long timeoutExportacaoMs;
 
     @GetMapping
     public String status() {
@@ -29,6 +48,7 @@ public class CartoesResource {
     public ResponseEntity cadastra(@RequestBody CartaoSaveRequest request){
         Cartao cartao = request.toModel();
         cartaoService.save(cartao);
+        catalogoCartoesPublisher.catalogoAlterado(cartao);
         return ResponseEntity.status(HttpStatus.CREATED).build();
     }
     @GetMapping(params = "renda")
@@ -37,14 +57,53 @@ public class CartoesResource {
         return ResponseEntity.ok(list);
     }
 
+    @GetMapping("catalogo")
+    public ResponseEntity<List<Cartao>> getCatalogo(){
+        return ResponseEntity.ok(cartaoService.getCatalogo());
+    }
+
     @GetMapping(params = "cpf")
     public ResponseEntity<List<CartoesPorClienteResponse>> getCartoesByCliente(
             @RequestParam("cpf") String cpf) {
-        List<ClienteCartao> lista = clienteCartaoService.listCartoesByCpf(cpf);
-        List<CartoesPorClienteResponse> resultList = lista.stream()
-                .map(CartoesPorClienteResponse::fromModel)
-                .collect(Collectors.toList());
-        return ResponseEntity.ok(resultList);
+        return ResponseEntity.ok(clienteCartaoService.listCartoesPorCliente(cpf));
+
+    }
+
+    /**
+     * O emitter leva o proprio tempo limite para a requisicao assincrona, entao so esta rota espera
+     * {@code mscartoes.exportacao.timeout-ms}; as demais seguem com o padrao do Spring MVC. Com o
+     * {@code exportacaoExecutor} cheio a exportacao volta 503 e nao chega a comecar.
+     */
+    @GetMapping(value = "clientes/exportacao", produces = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<ResponseBodyEmitter> exportarCartoesClientes(
+            @RequestParam(value = "aposId", defaultValue = "0") long aposId) {
+        var writer = objectMapper.writerFor(ClienteCartaoExportacao.class);
+        var emitter = new ResponseBodyEmitter(timeoutExportacaoMs);
+        try {
+            exportacaoExecutor.execute(() -> exportar(aposId, writer, emitter));
+        } catch (RejectedExecutionException e) {
+            return ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).build();
+        }
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_NDJSON).body(emitter);
+    }
 
+    private void exportar(long aposId, ObjectWriter writer, ResponseBodyEmitter emitter) {
+        try {
+            clienteCartaoService.exportar(aposId, tamanhoPaginaExportacao, pagina -> {
+                var linhas = new ByteArrayOutputStream();
+                try {
+                    for (ClienteCartaoExportacao registro : pagina) {
+                        linhas.write(writer.writeValueAsBytes(registro));
+                        linhas.write('\n');
+                    }
+                    emitter.send(linhas.toByteArray(), MediaType.APPLICATION_NDJSON);
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            });
+            emitter.complete();
+        } catch (RuntimeException e) {
+            emitter.completeWithError(e);
+        }
     }
 }
@@ -1,18 +1,84 @@
 package br.com.helber.mscartoes.application;
 
+import br.com.helber.mscartoes.application.representation.CartoesPorClienteResponse;
+import br.com.helber.mscartoes.application.representation.ClienteCartaoExportacao;
+import br.com.helber.mscartoes.domain.Cartao;
 import br.com.helber.mscartoes.domain.ClienteCartao;
+import br.com.helber.mscartoes.domain.DadosSolicitacaoEmissaoCartao;
+import br.com.helber.mscartoes.infra.repository.CartaoRepository;
 import br.com.helber.mscartoes.infra.repository.ClienteCartaoRepository;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
+@Slf4j
 public class ClienteCartaoService {
     private final ClienteCartaoRepository repository;
+    private final CartaoRepository cartaoRepository;
 
     public List<ClienteCartao> listCartoesByCpf(String cpf){
         return repository.findByCpf(cpf);
     }
+
+    @Transactional(readOnly = true)
+    public List<CartoesPorClienteResponse> listCartoesPorCliente(String cpf){
+        return repository.findCartoesPorClienteByCpf(cpf);
+    }
+
+    public long exportar(long aposId, int tamanhoPagina, Consumer<List<ClienteCartaoExportacao>> saida){
+        var pagina = PageRequest.of(0, tamanhoPagina);
+        long ultimoId = aposId;
+        long exportados = 0;
+        while (true) {
+            List<ClienteCartaoExportacao> registros = repository.findPaginaExportacao(ultimoId, pagina);
+            if (registros.isEmpty()) {
+                return exportados;
+            }
+            saida.accept(registros);
+            exportados += registros.size();
+            if (registros.size() < tamanhoPagina) {
+                return exportados;
+            }
+            ultimoId = registros.get(registros.size() - 1).getId();
+        }
+    }
+
+    @Transactional
+    public List<ClienteCartao> emitir(List<DadosSolicitacaoEmissaoCartao> solicitacoes){
+        List<Long> idsCartao = solicitacoes.stream()
+                .map(DadosSolicitacaoEmissaoCartao::getIdCartao)
+                .filter(Objects::nonNull)
+                .distinct()
+                .collect(Collectors.toList());
+        Map<Long, Cartao> cartoes = cartaoRepository.findAllById(idsCartao).stream()
+                .collect(Collectors.toMap(Cartao::getId, Function.identity()));
+
+        List<ClienteCartao> emitidos = new ArrayList<>(solicitacoes.size());
+        for (DadosSolicitacaoEmissaoCartao dados : solicitacoes) {
+            Cartao cartao = cartoes.get(dados.getIdCartao());
+            if (cartao == null) {
+                log.error("Cartão {} não encontrado para a solicitação de emissão do CPF {}",
+                        dados.getIdCartao(), dados.getCpf());
+                continue;
+            }
+            ClienteCartao clienteCartao = new ClienteCartao();
+            clienteCartao.setCartao(cartao);
+            clienteCartao.setCpf(dados.getCpf());
+            clienteCartao.setLimite(dados.getLimiteLiberado());
+            emitidos.add(clienteCartao);
+        }
+        return repository.saveAll(emitidos);
+    }
 }
@@ -1,5 +1,6 @@
 package br.com.helber.mscartoes.application.representation;
 
+import br.com.helber.mscartoes.domain.BandeiraCartao;
 import br.com.helber.mscartoes.domain.ClienteCartao;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -15,6 +16,10 @@ public class CartoesPorClienteResponse {
     private String bandeira;
     private BigDecimal limiteLiberado;
 
+    public CartoesPorClienteResponse(String nome, BandeiraCartao bandeira, BigDecimal limiteLiberado) {
+        this(nome, bandeira.toString(), limiteLiberado);
+    }
+
     public static CartoesPorClienteResponse fromModel(ClienteCartao model){
         return new CartoesPorClienteResponse(
                 model.getCartao().getNome(),
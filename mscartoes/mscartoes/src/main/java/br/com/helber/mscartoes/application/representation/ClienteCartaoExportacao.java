@@ -0,0 +1,25 @@
+package br.com.helber.mscartoes.application.representation;
+
+import br.com.helber.mscartoes.domain.BandeiraCartao;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ClienteCartaoExportacao {
+    private Long id;
+    private String cpf;
+    private Long idCartao;
+    private String nomeCartao;
+    private String bandeira;
+    private BigDecimal limite;
+
+    public ClienteCartaoExportacao(Long id, String cpf, Long idCartao, String nomeCartao,
+                                   BandeiraCartao bandeira, BigDecimal limite) {
+        this(id, cpf, idCartao, nomeCartao, bandeira.toString(), limite);
+    }
+}
@@ -0,0 +1,38 @@
+package br.com.helber.mscartoes.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+@Configuration
+public class ExportacaoConfig {
+
+    @Value("${mscartoes.exportacao.threads}")
+    private int threads;
+
+    @Value("${mscartoes.exportacao.fila}")
+    private int fila;
+
+    /**
+     * Cada exportacao prende uma thread enquanto dura o streaming; com pool e fila limitados, o excesso e
+     * recusado (503) em vez de se acumular no executor padrao do Spring, que tem fila sem limite.
+     */
+    @Bean(destroyMethod = "shutdownNow")
+    public ExecutorService exportacaoExecutor() {
+        var contador = new AtomicInteger();
+        var executor = new ThreadPoolExecutor(threads, threads, 60, TimeUnit.SECONDS,
+                new ArrayBlockingQueue<>(fila), runnable -> {
+                    Thread thread = new Thread(runnable, "exportacao-" + contador.getAndIncrement());
+                    thread.setDaemon(true);
+                    return thread;
+                }, new ThreadPoolExecutor.AbortPolicy());
+        executor.allowCoreThreadTimeOut(true);
+        return executor;
+    }
+}
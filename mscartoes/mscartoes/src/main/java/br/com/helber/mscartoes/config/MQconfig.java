@@ -0,0 +1,26 @@
+package br.com.helber.mscartoes.config;
+
+import org.springframework.amqp.core.FanoutExchange;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class MQconfig {
+
+    @Value("${mq.exchanges.catalogo-cartoes}")
+    private String catalogoCartoesExchange;
+
+    @Value("${mq.exchanges.cartoes-cliente}")
+    private String cartoesClienteExchange;
+
+    @Bean
+    public FanoutExchange exchangeCatalogoCartoes(){
+        return new FanoutExchange(catalogoCartoesExchange, true, false);
+    }
+
+    @Bean
+    public FanoutExchange exchangeCartoesCliente(){
+        return new FanoutExchange(cartoesClienteExchange, true, false);
+    }
+}
@@ -0,0 +1,41 @@
+package br.com.helber.mscartoes.config;
+
+import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.amqp.SimpleRabbitListenerContainerFactoryConfigurer;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@ConditionalOnProperty(name = "mq.emissao-cartoes.lote.enabled", havingValue = "true")
+public class RabbitListenerConfig {
+
+    @Value("${mq.emissao-cartoes.lote.tamanho}")
+    private int tamanho;
+
+    @Value("${mq.emissao-cartoes.lote.espera-ms}")
+    private long esperaMs;
+
+    @Value("${mq.emissao-cartoes.lote.prefetch}")
+    private int prefetch;
+
+    @Value("${mq.emissao-cartoes.lote.consumidores}")
+    private int consumidores;
+
+    @Bean
+    public SimpleRabbitListenerContainerFactory emissaoCartoesLoteContainerFactory(
+            SimpleRabbitListenerContainerFactoryConfigurer configurer, ConnectionFactory connectionFactory) {
+        var factory = new SimpleRabbitListenerContainerFactory();
+        configurer.configure(factory, connectionFactory);
+        factory.setBatchListener(true);
+        factory.setConsumerBatchEnabled(true);
+        factory.setBatchSize(tamanho);
+        factory.setReceiveTimeout(esperaMs);
+        factory.setPrefetchCount(Math.max(prefetch, tamanho));
+        factory.setConcurrentConsumers(consumidores);
+        factory.setMaxConcurrentConsumers(consumidores);
+        return factory;
+    }
+}
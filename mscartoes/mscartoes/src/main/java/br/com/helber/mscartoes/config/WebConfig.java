@@ -0,0 +1,21 @@
+package br.com.helber.mscartoes.config;
+
+import br.com.helber.mscartoes.infra.http.CartoesBinarioHttpMessageConverter;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.List;
+
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+    /**
+     * Entra no fim da lista para que um Accept generico (ou ausente) continue recebendo JSON; o binario
+     * so sai quando pedido explicitamente.
+     */
+    @Override
+    public void extendMessageConverters(List<HttpMessageConverter<?>> converters) {
+        converters.add(new CartoesBinarioHttpMessageConverter());
+    }
+}
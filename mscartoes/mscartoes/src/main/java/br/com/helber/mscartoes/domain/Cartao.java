@@ -7,6 +7,7 @@ import javax.persistence.*;
 import java.math.BigDecimal;
 
 @Entity
+@Table(indexes = @Index(name = "idx_cartao_renda", columnList = "renda"))
 @Data
 @NoArgsConstructor
 public class Cartao {
@@ -7,12 +7,14 @@ import javax.persistence.*;
 import java.math.BigDecimal;
 
 @Entity
+@Table(indexes = @Index(name = "idx_cliente_cartao_cpf", columnList = "cpf"))
 @NoArgsConstructor
 @Data
 public class ClienteCartao {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "cliente_cartao_seq")
+    @SequenceGenerator(name = "cliente_cartao_seq", sequenceName = "cliente_cartao_seq", allocationSize = 50)
     private Long id;
     private String cpf;
     @ManyToOne
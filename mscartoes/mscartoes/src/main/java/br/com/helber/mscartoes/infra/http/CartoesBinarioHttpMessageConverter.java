@@ -0,0 +1,129 @@
+package br.com.helber.mscartoes.infra.http;
+
+import br.com.helber.mscartoes.application.representation.CartoesPorClienteResponse;
+import br.com.helber.mscartoes.domain.BandeiraCartao;
+import br.com.helber.mscartoes.domain.Cartao;
+import org.springframework.http.HttpInputMessage;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.AbstractGenericHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageNotReadableException;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.lang.reflect.ParameterizedType;
+import java.lang.reflect.Type;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+/**
+ * Representacao binaria das listas de cartoes, negociada pelo Accept {@value #TIPO}. Formato (big-endian):
+ * <pre>
+ * byte versao, byte escala, int quantidade, e por item
+ *   Cartao:                    long id, texto nome, texto bandeira, long renda, long limiteBasico
+ *   CartoesPorClienteResponse: texto nome, texto bandeira, long limiteLiberado
+ * texto: short tamanho + UTF-8 (-1 = nulo); bandeira: nome de {@link BandeiraCartao};
+ * long: valor (ou BigDecimal multiplicado por 10^escala) com {@link Long#MIN_VALUE} = nulo
+ * </pre>
+ * Valores com mais casas que a escala nao sao arredondados: a escrita falha.
+ */
+public class CartoesBinarioHttpMessageConverter extends AbstractGenericHttpMessageConverter<List<?>> {
+
+    public static final String TIPO = "application/x-cartoes";
+    public static final MediaType MEDIA_TYPE = MediaType.parseMediaType(TIPO);
+
+    static final byte VERSAO = 2;
+    static final int ESCALA = 2;
+    static final long NULO = Long.MIN_VALUE;
+
+    public CartoesBinarioHttpMessageConverter() {
+        super(MEDIA_TYPE);
+    }
+
+    @Override
+    protected boolean supports(Class<?> clazz) {
+        return List.class.isAssignableFrom(clazz);
+    }
+
+    @Override
+    public boolean canRead(Type type, Class<?> contextClass, MediaType mediaType) {
+        return false;
+    }
+
+    @Override
+    public boolean canWrite(Type type, Class<?> clazz, MediaType mediaType) {
+        Class<?> elemento = elemento(type);
+        return (elemento == Cartao.class || elemento == CartoesPorClienteResponse.class) && canWrite(mediaType);
+    }
+
+    @Override
+    protected void writeInternal(List<?> lista, Type type, HttpOutputMessage outputMessage) throws IOException {
+        var out = new DataOutputStream(outputMessage.getBody());
+        out.writeByte(VERSAO);
+        out.writeByte(ESCALA);
+        out.writeInt(lista.size());
+        for (Object item : lista) {
+            if (item instanceof Cartao) {
+                var cartao = (Cartao) item;
+                out.writeLong(cartao.getId() == null ? NULO : cartao.getId());
+                escreverTexto(out, cartao.getNome());
+                escreverTexto(out, cartao.getBandeira() == null ? null : cartao.getBandeira().name());
+                out.writeLong(escalonar(cartao.getRenda()));
+                out.writeLong(escalonar(cartao.getLimiteBasico()));
+            } else {
+                var cartao = (CartoesPorClienteResponse) item;
+                escreverTexto(out, cartao.getNome());
+                escreverTexto(out, cartao.getBandeira());
+                out.writeLong(escalonar(cartao.getLimiteLiberado()));
+            }
+        }
+        out.flush();
+    }
+
+    @Override
+    protected List<?> readInternal(Class<? extends List<?>> clazz, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Leitura de " + TIPO + " nao suportada", inputMessage);
+    }
+
+    @Override
+    public List<?> read(Type type, Class<?> contextClass, HttpInputMessage inputMessage) {
+        throw new HttpMessageNotReadableException("Leitura de " + TIPO + " nao suportada", inputMessage);
+    }
+
+    private static Class<?> elemento(Type type) {
+        if (type instanceof ParameterizedType) {
+            Type argumento = ((ParameterizedType) type).getActualTypeArguments()[0];
+            if (argumento instanceof Class) {
+                return (Class<?>) argumento;
+            }
+        }
+        return null;
+    }
+
+    private static void escreverTexto(DataOutputStream out, String texto) throws IOException {
+        if (texto == null) {
+            out.writeShort(-1);
+            return;
+        }
+        byte[] bytes = texto.getBytes(StandardCharsets.UTF_8);
+        if (bytes.length > Short.MAX_VALUE) {
+            throw new IOException("Texto com " + bytes.length + " bytes excede o limite do formato binario");
+        }
+        out.writeShort(bytes.length);
+        out.write(bytes);
+    }
+
+    private static long escalonar(BigDecimal valor) {
+        if (valor == null) {
+            return NULO;
+        }
+        try {
+            return valor.setScale(ESCALA).unscaledValue().longValueExact();
+        } catch (ArithmeticException e) {
+            throw new HttpMessageNotWritableException("Valor " + valor.toPlainString()
+                    + " nao cabe no formato binario com escala " + ESCALA, e);
+        }
+    }
+}
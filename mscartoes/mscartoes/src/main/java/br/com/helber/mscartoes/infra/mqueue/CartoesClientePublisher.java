@@ -0,0 +1,40 @@
+package br.com.helber.mscartoes.infra.mqueue;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.core.FanoutExchange;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.stereotype.Component;
+
+/**
+ * Avisa pelo fanout que os cartoes de um cliente mudaram. A emissao ja foi gravada quando o aviso sai,
+ * entao uma falha aqui nao desfaz nada: fica no log e em {@code cartoes.cartoes-cliente.falhas}, e os
+ * caches dos consumidores so se corrigem pelo TTL.
+ */
+@Component
+@Slf4j
+public class CartoesClientePublisher {
+
+    private final RabbitTemplate rabbitTemplate;
+    private final FanoutExchange exchangeCartoesCliente;
+    private final Counter falhas;
+
+    public CartoesClientePublisher(RabbitTemplate rabbitTemplate, FanoutExchange exchangeCartoesCliente,
+                                   MeterRegistry registry) {
+        this.rabbitTemplate = rabbitTemplate;
+        this.exchangeCartoesCliente = exchangeCartoesCliente;
+        this.falhas = Counter.builder("cartoes.cartoes-cliente.falhas")
+                .tag("exchange", exchangeCartoesCliente.getName())
+                .register(registry);
+    }
+
+    public void cartoesAlterados(String cpf) {
+        try {
+            rabbitTemplate.convertAndSend(exchangeCartoesCliente.getName(), "", cpf);
+        } catch (Exception e) {
+            falhas.increment();
+            log.error("Erro ao publicar alteração dos cartões do cliente {}: {}", cpf, e.getMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,25 @@
+package br.com.helber.mscartoes.infra.mqueue;
+
+import br.com.helber.mscartoes.domain.Cartao;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.core.FanoutExchange;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.stereotype.Component;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CatalogoCartoesPublisher {
+
+    private final RabbitTemplate rabbitTemplate;
+    private final FanoutExchange exchangeCatalogoCartoes;
+
+    public void catalogoAlterado(Cartao cartao) {
+        try {
+            rabbitTemplate.convertAndSend(exchangeCatalogoCartoes.getName(), "", String.valueOf(cartao.getId()));
+        } catch (Exception e) {
+            log.error("Erro ao publicar alteração do catálogo de cartões: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,71 @@
+package br.com.helber.mscartoes.infra.mqueue;
+
+import br.com.helber.mscartoes.application.ClienteCartaoService;
+import br.com.helber.mscartoes.domain.ClienteCartao;
+import br.com.helber.mscartoes.domain.DadosSolicitacaoEmissaoCartao;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Component
+@ConditionalOnProperty(name = "mq.emissao-cartoes.lote.enabled", havingValue = "true")
+@Slf4j
+public class EmissaoCartaoLoteSubscriber {
+
+    private final ClienteCartaoService clienteCartaoService;
+    private final CartoesClientePublisher cartoesClientePublisher;
+    private final ObjectReader reader;
+
+    public EmissaoCartaoLoteSubscriber(ClienteCartaoService clienteCartaoService,
+                                       CartoesClientePublisher cartoesClientePublisher,
+                                       ObjectMapper mapper) {
+        this.clienteCartaoService = clienteCartaoService;
+        this.cartoesClientePublisher = cartoesClientePublisher;
+        this.reader = mapper.readerFor(DadosSolicitacaoEmissaoCartao.class);
+    }
+
+    @RabbitListener(queues = "${mq.queues.emissao-cartoes}", containerFactory = "emissaoCartoesLoteContainerFactory")
+    public void receberSolicitacoesEmissao(List<Message> mensagens) {
+        List<DadosSolicitacaoEmissaoCartao> solicitacoes = new ArrayList<>(mensagens.size());
+        for (Message mensagem : mensagens) {
+            try {
+                solicitacoes.add(reader.readValue(mensagem.getBody()));
+            } catch (Exception e) {
+                log.error("Erro ao receber solicitação de emissão de cartão: {}", e.getMessage());
+            }
+        }
+        if (solicitacoes.isEmpty()) {
+            return;
+        }
+
+        try {
+            publicarAlterados(clienteCartaoService.emitir(solicitacoes));
+        } catch (Exception e) {
+            log.warn("Falha ao gravar lote de {} emissões, gravando individualmente: {}",
+                    solicitacoes.size(), e.getMessage());
+            for (DadosSolicitacaoEmissaoCartao dados : solicitacoes) {
+                try {
+                    publicarAlterados(clienteCartaoService.emitir(List.of(dados)));
+                } catch (Exception erro) {
+                    log.error("Erro ao emitir cartão {} para o CPF {}: {}",
+                            dados.getIdCartao(), dados.getCpf(), erro.getMessage());
+                }
+            }
+        }
+    }
+
+    /** Depois do commit do lote, para que quem invalidar o cache ja leia os cartoes novos. */
+    private void publicarAlterados(List<ClienteCartao> emitidos) {
+        emitidos.stream()
+                .map(ClienteCartao::getCpf)
+                .distinct()
+                .forEach(cartoesClientePublisher::cartoesAlterados);
+    }
+}
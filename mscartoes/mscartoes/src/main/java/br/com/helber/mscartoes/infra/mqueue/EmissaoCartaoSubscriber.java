@@ -5,29 +5,39 @@ import br.com.helber.mscartoes.domain.ClienteCartao;
 import br.com.helber.mscartoes.domain.DadosSolicitacaoEmissaoCartao;
 import br.com.helber.mscartoes.infra.repository.CartaoRepository;
 import br.com.helber.mscartoes.infra.repository.ClienteCartaoRepository;
-import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.databind.ObjectMapper;
-import lombok.RequiredArgsConstructor;
+import com.fasterxml.jackson.databind.ObjectReader;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.messaging.handler.annotation.Payload;
 import org.springframework.stereotype.Component;
 
 @Component
-@RequiredArgsConstructor
+@ConditionalOnProperty(name = "mq.emissao-cartoes.lote.enabled", havingValue = "false", matchIfMissing = true)
 @Slf4j
 public class EmissaoCartaoSubscriber {
 
     private final CartaoRepository cartaoRepository;
     private final ClienteCartaoRepository clienteCartaoRepository;
+    private final CartoesClientePublisher cartoesClientePublisher;
+    private final ObjectReader reader;
+
+    public EmissaoCartaoSubscriber(CartaoRepository cartaoRepository,
+                                   ClienteCartaoRepository clienteCartaoRepository,
+                                   CartoesClientePublisher cartoesClientePublisher,
+                                   ObjectMapper mapper) {
+        this.cartaoRepository = cartaoRepository;
+        this.clienteCartaoRepository = clienteCartaoRepository;
+        this.cartoesClientePublisher = cartoesClientePublisher;
+        this.reader = mapper.readerFor(DadosSolicitacaoEmissaoCartao.class);
+    }
 
     @RabbitListener(queues = "${mq.queues.emissao-cartoes}")
     public void receberSolicitacaoEmissao(@Payload String payload) {
 
         try {
-            var mapper = new ObjectMapper();
-
-            DadosSolicitacaoEmissaoCartao dados = mapper.readValue(payload, DadosSolicitacaoEmissaoCartao.class);
+            DadosSolicitacaoEmissaoCartao dados = reader.readValue(payload);
             Cartao cartao = cartaoRepository.findById(dados.getIdCartao()).orElseThrow();
 
             ClienteCartao clienteCartao = new ClienteCartao();
@@ -36,6 +46,7 @@ public class EmissaoCartaoSubscriber {
             clienteCartao.setLimite(dados.getLimiteLiberado());
 
             clienteCartaoRepository.save(clienteCartao);
+            cartoesClientePublisher.cartoesAlterados(clienteCartao.getCpf());
 
 
         }catch (Exception e){
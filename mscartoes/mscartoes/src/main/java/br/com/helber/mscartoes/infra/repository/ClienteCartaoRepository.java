@@ -1,11 +1,29 @@
 package br.com.helber.mscartoes.infra.repository;
 
+import br.com.helber.mscartoes.application.representation.CartoesPorClienteResponse;
+import br.com.helber.mscartoes.application.representation.ClienteCartaoExportacao;
 import br.com.helber.mscartoes.domain.ClienteCartao;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.transaction.annotation.Transactional;
 
 import java.util.List;
 
 public interface ClienteCartaoRepository extends JpaRepository<ClienteCartao, Long> {
     List<ClienteCartao> findByCpf(String cpf);
 
+    @Query("select new br.com.helber.mscartoes.application.representation.CartoesPorClienteResponse("
+            + "c.nome, c.bandeira, cc.limite) "
+            + "from ClienteCartao cc join cc.cartao c where cc.cpf = :cpf")
+    List<CartoesPorClienteResponse> findCartoesPorClienteByCpf(@Param("cpf") String cpf);
+
+    /** Cada pagina da exportacao e uma transacao curta de leitura; nada fica aberto entre as paginas. */
+    @Transactional(readOnly = true)
+    @Query("select new br.com.helber.mscartoes.application.representation.ClienteCartaoExportacao("
+            + "cc.id, cc.cpf, c.id, c.nome, c.bandeira, cc.limite) "
+            + "from ClienteCartao cc join cc.cartao c where cc.id > :aposId order by cc.id")
+    List<ClienteCartaoExportacao> findPaginaExportacao(@Param("aposId") long aposId, Pageable pagina);
+
 }
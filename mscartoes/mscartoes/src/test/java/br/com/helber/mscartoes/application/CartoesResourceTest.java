@@ -0,0 +1,125 @@
+package br.com.helber.mscartoes.application;
+
+import br.com.helber.mscartoes.application.representation.ClienteCartaoExportacao;
+import br.com.helber.mscartoes.infra.mqueue.CatalogoCartoesPublisher;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.http.MediaType;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.content;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class CartoesResourceTest {
+
+    private static final long TIMEOUT_EXPORTACAO_MS = 3_600_000;
+
+    private final ObjectMapper mapper = new ObjectMapper();
+    private ClienteCartaoService clienteCartaoService;
+    private MockMvc mvc;
+
+    @BeforeEach
+    void setUp() {
+        clienteCartaoService = mock(ClienteCartaoService.class);
+        mvc = mvc(new SimpleAsyncTaskExecutor());
+    }
+
+    private MockMvc mvc(Executor exportacaoExecutor) {
+        var resource = new CartoesResource(mock(CartaoService.class), clienteCartaoService,
+                mock(CatalogoCartoesPublisher.class), mapper, exportacaoExecutor);
+        ReflectionTestUtils.setField(resource, "tamanhoPaginaExportacao", 2);
+        ReflectionTestUtils.setField(resource, "timeoutExportacaoMs", TIMEOUT_EXPORTACAO_MS);
+        return MockMvcBuilders.standaloneSetup(resource).build();
+    }
+
+    private static ClienteCartaoExportacao registro(long id) {
+        return new ClienteCartaoExportacao(id, String.format("%011d", id), 1L, "Basico", "VISA",
+                new BigDecimal("1000.50"));
+    }
+
+    @SuppressWarnings("unchecked")
+    private void exportacaoComPaginas(List<List<ClienteCartaoExportacao>> paginas) {
+        when(clienteCartaoService.exportar(anyLong(), anyInt(), any())).thenAnswer(inv -> {
+            Consumer<List<ClienteCartaoExportacao>> saida = inv.getArgument(2);
+            paginas.forEach(saida);
+            return paginas.stream().mapToLong(List::size).sum();
+        });
+    }
+
+    @Test
+    void exportacaoEscreveUmaLinhaNdjsonPorRegistro() throws Exception {
+        exportacaoComPaginas(List.of(List.of(registro(1), registro(2)), List.of(registro(3))));
+
+        MvcResult inicio = mvc.perform(get("/cartoes/clientes/exportacao").param("aposId", "0"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String corpo = mvc.perform(asyncDispatch(inicio))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_NDJSON))
+                .andReturn().getResponse().getContentAsString();
+
+        assertTrue(corpo.endsWith("\n"));
+        List<ClienteCartaoExportacao> linhas = new ArrayList<>();
+        for (String linha : corpo.split("\n")) {
+            linhas.add(mapper.readValue(linha, ClienteCartaoExportacao.class));
+        }
+        assertEquals(List.of(registro(1), registro(2), registro(3)), linhas);
+        verify(clienteCartaoService).exportar(eq(0L), eq(2), any());
+    }
+
+    @Test
+    void exportacaoRetomaAposOIdInformado() throws Exception {
+        exportacaoComPaginas(List.of());
+
+        MvcResult inicio = mvc.perform(get("/cartoes/clientes/exportacao").param("aposId", "42"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mvc.perform(asyncDispatch(inicio))
+                .andExpect(status().isOk())
+                .andExpect(content().string(""));
+
+        verify(clienteCartaoService).exportar(eq(42L), eq(2), any());
+    }
+
+    @Test
+    void exportacaoUsaOTempoLimiteProprio() throws Exception {
+        exportacaoComPaginas(List.of(List.of(registro(1))));
+
+        MvcResult inicio = mvc.perform(get("/cartoes/clientes/exportacao"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mvc.perform(asyncDispatch(inicio)).andExpect(status().isOk());
+
+        assertEquals(TIMEOUT_EXPORTACAO_MS, inicio.getRequest().getAsyncContext().getTimeout());
+    }
+
+    @Test
+    void exportacaoComExecutorCheioVolta503SemComecar() throws Exception {
+        Executor cheio = tarefa -> {
+            throw new RejectedExecutionException("fila cheia");
+        };
+
+        mvc(cheio).perform(get("/cartoes/clientes/exportacao"))
+                .andExpect(request().asyncNotStarted())
+                .andExpect(status().isServiceUnavailable());
+
+        verifyNoInteractions(clienteCartaoService);
+    }
+}
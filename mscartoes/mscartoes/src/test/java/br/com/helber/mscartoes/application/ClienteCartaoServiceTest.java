@@ -0,0 +1,142 @@
+package br.com.helber.mscartoes.application;
+
+import br.com.helber.mscartoes.application.representation.ClienteCartaoExportacao;
+import br.com.helber.mscartoes.domain.BandeiraCartao;
+import br.com.helber.mscartoes.domain.Cartao;
+import br.com.helber.mscartoes.domain.ClienteCartao;
+import br.com.helber.mscartoes.domain.DadosSolicitacaoEmissaoCartao;
+import br.com.helber.mscartoes.infra.repository.CartaoRepository;
+import br.com.helber.mscartoes.infra.repository.ClienteCartaoRepository;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import javax.persistence.EntityManagerFactory;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class ClienteCartaoServiceTest {
+
+    private static final int REGISTROS = 2_500;
+
+    @Autowired
+    private ClienteCartaoRepository repository;
+
+    @Autowired
+    private CartaoRepository cartaoRepository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Cartao cartao;
+    private ClienteCartaoService service;
+    private Statistics estatisticas;
+
+    @BeforeEach
+    void setUp() {
+        cartao = entityManager.persist(new Cartao("Basico", BandeiraCartao.VISA,
+                new BigDecimal("1000"), new BigDecimal("1500")));
+        for (int i = 0; i < REGISTROS; i++) {
+            var clienteCartao = new ClienteCartao();
+            clienteCartao.setCpf(String.format("%011d", i));
+            clienteCartao.setCartao(cartao);
+            clienteCartao.setLimite(BigDecimal.valueOf(i));
+            entityManager.persist(clienteCartao);
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        service = new ClienteCartaoService(repository, cartaoRepository);
+        estatisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        estatisticas.clear();
+    }
+
+    @Test
+    void exportaTudoEmPaginasOrdenadasPorId() {
+        List<ClienteCartaoExportacao> exportados = new ArrayList<>();
+        List<Integer> paginas = new ArrayList<>();
+
+        long total = service.exportar(0, 1000, pagina -> {
+            paginas.add(pagina.size());
+            exportados.addAll(pagina);
+        });
+
+        assertEquals(REGISTROS, total);
+        assertEquals(List.of(1000, 1000, 500), paginas);
+        for (int i = 1; i < exportados.size(); i++) {
+            assertTrue(exportados.get(i - 1).getId() < exportados.get(i).getId());
+        }
+        assertEquals(3, estatisticas.getPrepareStatementCount());
+        assertEquals(0, estatisticas.getEntityLoadCount());
+    }
+
+    @Test
+    void retomaAPartirDoUltimoIdRecebido() {
+        List<ClienteCartaoExportacao> primeiros = new ArrayList<>();
+        service.exportar(0, 1000, primeiros::addAll);
+        long ultimoRecebido = primeiros.get(1199).getId();
+
+        List<ClienteCartaoExportacao> restantes = new ArrayList<>();
+        long total = service.exportar(ultimoRecebido, 1000, restantes::addAll);
+
+        assertEquals(REGISTROS - 1200, total);
+        assertEquals(primeiros.subList(1200, REGISTROS), restantes);
+    }
+
+    @Test
+    void cursorAlemDoUltimoIdNaoEmiteNada() {
+        List<ClienteCartaoExportacao> exportados = new ArrayList<>();
+
+        long total = service.exportar(Long.MAX_VALUE - 1, 1000, exportados::addAll);
+
+        assertEquals(0, total);
+        assertTrue(exportados.isEmpty());
+    }
+
+    @Test
+    void tabelaVaziaNaoEmiteNada() {
+        repository.deleteAllInBatch();
+        List<ClienteCartaoExportacao> exportados = new ArrayList<>();
+
+        long total = service.exportar(0, 1000, exportados::addAll);
+
+        assertEquals(0, total);
+        assertTrue(exportados.isEmpty());
+    }
+
+    private static DadosSolicitacaoEmissaoCartao solicitacao(long idCartao, String cpf) {
+        var dados = new DadosSolicitacaoEmissaoCartao();
+        dados.setIdCartao(idCartao);
+        dados.setCpf(cpf);
+        dados.setEndereco("Rua A");
+        dados.setLimiteLiberado(new BigDecimal("1000"));
+        return dados;
+    }
+
+    @Test
+    void emissaoEmLoteCarregaCadaCartaoUmaVezEIgnoraCartaoInexistente() {
+        List<ClienteCartao> emitidos = service.emitir(List.of(
+                solicitacao(cartao.getId(), "11111111111"),
+                solicitacao(cartao.getId(), "22222222222"),
+                solicitacao(-1, "33333333333")));
+        entityManager.flush();
+
+        assertEquals(List.of("11111111111", "22222222222"),
+                emitidos.stream().map(ClienteCartao::getCpf).collect(Collectors.toList()));
+        assertEquals(1, estatisticas.getEntityLoadCount());
+        assertEquals(2, estatisticas.getEntityInsertCount());
+        assertEquals(REGISTROS + 2, repository.count());
+    }
+}
@@ -0,0 +1,49 @@
+package br.com.helber.mscartoes.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.rabbit.config.SimpleRabbitListenerContainerFactory;
+import org.springframework.amqp.rabbit.connection.ConnectionFactory;
+import org.springframework.amqp.rabbit.listener.SimpleMessageListenerContainer;
+import org.springframework.boot.autoconfigure.amqp.RabbitProperties;
+import org.springframework.boot.autoconfigure.amqp.SimpleRabbitListenerContainerFactoryConfigurer;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class RabbitListenerConfigTest {
+
+    private final ApplicationContextRunner contexto = new ApplicationContextRunner()
+            .withBean(ConnectionFactory.class, () -> mock(ConnectionFactory.class))
+            .withBean(SimpleRabbitListenerContainerFactoryConfigurer.class,
+                    () -> new SimpleRabbitListenerContainerFactoryConfigurer(new RabbitProperties()))
+            .withUserConfiguration(RabbitListenerConfig.class)
+            .withPropertyValues(
+                    "mq.emissao-cartoes.lote.tamanho=200",
+                    "mq.emissao-cartoes.lote.espera-ms=100",
+                    "mq.emissao-cartoes.lote.prefetch=50",
+                    "mq.emissao-cartoes.lote.consumidores=4");
+
+    @Test
+    void containerEntregaLotesAoListener() {
+        contexto.withPropertyValues("mq.emissao-cartoes.lote.enabled=true").run(context -> {
+            var factory = context.getBean("emissaoCartoesLoteContainerFactory",
+                    SimpleRabbitListenerContainerFactory.class);
+            SimpleMessageListenerContainer container = factory.createListenerContainer();
+
+            assertTrue(container.isConsumerBatchEnabled());
+            assertEquals(200, ReflectionTestUtils.getField(container, "batchSize"));
+            assertEquals(100L, ReflectionTestUtils.getField(container, "receiveTimeout"));
+            assertEquals(4, ReflectionTestUtils.getField(container, "concurrentConsumers"));
+            // o prefetch nunca fica abaixo do tamanho do lote, senao o lote nunca enche
+            assertEquals(200, ReflectionTestUtils.getField(container, "prefetchCount"));
+        });
+    }
+
+    @Test
+    void desabilitadoNaoRegistraAFabricaDeLote() {
+        contexto.withPropertyValues("mq.emissao-cartoes.lote.enabled=false").run(context ->
+                assertFalse(context.containsBean("emissaoCartoesLoteContainerFactory")));
+    }
+}
@@ -0,0 +1,134 @@
+package br.com.helber.mscartoes.infra.http;
+
+import br.com.helber.mscartoes.application.CartaoService;
+import br.com.helber.mscartoes.application.CartoesResource;
+import br.com.helber.mscartoes.application.ClienteCartaoService;
+import br.com.helber.mscartoes.application.representation.CartoesPorClienteResponse;
+import br.com.helber.mscartoes.domain.BandeiraCartao;
+import br.com.helber.mscartoes.domain.Cartao;
+import br.com.helber.mscartoes.infra.mqueue.CatalogoCartoesPublisher;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageNotWritableException;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.mock.http.MockHttpOutputMessage;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+
+class CartoesBinarioHttpMessageConverterTest {
+
+    private MockMvc mvc;
+
+    @BeforeEach
+    void setUp() {
+        var cartaoService = mock(CartaoService.class);
+        var clienteCartaoService = mock(ClienteCartaoService.class);
+        var cartao = new Cartao("Basico", BandeiraCartao.VISA, new BigDecimal("1000"), new BigDecimal("1500.5"));
+        cartao.setId(7L);
+        when(cartaoService.getCartoesRendaMenorIgual(anyLong())).thenReturn(List.of(cartao));
+        when(clienteCartaoService.listCartoesPorCliente(anyString())).thenReturn(List.of(
+                new CartoesPorClienteResponse("Ouro", BandeiraCartao.MASTERCARD, new BigDecimal("2500.75"))));
+
+        var objectMapper = new ObjectMapper();
+        var resource = new CartoesResource(cartaoService, clienteCartaoService,
+                mock(CatalogoCartoesPublisher.class), objectMapper, new SimpleAsyncTaskExecutor());
+        mvc = MockMvcBuilders.standaloneSetup(resource)
+                .setMessageConverters(new MappingJackson2HttpMessageConverter(objectMapper),
+                        new CartoesBinarioHttpMessageConverter())
+                .build();
+    }
+
+    @Test
+    void cartoesPorRendaEmBinarioQuandoPedido() throws Exception {
+        var resposta = chamar("/cartoes?renda=5000", CartoesBinarioHttpMessageConverter.TIPO);
+
+        assertEquals(CartoesBinarioHttpMessageConverter.TIPO, resposta.getResponse().getContentType());
+        var in = new DataInputStream(new ByteArrayInputStream(resposta.getResponse().getContentAsByteArray()));
+        assertEquals(2, in.readByte());
+        assertEquals(2, in.readByte());
+        assertEquals(1, in.readInt());
+        assertEquals(7L, in.readLong());
+        assertEquals("Basico", texto(in));
+        assertEquals("VISA", texto(in));
+        assertEquals(100_000L, in.readLong());
+        assertEquals(150_050L, in.readLong());
+        assertEquals(-1, in.read());
+    }
+
+    @Test
+    void cartoesDoClienteEmBinarioQuandoPedido() throws Exception {
+        var resposta = chamar("/cartoes?cpf=12345678900", CartoesBinarioHttpMessageConverter.TIPO);
+
+        var in = new DataInputStream(new ByteArrayInputStream(resposta.getResponse().getContentAsByteArray()));
+        in.readShort();
+        assertEquals(1, in.readInt());
+        assertEquals("Ouro", texto(in));
+        assertEquals("MASTERCARD", texto(in));
+        assertEquals(250_075L, in.readLong());
+        assertEquals(-1, in.read());
+    }
+
+    @Test
+    void valorQuePrecisariaDeArredondamentoNaoEEscrito() {
+        var conversor = new CartoesBinarioHttpMessageConverter();
+        var cartao = new Cartao("Basico", BandeiraCartao.VISA, new BigDecimal("1000"), new BigDecimal("1500.505"));
+        var saida = new MockHttpOutputMessage();
+
+        assertThrows(HttpMessageNotWritableException.class, () -> conversor.write(List.of(cartao),
+                new ParameterizedTypeReference<List<Cartao>>() {}.getType(),
+                CartoesBinarioHttpMessageConverter.MEDIA_TYPE, saida));
+    }
+
+    @Test
+    void zerosAlemDaEscalaNaoSaoArredondamento() throws IOException {
+        var conversor = new CartoesBinarioHttpMessageConverter();
+        var cartao = new Cartao("Basico", BandeiraCartao.VISA, new BigDecimal("1000"), new BigDecimal("1500.5000"));
+        var saida = new MockHttpOutputMessage();
+
+        conversor.write(List.of(cartao), new ParameterizedTypeReference<List<Cartao>>() {}.getType(),
+                CartoesBinarioHttpMessageConverter.MEDIA_TYPE, saida);
+
+        var in = new DataInputStream(new ByteArrayInputStream(saida.getBodyAsBytes()));
+        in.skipBytes(6 + 8);
+        texto(in);
+        texto(in);
+        assertEquals(100_000L, in.readLong());
+        assertEquals(150_050L, in.readLong());
+    }
+
+    @Test
+    void jsonContinuaOPadrao() throws Exception {
+        for (String accept : List.of(MediaType.ALL_VALUE, MediaType.APPLICATION_JSON_VALUE)) {
+            var resposta = chamar("/cartoes?renda=5000", accept);
+
+            assertTrue(resposta.getResponse().getContentType().startsWith(MediaType.APPLICATION_JSON_VALUE));
+            assertTrue(resposta.getResponse().getContentAsString().contains("\"bandeira\":\"VISA\""));
+        }
+    }
+
+    private MvcResult chamar(String url, String accept) throws Exception {
+        return mvc.perform(get(url).header("Accept", accept)).andReturn();
+    }
+
+    private static String texto(DataInputStream in) throws IOException {
+        byte[] bytes = new byte[in.readShort()];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,49 @@
+package br.com.helber.mscartoes.infra.mqueue;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.AmqpConnectException;
+import org.springframework.amqp.core.FanoutExchange;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+
+import java.net.ConnectException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class CartoesClientePublisherTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private RabbitTemplate rabbitTemplate;
+    private CartoesClientePublisher publisher;
+
+    @BeforeEach
+    void setUp() {
+        rabbitTemplate = mock(RabbitTemplate.class);
+        publisher = new CartoesClientePublisher(rabbitTemplate, new FanoutExchange("cartoes-cliente"), registry);
+    }
+
+    @Test
+    void publicaOCpfNoFanout() {
+        publisher.cartoesAlterados("12345678909");
+
+        verify(rabbitTemplate).convertAndSend("cartoes-cliente", "", "12345678909");
+        assertEquals(0, falhas());
+    }
+
+    @Test
+    void falhaNaPublicacaoNaoPropagaEEContada() {
+        doThrow(new AmqpConnectException(new ConnectException("broker fora")))
+                .when(rabbitTemplate).convertAndSend(anyString(), anyString(), any(Object.class));
+
+        assertDoesNotThrow(() -> publisher.cartoesAlterados("12345678909"));
+        publisher.cartoesAlterados("98765432100");
+
+        assertEquals(2, falhas());
+    }
+
+    private double falhas() {
+        return registry.get("cartoes.cartoes-cliente.falhas").tag("exchange", "cartoes-cliente").counter().count();
+    }
+}
@@ -0,0 +1,118 @@
+package br.com.helber.mscartoes.infra.mqueue;
+
+import br.com.helber.mscartoes.application.ClienteCartaoService;
+import br.com.helber.mscartoes.domain.ClienteCartao;
+import br.com.helber.mscartoes.domain.DadosSolicitacaoEmissaoCartao;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.amqp.core.Message;
+import org.springframework.amqp.core.MessageProperties;
+import org.springframework.dao.DataIntegrityViolationException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.Mockito.*;
+
+class EmissaoCartaoLoteSubscriberTest {
+
+    private ClienteCartaoService service;
+    private CartoesClientePublisher publisher;
+    private EmissaoCartaoLoteSubscriber subscriber;
+
+    @BeforeEach
+    void setUp() {
+        service = mock(ClienteCartaoService.class);
+        publisher = mock(CartoesClientePublisher.class);
+        subscriber = new EmissaoCartaoLoteSubscriber(service, publisher, new ObjectMapper());
+    }
+
+    private static Message mensagem(String corpo) {
+        return new Message(corpo.getBytes(StandardCharsets.UTF_8), new MessageProperties());
+    }
+
+    private static Message solicitacao(long idCartao, String cpf) {
+        return mensagem("{\"idCartao\":" + idCartao + ",\"cpf\":\"" + cpf
+                + "\",\"endereco\":\"Rua A\",\"limiteLiberado\":1000}");
+    }
+
+    private static List<ClienteCartao> emitidos(List<DadosSolicitacaoEmissaoCartao> solicitacoes) {
+        return solicitacoes.stream().map(dados -> {
+            var clienteCartao = new ClienteCartao();
+            clienteCartao.setCpf(dados.getCpf());
+            return clienteCartao;
+        }).collect(Collectors.toList());
+    }
+
+    private static List<String> cpfs(List<DadosSolicitacaoEmissaoCartao> solicitacoes) {
+        return solicitacoes.stream().map(DadosSolicitacaoEmissaoCartao::getCpf).collect(Collectors.toList());
+    }
+
+    @Test
+    void loteGravaTudoNumaUnicaChamadaEPublicaCadaCpfUmaVez() {
+        when(service.emitir(anyList())).thenAnswer(inv -> emitidos(inv.getArgument(0)));
+
+        subscriber.receberSolicitacoesEmissao(List.of(
+                solicitacao(1, "11111111111"), solicitacao(2, "11111111111"), solicitacao(1, "22222222222")));
+
+        verify(service).emitir(argThat(lote -> cpfs(lote).equals(
+                List.of("11111111111", "11111111111", "22222222222"))));
+        verify(publisher).cartoesAlterados("11111111111");
+        verify(publisher).cartoesAlterados("22222222222");
+        verifyNoMoreInteractions(service, publisher);
+    }
+
+    @Test
+    void mensagemMalFormadaESaltadaSemDerrubarOLote() {
+        when(service.emitir(anyList())).thenAnswer(inv -> emitidos(inv.getArgument(0)));
+
+        subscriber.receberSolicitacoesEmissao(List.of(
+                solicitacao(1, "11111111111"), mensagem("{nao e json"), solicitacao(1, "22222222222")));
+
+        verify(service).emitir(argThat(lote -> cpfs(lote).equals(List.of("11111111111", "22222222222"))));
+        verify(publisher).cartoesAlterados("11111111111");
+        verify(publisher).cartoesAlterados("22222222222");
+    }
+
+    @Test
+    void loteSoComMensagensMalFormadasNaoGravaNada() {
+        subscriber.receberSolicitacoesEmissao(List.of(mensagem("{"), mensagem("")));
+
+        verifyNoInteractions(service, publisher);
+    }
+
+    @Test
+    void falhaNoLoteGravaLinhaALinhaEPulaSoALinhaRuim() {
+        when(service.emitir(anyList())).thenAnswer(inv -> {
+            List<DadosSolicitacaoEmissaoCartao> lote = inv.getArgument(0);
+            if (lote.size() > 1 || "99999999999".equals(lote.get(0).getCpf())) {
+                throw new DataIntegrityViolationException("limite nulo");
+            }
+            return emitidos(lote);
+        });
+
+        subscriber.receberSolicitacoesEmissao(List.of(
+                solicitacao(1, "11111111111"), solicitacao(1, "99999999999"), solicitacao(1, "22222222222")));
+
+        verify(service, times(4)).emitir(anyList());
+        verify(publisher).cartoesAlterados("11111111111");
+        verify(publisher).cartoesAlterados("22222222222");
+        verify(publisher, never()).cartoesAlterados("99999999999");
+    }
+
+    @Test
+    void solicitacaoQueFalhaTambemSozinhaNaoPublicaNada() {
+        when(service.emitir(anyList()))
+                .thenThrow(new DataIntegrityViolationException("falha"))
+                .thenThrow(new DataIntegrityViolationException("falha"));
+
+        subscriber.receberSolicitacoesEmissao(List.of(solicitacao(1, "11111111111")));
+
+        verify(service, times(2)).emitir(anyList());
+        verifyNoInteractions(publisher);
+    }
+}
@@ -0,0 +1,83 @@
+package br.com.helber.mscartoes.infra.repository;
+
+import br.com.helber.mscartoes.application.representation.CartoesPorClienteResponse;
+import br.com.helber.mscartoes.domain.BandeiraCartao;
+import br.com.helber.mscartoes.domain.Cartao;
+import br.com.helber.mscartoes.domain.ClienteCartao;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+
+import javax.persistence.EntityManagerFactory;
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+class ClienteCartaoRepositoryTest {
+
+    private static final String CPF = "12345678909";
+
+    @Autowired
+    private ClienteCartaoRepository repository;
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Statistics estatisticas;
+
+    @BeforeEach
+    void setUp() {
+        BandeiraCartao[] bandeiras = BandeiraCartao.values();
+        for (int i = 0; i < 5; i++) {
+            var cartao = entityManager.persist(new Cartao("Cartao " + i, bandeiras[i % bandeiras.length],
+                    BigDecimal.valueOf(1000L * i), BigDecimal.valueOf(2000L * i)));
+            var clienteCartao = new ClienteCartao();
+            clienteCartao.setCpf(CPF);
+            clienteCartao.setCartao(cartao);
+            clienteCartao.setLimite(BigDecimal.valueOf(500L * i));
+            entityManager.persist(clienteCartao);
+        }
+        entityManager.flush();
+        entityManager.clear();
+
+        estatisticas = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        estatisticas.clear();
+    }
+
+    @Test
+    void projecaoExecutaUmaUnicaConsulta() {
+        List<CartoesPorClienteResponse> cartoes = repository.findCartoesPorClienteByCpf(CPF);
+
+        assertEquals(5, cartoes.size());
+        assertEquals(1, estatisticas.getPrepareStatementCount());
+        assertEquals(0, estatisticas.getEntityLoadCount());
+    }
+
+    @Test
+    void projecaoEquivaleAoMapeamentoDasEntidades() {
+        List<CartoesPorClienteResponse> projetados = repository.findCartoesPorClienteByCpf(CPF);
+        entityManager.clear();
+        List<CartoesPorClienteResponse> mapeados = repository.findByCpf(CPF).stream()
+                .map(CartoesPorClienteResponse::fromModel)
+                .collect(Collectors.toList());
+
+        assertEquals(mapeados.size(), projetados.size());
+        assertTrue(projetados.containsAll(mapeados));
+    }
+
+    @Test
+    void cpfSemCartoesNaoCarregaEntidades() {
+        assertTrue(repository.findCartoesPorClienteByCpf("00000000000").isEmpty());
+        assertEquals(1, estatisticas.getPrepareStatementCount());
+    }
+}
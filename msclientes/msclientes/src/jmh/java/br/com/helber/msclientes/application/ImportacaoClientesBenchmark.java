@@ -0,0 +1,86 @@
+package br.com.helber.msclientes.application;
+
+import br.com.helber.msclientes.MsclientesApplication;
+import br.com.helber.msclientes.domain.Cliente;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Clientes gravados por segundo pelo {@code POST /clientes} registro a registro contra a
+ * importacao em massa. Cada invocacao grava {@link #REGISTROS} clientes novos numa tabela vazia.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@OperationsPerInvocation(ImportacaoClientesBenchmark.REGISTROS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+public class ImportacaoClientesBenchmark {
+
+    static final int REGISTROS = 10_000;
+
+    private ConfigurableApplicationContext context;
+    private ClienteService clienteService;
+    private ImportacaoClientesService importacaoService;
+    private JdbcTemplate jdbcTemplate;
+    private String csv;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(MsclientesApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties(
+                        "RABBITMQ_SERVER=localhost",
+                        "EUREKA_SERVER=localhost",
+                        "eureka.client.enabled=false",
+                        "spring.datasource.url=jdbc:h2:mem:importacaobenchmark;DB_CLOSE_DELAY=-1",
+                        "spring.main.banner-mode=off",
+                        "logging.level.root=WARN")
+                .run();
+        clienteService = context.getBean(ClienteService.class);
+        importacaoService = context.getBean(ImportacaoClientesService.class);
+        jdbcTemplate = context.getBean(JdbcTemplate.class);
+
+        var corpo = new StringBuilder("cpf,nome,idade\n");
+        for (int i = 0; i < REGISTROS; i++) {
+            corpo.append(String.format("%011d", i)).append(",Cliente ").append(i).append(',').append(18 + i % 60)
+                    .append('\n');
+        }
+        csv = corpo.toString();
+    }
+
+    @Setup(Level.Invocation)
+    public void limpar() {
+        jdbcTemplate.update("delete from cliente");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public long registroARegistro() {
+        long gravados = 0;
+        for (int i = 0; i < REGISTROS; i++) {
+            clienteService.save(new Cliente(String.format("%011d", i), "Cliente " + i, 18 + i % 60));
+            gravados++;
+        }
+        return gravados;
+    }
+
+    @Benchmark
+    public long importacao() throws IOException {
+        return importacaoService.importar(new BufferedReader(new StringReader(csv)),
+                ImportacaoClientesService.Formato.CSV).getImportados();
+    }
+}
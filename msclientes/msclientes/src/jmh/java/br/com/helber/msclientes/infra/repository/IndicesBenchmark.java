@@ -0,0 +1,63 @@
+package br.com.helber.msclientes.infra.repository;
+
+import br.com.helber.msclientes.MsclientesApplication;
+import br.com.helber.msclientes.domain.Cliente;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Latencia (p50/p90/p99) de {@code findByCpf} com e sem {@code uk_cliente_cpf}, a restricao de
+ * unicidade que indexa a coluna, sobre {@link #CLIENTES} clientes gerados no H2.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(value = 1, jvmArgsAppend = "-Xmx4g")
+public class IndicesBenchmark {
+
+    private static final int CLIENTES = 2_000_000;
+
+    @Param({"true", "false"})
+    private boolean indices;
+
+    private ConfigurableApplicationContext context;
+    private ClienteRepository repository;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        context = new SpringApplicationBuilder(MsclientesApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties("RABBITMQ_SERVER=localhost", "EUREKA_SERVER=localhost", "eureka.client.enabled=false",
+                        "spring.datasource.url=jdbc:h2:mem:indicesbenchmark;DB_CLOSE_DELAY=-1",
+                        "spring.main.banner-mode=off", "logging.level.root=WARN")
+                .run();
+        repository = context.getBean(ClienteRepository.class);
+
+        var jdbc = context.getBean(JdbcTemplate.class);
+        jdbc.update("insert into cliente (cpf, nome, idade) select lpad(cast(x as varchar), 11, '0'), "
+                + "'Cliente ' || x, 18 + mod(x, 60) from system_range(1, ?)", CLIENTES);
+        if (!indices) {
+            jdbc.execute("alter table cliente drop constraint uk_cliente_cpf");
+        }
+        jdbc.execute("analyze");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public Optional<Cliente> findByCpf() {
+        return repository.findByCpf(String.format("%011d", 1 + ThreadLocalRandom.current().nextInt(CLIENTES)));
+    }
+}
@@ -1,26 +1,64 @@
 package br.com.helber.msclientes.application;
 
 import br.com.helber.msclientes.domain.Cliente;
+import br.com.helber.msclientes.domain.ClienteAlteradoEvent;
 import br.com.helber.msclientes.infra.repository.ClienteRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class ClienteService {
 
     private final ClienteRepository repository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final FiltroCpfsConhecidos filtroCpfs;
 
     @Transactional
     public Cliente save(Cliente cliente){
-        return repository.save(cliente);
+        String cpf = Cliente.normalizarCpf(cliente.getCpf());
+        if (cpf == null) {
+            throw new IllegalArgumentException("CPF inválido: " + cliente.getCpf());
+        }
+        cliente.setCpf(cpf);
+        Cliente salvo = repository.save(cliente);
+        filtroCpfs.registrar(salvo.getCpf());
+        eventPublisher.publishEvent(new ClienteAlteradoEvent(salvo.getCpf()));
+        return salvo;
     }
 
-    public Optional<Cliente> getByCPF(String cpf){
-        return repository.findByCpf(cpf);
+    public Optional<Cliente> getByCPF(String cpfInformado){
+        String cpf = Cliente.normalizarCpf(cpfInformado);
+        if (cpf == null || !filtroCpfs.podeExistir(cpf)) {
+            return Optional.empty();
+        }
+        Optional<Cliente> cliente = repository.findByCpf(cpf);
+        if (cliente.isEmpty()) {
+            filtroCpfs.registrarFalsoPositivo();
+        }
+        return cliente;
+    }
 
+    public List<Cliente> getByCPFs(Collection<String> cpfs){
+        List<String> possiveis = cpfs.stream()
+                .map(Cliente::normalizarCpf)
+                .filter(Objects::nonNull)
+                .filter(filtroCpfs::podeExistir)
+                .distinct()
+                .collect(Collectors.toList());
+        if (possiveis.isEmpty()) {
+            return List.of();
+        }
+        List<Cliente> clientes = repository.findByCpfIn(possiveis);
+        filtroCpfs.registrarFalsosPositivos(possiveis.size() - clientes.size());
+        return clientes;
     }
 }
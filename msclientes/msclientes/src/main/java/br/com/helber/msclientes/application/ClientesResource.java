@@ -1,16 +1,26 @@
 package br.com.helber.msclientes.application;
 
 import br.com.helber.msclientes.application.representation.ClienteSaveRequest;
+import br.com.helber.msclientes.application.representation.RelatorioImportacao;
 import br.com.helber.msclientes.domain.Cliente;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
 import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
 import java.util.Optional;
 
 @RestController
@@ -20,6 +30,7 @@ import java.util.Optional;
 public class ClientesResource {
 
     private final ClienteService service;
+    private final ImportacaoClientesService importacaoService;
 
     @GetMapping
     public String status(){
@@ -30,7 +41,13 @@ public class ClientesResource {
     @PostMapping
     public ResponseEntity save(@RequestBody ClienteSaveRequest request){
         var cliente = request.toModel();
-        service.save(cliente);
+        try {
+            service.save(cliente);
+        } catch (IllegalArgumentException e) {
+            return ResponseEntity.badRequest().body(e.getMessage());
+        } catch (DataIntegrityViolationException e) {
+            return ResponseEntity.status(HttpStatus.CONFLICT).build();
+        }
         URI headerLocation = ServletUriComponentsBuilder
                 .fromCurrentRequest()
                 .query("cpf={cpf}")
@@ -47,4 +64,29 @@ public class ClientesResource {
         }
         return ResponseEntity.ok(cliente);
     }
+
+    @PostMapping("lote")
+    public ResponseEntity<List<Cliente>> dadosClientes(@RequestBody List<String> cpfs){
+        if(cpfs.isEmpty()){
+            return ResponseEntity.ok(List.of());
+        }
+        return ResponseEntity.ok(service.getByCPFs(cpfs));
+    }
+
+    @PostMapping(value = "importacao", consumes = "text/csv")
+    public ResponseEntity<RelatorioImportacao> importarCsv(InputStream corpo) throws IOException {
+        return ResponseEntity.ok(importar(corpo, ImportacaoClientesService.Formato.CSV));
+    }
+
+    @PostMapping(value = "importacao", consumes = MediaType.APPLICATION_NDJSON_VALUE)
+    public ResponseEntity<RelatorioImportacao> importarNdjson(InputStream corpo) throws IOException {
+        return ResponseEntity.ok(importar(corpo, ImportacaoClientesService.Formato.NDJSON));
+    }
+
+    private RelatorioImportacao importar(InputStream corpo, ImportacaoClientesService.Formato formato)
+            throws IOException {
+        try (var leitor = new BufferedReader(new InputStreamReader(corpo, StandardCharsets.UTF_8), 1 << 16)) {
+            return importacaoService.importar(leitor, formato);
+        }
+    }
 }
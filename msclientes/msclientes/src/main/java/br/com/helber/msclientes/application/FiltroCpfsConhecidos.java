@@ -0,0 +1,112 @@
+package br.com.helber.msclientes.application;
+
+import br.com.helber.msclientes.domain.Cliente;
+import br.com.helber.msclientes.infra.filtro.FiltroBloom;
+import br.com.helber.msclientes.infra.repository.ClienteRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.stream.Stream;
+
+/**
+ * Filtro de Bloom com os CPFs cadastrados, para responder "nao existe" sem ir ao banco.
+ * <p>
+ * A carga inicial le o banco quando a aplicacao fica pronta; a partir dai o filtro aprende os novos
+ * clientes pelo fanout {@code clientes-alterados} ({@code CpfsConhecidosSubscriber}), que ja esta
+ * ligado antes da carga, entao nenhum cliente gravado em outra instancia fica de fora.
+ */
+@Component
+@Slf4j
+public class FiltroCpfsConhecidos {
+
+    private static final long INVALIDO = -1;
+
+    private final ClienteRepository repository;
+    private final boolean habilitado;
+    private final FiltroBloom filtro;
+
+    private final Counter ausentes;
+    private final Counter possiveis;
+    private final Counter falsosPositivos;
+
+    private volatile boolean carregado;
+
+    public FiltroCpfsConhecidos(ClienteRepository repository,
+                                MeterRegistry registry,
+                                @Value("${clientes.filtro-cpfs.enabled}") boolean habilitado,
+                                @Value("${clientes.filtro-cpfs.capacidade}") long capacidade,
+                                @Value("${clientes.filtro-cpfs.taxa-falsos-positivos}") double taxaFalsosPositivos,
+                                @Value("${clientes.filtro-cpfs.memoria-maxima-bytes}") long memoriaMaximaBytes) {
+        this.repository = repository;
+        this.habilitado = habilitado;
+        this.filtro = FiltroBloom.dimensionar(capacidade, taxaFalsosPositivos, memoriaMaximaBytes);
+        Gauge.builder("clientes.filtro-cpfs.memoria", filtro, FiltroBloom::getMemoriaBytes)
+                .baseUnit("bytes").register(registry);
+        Gauge.builder("clientes.filtro-cpfs.elementos", filtro, FiltroBloom::getElementos).register(registry);
+        Gauge.builder("clientes.filtro-cpfs.funcoes-hash", filtro, FiltroBloom::getFuncoesHash).register(registry);
+        Gauge.builder("clientes.filtro-cpfs.taxa-falsos-positivos", filtro,
+                FiltroBloom::getTaxaFalsosPositivosEstimada).register(registry);
+        this.ausentes = Counter.builder("clientes.filtro-cpfs.consultas")
+                .tag("resultado", "ausente").register(registry);
+        this.possiveis = Counter.builder("clientes.filtro-cpfs.consultas")
+                .tag("resultado", "possivel").register(registry);
+        this.falsosPositivos = Counter.builder("clientes.filtro-cpfs.consultas")
+                .tag("resultado", "falso-positivo").register(registry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(readOnly = true)
+    public void carregar() {
+        if (!habilitado) {
+            return;
+        }
+        try (Stream<String> cpfs = repository.streamCpfs()) {
+            cpfs.forEach(this::registrar);
+        }
+        carregado = true;
+        log.info("Filtro de CPFs carregado com {} clientes em {} bytes, taxa de falsos positivos estimada {}",
+                filtro.getElementos(), filtro.getMemoriaBytes(), filtro.getTaxaFalsosPositivosEstimada());
+    }
+
+    public boolean podeExistir(String cpf) {
+        long chave = chave(cpf);
+        if (!carregado || chave == INVALIDO) {
+            return true;
+        }
+        if (filtro.podeConter(chave)) {
+            possiveis.increment();
+            return true;
+        }
+        ausentes.increment();
+        return false;
+    }
+
+    public void registrar(String cpf) {
+        long chave = chave(cpf);
+        if (habilitado && chave != INVALIDO) {
+            filtro.adicionar(chave);
+        }
+    }
+
+    public void registrarFalsoPositivo() {
+        registrarFalsosPositivos(1);
+    }
+
+    public void registrarFalsosPositivos(int quantidade) {
+        if (carregado && quantidade > 0) {
+            falsosPositivos.increment(quantidade);
+        }
+    }
+
+    private static long chave(String cpf) {
+        String normalizado = Cliente.normalizarCpf(cpf);
+        return normalizado == null ? INVALIDO : Long.parseLong(normalizado);
+    }
+}
@@ -0,0 +1,280 @@
+package br.com.helber.msclientes.application;
+
+import br.com.helber.msclientes.application.representation.ClienteSaveRequest;
+import br.com.helber.msclientes.application.representation.ErroImportacao;
+import br.com.helber.msclientes.application.representation.RelatorioImportacao;
+import br.com.helber.msclientes.domain.Cliente;
+import br.com.helber.msclientes.domain.ClienteAlteradoEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataAccessException;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Importacao em massa de clientes a partir de CSV ({@code cpf,nome,idade}) ou NDJSON.
+ * <p>
+ * O corpo e lido linha a linha e gravado em blocos: cada bloco descarta CPFs repetidos dentro dele e
+ * os ja cadastrados (consultando o banco apenas para os que o filtro de CPFs nao descarta; um CPF
+ * repetido em outro bloco ja foi gravado e cai nessa consulta) e insere o restante com
+ * um unico {@code batchUpdate} na sua propria transacao. Se o bloco esbarrar na restricao de
+ * unicidade por uma insercao concorrente, ele e regravado linha a linha para que apenas as linhas
+ * conflitantes entrem no relatorio.
+ * <p>
+ * Os CPFs sao gravados na mesma forma normalizada do {@code POST /clientes}, e cada cliente importado
+ * e publicado no fanout {@code clientes-alterados}, como num cadastro avulso.
+ */
+@Service
+@Slf4j
+public class ImportacaoClientesService {
+
+    private static final String INSERT = "insert into cliente (cpf, nome, idade) values (?, ?, ?)";
+
+    public enum Formato { CSV, NDJSON }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final FiltroCpfsConhecidos filtroCpfs;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ObjectReader leitorNdjson;
+    private final int tamanhoLote;
+    private final int maximoErros;
+
+    public ImportacaoClientesService(JdbcTemplate jdbcTemplate,
+                                     NamedParameterJdbcTemplate namedJdbcTemplate,
+                                     TransactionTemplate transactionTemplate,
+                                     FiltroCpfsConhecidos filtroCpfs,
+                                     ApplicationEventPublisher eventPublisher,
+                                     ObjectMapper mapper,
+                                     @Value("${clientes.importacao.tamanho-lote}") int tamanhoLote,
+                                     @Value("${clientes.importacao.maximo-erros}") int maximoErros) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.namedJdbcTemplate = namedJdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.filtroCpfs = filtroCpfs;
+        this.eventPublisher = eventPublisher;
+        this.leitorNdjson = mapper.readerFor(ClienteSaveRequest.class);
+        this.tamanhoLote = tamanhoLote;
+        this.maximoErros = maximoErros;
+    }
+
+    public RelatorioImportacao importar(BufferedReader leitor, Formato formato) throws IOException {
+        var relatorio = new RelatorioImportacao();
+        Set<String> vistos = new HashSet<>(tamanhoLote * 2);
+        List<Registro> bloco = new ArrayList<>(tamanhoLote);
+
+        String linha;
+        long numero = 0;
+        while ((linha = leitor.readLine()) != null) {
+            numero++;
+            if (linha.isBlank() || (numero == 1 && formato == Formato.CSV && ehCabecalho(linha))) {
+                continue;
+            }
+            relatorio.setRegistros(relatorio.getRegistros() + 1);
+
+            ClienteSaveRequest request;
+            try {
+                request = formato == Formato.CSV ? lerCsv(linha) : leitorNdjson.readValue(linha);
+            } catch (IOException | IllegalArgumentException e) {
+                rejeitar(relatorio, numero, null, "Linha mal formada: " + e.getMessage());
+                continue;
+            }
+
+            String cpf = Cliente.normalizarCpf(request.getCpf());
+            String erro = validar(request, cpf);
+            if (erro != null) {
+                rejeitar(relatorio, numero, request.getCpf(), erro);
+                continue;
+            }
+            if (!vistos.add(cpf)) {
+                duplicar(relatorio, numero, cpf, "CPF repetido na importação");
+                continue;
+            }
+
+            bloco.add(new Registro(numero, cpf, request.getNome().trim(), request.getIdade()));
+            if (bloco.size() == tamanhoLote) {
+                gravar(bloco, relatorio);
+                bloco.clear();
+                vistos.clear();
+            }
+        }
+        if (!bloco.isEmpty()) {
+            gravar(bloco, relatorio);
+        }
+        return relatorio;
+    }
+
+    private void gravar(List<Registro> bloco, RelatorioImportacao relatorio) {
+        Set<String> existentes = existentes(bloco);
+        List<Registro> novos = new ArrayList<>(bloco.size());
+        for (Registro registro : bloco) {
+            if (existentes.contains(registro.cpf)) {
+                duplicar(relatorio, registro.linha, registro.cpf, "CPF já cadastrado");
+            } else {
+                novos.add(registro);
+            }
+        }
+        if (novos.isEmpty()) {
+            return;
+        }
+
+        try {
+            transactionTemplate.executeWithoutResult(status -> jdbcTemplate.batchUpdate(INSERT, novos, novos.size(),
+                    (ps, registro) -> {
+                        ps.setString(1, registro.cpf);
+                        ps.setString(2, registro.nome);
+                        ps.setInt(3, registro.idade);
+                    }));
+            novos.forEach(registro -> importado(relatorio, registro));
+        } catch (DataIntegrityViolationException e) {
+            log.warn("Bloco de importação conflitou com inserções concorrentes, gravando linha a linha: {}",
+                    e.getMessage());
+            for (Registro registro : novos) {
+                gravarIndividualmente(registro, relatorio);
+            }
+        }
+    }
+
+    private void gravarIndividualmente(Registro registro, RelatorioImportacao relatorio) {
+        try {
+            jdbcTemplate.update(INSERT, registro.cpf, registro.nome, registro.idade);
+            importado(relatorio, registro);
+        } catch (DuplicateKeyException e) {
+            duplicar(relatorio, registro.linha, registro.cpf, "CPF já cadastrado");
+        } catch (DataAccessException e) {
+            rejeitar(relatorio, registro.linha, registro.cpf, e.getMostSpecificCause().getMessage());
+        }
+    }
+
+    private Set<String> existentes(List<Registro> bloco) {
+        List<String> possiveis = new ArrayList<>();
+        for (Registro registro : bloco) {
+            if (filtroCpfs.podeExistir(registro.cpf)) {
+                possiveis.add(registro.cpf);
+            }
+        }
+        Set<String> existentes = new HashSet<>();
+        if (!possiveis.isEmpty()) {
+            existentes.addAll(namedJdbcTemplate.queryForList("select cpf from cliente where cpf in (:cpfs)",
+                    Map.of("cpfs", possiveis), String.class));
+            filtroCpfs.registrarFalsosPositivos(possiveis.size() - existentes.size());
+        }
+        return existentes;
+    }
+
+    private void importado(RelatorioImportacao relatorio, Registro registro) {
+        relatorio.setImportados(relatorio.getImportados() + 1);
+        filtroCpfs.registrar(registro.cpf);
+        eventPublisher.publishEvent(new ClienteAlteradoEvent(registro.cpf));
+    }
+
+    private void duplicar(RelatorioImportacao relatorio, long linha, String cpf, String mensagem) {
+        relatorio.setDuplicados(relatorio.getDuplicados() + 1);
+        registrarErro(relatorio, linha, cpf, mensagem);
+    }
+
+    private void rejeitar(RelatorioImportacao relatorio, long linha, String cpf, String mensagem) {
+        relatorio.setRejeitados(relatorio.getRejeitados() + 1);
+        registrarErro(relatorio, linha, cpf, mensagem);
+    }
+
+    private void registrarErro(RelatorioImportacao relatorio, long linha, String cpf, String mensagem) {
+        if (relatorio.getErros().size() < maximoErros) {
+            relatorio.getErros().add(new ErroImportacao(linha, cpf, mensagem));
+        } else {
+            relatorio.setErrosOmitidos(relatorio.getErrosOmitidos() + 1);
+        }
+    }
+
+    private static String validar(ClienteSaveRequest request, String cpf) {
+        if (cpf == null) {
+            return "CPF inválido";
+        }
+        if (request.getNome() == null || request.getNome().isBlank()) {
+            return "Nome obrigatório";
+        }
+        if (request.getIdade() == null || request.getIdade() < 0) {
+            return "Idade inválida";
+        }
+        return null;
+    }
+
+    private static boolean ehCabecalho(String linha) {
+        String minuscula = linha.toLowerCase();
+        return minuscula.contains("cpf") && minuscula.contains("nome");
+    }
+
+    static ClienteSaveRequest lerCsv(String linha) {
+        List<String> campos = new ArrayList<>(3);
+        var campo = new StringBuilder();
+        boolean aspas = false;
+        for (int i = 0; i < linha.length(); i++) {
+            char c = linha.charAt(i);
+            if (aspas) {
+                if (c == '"' && i + 1 < linha.length() && linha.charAt(i + 1) == '"') {
+                    campo.append('"');
+                    i++;
+                } else if (c == '"') {
+                    aspas = false;
+                } else {
+                    campo.append(c);
+                }
+            } else if (c == '"') {
+                aspas = true;
+            } else if (c == ',' || c == ';') {
+                campos.add(campo.toString());
+                campo.setLength(0);
+            } else {
+                campo.append(c);
+            }
+        }
+        if (aspas) {
+            throw new IllegalArgumentException("aspas não fechadas");
+        }
+        campos.add(campo.toString());
+        if (campos.size() != 3) {
+            throw new IllegalArgumentException("esperados 3 campos (cpf,nome,idade), encontrados " + campos.size());
+        }
+
+        var request = new ClienteSaveRequest();
+        request.setCpf(campos.get(0).trim());
+        request.setNome(campos.get(1));
+        String idade = campos.get(2).trim();
+        try {
+            request.setIdade(idade.isEmpty() ? null : Integer.valueOf(idade));
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("idade não numérica: " + idade);
+        }
+        return request;
+    }
+
+    private static final class Registro {
+        private final long linha;
+        private final String cpf;
+        private final String nome;
+        private final int idade;
+
+        private Registro(long linha, String cpf, String nome, int idade) {
+            this.linha = linha;
+            this.cpf = cpf;
+            this.nome = nome;
+            this.idade = idade;
+        }
+    }
+}
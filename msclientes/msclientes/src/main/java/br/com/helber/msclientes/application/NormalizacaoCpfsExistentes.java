@@ -0,0 +1,96 @@
+package br.com.helber.msclientes.application;
+
+import br.com.helber.msclientes.domain.Cliente;
+import br.com.helber.msclientes.domain.ClienteAlteradoEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.List;
+
+/**
+ * Regrava na forma canonica os CPFs cadastrados antes da normalizacao (com pontuacao ou sem os zeros a
+ * esquerda), que as consultas normalizadas nao encontram mais.
+ * <p>
+ * Roda na subida, antes da carga do filtro de CPFs, e so toca as linhas fora da forma canonica; nas
+ * demais subidas nao ha o que fazer. Se o CPF canonico ja foi cadastrado de novo depois da mudanca, o
+ * cadastro canonico (o que vem sendo servido) fica e a linha antiga e removida.
+ */
+@Component
+@Slf4j
+public class NormalizacaoCpfsExistentes implements ApplicationRunner {
+
+    private static final String FORA_DA_FORMA_CANONICA = "select id, cpf from cliente "
+            + "where length(cpf) <> 11 or cpf like '%.%' or cpf like '%-%' or cpf like '% %' order by id";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public NormalizacaoCpfsExistentes(JdbcTemplate jdbcTemplate,
+                                      TransactionTemplate transactionTemplate,
+                                      ApplicationEventPublisher eventPublisher) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.eventPublisher = eventPublisher;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        normalizar();
+    }
+
+    public void normalizar() {
+        List<CpfLegado> legados = jdbcTemplate.query(FORA_DA_FORMA_CANONICA,
+                (rs, linha) -> new CpfLegado(rs.getLong("id"), rs.getString("cpf")));
+        if (legados.isEmpty()) {
+            return;
+        }
+        int normalizados = 0;
+        int removidos = 0;
+        for (CpfLegado legado : legados) {
+            String cpf = Cliente.normalizarCpf(legado.cpf);
+            if (cpf == null) {
+                log.warn("Cliente {} com CPF inválido mantido como está: {}", legado.id, legado.cpf);
+                continue;
+            }
+            if (Boolean.TRUE.equals(transactionTemplate.execute(status -> regravar(legado, cpf)))) {
+                normalizados++;
+            } else {
+                removidos++;
+            }
+        }
+        log.info("CPFs existentes normalizados: {} regravados, {} duplicados removidos", normalizados, removidos);
+    }
+
+    /**
+     * Devolve {@code true} se a linha foi regravada e {@code false} se ja havia o CPF canonico e ela saiu.
+     */
+    private boolean regravar(CpfLegado legado, String cpf) {
+        List<Long> canonicos = jdbcTemplate.queryForList("select id from cliente where cpf = ?", Long.class, cpf);
+        if (!canonicos.isEmpty()) {
+            jdbcTemplate.update("delete from cliente where id = ?", legado.id);
+            log.warn("Cliente {} ({}) removido: CPF já cadastrado na forma canônica pelo cliente {}",
+                    legado.id, legado.cpf, canonicos.get(0));
+            return false;
+        }
+        jdbcTemplate.update("update cliente set cpf = ? where id = ?", cpf, legado.id);
+        eventPublisher.publishEvent(new ClienteAlteradoEvent(cpf));
+        return true;
+    }
+
+    private static final class CpfLegado {
+
+        private final long id;
+        private final String cpf;
+
+        CpfLegado(long id, String cpf) {
+            this.id = id;
+            this.cpf = cpf;
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package br.com.helber.msclientes.application.representation;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ErroImportacao {
+    private long linha;
+    private String cpf;
+    private String mensagem;
+}
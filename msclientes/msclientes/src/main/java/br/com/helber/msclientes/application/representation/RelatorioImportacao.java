@@ -0,0 +1,16 @@
+package br.com.helber.msclientes.application.representation;
+
+import lombok.Data;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+public class RelatorioImportacao {
+    private long registros;
+    private long importados;
+    private long duplicados;
+    private long rejeitados;
+    private long errosOmitidos;
+    private List<ErroImportacao> erros = new ArrayList<>();
+}
@@ -0,0 +1,32 @@
+package br.com.helber.msclientes.config;
+
+import org.springframework.amqp.core.AnonymousQueue;
+import org.springframework.amqp.core.Binding;
+import org.springframework.amqp.core.BindingBuilder;
+import org.springframework.amqp.core.FanoutExchange;
+import org.springframework.amqp.core.Queue;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class MQconfig {
+
+    @Value("${mq.exchanges.clientes-alterados}")
+    private String clientesAlteradosExchange;
+
+    @Bean
+    public FanoutExchange exchangeClientesAlterados(){
+        return new FanoutExchange(clientesAlteradosExchange, true, false);
+    }
+
+    @Bean
+    public Queue queueCpfsConhecidos(){
+        return new AnonymousQueue();
+    }
+
+    @Bean
+    public Binding bindingCpfsConhecidos(){
+        return BindingBuilder.bind(queueCpfsConhecidos()).to(exchangeClientesAlterados());
+    }
+}
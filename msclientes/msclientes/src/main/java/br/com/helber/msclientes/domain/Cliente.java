@@ -4,8 +4,10 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 
 import javax.persistence.*;
+import java.util.Arrays;
 
 @Entity
+@Table(uniqueConstraints = @UniqueConstraint(name = "uk_cliente_cpf", columnNames = "cpf"))
 @Data
 @NoArgsConstructor
 public class Cliente {
@@ -25,4 +27,34 @@ public class Cliente {
         this.nome = nome;
         this.idade = idade;
     }
+
+    /**
+     * Forma canonica do CPF: os 11 digitos, com os zeros a esquerda que faltarem. Aceita pontuacao
+     * ({@code 123.456.789-09}); devolve {@code null} para qualquer outro caractere ou mais de 11 digitos.
+     */
+    public static String normalizarCpf(String cpf) {
+        if (cpf == null) {
+            return null;
+        }
+        char[] digitos = new char[11];
+        int quantidade = 0;
+        for (int i = 0; i < cpf.length(); i++) {
+            char c = cpf.charAt(i);
+            if (c >= '0' && c <= '9') {
+                if (quantidade == 11) {
+                    return null;
+                }
+                digitos[quantidade++] = c;
+            } else if (c != '.' && c != '-' && c != ' ') {
+                return null;
+            }
+        }
+        if (quantidade == 0) {
+            return null;
+        }
+        char[] normalizado = new char[11];
+        Arrays.fill(normalizado, 0, 11 - quantidade, '0');
+        System.arraycopy(digitos, 0, normalizado, 11 - quantidade, quantidade);
+        return new String(normalizado);
+    }
 }
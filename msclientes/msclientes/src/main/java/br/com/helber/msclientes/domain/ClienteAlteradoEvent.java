@@ -0,0 +1,10 @@
+package br.com.helber.msclientes.domain;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+
+@Data
+@AllArgsConstructor
+public class ClienteAlteradoEvent {
+    private String cpf;
+}
@@ -0,0 +1,104 @@
+package br.com.helber.msclientes.infra.filtro;
+
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Filtro de Bloom concorrente sobre um vetor de bits em {@code long}s.
+ * <p>
+ * As chaves sao CPFs empacotados em {@code long}. As {@code k} posicoes de cada chave saem de double
+ * hashing ({@code h1 + i * h2}) sobre um unico hash de 64 bits, entao uma consulta custa um hash e
+ * {@code k} leituras de memoria. Um {@code false} em {@link #podeConter(long)} e definitivo; um
+ * {@code true} pode ser falso positivo.
+ */
+public class FiltroBloom {
+
+    private static final double LN2 = Math.log(2);
+
+    private final AtomicLongArray palavras;
+    private final long tamanhoBits;
+    private final int funcoesHash;
+    private final LongAdder elementos = new LongAdder();
+
+    FiltroBloom(long tamanhoBits, int funcoesHash) {
+        long quantidadePalavras = (tamanhoBits + 63) >>> 6;
+        if (quantidadePalavras > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Filtro de " + tamanhoBits + " bits excede o tamanho suportado");
+        }
+        this.palavras = new AtomicLongArray((int) quantidadePalavras);
+        this.tamanhoBits = quantidadePalavras << 6;
+        this.funcoesHash = funcoesHash;
+    }
+
+    public static FiltroBloom dimensionar(long capacidade, double taxaFalsosPositivos, long memoriaMaximaBytes) {
+        if (capacidade <= 0 || taxaFalsosPositivos <= 0 || taxaFalsosPositivos >= 1) {
+            throw new IllegalArgumentException("Capacidade deve ser positiva e taxa de falsos positivos entre 0 e 1");
+        }
+        long bits = (long) Math.ceil(-capacidade * Math.log(taxaFalsosPositivos) / (LN2 * LN2));
+        if (memoriaMaximaBytes > 0) {
+            bits = Math.min(bits, memoriaMaximaBytes * 8);
+        }
+        bits = Math.max(64, bits);
+        int funcoesHash = (int) Math.max(1, Math.round((double) bits / capacidade * LN2));
+        return new FiltroBloom(bits, funcoesHash);
+    }
+
+    public void adicionar(long chave) {
+        long h1 = misturar(chave);
+        long h2 = misturar(h1 ^ 0x9E3779B97F4A7C15L) | 1;
+        boolean novo = false;
+        for (int i = 0; i < funcoesHash; i++) {
+            long bit = Math.floorMod(h1 + i * h2, tamanhoBits);
+            int indice = (int) (bit >>> 6);
+            long mascara = 1L << bit;
+            if ((palavras.get(indice) & mascara) == 0) {
+                palavras.getAndAccumulate(indice, mascara, (atual, m) -> atual | m);
+                novo = true;
+            }
+        }
+        if (novo) {
+            elementos.increment();
+        }
+    }
+
+    public boolean podeConter(long chave) {
+        long h1 = misturar(chave);
+        long h2 = misturar(h1 ^ 0x9E3779B97F4A7C15L) | 1;
+        for (int i = 0; i < funcoesHash; i++) {
+            long bit = Math.floorMod(h1 + i * h2, tamanhoBits);
+            if ((palavras.get((int) (bit >>> 6)) & (1L << bit)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    public long getTamanhoBits() {
+        return tamanhoBits;
+    }
+
+    public long getMemoriaBytes() {
+        return tamanhoBits >>> 3;
+    }
+
+    public int getFuncoesHash() {
+        return funcoesHash;
+    }
+
+    public long getElementos() {
+        return elementos.sum();
+    }
+
+    public double getTaxaFalsosPositivosEstimada() {
+        return Math.pow(1 - Math.exp(-funcoesHash * (double) getElementos() / tamanhoBits), funcoesHash);
+    }
+
+    private static long misturar(long h) {
+        h ^= h >>> 33;
+        h *= 0xFF51AFD7ED558CCDL;
+        h ^= h >>> 33;
+        h *= 0xC4CEB9FE1A85EC53L;
+        h ^= h >>> 33;
+        return h;
+    }
+}
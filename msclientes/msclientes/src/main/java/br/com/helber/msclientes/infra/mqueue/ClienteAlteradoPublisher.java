@@ -0,0 +1,31 @@
+package br.com.helber.msclientes.infra.mqueue;
+
+import br.com.helber.msclientes.domain.ClienteAlteradoEvent;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.amqp.core.FanoutExchange;
+import org.springframework.amqp.rabbit.core.RabbitTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ClienteAlteradoPublisher {
+
+    private final RabbitTemplate rabbitTemplate;
+    private final FanoutExchange exchangeClientesAlterados;
+
+    /**
+     * Depois do commit; fora de transacao (insercoes da importacao, que ja estao gravadas) publica na hora.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void clienteAlterado(ClienteAlteradoEvent event) {
+        try {
+            rabbitTemplate.convertAndSend(exchangeClientesAlterados.getName(), "", event.getCpf());
+        } catch (Exception e) {
+            log.error("Erro ao publicar alteração do cliente: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package br.com.helber.msclientes.infra.mqueue;
+
+import br.com.helber.msclientes.application.FiltroCpfsConhecidos;
+import lombok.RequiredArgsConstructor;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.messaging.handler.annotation.Payload;
+import org.springframework.stereotype.Component;
+
+/**
+ * Cada instancia tem a sua fila anonima no fanout {@code clientes-alterados}, entao o filtro de CPFs
+ * de todas elas aprende os clientes gravados em qualquer uma (inclusive a propria).
+ */
+@Component
+@RequiredArgsConstructor
+public class CpfsConhecidosSubscriber {
+
+    private final FiltroCpfsConhecidos filtroCpfs;
+
+    @RabbitListener(queues = "#{queueCpfsConhecidos.name}")
+    public void receberClienteAlterado(@Payload String cpf) {
+        filtroCpfs.registrar(cpf);
+    }
+}
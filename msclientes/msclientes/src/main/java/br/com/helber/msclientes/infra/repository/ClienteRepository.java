@@ -2,9 +2,22 @@ package br.com.helber.msclientes.infra.repository;
 
 import br.com.helber.msclientes.domain.Cliente;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 
+import javax.persistence.QueryHint;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
+
+import static org.hibernate.jpa.QueryHints.HINT_FETCH_SIZE;
 
 public interface ClienteRepository extends JpaRepository <Cliente, Long> {
     Optional<Cliente> findByCpf(String cpf);
+    List<Cliente> findByCpfIn(Collection<String> cpfs);
+
+    @QueryHints(@QueryHint(name = HINT_FETCH_SIZE, value = "10000"))
+    @Query("select c.cpf from Cliente c")
+    Stream<String> streamCpfs();
 }
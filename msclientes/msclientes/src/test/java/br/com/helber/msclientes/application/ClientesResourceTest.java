@@ -0,0 +1,91 @@
+package br.com.helber.msclientes.application;
+
+import br.com.helber.msclientes.domain.Cliente;
+import br.com.helber.msclientes.infra.repository.ClienteRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.hamcrest.Matchers.containsInAnyOrder;
+import static org.hamcrest.Matchers.hasSize;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@DataJpaTest
+class ClientesResourceTest {
+
+    @Autowired
+    private ClienteRepository repository;
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+
+    @BeforeEach
+    void setUp() {
+        repository.save(new Cliente("00000000001", "Ana", 30));
+        repository.save(new Cliente("00000000002", "Bruno", 40));
+        repository.save(new Cliente("00000000003", "Carla", 50));
+    }
+
+    private MockMvc mvc(boolean filtroHabilitado) {
+        var filtro = new FiltroCpfsConhecidos(repository, registry, filtroHabilitado, 1000, 0.01, 0);
+        filtro.carregar();
+        var service = new ClienteService(repository, evento -> { }, filtro);
+        return MockMvcBuilders.standaloneSetup(new ClientesResource(service, null)).build();
+    }
+
+    @Test
+    void findByCpfInDevolveSoOsCpfsCadastrados() {
+        List<Cliente> clientes = repository.findByCpfIn(List.of("00000000001", "00000000003", "00000000009"));
+
+        assertEquals(List.of("00000000001", "00000000003"), clientes.stream()
+                .map(Cliente::getCpf)
+                .sorted()
+                .collect(Collectors.toList()));
+    }
+
+    @Test
+    void loteDevolveOsEncontradosEIgnoraAusentesEInvalidos() throws Exception {
+        mvc(false).perform(post("/clientes/lote")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[\"000.000.000-01\", \"00000000009\", \"abc\", \"00000000002\", \"00000000001\"]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[*].cpf", containsInAnyOrder("00000000001", "00000000002")));
+    }
+
+    @Test
+    void loteVazioDevolveListaVazia() throws Exception {
+        mvc(false).perform(post("/clientes/lote")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(0)));
+    }
+
+    @Test
+    void loteComFiltroDescartaCpfsDesconhecidosAntesDoBanco() throws Exception {
+        mvc(true).perform(post("/clientes/lote")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("[\"00000000003\", \"00000000009\"]"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[*].cpf", containsInAnyOrder("00000000003")));
+
+        assertEquals(1, consultas("possivel"));
+        assertEquals(1, consultas("ausente"));
+        assertEquals(0, consultas("falso-positivo"));
+    }
+
+    private double consultas(String resultado) {
+        return registry.get("clientes.filtro-cpfs.consultas").tag("resultado", resultado).counter().count();
+    }
+}
@@ -0,0 +1,144 @@
+package br.com.helber.msclientes.application;
+
+import br.com.helber.msclientes.application.representation.ErroImportacao;
+import br.com.helber.msclientes.application.representation.RelatorioImportacao;
+import br.com.helber.msclientes.domain.Cliente;
+import br.com.helber.msclientes.domain.ClienteAlteradoEvent;
+import br.com.helber.msclientes.infra.repository.ClienteRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class ImportacaoClientesServiceTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private NamedParameterJdbcTemplate namedJdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ClienteRepository repository;
+
+    private final List<Object> eventos = new ArrayList<>();
+    private ClienteService clienteService;
+    private ImportacaoClientesService service;
+
+    @BeforeEach
+    void setUp() {
+        var filtro = new FiltroCpfsConhecidos(repository, new SimpleMeterRegistry(), false, 1000, 0.01, 0);
+        clienteService = new ClienteService(repository, eventos::add, filtro);
+        service = new ImportacaoClientesService(jdbcTemplate, namedJdbcTemplate, transactionTemplate, filtro,
+                eventos::add, new ObjectMapper(), 3, 100);
+        jdbcTemplate.update("insert into cliente (cpf, nome, idade) values ('00000000005', 'Existente', 40)");
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("delete from cliente");
+    }
+
+    private RelatorioImportacao importar(String corpo, ImportacaoClientesService.Formato formato) throws IOException {
+        return service.importar(new BufferedReader(new StringReader(corpo)), formato);
+    }
+
+    private static List<Long> linhas(RelatorioImportacao relatorio) {
+        return relatorio.getErros().stream().map(ErroImportacao::getLinha).collect(Collectors.toList());
+    }
+
+    @Test
+    void importaCsvReportandoErrosPorLinha() throws IOException {
+        var relatorio = importar(String.join("\n",
+                "cpf,nome,idade",
+                "000.000.000-01,Ana,30",
+                "00000000002,\"Silva, Bruno\",25",
+                "00000000001,Ana de novo,31",
+                "abc,Carla,20",
+                "00000000003,Daniel",
+                "00000000004,,22",
+                "5,Existente,40",
+                "",
+                "00000000006,Eva,19",
+                "00000000007,Fabio,x"), ImportacaoClientesService.Formato.CSV);
+
+        assertEquals(9, relatorio.getRegistros());
+        assertEquals(3, relatorio.getImportados());
+        assertEquals(2, relatorio.getDuplicados());
+        assertEquals(4, relatorio.getRejeitados());
+        assertEquals(List.of(4L, 5L, 6L, 7L, 8L, 11L),
+                linhas(relatorio).stream().sorted().collect(Collectors.toList()));
+        assertEquals("Silva, Bruno", jdbcTemplate.queryForObject(
+                "select nome from cliente where cpf = '00000000002'", String.class));
+        assertEquals(4, jdbcTemplate.queryForObject("select count(*) from cliente", Integer.class));
+    }
+
+    @Test
+    void importaNdjson() throws IOException {
+        var relatorio = importar(String.join("\n",
+                "{\"cpf\":\"11111111111\",\"nome\":\"Ana\",\"idade\":30}",
+                "{\"cpf\":\"22222222222\",\"nome\":\"Bruno\",\"idade\":25}",
+                "{\"cpf\":\"33333333333\",\"nome\":\"Carla\"",
+                "{\"cpf\":\"00000000005\",\"nome\":\"Existente\",\"idade\":40}"),
+                ImportacaoClientesService.Formato.NDJSON);
+
+        assertEquals(4, relatorio.getRegistros());
+        assertEquals(2, relatorio.getImportados());
+        assertEquals(1, relatorio.getDuplicados());
+        assertEquals(1, relatorio.getRejeitados());
+        assertEquals(List.of(3L, 4L), linhas(relatorio).stream().sorted().collect(Collectors.toList()));
+    }
+
+    @Test
+    void limitaOTamanhoDoRelatorioDeErros() throws IOException {
+        var corpo = new StringBuilder();
+        for (int i = 0; i < 150; i++) {
+            corpo.append("invalido,Nome,30\n");
+        }
+
+        var relatorio = importar(corpo.toString(), ImportacaoClientesService.Formato.CSV);
+
+        assertEquals(150, relatorio.getRejeitados());
+        assertEquals(100, relatorio.getErros().size());
+        assertEquals(50, relatorio.getErrosOmitidos());
+    }
+
+    @Test
+    void cpfCadastradoPeloPostComPontuacaoEDuplicadoNaImportacao() throws IOException {
+        clienteService.save(new Cliente("123.456.789-09", "Avulso", 33));
+        eventos.clear();
+
+        var relatorio = importar(String.join("\n",
+                "12345678909,Avulso de novo,33",
+                "987.654.321-00,Importado,28"), ImportacaoClientesService.Formato.CSV);
+
+        assertEquals(1, relatorio.getImportados());
+        assertEquals(1, relatorio.getDuplicados());
+        assertEquals(List.of("12345678909", "98765432100"),
+                jdbcTemplate.queryForList("select cpf from cliente where idade <> 40 order by cpf", String.class));
+        assertEquals(List.of(new ClienteAlteradoEvent("98765432100")), eventos);
+        assertTrue(clienteService.getByCPF("987.654.321-00").isPresent());
+    }
+}
@@ -0,0 +1,111 @@
+package br.com.helber.msclientes.application;
+
+import br.com.helber.msclientes.domain.Cliente;
+import br.com.helber.msclientes.domain.ClienteAlteradoEvent;
+import br.com.helber.msclientes.infra.repository.ClienteRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@DataJpaTest
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class NormalizacaoCpfsExistentesTest {
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Autowired
+    private ClienteRepository repository;
+
+    private final List<Object> eventos = new ArrayList<>();
+    private ClienteService clienteService;
+    private NormalizacaoCpfsExistentes normalizacao;
+
+    @BeforeEach
+    void setUp() {
+        var filtro = new FiltroCpfsConhecidos(repository, new SimpleMeterRegistry(), false, 1000, 0.01, 0);
+        clienteService = new ClienteService(repository, eventos::add, filtro);
+        normalizacao = new NormalizacaoCpfsExistentes(jdbcTemplate, transactionTemplate, eventos::add);
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("delete from cliente");
+    }
+
+    private void inserir(String cpf, String nome) {
+        jdbcTemplate.update("insert into cliente (cpf, nome, idade) values (?, ?, 30)", cpf, nome);
+    }
+
+    @Test
+    void clienteGravadoComPontuacaoVoltaASerEncontrado() {
+        inserir("123.456.789-09", "Legado");
+        inserir("1234", "Sem zeros");
+        inserir("00000000005", "Canonico");
+        assertTrue(clienteService.getByCPF("123.456.789-09").isEmpty());
+
+        normalizacao.normalizar();
+
+        assertEquals("Legado", clienteService.getByCPF("123.456.789-09").orElseThrow().getNome());
+        assertEquals("Legado", clienteService.getByCPF("12345678909").orElseThrow().getNome());
+        assertEquals("Sem zeros", clienteService.getByCPF("00000001234").orElseThrow().getNome());
+        assertEquals(List.of("00000000005", "00000001234", "12345678909"), cpfs());
+        assertEquals(2, eventos.size());
+        assertTrue(eventos.contains(new ClienteAlteradoEvent("12345678909")));
+    }
+
+    @Test
+    void duplicadoDoCpfCanonicoSaiEOCanonicoFica() {
+        inserir("123.456.789-09", "Legado");
+        inserir("123456789-09", "Legado de novo");
+        inserir("12345678909", "Recadastrado");
+
+        normalizacao.normalizar();
+
+        assertEquals(List.of("12345678909"), cpfs());
+        assertEquals("Recadastrado", clienteService.getByCPF("123.456.789-09").orElseThrow().getNome());
+        assertTrue(eventos.isEmpty());
+    }
+
+    @Test
+    void cpfQueNaoNormalizaFicaComoEsta() {
+        inserir("abc", "Invalido");
+
+        normalizacao.normalizar();
+
+        assertEquals(List.of("abc"), cpfs());
+    }
+
+    @Test
+    void cadastroNaoDuplicaClienteLegadoDepoisDaNormalizacao() {
+        inserir("123.456.789-09", "Legado");
+        normalizacao.normalizar();
+
+        assertThrows(DataIntegrityViolationException.class,
+                () -> clienteService.save(new Cliente("123.456.789-09", "Outro", 20)));
+        assertEquals(1, repository.count());
+    }
+
+    private List<String> cpfs() {
+        return jdbcTemplate.queryForList("select cpf from cliente", String.class).stream()
+                .sorted()
+                .collect(Collectors.toList());
+    }
+}
@@ -0,0 +1,45 @@
+package br.com.helber.msclientes.infra.filtro;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FiltroBloomTest {
+
+    @Test
+    void naoTemFalsosNegativosEMantemATaxaConfigurada() {
+        int capacidade = 200_000;
+        var filtro = FiltroBloom.dimensionar(capacidade, 0.01, 0);
+        for (int i = 0; i < capacidade; i++) {
+            filtro.adicionar(i * 2L);
+        }
+
+        for (int i = 0; i < capacidade; i++) {
+            assertTrue(filtro.podeConter(i * 2L));
+        }
+        int falsosPositivos = 0;
+        for (int i = 0; i < capacidade; i++) {
+            if (filtro.podeConter(i * 2L + 1)) {
+                falsosPositivos++;
+            }
+        }
+        double taxa = (double) falsosPositivos / capacidade;
+        assertTrue(taxa < 0.015, "taxa observada: " + taxa);
+        assertEquals(0.01, filtro.getTaxaFalsosPositivosEstimada(), 0.003);
+        assertEquals(7, filtro.getFuncoesHash());
+    }
+
+    @Test
+    void respeitaALimitacaoDeMemoria() {
+        var filtro = FiltroBloom.dimensionar(10_000_000, 0.001, 1 << 20);
+
+        assertEquals(1 << 20, filtro.getMemoriaBytes());
+        assertEquals(1, filtro.getFuncoesHash());
+    }
+
+    @Test
+    void rejeitaParametrosInvalidos() {
+        assertThrows(IllegalArgumentException.class, () -> FiltroBloom.dimensionar(0, 0.01, 0));
+        assertThrows(IllegalArgumentException.class, () -> FiltroBloom.dimensionar(1000, 1.0, 0));
+    }
+}
@@ -0,0 +1,107 @@
+package br.com.helber.mscloudgateway.autenticacao;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.ReactiveJwtDecoder;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Custo por requisicao da validacao do bearer token: {@code semCache} verifica a assinatura RS256 e os
+ * claims a cada chamada, com as chaves ja em memoria; {@code comCache} passa pelo
+ * {@link DecodificadorJwtCache} na frente do mesmo decodificador. {@code clientes} e o numero de tokens
+ * distintos em circulacao. Tudo roda na thread do benchmark, sem E/S, entao o tempo medio e o tempo de
+ * CPU gasto por requisicao.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+public class ValidacaoJwtBenchmark {
+
+    private static final String EMISSOR = "http://emissor.local/realms/benchmark";
+
+    @Param({"1", "1000"})
+    public int clientes;
+
+    private HttpServer jwks;
+    private ChavesJwks chaves;
+    private ReactiveJwtDecoder semCache;
+    private ReactiveJwtDecoder comCache;
+    private String[] tokens;
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException, JOSEException {
+        RSAKey chave = new RSAKeyGenerator(2048).keyID("benchmark").generate();
+        byte[] publicadas = new JWKSet(chave.toPublicJWK()).toString().getBytes(StandardCharsets.UTF_8);
+        jwks = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        jwks.createContext("/certs", troca -> {
+            troca.sendResponseHeaders(200, publicadas.length);
+            troca.getResponseBody().write(publicadas);
+            troca.close();
+        });
+        jwks.start();
+
+        var registry = new SimpleMeterRegistry();
+        chaves = new ChavesJwks(WebClient.create(), "http://localhost:" + jwks.getAddress().getPort() + "/certs",
+                Duration.ofHours(1), Duration.ofMinutes(1), Duration.ofSeconds(5), registry);
+        chaves.start();
+        semCache = chaves.decodificador(EMISSOR);
+        comCache = new DecodificadorJwtCache(semCache, Duration.ofMinutes(5), 100_000, registry);
+
+        tokens = new String[clientes];
+        var signer = new RSASSASigner(chave);
+        for (int i = 0; i < clientes; i++) {
+            var jwt = new SignedJWT(new JWSHeader.Builder(JWSAlgorithm.RS256).keyID("benchmark").build(),
+                    new JWTClaimsSet.Builder()
+                            .issuer(EMISSOR)
+                            .subject("usuario-" + i)
+                            .claim("azp", "parceiro-" + i)
+                            .expirationTime(Date.from(Instant.now().plus(Duration.ofHours(1))))
+                            .build());
+            jwt.sign(signer);
+            tokens[i] = jwt.serialize();
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        chaves.stop();
+        jwks.stop(0);
+    }
+
+    @Benchmark
+    public Jwt semCache() {
+        return semCache.decode(proximo()).block();
+    }
+
+    @Benchmark
+    public Jwt comCache() {
+        return comCache.decode(proximo()).block();
+    }
+
+    private String proximo() {
+        return tokens[ThreadLocalRandom.current().nextInt(clientes)];
+    }
+}
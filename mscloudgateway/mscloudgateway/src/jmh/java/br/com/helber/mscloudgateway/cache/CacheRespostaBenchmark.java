@@ -0,0 +1,85 @@
+package br.com.helber.mscloudgateway.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Consultas {@code /cartoes?cpf=} concentradas em poucos CPFs: {@code quentes}% das requisicoes caem
+ * em 50 CPFs e o resto se espalha por 100 mil. {@code requisicoes} e {@code chamadasServico} saem
+ * como taxas (ops/s), entao a razao entre elas e a fracao da carga que ainda chega ao mscartoes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+@Threads(8)
+public class CacheRespostaBenchmark {
+
+    private static final byte[] CORPO = ("[{\"nome\":\"Basico\",\"bandeira\":\"VISA\",\"limiteLiberado\":1500.00},"
+            + "{\"nome\":\"Ouro\",\"bandeira\":\"MASTERCARD\",\"limiteLiberado\":4000.00}]")
+            .getBytes(StandardCharsets.UTF_8);
+    private static final String CHAMOU_SERVICO = CacheRespostaBenchmark.class.getName() + ".servico";
+
+    @Param({"com", "sem"})
+    public String cache;
+
+    @Param({"90"})
+    public int quentes;
+
+    private CacheRespostaFilter filtro;
+    private GatewayFilterChain servico;
+
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Contadores {
+        public long requisicoes;
+        public long chamadasServico;
+
+        @Setup(Level.Iteration)
+        public void zerar() {
+            requisicoes = 0;
+            chamadasServico = 0;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        filtro = new CacheRespostaFilter("cartoes-cliente", Duration.ofMinutes(1), 10_000, 1 << 20,
+                new SimpleMeterRegistry());
+        servico = exchange -> {
+            exchange.getAttributes().put(CHAMOU_SERVICO, Boolean.TRUE);
+            var response = exchange.getResponse();
+            response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+            return response.writeWith(Mono.just(response.bufferFactory().wrap(CORPO)));
+        };
+    }
+
+    @Benchmark
+    public void consultar(Contadores contadores) {
+        var random = ThreadLocalRandom.current();
+        int cpf = random.nextInt(100) < quentes ? random.nextInt(50) : 50 + random.nextInt(100_000);
+        var exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/cartoes?cpf=" + cpf));
+
+        if ("com".equals(cache)) {
+            filtro.filter(exchange, servico).block();
+        } else {
+            servico.filter(exchange).block();
+        }
+        contadores.requisicoes++;
+        if (exchange.getAttributes().containsKey(CHAMOU_SERVICO)) {
+            contadores.chamadasServico++;
+        }
+    }
+}
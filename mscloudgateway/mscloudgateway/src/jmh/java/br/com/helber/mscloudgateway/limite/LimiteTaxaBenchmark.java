@@ -0,0 +1,83 @@
+package br.com.helber.mscloudgateway.limite;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.security.Principal;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Custo do limite de taxa sob contencao: 16 threads decidindo sobre {@code parceiros} chaves (1 = todas
+ * no mesmo balde, o pior caso do CAS). {@code decidir} mede so o balde; {@code filtrar} inclui a
+ * resolucao da chave pelo JWT e a escrita do cabecalho. A cota e alta o bastante para nada ser recusado,
+ * entao o tempo e o que o filtro acrescenta a uma requisicao permitida; a 50 mil req/s o orcamento de
+ * uma requisicao e de 20us.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3)
+@Measurement(iterations = 5)
+@Fork(1)
+@Threads(16)
+public class LimiteTaxaBenchmark {
+
+    private static final GatewayFilterChain SERVICO = exchange -> Mono.empty();
+
+    @Param({"1", "1000"})
+    public int parceiros;
+
+    private LimiteTaxaFilter filtro;
+    private String[] chaves;
+
+    /** Exchanges por thread: a resposta mock nao aceita escrita concorrente de cabecalhos. */
+    @State(Scope.Thread)
+    public static class Requisicoes {
+        private ServerWebExchange[] exchanges;
+
+        @Setup(Level.Trial)
+        public void setUp(LimiteTaxaBenchmark benchmark) {
+            exchanges = new ServerWebExchange[benchmark.parceiros];
+            for (int i = 0; i < exchanges.length; i++) {
+                Principal principal = new JwtAuthenticationToken(Jwt.withTokenValue("token")
+                        .header("alg", "RS256")
+                        .subject("usuario-" + i)
+                        .claim("azp", "parceiro-" + i)
+                        .build());
+                exchanges[i] = MockServerWebExchange.from(MockServerHttpRequest.get("/avaliacoes-credito"))
+                        .mutate().principal(Mono.just(principal)).build();
+            }
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        filtro = new LimiteTaxaFilter("avaliacoes-credito", new CotaTaxa(1e9, 1_000_000),
+                new ClaimJwtKeyResolver(List.of("azp", "sub")), Duration.ofMinutes(5), 100_000,
+                new SimpleMeterRegistry());
+        chaves = new String[parceiros];
+        for (int i = 0; i < parceiros; i++) {
+            chaves[i] = "azp:parceiro-" + i;
+        }
+    }
+
+    @Benchmark
+    public long decidir() {
+        return filtro.consumir(chaves[ThreadLocalRandom.current().nextInt(parceiros)]);
+    }
+
+    @Benchmark
+    public void filtrar(Requisicoes requisicoes) {
+        filtro.filter(requisicoes.exchanges[ThreadLocalRandom.current().nextInt(parceiros)], SERVICO).block();
+    }
+}
@@ -1,12 +1,20 @@
 package br.com.helber.mscloudgateway;
 
+import br.com.helber.mscloudgateway.cache.CacheRespostas;
+import br.com.helber.mscloudgateway.coalescencia.CoalescenciaRequisicoes;
+import br.com.helber.mscloudgateway.limite.LimitesTaxa;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.cloud.client.discovery.EnableDiscoveryClient;
 import org.springframework.cloud.gateway.route.RouteLocator;
+import org.springframework.cloud.gateway.route.builder.GatewayFilterSpec;
 import org.springframework.cloud.gateway.route.builder.RouteLocatorBuilder;
 import org.springframework.cloud.netflix.eureka.EnableEurekaClient;
 import org.springframework.context.annotation.Bean;
+import org.springframework.http.HttpMethod;
+
+import java.util.function.BiFunction;
 
 @SpringBootApplication
 @EnableEurekaClient
@@ -17,14 +25,56 @@ public class MscloudgatewayApplication {
 		SpringApplication.run(MscloudgatewayApplication.class, args);
 	}
 
+	/**
+	 * Todas as rotas tem id para receber o limite de taxa por rota. As consultas de cartoes por renda e
+	 * por CPF e a situacao do cliente vem antes das genericas para receber tambem o cache de respostas e
+	 * a coalescencia conforme configurados.
+	 */
 	@Bean
-	public RouteLocator routes(RouteLocatorBuilder builder){
+	public RouteLocator routes(RouteLocatorBuilder builder, ObjectProvider<LimitesTaxa> limitesTaxa,
+							   ObjectProvider<CacheRespostas> cacheRespostas,
+							   ObjectProvider<CoalescenciaRequisicoes> coalescenciaRequisicoes){
+		LimitesTaxa limites = limitesTaxa.getIfAvailable();
+		CacheRespostas cache = cacheRespostas.getIfAvailable();
+		CoalescenciaRequisicoes coalescencia = coalescenciaRequisicoes.getIfAvailable();
+		BiFunction<GatewayFilterSpec, String, GatewayFilterSpec> filtros =
+				(f, rota) -> filtros(f, rota, limites, cache, coalescencia);
 		return builder
 				.routes()
-					.route(r -> r.path("/clientes/**").uri("lb://msclientes"))
-				    .route(r -> r.path("/cartoes/**").uri("lb://mscartoes"))
-					.route(r -> r.path("/avaliacoes-credito/**").uri("lb://msavaliadorcredito"))
+					.route(Rotas.CARTOES_RENDA, r -> r.method(HttpMethod.GET).and().path("/cartoes").and().query("renda")
+							.filters(f -> filtros.apply(f, Rotas.CARTOES_RENDA))
+							.uri("lb://mscartoes"))
+					.route(Rotas.CARTOES_CLIENTE, r -> r.method(HttpMethod.GET).and().path("/cartoes").and().query("cpf")
+							.filters(f -> filtros.apply(f, Rotas.CARTOES_CLIENTE))
+							.uri("lb://mscartoes"))
+					.route(Rotas.SITUACAO_CLIENTE, r -> r.method(HttpMethod.GET)
+							.and().path("/avaliacoes-credito/situacao-cliente").and().query("cpf")
+							.filters(f -> filtros.apply(f, Rotas.SITUACAO_CLIENTE))
+							.uri("lb://msavaliadorcredito"))
+					.route(Rotas.CLIENTES, r -> r.path("/clientes/**")
+							.filters(f -> filtros.apply(f, Rotas.CLIENTES))
+							.uri("lb://msclientes"))
+					.route(Rotas.CARTOES, r -> r.path("/cartoes/**")
+							.filters(f -> filtros.apply(f, Rotas.CARTOES))
+							.uri("lb://mscartoes"))
+					.route(Rotas.AVALIACOES_CREDITO, r -> r.path("/avaliacoes-credito/**")
+							.filters(f -> filtros.apply(f, Rotas.AVALIACOES_CREDITO))
+							.uri("lb://msavaliadorcredito"))
 				.build();
 	}
 
+	private static GatewayFilterSpec filtros(GatewayFilterSpec filtros, String rota, LimitesTaxa limites,
+											 CacheRespostas cache, CoalescenciaRequisicoes coalescencia) {
+		if (limites != null) {
+			filtros.filter(limites.filtro(rota));
+		}
+		if (cache != null && cache.configurada(rota)) {
+			filtros.filter(cache.filtro(rota));
+		}
+		if (coalescencia != null && coalescencia.configurada(rota)) {
+			filtros.filter(coalescencia.filtro(rota));
+		}
+		return filtros;
+	}
+
 }
@@ -0,0 +1,17 @@
+package br.com.helber.mscloudgateway;
+
+/**
+ * Ids das rotas que recebem filtros proprios; a configuracao de cada filtro e feita por esse id.
+ */
+public final class Rotas {
+
+    public static final String CARTOES_RENDA = "cartoes-renda";
+    public static final String CARTOES_CLIENTE = "cartoes-cliente";
+    public static final String SITUACAO_CLIENTE = "situacao-cliente";
+    public static final String CLIENTES = "clientes";
+    public static final String CARTOES = "cartoes";
+    public static final String AVALIACOES_CREDITO = "avaliacoes-credito";
+
+    private Rotas() {
+    }
+}
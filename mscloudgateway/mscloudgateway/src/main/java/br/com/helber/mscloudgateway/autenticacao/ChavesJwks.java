@@ -0,0 +1,200 @@
+package br.com.helber.mscloudgateway.autenticacao;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.jwk.JWK;
+import com.nimbusds.jose.jwk.JWKSelector;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.source.JWKSource;
+import com.nimbusds.jose.proc.BadJOSEException;
+import com.nimbusds.jose.proc.JWSVerificationKeySelector;
+import com.nimbusds.jose.proc.SecurityContext;
+import com.nimbusds.jwt.proc.DefaultJWTProcessor;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.security.oauth2.jwt.BadJwtException;
+import org.springframework.security.oauth2.jwt.JwtException;
+import org.springframework.security.oauth2.jwt.JwtValidators;
+import org.springframework.security.oauth2.jwt.NimbusReactiveJwtDecoder;
+import org.springframework.security.oauth2.jwt.ReactiveJwtDecoder;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.LongSupplier;
+
+/**
+ * Chaves publicas do emissor mantidas em memoria: buscadas no start, antes do servidor web, e
+ * atualizadas em segundo plano a cada {@code intervalo}. A verificacao de assinatura so consulta o
+ * conjunto local; um {@code kid} desconhecido falha na hora e dispara uma atualizacao assincrona (no
+ * maximo uma a cada {@code intervaloMinimo}), para que a rotacao de chaves seja percebida sem que uma
+ * requisicao espere o emissor.
+ * <p>
+ * Falha na busca mantem as chaves anteriores. Quando uma atualizacao remove chaves, os ouvintes de
+ * {@link #aoRemoverChaves(Runnable)} sao avisados (o cache de tokens validados se esvazia).
+ */
+public class ChavesJwks implements JWKSource<SecurityContext>, SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(ChavesJwks.class);
+
+    private static final Set<JWSAlgorithm> ALGORITMOS;
+
+    static {
+        var algoritmos = new HashSet<JWSAlgorithm>(JWSAlgorithm.Family.RSA);
+        algoritmos.addAll(JWSAlgorithm.Family.EC);
+        ALGORITMOS = Set.copyOf(algoritmos);
+    }
+
+    private final WebClient webClient;
+    private final String jwkSetUri;
+    private final Duration intervalo;
+    private final long intervaloMinimoNanos;
+    private final Duration espera;
+    private final LongSupplier relogio;
+    private final AtomicReference<JWKSet> chaves = new AtomicReference<>(new JWKSet());
+    private final AtomicLong ultimaForcada;
+    private final AtomicBoolean atualizando = new AtomicBoolean();
+    private final List<Runnable> ouvintesRemocao = new CopyOnWriteArrayList<>();
+    private final Counter atualizacoes;
+    private final Counter falhas;
+
+    private volatile Disposable agendamento;
+
+    public ChavesJwks(WebClient webClient, String jwkSetUri, Duration intervalo, Duration intervaloMinimo,
+                      Duration espera, MeterRegistry registry) {
+        this(webClient, jwkSetUri, intervalo, intervaloMinimo, espera, registry, System::nanoTime);
+    }
+
+    ChavesJwks(WebClient webClient, String jwkSetUri, Duration intervalo, Duration intervaloMinimo,
+               Duration espera, MeterRegistry registry, LongSupplier relogio) {
+        this.webClient = webClient;
+        this.jwkSetUri = jwkSetUri;
+        this.intervalo = intervalo;
+        this.intervaloMinimoNanos = intervaloMinimo.toNanos();
+        this.espera = espera;
+        this.relogio = relogio;
+        this.ultimaForcada = new AtomicLong(relogio.getAsLong() - intervaloMinimoNanos);
+        this.atualizacoes = Counter.builder("gateway.jwt.jwks.atualizacoes")
+                .tag("resultado", "sucesso").register(registry);
+        this.falhas = Counter.builder("gateway.jwt.jwks.atualizacoes")
+                .tag("resultado", "falha").register(registry);
+        Gauge.builder("gateway.jwt.jwks.chaves", this, ChavesJwks::quantidade).register(registry);
+    }
+
+    /**
+     * Decodificador que verifica a assinatura com as chaves locais e valida {@code exp}, {@code nbf} e o
+     * emissor com os validadores padrao do Spring Security.
+     */
+    public ReactiveJwtDecoder decodificador(String emissor) {
+        var processador = new DefaultJWTProcessor<SecurityContext>();
+        processador.setJWSKeySelector(new JWSVerificationKeySelector<>(ALGORITMOS, this));
+        // os claims sao validados pelo OAuth2TokenValidator do decodificador
+        processador.setJWTClaimsSetVerifier((claims, contexto) -> { });
+        var decodificador = new NimbusReactiveJwtDecoder(jwt -> Mono
+                .fromCallable(() -> processador.process(jwt, null))
+                .onErrorMap(BadJOSEException.class, e -> new BadJwtException("Token JWT invalido: "
+                        + e.getMessage(), e))
+                .onErrorMap(JOSEException.class, e -> new JwtException("Falha ao verificar o token JWT: "
+                        + e.getMessage(), e)));
+        decodificador.setJwtValidator(JwtValidators.createDefaultWithIssuer(emissor));
+        return decodificador;
+    }
+
+    @Override
+    public List<JWK> get(JWKSelector seletor, SecurityContext contexto) {
+        List<JWK> encontradas = seletor.select(chaves.get());
+        if (encontradas.isEmpty()) {
+            forcarAtualizacao();
+        }
+        return encontradas;
+    }
+
+    public void aoRemoverChaves(Runnable ouvinte) {
+        ouvintesRemocao.add(ouvinte);
+    }
+
+    /** Busca o conjunto de chaves; nunca termina com erro e ignora a chamada se outra busca esta em curso. */
+    public Mono<Void> atualizar() {
+        return Mono.defer(() -> atualizando.compareAndSet(false, true) ? buscar() : Mono.empty());
+    }
+
+    private Mono<Void> buscar() {
+        return webClient.get()
+                .uri(jwkSetUri)
+                .retrieve()
+                .bodyToMono(String.class)
+                .timeout(espera)
+                .flatMap(corpo -> Mono.fromCallable(() -> JWKSet.parse(corpo).toPublicJWKSet()))
+                .doOnNext(this::substituir)
+                .doOnError(e -> {
+                    falhas.increment();
+                    log.warn("Não foi possível atualizar as chaves JWKS de {}: {}", jwkSetUri, e.getMessage());
+                })
+                .onErrorResume(e -> Mono.empty())
+                .doFinally(sinal -> atualizando.set(false))
+                .then();
+    }
+
+    private void forcarAtualizacao() {
+        long agora = relogio.getAsLong();
+        long ultima = ultimaForcada.get();
+        if (agora - ultima >= intervaloMinimoNanos && ultimaForcada.compareAndSet(ultima, agora)) {
+            atualizar().subscribe();
+        }
+    }
+
+    private void substituir(JWKSet novas) {
+        JWKSet anteriores = chaves.getAndSet(novas);
+        atualizacoes.increment();
+        boolean removeu = !novas.getKeys().containsAll(anteriores.getKeys());
+        if (removeu) {
+            log.info("Chaves JWKS removidas pelo emissor; {} chaves ativas", novas.getKeys().size());
+            ouvintesRemocao.forEach(Runnable::run);
+        }
+    }
+
+    int quantidade() {
+        return chaves.get().getKeys().size();
+    }
+
+    @Override
+    public void start() {
+        atualizar().block();
+        agendamento = Flux.interval(intervalo, intervalo)
+                .concatMap(tick -> atualizar())
+                .subscribe();
+    }
+
+    @Override
+    public void stop() {
+        Disposable atual = agendamento;
+        if (atual != null) {
+            atual.dispose();
+            agendamento = null;
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return agendamento != null;
+    }
+
+    /** Antes do servidor web, para que a primeira requisicao ja encontre as chaves. */
+    @Override
+    public int getPhase() {
+        return 0;
+    }
+}
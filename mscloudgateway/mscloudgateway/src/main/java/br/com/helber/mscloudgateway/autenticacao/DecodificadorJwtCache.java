@@ -0,0 +1,118 @@
+package br.com.helber.mscloudgateway.autenticacao;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+import com.github.benmanes.caffeine.cache.Ticker;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtException;
+import org.springframework.security.oauth2.jwt.ReactiveJwtDecoder;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Base64;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Cache de tokens ja validados, chaveado pelo SHA-256 do token (o token em si nao fica guardado como
+ * chave). Cada entrada expira no {@code exp} do token ou em {@code ttlMaximo}, o que vier antes; o teto
+ * limita quanto tempo um token continua aceito depois de a chave que o assinou sair do JWKS.
+ * <p>
+ * So o resultado de sucesso fica no cache. Requisicoes simultaneas com o mesmo token esperam a mesma
+ * verificacao.
+ */
+public class DecodificadorJwtCache implements ReactiveJwtDecoder {
+
+    private final ReactiveJwtDecoder delegate;
+    private final AsyncCache<String, Jwt> validados;
+    private final Counter acertos;
+    private final Counter verificados;
+
+    public DecodificadorJwtCache(ReactiveJwtDecoder delegate, Duration ttlMaximo, long tamanhoMaximo,
+                                 MeterRegistry registry) {
+        this(delegate, ttlMaximo, tamanhoMaximo, registry, Clock.systemUTC(), Ticker.systemTicker());
+    }
+
+    DecodificadorJwtCache(ReactiveJwtDecoder delegate, Duration ttlMaximo, long tamanhoMaximo,
+                          MeterRegistry registry, Clock relogio, Ticker ticker) {
+        this.delegate = delegate;
+        this.validados = Caffeine.newBuilder()
+                .expireAfter(new ValidadeToken(ttlMaximo, relogio))
+                .maximumSize(tamanhoMaximo)
+                .ticker(ticker)
+                .buildAsync();
+        this.acertos = Counter.builder("gateway.jwt.validacoes").tag("resultado", "cache").register(registry);
+        this.verificados = Counter.builder("gateway.jwt.validacoes").tag("resultado", "verificado")
+                .register(registry);
+        Gauge.builder("gateway.jwt.cache.entradas", validados, cache -> cache.synchronous().estimatedSize())
+                .register(registry);
+    }
+
+    @Override
+    public Mono<Jwt> decode(String token) throws JwtException {
+        String chave = hash(token);
+        CompletableFuture<Jwt> existente = validados.getIfPresent(chave);
+        if (existente != null) {
+            acertos.increment();
+            return Mono.fromCompletionStage(existente);
+        }
+        verificados.increment();
+        // fromCompletionStage nao cancela a verificacao compartilhada se um dos assinantes desistir
+        return Mono.fromCompletionStage(validados.get(chave, (k, executor) -> delegate.decode(token).toFuture()));
+    }
+
+    public void invalidar() {
+        validados.synchronous().invalidateAll();
+    }
+
+    static String hash(String token) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.UTF_8));
+            return Base64.getUrlEncoder().withoutPadding().encodeToString(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static final class ValidadeToken implements Expiry<String, Jwt> {
+
+        private final Duration ttlMaximo;
+        private final Clock relogio;
+
+        ValidadeToken(Duration ttlMaximo, Clock relogio) {
+            this.ttlMaximo = ttlMaximo;
+            this.relogio = relogio;
+        }
+
+        @Override
+        public long expireAfterCreate(String chave, Jwt jwt, long agora) {
+            Instant exp = jwt.getExpiresAt();
+            if (exp == null) {
+                return ttlMaximo.toNanos();
+            }
+            Duration restante = Duration.between(relogio.instant(), exp);
+            if (restante.isNegative()) {
+                return 0;
+            }
+            return restante.compareTo(ttlMaximo) < 0 ? restante.toNanos() : ttlMaximo.toNanos();
+        }
+
+        @Override
+        public long expireAfterUpdate(String chave, Jwt jwt, long agora, long duracaoAtual) {
+            return expireAfterCreate(chave, jwt, agora);
+        }
+
+        @Override
+        public long expireAfterRead(String chave, Jwt jwt, long agora, long duracaoAtual) {
+            return duracaoAtual;
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package br.com.helber.mscloudgateway.balanceamento;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.DefaultResponse;
+import org.springframework.cloud.client.loadbalancer.EmptyResponse;
+import org.springframework.cloud.client.loadbalancer.Request;
+import org.springframework.cloud.client.loadbalancer.Response;
+import org.springframework.cloud.loadbalancer.core.NoopServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.core.ReactorServiceInstanceLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Power-of-two-choices: sorteia duas instancias distintas e fica com a de menor custo segundo
+ * {@link EstatisticasInstancias}. Comparar so duas evita que todas as requisicoes corram para a
+ * mesma instancia "mais rapida" entre uma amostra e outra.
+ */
+public class BalanceadorLatencia implements ReactorServiceInstanceLoadBalancer {
+
+    private static final Logger log = LoggerFactory.getLogger(BalanceadorLatencia.class);
+
+    private final ObjectProvider<ServiceInstanceListSupplier> fornecedorInstancias;
+    private final String servico;
+    private final EstatisticasInstancias estatisticas;
+
+    public BalanceadorLatencia(ObjectProvider<ServiceInstanceListSupplier> fornecedorInstancias,
+                               String servico,
+                               EstatisticasInstancias estatisticas) {
+        this.fornecedorInstancias = fornecedorInstancias;
+        this.servico = servico;
+        this.estatisticas = estatisticas;
+    }
+
+    @Override
+    public Mono<Response<ServiceInstance>> choose(Request request) {
+        ServiceInstanceListSupplier fornecedor = fornecedorInstancias
+                .getIfAvailable(NoopServiceInstanceListSupplier::new);
+        return fornecedor.get(request).next().map(instancias -> {
+            estatisticas.manter(servico, instancias);
+            return escolher(instancias);
+        });
+    }
+
+    Response<ServiceInstance> escolher(List<ServiceInstance> instancias) {
+        if (instancias.isEmpty()) {
+            log.warn("Nenhuma instância disponível para o serviço {}", servico);
+            return new EmptyResponse();
+        }
+        if (instancias.size() == 1) {
+            return new DefaultResponse(instancias.get(0));
+        }
+        var random = ThreadLocalRandom.current();
+        int a = random.nextInt(instancias.size());
+        int b = random.nextInt(instancias.size() - 1);
+        if (b >= a) {
+            b++;
+        }
+        ServiceInstance primeira = instancias.get(a);
+        ServiceInstance segunda = instancias.get(b);
+        return new DefaultResponse(estatisticas.custo(primeira) <= estatisticas.custo(segunda) ? primeira : segunda);
+    }
+}
@@ -0,0 +1,24 @@
+package br.com.helber.mscloudgateway.balanceamento;
+
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.loadbalancer.core.ReactorLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.env.Environment;
+
+/**
+ * Configuracao aplicada a cada contexto filho do Spring Cloud LoadBalancer. Nao e anotada com
+ * {@code @Configuration} para nao ser registrada pela varredura de componentes no contexto principal.
+ */
+public class BalanceamentoLatenciaConfiguration {
+
+    @Bean
+    public ReactorLoadBalancer<ServiceInstance> balanceadorLatencia(Environment environment,
+                                                                    LoadBalancerClientFactory clientFactory,
+                                                                    EstatisticasInstancias estatisticas) {
+        String servico = environment.getProperty(LoadBalancerClientFactory.PROPERTY_NAME);
+        return new BalanceadorLatencia(clientFactory.getLazyProvider(servico, ServiceInstanceListSupplier.class),
+                servico, estatisticas);
+    }
+}
@@ -0,0 +1,142 @@
+package br.com.helber.mscloudgateway.balanceamento;
+
+import org.springframework.cloud.client.ServiceInstance;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.LongSupplier;
+
+/**
+ * Latencia (peak EWMA) e requisicoes em voo por instancia, compartilhadas por todos os clientes
+ * balanceados da aplicacao.
+ * <p>
+ * Uma amostra acima da media a substitui imediatamente; abaixo dela entra com peso que depende do
+ * tempo desde a ultima amostra. Na leitura a media decai em direcao a zero com a mesma constante,
+ * entao uma instancia evitada por ter ficado lenta volta a ser tentada depois de algum tempo em vez
+ * de ficar marcada para sempre. O custo de uma instancia e {@code ewma * (emVoo + 1)}.
+ * <p>
+ * A cada lista do discovery as instancias que sairam dela sao esquecidas (ver {@link #manter}), para que
+ * enderecos de instancias recicladas nao se acumulem.
+ */
+public class EstatisticasInstancias {
+
+    private final ConcurrentMap<String, Estatistica> porInstancia = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Conhecidas> conhecidasPorServico = new ConcurrentHashMap<>();
+    private final double decaimentoNanos;
+    private final long latenciaInicialNanos;
+    private final long penalidadeFalhaNanos;
+    private final LongSupplier relogio;
+
+    public EstatisticasInstancias(long decaimentoMs, long latenciaInicialMs, long penalidadeFalhaMs) {
+        this(decaimentoMs, latenciaInicialMs, penalidadeFalhaMs, System::nanoTime);
+    }
+
+    EstatisticasInstancias(long decaimentoMs, long latenciaInicialMs, long penalidadeFalhaMs, LongSupplier relogio) {
+        this.decaimentoNanos = TimeUnit.MILLISECONDS.toNanos(decaimentoMs);
+        this.latenciaInicialNanos = TimeUnit.MILLISECONDS.toNanos(latenciaInicialMs);
+        this.penalidadeFalhaNanos = TimeUnit.MILLISECONDS.toNanos(penalidadeFalhaMs);
+        this.relogio = relogio;
+    }
+
+    public double custo(ServiceInstance instancia) {
+        Estatistica estatistica = porInstancia.get(chave(instancia));
+        if (estatistica == null) {
+            return latenciaInicialNanos;
+        }
+        return estatistica.custo(relogio.getAsLong());
+    }
+
+    public void iniciar(ServiceInstance instancia) {
+        estatistica(instancia).emVoo.incrementAndGet();
+    }
+
+    public void concluir(ServiceInstance instancia, long latenciaNanos, boolean falha) {
+        Estatistica estatistica = estatistica(instancia);
+        estatistica.emVoo.updateAndGet(emVoo -> Math.max(0, emVoo - 1));
+        if (latenciaNanos >= 0) {
+            estatistica.registrar(falha ? Math.max(latenciaNanos, penalidadeFalhaNanos) : latenciaNanos,
+                    relogio.getAsLong());
+        }
+    }
+
+    /**
+     * Descarta as estatisticas das instancias de {@code servico} que nao estao mais em {@code instancias}. A
+     * instancia que ainda tem requisicao em voo fica para a proxima lista; a mesma lista (o fornecedor com
+     * cache devolve a mesma instancia de {@code List} ate o proximo refresh) nao e conferida de novo.
+     */
+    public void manter(String servico, List<ServiceInstance> instancias) {
+        Conhecidas conhecidas = conhecidasPorServico.computeIfAbsent(servico, s -> new Conhecidas());
+        synchronized (conhecidas) {
+            if (conhecidas.lista == instancias) {
+                return;
+            }
+            Set<String> chaves = new HashSet<>();
+            for (ServiceInstance instancia : instancias) {
+                chaves.add(chave(instancia));
+            }
+            boolean emVoo = false;
+            for (String chave : conhecidas.chaves) {
+                if (!chaves.contains(chave)
+                        && porInstancia.computeIfPresent(chave, (c, e) -> e.emVoo.get() > 0 ? e : null) != null) {
+                    chaves.add(chave);
+                    emVoo = true;
+                }
+            }
+            conhecidas.lista = emVoo ? null : instancias;
+            conhecidas.chaves = chaves;
+        }
+    }
+
+    public int emVoo(ServiceInstance instancia) {
+        Estatistica estatistica = porInstancia.get(chave(instancia));
+        return estatistica == null ? 0 : estatistica.emVoo.get();
+    }
+
+    private Estatistica estatistica(ServiceInstance instancia) {
+        return porInstancia.computeIfAbsent(chave(instancia), chave -> new Estatistica());
+    }
+
+    static String chave(ServiceInstance instancia) {
+        return instancia.getInstanceId() != null
+                ? instancia.getServiceId() + "/" + instancia.getInstanceId()
+                : instancia.getServiceId() + "/" + instancia.getHost() + ":" + instancia.getPort();
+    }
+
+    private static final class Conhecidas {
+        private List<ServiceInstance> lista;
+        private Set<String> chaves = Set.of();
+    }
+
+    private final class Estatistica {
+        private final AtomicInteger emVoo = new AtomicInteger();
+        private double ewma;
+        private long ultimaAmostra;
+        private boolean amostrada;
+
+        synchronized void registrar(long amostra, long agora) {
+            double atual = amostrada ? decair(agora) : amostra;
+            if (amostra >= atual) {
+                ewma = amostra;
+            } else {
+                double peso = Math.exp(-(agora - ultimaAmostra) / decaimentoNanos);
+                ewma = atual * peso + amostra * (1 - peso);
+            }
+            ultimaAmostra = agora;
+            amostrada = true;
+        }
+
+        synchronized double custo(long agora) {
+            double latencia = amostrada ? decair(agora) : latenciaInicialNanos;
+            return latencia * (emVoo.get() + 1);
+        }
+
+        private double decair(long agora) {
+            return ewma * Math.exp(-Math.max(0, agora - ultimaAmostra) / decaimentoNanos);
+        }
+    }
+}
@@ -0,0 +1,168 @@
+package br.com.helber.mscloudgateway.cache;
+
+import br.com.helber.mscloudgateway.resposta.RespostaAcumulada;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cache das respostas 200 de uma rota GET, com ETag calculado sobre o corpo. Um {@code If-None-Match}
+ * que bate recebe 304, tanto no acerto quanto logo depois de buscar a resposta no servico.
+ * <p>
+ * Cada invalidacao incrementa a geracao da rota antes de remover as entradas; uma busca iniciada antes
+ * dela nao grava o resultado, que pode ter sido lido antes da alteracao.
+ */
+public class CacheRespostaFilter implements GatewayFilter, Ordered {
+
+    private final Cache<ChaveCache, RespostaCacheada> respostas;
+    private final int tamanhoMaximoCorpo;
+    private final AtomicLong geracao = new AtomicLong();
+    private final Counter acertos;
+    private final Counter falhas;
+    private final Counter naoModificadas;
+
+    public CacheRespostaFilter(String rota, Duration ttl, long tamanhoMaximo, int tamanhoMaximoCorpo,
+                               MeterRegistry registry) {
+        this.respostas = Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(tamanhoMaximo)
+                .build();
+        this.tamanhoMaximoCorpo = tamanhoMaximoCorpo;
+        this.acertos = Counter.builder("gateway.cache.requisicoes")
+                .tag("rota", rota).tag("resultado", "hit").register(registry);
+        this.falhas = Counter.builder("gateway.cache.requisicoes")
+                .tag("rota", rota).tag("resultado", "miss").register(registry);
+        this.naoModificadas = Counter.builder("gateway.cache.nao-modificadas")
+                .tag("rota", rota).register(registry);
+        registry.gauge("gateway.cache.entradas", Tags.of("rota", rota), respostas, Cache::estimatedSize);
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        if (request.getMethod() != HttpMethod.GET) {
+            return chain.filter(exchange);
+        }
+        ChaveCache chave = ChaveCache.de(request);
+        RespostaCacheada cacheada = respostas.getIfPresent(chave);
+        if (cacheada != null) {
+            acertos.increment();
+            return responderDoCache(exchange, cacheada);
+        }
+        falhas.increment();
+        long geracaoInicial = geracao.get();
+        return chain.filter(exchange.mutate().response(new Gravacao(exchange, chave, geracaoInicial)).build());
+    }
+
+    /**
+     * Antes do {@link NettyWriteResponseFilter}, para que ele escreva na resposta decorada, e antes da
+     * coalescencia, para que um acerto nem chegue a ela.
+     */
+    @Override
+    public int getOrder() {
+        return NettyWriteResponseFilter.WRITE_RESPONSE_FILTER_ORDER - 2;
+    }
+
+    public void invalidar() {
+        geracao.incrementAndGet();
+        respostas.invalidateAll();
+    }
+
+    public void invalidarCpf(String parametro, String cpf) {
+        geracao.incrementAndGet();
+        respostas.asMap().keySet().removeIf(chave -> chave.temCpf(parametro, cpf));
+    }
+
+    private Mono<Void> responderDoCache(ServerWebExchange exchange, RespostaCacheada cacheada) {
+        ServerHttpResponse response = exchange.getResponse();
+        response.getHeaders().addAll(cacheada.cabecalhos());
+        if (bateComIfNoneMatch(exchange.getRequest(), cacheada.etag())) {
+            return naoModificada(response);
+        }
+        response.setStatusCode(HttpStatus.OK);
+        response.getHeaders().setContentLength(cacheada.corpo().length);
+        return response.writeWith(Mono.just(response.bufferFactory().wrap(cacheada.corpo())));
+    }
+
+    private Mono<Void> naoModificada(ServerHttpResponse response) {
+        naoModificadas.increment();
+        response.setStatusCode(HttpStatus.NOT_MODIFIED);
+        response.getHeaders().remove(HttpHeaders.CONTENT_TYPE);
+        response.getHeaders().remove(HttpHeaders.CONTENT_LENGTH);
+        response.getHeaders().remove(HttpHeaders.TRANSFER_ENCODING);
+        return response.setComplete();
+    }
+
+    private static boolean bateComIfNoneMatch(ServerHttpRequest request, String etag) {
+        for (String candidata : request.getHeaders().getIfNoneMatch()) {
+            String forte = candidata.startsWith("W/") ? candidata.substring(2) : candidata;
+            if ("*".equals(forte) || etag.equals(forte)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    static String etag(byte[] corpo) {
+        return "\"" + DigestUtils.md5DigestAsHex(corpo) + "\"";
+    }
+
+    private final class Gravacao extends RespostaAcumulada {
+
+        private final ServerWebExchange exchange;
+        private final ChaveCache chave;
+        private final long geracaoInicial;
+
+        Gravacao(ServerWebExchange exchange, ChaveCache chave, long geracaoInicial) {
+            super(exchange.getResponse(), tamanhoMaximoCorpo);
+            this.exchange = exchange;
+            this.chave = chave;
+            this.geracaoInicial = geracaoInicial;
+        }
+
+        /** So respostas 200 que permitem guardar; acima do limite seguem sem ETag e sem entrar no cache. */
+        @Override
+        protected boolean acumular() {
+            HttpHeaders headers = getHeaders();
+            return getStatusCode() == HttpStatus.OK
+                    && (headers.getCacheControl() == null || !headers.getCacheControl().contains("no-store"));
+        }
+
+        @Override
+        protected void emStreaming() {
+        }
+
+        @Override
+        protected Mono<Void> concluir(byte[] corpo) {
+            HttpHeaders headers = getHeaders();
+            String etag = etag(corpo);
+            headers.setETag(etag);
+            if (geracao.get() == geracaoInicial) {
+                var cabecalhos = cabecalhosReutilizaveis(headers);
+                cabecalhos.remove(HttpHeaders.DATE);
+                respostas.put(chave, new RespostaCacheada(cabecalhos, corpo));
+            }
+            if (bateComIfNoneMatch(exchange.getRequest(), etag)) {
+                return naoModificada(getDelegate());
+            }
+            return escreverCorpo(corpo);
+        }
+    }
+}
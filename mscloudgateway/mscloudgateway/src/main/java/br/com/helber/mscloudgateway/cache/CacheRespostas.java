@@ -0,0 +1,56 @@
+package br.com.helber.mscloudgateway.cache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.core.env.Environment;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Um {@link CacheRespostaFilter} por rota, com TTL e numero de entradas em
+ * {@code gateway.cache.rotas.<rota>.*}.
+ */
+public class CacheRespostas {
+
+    private static final String PREFIXO = "gateway.cache.rotas.";
+
+    private final ConcurrentMap<String, CacheRespostaFilter> porRota = new ConcurrentHashMap<>();
+    private final Environment environment;
+    private final MeterRegistry registry;
+    private final int tamanhoMaximoCorpo;
+
+    public CacheRespostas(Environment environment, MeterRegistry registry, int tamanhoMaximoCorpo) {
+        this.environment = environment;
+        this.registry = registry;
+        this.tamanhoMaximoCorpo = tamanhoMaximoCorpo;
+    }
+
+    public boolean configurada(String rota) {
+        return environment.containsProperty(PREFIXO + rota + ".ttl-ms");
+    }
+
+    public CacheRespostaFilter filtro(String rota) {
+        return porRota.computeIfAbsent(rota, this::criar);
+    }
+
+    public void invalidar(String rota) {
+        CacheRespostaFilter filtro = porRota.get(rota);
+        if (filtro != null) {
+            filtro.invalidar();
+        }
+    }
+
+    public void invalidarCpf(String rota, String parametro, String cpf) {
+        CacheRespostaFilter filtro = porRota.get(rota);
+        if (filtro != null) {
+            filtro.invalidarCpf(parametro, cpf);
+        }
+    }
+
+    private CacheRespostaFilter criar(String rota) {
+        long ttlMs = environment.getRequiredProperty(PREFIXO + rota + ".ttl-ms", Long.class);
+        long tamanhoMaximo = environment.getRequiredProperty(PREFIXO + rota + ".tamanho-maximo", Long.class);
+        return new CacheRespostaFilter(rota, Duration.ofMillis(ttlMs), tamanhoMaximo, tamanhoMaximoCorpo, registry);
+    }
+}
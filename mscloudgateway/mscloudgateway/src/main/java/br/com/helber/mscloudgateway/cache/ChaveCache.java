@@ -0,0 +1,104 @@
+package br.com.helber.mscloudgateway.cache;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.util.MultiValueMap;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.TreeMap;
+
+/**
+ * Caminho e parametros em ordem canonica, mais Accept e Accept-Encoding: o mscartoes devolve JSON,
+ * binario ou gzip conforme esses cabecalhos, entao cada combinacao e uma entrada.
+ */
+final class ChaveCache {
+
+    private final String caminho;
+    private final String consulta;
+    private final MultiValueMap<String, String> parametros;
+    private final String accept;
+    private final String acceptEncoding;
+
+    private ChaveCache(String caminho, MultiValueMap<String, String> parametros, String accept,
+                       String acceptEncoding) {
+        this.caminho = caminho;
+        this.consulta = new TreeMap<>(parametros).toString();
+        this.parametros = parametros;
+        this.accept = accept;
+        this.acceptEncoding = acceptEncoding;
+    }
+
+    static ChaveCache de(ServerHttpRequest request) {
+        HttpHeaders headers = request.getHeaders();
+        return new ChaveCache(request.getPath().pathWithinApplication().value(), request.getQueryParams(),
+                String.join(",", headers.getOrEmpty(HttpHeaders.ACCEPT)),
+                String.join(",", headers.getOrEmpty(HttpHeaders.ACCEPT_ENCODING)));
+    }
+
+    /** Compara os CPFs na forma canonica: {@code 123.456.789-09} bate com {@code 12345678909}. */
+    boolean temCpf(String nome, String cpf) {
+        List<String> valores = parametros.get(nome);
+        if (valores == null) {
+            return false;
+        }
+        String alvo = cpfCanonico(cpf);
+        for (String valor : valores) {
+            if (alvo.equals(cpfCanonico(valor))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Os 11 digitos, com os zeros a esquerda que faltarem, como o msclientes grava; aceita pontuacao. Um
+     * valor que nao e CPF volta como veio.
+     */
+    static String cpfCanonico(String valor) {
+        char[] digitos = new char[11];
+        int quantidade = 0;
+        for (int i = 0; i < valor.length(); i++) {
+            char c = valor.charAt(i);
+            if (c >= '0' && c <= '9') {
+                if (quantidade == 11) {
+                    return valor;
+                }
+                digitos[quantidade++] = c;
+            } else if (c != '.' && c != '-' && c != ' ') {
+                return valor;
+            }
+        }
+        if (quantidade == 0) {
+            return valor;
+        }
+        char[] canonico = new char[11];
+        Arrays.fill(canonico, 0, 11 - quantidade, '0');
+        System.arraycopy(digitos, 0, canonico, 11 - quantidade, quantidade);
+        return new String(canonico);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof ChaveCache)) {
+            return false;
+        }
+        ChaveCache outra = (ChaveCache) o;
+        return caminho.equals(outra.caminho) && consulta.equals(outra.consulta)
+                && accept.equals(outra.accept) && acceptEncoding.equals(outra.acceptEncoding);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(caminho, consulta, accept, acceptEncoding);
+    }
+
+    @Override
+    public String toString() {
+        return caminho + consulta;
+    }
+}
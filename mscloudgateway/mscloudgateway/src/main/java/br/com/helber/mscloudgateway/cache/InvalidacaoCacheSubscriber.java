@@ -0,0 +1,34 @@
+package br.com.helber.mscloudgateway.cache;
+
+import br.com.helber.mscloudgateway.Rotas;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.amqp.rabbit.annotation.RabbitListener;
+import org.springframework.messaging.handler.annotation.Payload;
+
+/**
+ * Invalidacoes publicadas pelo mscartoes: alteracao do catalogo derruba todas as consultas por renda;
+ * emissao de cartao derruba so as consultas do CPF emitido.
+ */
+public class InvalidacaoCacheSubscriber {
+
+    private static final Logger log = LoggerFactory.getLogger(InvalidacaoCacheSubscriber.class);
+
+    private final CacheRespostas cacheRespostas;
+
+    public InvalidacaoCacheSubscriber(CacheRespostas cacheRespostas) {
+        this.cacheRespostas = cacheRespostas;
+    }
+
+    @RabbitListener(queues = "#{queueCatalogoCartoes.name}")
+    public void receberAlteracaoCatalogo(@Payload String idCartao) {
+        log.info("Catálogo de cartões alterado (cartão {}), invalidando cache da rota {}", idCartao,
+                Rotas.CARTOES_RENDA);
+        cacheRespostas.invalidar(Rotas.CARTOES_RENDA);
+    }
+
+    @RabbitListener(queues = "#{queueCartoesCliente.name}")
+    public void receberAlteracaoCartoesCliente(@Payload String cpf) {
+        cacheRespostas.invalidarCpf(Rotas.CARTOES_CLIENTE, "cpf", cpf);
+    }
+}
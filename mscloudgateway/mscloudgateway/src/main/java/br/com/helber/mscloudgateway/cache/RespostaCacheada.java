@@ -0,0 +1,26 @@
+package br.com.helber.mscloudgateway.cache;
+
+import org.springframework.http.HttpHeaders;
+
+final class RespostaCacheada {
+
+    private final HttpHeaders cabecalhos;
+    private final byte[] corpo;
+
+    RespostaCacheada(HttpHeaders cabecalhos, byte[] corpo) {
+        this.cabecalhos = HttpHeaders.readOnlyHttpHeaders(cabecalhos);
+        this.corpo = corpo;
+    }
+
+    HttpHeaders cabecalhos() {
+        return cabecalhos;
+    }
+
+    byte[] corpo() {
+        return corpo;
+    }
+
+    String etag() {
+        return cabecalhos.getETag();
+    }
+}
@@ -0,0 +1,56 @@
+package br.com.helber.mscloudgateway.coalescencia;
+
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+
+import java.util.Objects;
+import java.util.TreeMap;
+
+/**
+ * Duas requisicoes so compartilham a resposta se forem do mesmo principal e pedirem a mesma
+ * representacao do mesmo recurso.
+ */
+final class ChaveCoalescencia {
+
+    private final String principal;
+    private final String caminho;
+    private final String consulta;
+    private final String accept;
+    private final String acceptEncoding;
+
+    private ChaveCoalescencia(String principal, String caminho, String consulta, String accept,
+                              String acceptEncoding) {
+        this.principal = principal;
+        this.caminho = caminho;
+        this.consulta = consulta;
+        this.accept = accept;
+        this.acceptEncoding = acceptEncoding;
+    }
+
+    static ChaveCoalescencia de(ServerHttpRequest request, String principal) {
+        HttpHeaders headers = request.getHeaders();
+        return new ChaveCoalescencia(principal, request.getPath().pathWithinApplication().value(),
+                new TreeMap<>(request.getQueryParams()).toString(),
+                String.join(",", headers.getOrEmpty(HttpHeaders.ACCEPT)),
+                String.join(",", headers.getOrEmpty(HttpHeaders.ACCEPT_ENCODING)));
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof ChaveCoalescencia)) {
+            return false;
+        }
+        ChaveCoalescencia outra = (ChaveCoalescencia) o;
+        return principal.equals(outra.principal) && caminho.equals(outra.caminho)
+                && consulta.equals(outra.consulta) && accept.equals(outra.accept)
+                && acceptEncoding.equals(outra.acceptEncoding);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(principal, caminho, consulta, accept, acceptEncoding);
+    }
+}
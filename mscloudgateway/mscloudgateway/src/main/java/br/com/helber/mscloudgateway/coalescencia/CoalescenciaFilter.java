@@ -0,0 +1,171 @@
+package br.com.helber.mscloudgateway.coalescencia;
+
+import br.com.helber.mscloudgateway.resposta.RespostaAcumulada;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.security.Principal;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Single-flight de uma rota GET: a primeira requisicao de uma chave segue para o servico e as identicas
+ * que chegarem enquanto ela esta em voo esperam e recebem copia da mesma resposta.
+ * <p>
+ * Passando de {@code maxSeguidores} por voo, as excedentes seguem sozinhas. Se a resposta passar de
+ * {@code tamanhoMaximoCorpo}, ou o voo terminar sem resposta (erro, cancelamento), cada seguidor faz a
+ * propria chamada.
+ */
+public class CoalescenciaFilter implements GatewayFilter, Ordered {
+
+    private final ConcurrentMap<ChaveCoalescencia, Voo> emVoo = new ConcurrentHashMap<>();
+    private final int maxSeguidores;
+    private final int tamanhoMaximoCorpo;
+    private final Counter lideres;
+    private final Counter compartilhadas;
+    private final Counter excedentes;
+    private final Counter naoCompartilhadas;
+    private final DistributionSummary seguidoresPorVoo;
+
+    public CoalescenciaFilter(String rota, int maxSeguidores, int tamanhoMaximoCorpo, MeterRegistry registry) {
+        this.maxSeguidores = maxSeguidores;
+        this.tamanhoMaximoCorpo = tamanhoMaximoCorpo;
+        this.lideres = contador(registry, rota, "lider");
+        this.compartilhadas = contador(registry, rota, "compartilhada");
+        this.excedentes = contador(registry, rota, "excedente");
+        this.naoCompartilhadas = contador(registry, rota, "nao-compartilhada");
+        this.seguidoresPorVoo = DistributionSummary.builder("gateway.coalescencia.seguidores")
+                .tag("rota", rota)
+                .register(registry);
+        registry.gaugeMapSize("gateway.coalescencia.em-voo", Tags.of("rota", rota), emVoo);
+    }
+
+    private static Counter contador(MeterRegistry registry, String rota, String papel) {
+        return Counter.builder("gateway.coalescencia.requisicoes")
+                .tag("rota", rota)
+                .tag("papel", papel)
+                .register(registry);
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        if (exchange.getRequest().getMethod() != HttpMethod.GET) {
+            return chain.filter(exchange);
+        }
+        return exchange.getPrincipal()
+                .map(Principal::getName)
+                .defaultIfEmpty("")
+                .flatMap(principal -> coalescer(exchange, chain,
+                        ChaveCoalescencia.de(exchange.getRequest(), principal)));
+    }
+
+    /** Depois do cache de respostas e antes do {@link NettyWriteResponseFilter}. */
+    @Override
+    public int getOrder() {
+        return NettyWriteResponseFilter.WRITE_RESPONSE_FILTER_ORDER - 1;
+    }
+
+    private Mono<Void> coalescer(ServerWebExchange exchange, GatewayFilterChain chain, ChaveCoalescencia chave) {
+        var voo = new Voo();
+        Voo existente = emVoo.putIfAbsent(chave, voo);
+        if (existente == null) {
+            lideres.increment();
+            return chain.filter(exchange.mutate().response(new Lider(exchange.getResponse(), chave, voo)).build())
+                    .doFinally(sinal -> encerrar(chave, voo, null));
+        }
+        if (!existente.entrar(maxSeguidores)) {
+            excedentes.increment();
+            return chain.filter(exchange);
+        }
+        return existente.resultado.asMono().flatMap(resposta -> {
+            if (resposta.isEmpty()) {
+                naoCompartilhadas.increment();
+                return chain.filter(exchange);
+            }
+            compartilhadas.increment();
+            return resposta.get().escrever(exchange.getResponse());
+        });
+    }
+
+    /** Sai do mapa antes de publicar, para que quem chegar depois abra um voo novo. */
+    private void encerrar(ChaveCoalescencia chave, Voo voo, RespostaCompartilhada resposta) {
+        if (emVoo.remove(chave, voo)) {
+            seguidoresPorVoo.record(voo.seguidores.get());
+        }
+        voo.resultado.tryEmitValue(Optional.ofNullable(resposta));
+    }
+
+    private static final class Voo {
+        private final Sinks.One<Optional<RespostaCompartilhada>> resultado = Sinks.one();
+        private final AtomicInteger seguidores = new AtomicInteger();
+
+        boolean entrar(int maximo) {
+            int atual;
+            do {
+                atual = seguidores.get();
+                if (atual >= maximo) {
+                    return false;
+                }
+            } while (!seguidores.compareAndSet(atual, atual + 1));
+            return true;
+        }
+    }
+
+    private static final class RespostaCompartilhada {
+        private final HttpStatus status;
+        private final HttpHeaders cabecalhos;
+        private final byte[] corpo;
+
+        RespostaCompartilhada(HttpStatus status, HttpHeaders origem, byte[] corpo) {
+            this.status = status;
+            this.cabecalhos = RespostaAcumulada.cabecalhosReutilizaveis(origem);
+            this.corpo = corpo;
+        }
+
+        Mono<Void> escrever(ServerHttpResponse response) {
+            response.setStatusCode(status);
+            response.getHeaders().addAll(cabecalhos);
+            response.getHeaders().setContentLength(corpo.length);
+            return response.writeWith(Mono.just(response.bufferFactory().wrap(corpo)));
+        }
+    }
+
+    private final class Lider extends RespostaAcumulada {
+
+        private final ChaveCoalescencia chave;
+        private final Voo voo;
+
+        Lider(ServerHttpResponse delegate, ChaveCoalescencia chave, Voo voo) {
+            super(delegate, tamanhoMaximoCorpo);
+            this.chave = chave;
+            this.voo = voo;
+        }
+
+        /** Acima do limite os seguidores sao liberados sem resposta e o corpo segue em streaming. */
+        @Override
+        protected void emStreaming() {
+            encerrar(chave, voo, null);
+        }
+
+        @Override
+        protected Mono<Void> concluir(byte[] corpo) {
+            encerrar(chave, voo, new RespostaCompartilhada(getStatusCode(), getHeaders(), corpo));
+            return escreverCorpo(corpo);
+        }
+    }
+}
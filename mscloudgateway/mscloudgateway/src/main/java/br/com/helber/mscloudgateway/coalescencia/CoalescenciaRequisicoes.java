@@ -0,0 +1,37 @@
+package br.com.helber.mscloudgateway.coalescencia;
+
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Um {@link CoalescenciaFilter} por rota listada em {@code gateway.coalescencia.rotas}; so devem entrar
+ * rotas idempotentes.
+ */
+public class CoalescenciaRequisicoes {
+
+    private final ConcurrentMap<String, CoalescenciaFilter> porRota = new ConcurrentHashMap<>();
+    private final Set<String> rotas;
+    private final int maxSeguidores;
+    private final int tamanhoMaximoCorpo;
+    private final MeterRegistry registry;
+
+    public CoalescenciaRequisicoes(Set<String> rotas, int maxSeguidores, int tamanhoMaximoCorpo,
+                                   MeterRegistry registry) {
+        this.rotas = rotas;
+        this.maxSeguidores = maxSeguidores;
+        this.tamanhoMaximoCorpo = tamanhoMaximoCorpo;
+        this.registry = registry;
+    }
+
+    public boolean configurada(String rota) {
+        return rotas.contains(rota);
+    }
+
+    public CoalescenciaFilter filtro(String rota) {
+        return porRota.computeIfAbsent(rota,
+                chave -> new CoalescenciaFilter(chave, maxSeguidores, tamanhoMaximoCorpo, registry));
+    }
+}
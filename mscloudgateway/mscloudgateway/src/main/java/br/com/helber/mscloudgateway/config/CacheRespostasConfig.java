@@ -0,0 +1,67 @@
+package br.com.helber.mscloudgateway.config;
+
+import br.com.helber.mscloudgateway.cache.CacheRespostas;
+import br.com.helber.mscloudgateway.cache.InvalidacaoCacheSubscriber;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.amqp.core.AnonymousQueue;
+import org.springframework.amqp.core.Binding;
+import org.springframework.amqp.core.BindingBuilder;
+import org.springframework.amqp.core.FanoutExchange;
+import org.springframework.amqp.core.Queue;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+@Configuration
+@ConditionalOnProperty(value = "gateway.cache.enabled", havingValue = "true")
+public class CacheRespostasConfig {
+
+    @Value("${mq.exchanges.catalogo-cartoes}")
+    private String catalogoCartoesExchange;
+
+    @Value("${mq.exchanges.cartoes-cliente}")
+    private String cartoesClienteExchange;
+
+    @Bean
+    public CacheRespostas cacheRespostas(Environment environment, MeterRegistry registry,
+                                         @Value("${gateway.cache.tamanho-maximo-corpo}") int tamanhoMaximoCorpo) {
+        return new CacheRespostas(environment, registry, tamanhoMaximoCorpo);
+    }
+
+    @Bean
+    public InvalidacaoCacheSubscriber invalidacaoCacheSubscriber(CacheRespostas cacheRespostas) {
+        return new InvalidacaoCacheSubscriber(cacheRespostas);
+    }
+
+    @Bean
+    public FanoutExchange exchangeCatalogoCartoes() {
+        return new FanoutExchange(catalogoCartoesExchange, true, false);
+    }
+
+    @Bean
+    public Queue queueCatalogoCartoes() {
+        return new AnonymousQueue();
+    }
+
+    @Bean
+    public Binding bindingCatalogoCartoes() {
+        return BindingBuilder.bind(queueCatalogoCartoes()).to(exchangeCatalogoCartoes());
+    }
+
+    @Bean
+    public FanoutExchange exchangeCartoesCliente() {
+        return new FanoutExchange(cartoesClienteExchange, true, false);
+    }
+
+    @Bean
+    public Queue queueCartoesCliente() {
+        return new AnonymousQueue();
+    }
+
+    @Bean
+    public Binding bindingCartoesCliente() {
+        return BindingBuilder.bind(queueCartoesCliente()).to(exchangeCartoesCliente());
+    }
+}
@@ -0,0 +1,24 @@
+package br.com.helber.mscloudgateway.config;
+
+import br.com.helber.mscloudgateway.coalescencia.CoalescenciaRequisicoes;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.Set;
+
+@Configuration
+@ConditionalOnProperty(value = "gateway.coalescencia.enabled", havingValue = "true")
+public class CoalescenciaConfig {
+
+    @Bean
+    public CoalescenciaRequisicoes coalescenciaRequisicoes(
+            @Value("${gateway.coalescencia.rotas}") Set<String> rotas,
+            @Value("${gateway.coalescencia.max-seguidores}") int maxSeguidores,
+            @Value("${gateway.coalescencia.tamanho-maximo-corpo}") int tamanhoMaximoCorpo,
+            MeterRegistry registry) {
+        return new CoalescenciaRequisicoes(rotas, maxSeguidores, tamanhoMaximoCorpo, registry);
+    }
+}
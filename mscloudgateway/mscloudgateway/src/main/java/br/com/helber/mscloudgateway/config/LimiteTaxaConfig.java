@@ -0,0 +1,28 @@
+package br.com.helber.mscloudgateway.config;
+
+import br.com.helber.mscloudgateway.limite.ClaimJwtKeyResolver;
+import br.com.helber.mscloudgateway.limite.LimitesTaxa;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import java.util.List;
+
+@Configuration
+@ConditionalOnProperty(value = "gateway.limite-taxa.enabled", havingValue = "true")
+public class LimiteTaxaConfig {
+
+    @Bean
+    public ClaimJwtKeyResolver claimJwtKeyResolver(@Value("${gateway.limite-taxa.claims}") List<String> claims) {
+        return new ClaimJwtKeyResolver(claims);
+    }
+
+    @Bean
+    public LimitesTaxa limitesTaxa(Environment environment, ClaimJwtKeyResolver claimJwtKeyResolver,
+                                   MeterRegistry registry) {
+        return new LimitesTaxa(environment, claimJwtKeyResolver, registry);
+    }
+}
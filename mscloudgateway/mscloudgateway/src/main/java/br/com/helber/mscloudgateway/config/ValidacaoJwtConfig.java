@@ -0,0 +1,46 @@
+package br.com.helber.mscloudgateway.config;
+
+import br.com.helber.mscloudgateway.autenticacao.ChavesJwks;
+import br.com.helber.mscloudgateway.autenticacao.DecodificadorJwtCache;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.oauth2.jwt.ReactiveJwtDecoder;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.time.Duration;
+
+/**
+ * Substitui o decodificador que o resource server montaria a partir do {@code issuer-uri} (que busca
+ * as chaves sob demanda) pelo de chaves locais com cache de tokens validados.
+ */
+@Configuration
+@ConditionalOnProperty(value = "gateway.jwt.enabled", havingValue = "true")
+public class ValidacaoJwtConfig {
+
+    @Bean
+    public ChavesJwks chavesJwks(
+            @Value("${spring.security.oauth2.resourceserver.jwt.jwk-set-uri}") String jwkSetUri,
+            @Value("${gateway.jwt.jwks.atualizacao-ms}") long atualizacaoMs,
+            @Value("${gateway.jwt.jwks.atualizacao-minima-ms}") long atualizacaoMinimaMs,
+            @Value("${gateway.jwt.jwks.espera-ms}") long esperaMs,
+            MeterRegistry registry) {
+        return new ChavesJwks(WebClient.create(), jwkSetUri, Duration.ofMillis(atualizacaoMs),
+                Duration.ofMillis(atualizacaoMinimaMs), Duration.ofMillis(esperaMs), registry);
+    }
+
+    @Bean
+    public ReactiveJwtDecoder jwtDecoder(
+            ChavesJwks chaves,
+            @Value("${spring.security.oauth2.resourceserver.jwt.issuer-uri}") String emissor,
+            @Value("${gateway.jwt.cache.ttl-maximo-ms}") long ttlMaximoMs,
+            @Value("${gateway.jwt.cache.tamanho-maximo}") long tamanhoMaximo,
+            MeterRegistry registry) {
+        var cache = new DecodificadorJwtCache(chaves.decodificador(emissor), Duration.ofMillis(ttlMaximoMs),
+                tamanhoMaximo, registry);
+        chaves.aoRemoverChaves(cache::invalidar);
+        return cache;
+    }
+}
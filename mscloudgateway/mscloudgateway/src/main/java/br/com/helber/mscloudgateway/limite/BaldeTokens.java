@@ -0,0 +1,36 @@
+package br.com.helber.mscloudgateway.limite;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token bucket na forma GCRA: o estado e so o instante teorico em que o balde volta a ficar cheio,
+ * atualizado com um CAS, sem lock. Com capacidade {@code rajada} e um token a cada {@code intervalo},
+ * uma requisicao passa se, depois de somar o seu intervalo, o balde nao ficar mais de
+ * {@code rajada * intervalo} no futuro.
+ */
+final class BaldeTokens {
+
+    private final AtomicLong cheioEm;
+
+    BaldeTokens(long agora) {
+        this.cheioEm = new AtomicLong(agora);
+    }
+
+    /**
+     * @return tokens que sobraram (>= 0) se a requisicao passou, ou menos os nanos ate haver um token
+     * (< 0) se foi recusada
+     */
+    long consumir(long agora, long intervaloNanos, long capacidadeNanos) {
+        while (true) {
+            long atual = cheioEm.get();
+            long novo = Math.max(atual, agora) + intervaloNanos;
+            long ocupado = novo - agora;
+            if (ocupado > capacidadeNanos) {
+                return -(ocupado - capacidadeNanos);
+            }
+            if (cheioEm.compareAndSet(atual, novo)) {
+                return (capacidadeNanos - ocupado) / intervaloNanos;
+            }
+        }
+    }
+}
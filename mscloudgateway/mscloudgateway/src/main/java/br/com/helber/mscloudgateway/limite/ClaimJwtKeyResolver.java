@@ -0,0 +1,50 @@
+package br.com.helber.mscloudgateway.limite;
+
+import org.springframework.cloud.gateway.filter.ratelimit.KeyResolver;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.net.InetSocketAddress;
+import java.security.Principal;
+import java.util.List;
+
+/**
+ * Chave do limite de taxa: o primeiro claim presente do JWT validado pelo resource server (por
+ * padrao o client id, {@code azp}/{@code client_id}, e depois o {@code sub}). Sem token, o nome do
+ * principal ou o IP de origem.
+ */
+public class ClaimJwtKeyResolver implements KeyResolver {
+
+    private final List<String> claims;
+
+    public ClaimJwtKeyResolver(List<String> claims) {
+        this.claims = claims;
+    }
+
+    @Override
+    public Mono<String> resolve(ServerWebExchange exchange) {
+        return exchange.getPrincipal()
+                .map(this::chave)
+                .switchIfEmpty(Mono.fromSupplier(() -> origem(exchange)));
+    }
+
+    private String chave(Principal principal) {
+        if (principal instanceof JwtAuthenticationToken) {
+            var jwt = ((JwtAuthenticationToken) principal).getToken();
+            for (String claim : claims) {
+                String valor = jwt.getClaimAsString(claim);
+                if (valor != null && !valor.isEmpty()) {
+                    return claim + ":" + valor;
+                }
+            }
+        }
+        return "principal:" + principal.getName();
+    }
+
+    private static String origem(ServerWebExchange exchange) {
+        InetSocketAddress remoto = exchange.getRequest().getRemoteAddress();
+        return "ip:" + (remoto == null ? "" : remoto.getAddress() == null ? remoto.getHostString()
+                : remoto.getAddress().getHostAddress());
+    }
+}
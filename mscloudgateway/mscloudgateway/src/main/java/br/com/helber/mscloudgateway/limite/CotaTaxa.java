@@ -0,0 +1,41 @@
+package br.com.helber.mscloudgateway.limite;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Requisicoes por segundo sustentadas ({@code taxa}) e quantas podem chegar de uma vez com o balde
+ * cheio ({@code rajada}).
+ */
+public final class CotaTaxa {
+
+    private final double taxa;
+    private final int rajada;
+    private final long intervaloNanos;
+    private final long capacidadeNanos;
+
+    public CotaTaxa(double taxa, int rajada) {
+        if (taxa <= 0 || rajada < 1) {
+            throw new IllegalArgumentException("Cota invalida: taxa " + taxa + ", rajada " + rajada);
+        }
+        this.taxa = taxa;
+        this.rajada = rajada;
+        this.intervaloNanos = Math.max(1, Math.round(TimeUnit.SECONDS.toNanos(1) / taxa));
+        this.capacidadeNanos = intervaloNanos * rajada;
+    }
+
+    public double taxa() {
+        return taxa;
+    }
+
+    public int rajada() {
+        return rajada;
+    }
+
+    long intervaloNanos() {
+        return intervaloNanos;
+    }
+
+    long capacidadeNanos() {
+        return capacidadeNanos;
+    }
+}
@@ -0,0 +1,125 @@
+package br.com.helber.mscloudgateway.limite;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.NettyWriteResponseFilter;
+import org.springframework.cloud.gateway.filter.ratelimit.KeyResolver;
+import org.springframework.core.Ordered;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Limite de taxa local de uma rota, com um {@link BaldeTokens} por chave do {@link KeyResolver}. Acima
+ * da cota responde 429 com {@code Retry-After} sem chamar o servico.
+ * <p>
+ * Um balde parado por mais que o tempo de enche-lo ja esta cheio, entao descarta-lo por ociosidade nao
+ * muda a decisao seguinte; a ociosidade configurada nunca fica abaixo desse tempo.
+ * <p>
+ * O {@code tamanhoMaximo} so limita a memoria e nunca descarta um balde em uso: descartar devolveria o
+ * balde cheio a um cliente ja limitado, e quem inundasse o mapa de chaves novas zeraria a cota dos demais.
+ * Com o mapa cheio, uma chave nova recebe 429 ate algum balde ficar ocioso.
+ */
+public class LimiteTaxaFilter implements GatewayFilter, Ordered {
+
+    public static final String CABECALHO_RESTANTES = "X-RateLimit-Remaining";
+
+    /** Resultado de {@link #consumir} para chave nova com o mapa de baldes cheio. */
+    static final long LOTADO = Long.MIN_VALUE;
+
+    private final CotaTaxa cota;
+    private final KeyResolver chaves;
+    private final Cache<String, BaldeTokens> baldes;
+    private final long tamanhoMaximo;
+    private final LongSupplier relogio;
+    private final Counter permitidas;
+    private final Counter rejeitadas;
+    private final Counter lotadas;
+
+    public LimiteTaxaFilter(String rota, CotaTaxa cota, KeyResolver chaves, Duration ociosidade, long tamanhoMaximo,
+                            MeterRegistry registry) {
+        this(rota, cota, chaves, ociosidade, tamanhoMaximo, registry, System::nanoTime);
+    }
+
+    LimiteTaxaFilter(String rota, CotaTaxa cota, KeyResolver chaves, Duration ociosidade, long tamanhoMaximo,
+                     MeterRegistry registry, LongSupplier relogio) {
+        this.cota = cota;
+        this.chaves = chaves;
+        this.baldes = Caffeine.newBuilder()
+                .expireAfterAccess(Math.max(ociosidade.toNanos(), cota.capacidadeNanos()), TimeUnit.NANOSECONDS)
+                .ticker(relogio::getAsLong)
+                .build();
+        this.tamanhoMaximo = tamanhoMaximo;
+        this.relogio = relogio;
+        this.permitidas = Counter.builder("gateway.limite-taxa.requisicoes")
+                .tag("rota", rota).tag("resultado", "permitida").register(registry);
+        this.rejeitadas = Counter.builder("gateway.limite-taxa.requisicoes")
+                .tag("rota", rota).tag("resultado", "rejeitada").register(registry);
+        this.lotadas = Counter.builder("gateway.limite-taxa.requisicoes")
+                .tag("rota", rota).tag("resultado", "lotada").register(registry);
+        registry.gauge("gateway.limite-taxa.baldes", Tags.of("rota", rota), baldes, Cache::estimatedSize);
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, GatewayFilterChain chain) {
+        return chaves.resolve(exchange)
+                .defaultIfEmpty("")
+                .flatMap(chave -> {
+                    long resultado = consumir(chave);
+                    ServerHttpResponse response = exchange.getResponse();
+                    if (resultado < 0) {
+                        (resultado == LOTADO ? lotadas : rejeitadas).increment();
+                        response.setStatusCode(HttpStatus.TOO_MANY_REQUESTS);
+                        response.getHeaders().set(HttpHeaders.RETRY_AFTER,
+                                resultado == LOTADO ? "1" : String.valueOf(segundos(-resultado)));
+                        response.getHeaders().set(CABECALHO_RESTANTES, "0");
+                        return response.setComplete();
+                    }
+                    permitidas.increment();
+                    response.getHeaders().set(CABECALHO_RESTANTES, String.valueOf(resultado));
+                    return chain.filter(exchange);
+                });
+    }
+
+    /** Antes do cache e da coalescencia: a cota vale para toda requisicao que chega a rota. */
+    @Override
+    public int getOrder() {
+        return NettyWriteResponseFilter.WRITE_RESPONSE_FILTER_ORDER - 3;
+    }
+
+    long consumir(String chave) {
+        long agora = relogio.getAsLong();
+        BaldeTokens balde = baldes.getIfPresent(chave);
+        if (balde == null) {
+            if (lotado()) {
+                return LOTADO;
+            }
+            balde = baldes.get(chave, c -> new BaldeTokens(agora));
+        }
+        return balde.consumir(agora, cota.intervaloNanos(), cota.capacidadeNanos());
+    }
+
+    /** Antes de recusar, tira do mapa os baldes ja ociosos que a manutencao do cache ainda nao removeu. */
+    private boolean lotado() {
+        if (baldes.estimatedSize() < tamanhoMaximo) {
+            return false;
+        }
+        baldes.cleanUp();
+        return baldes.estimatedSize() >= tamanhoMaximo;
+    }
+
+    private static long segundos(long nanos) {
+        return Math.max(1, (nanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+    }
+}
@@ -0,0 +1,49 @@
+package br.com.helber.mscloudgateway.limite;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.cloud.gateway.filter.ratelimit.KeyResolver;
+import org.springframework.core.env.Environment;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Um {@link LimiteTaxaFilter} por rota. A cota vem de {@code gateway.limite-taxa.rotas.<rota>.*}, com
+ * {@code gateway.limite-taxa.padrao.*} para o que a rota nao definir.
+ */
+public class LimitesTaxa {
+
+    private static final String PREFIXO = "gateway.limite-taxa.";
+
+    private final ConcurrentMap<String, LimiteTaxaFilter> porRota = new ConcurrentHashMap<>();
+    private final Environment environment;
+    private final KeyResolver chaves;
+    private final MeterRegistry registry;
+
+    public LimitesTaxa(Environment environment, KeyResolver chaves, MeterRegistry registry) {
+        this.environment = environment;
+        this.chaves = chaves;
+        this.registry = registry;
+    }
+
+    public LimiteTaxaFilter filtro(String rota) {
+        return porRota.computeIfAbsent(rota, this::criar);
+    }
+
+    CotaTaxa cota(String rota) {
+        return new CotaTaxa(propriedade(rota, "taxa", Double.class), propriedade(rota, "rajada", Integer.class));
+    }
+
+    private LimiteTaxaFilter criar(String rota) {
+        long ociosidadeMs = environment.getRequiredProperty(PREFIXO + "ociosidade-ms", Long.class);
+        long tamanhoMaximo = environment.getRequiredProperty(PREFIXO + "tamanho-maximo", Long.class);
+        return new LimiteTaxaFilter(rota, cota(rota), chaves, Duration.ofMillis(ociosidadeMs), tamanhoMaximo,
+                registry);
+    }
+
+    private <T> T propriedade(String rota, String nome, Class<T> tipo) {
+        T valor = environment.getProperty(PREFIXO + "rotas." + rota + "." + nome, tipo);
+        return valor != null ? valor : environment.getRequiredProperty(PREFIXO + "padrao." + nome, tipo);
+    }
+}
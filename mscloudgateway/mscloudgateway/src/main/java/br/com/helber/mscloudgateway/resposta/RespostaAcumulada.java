@@ -0,0 +1,95 @@
+package br.com.helber.mscloudgateway.resposta;
+
+import org.reactivestreams.Publisher;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DataBufferUtils;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.http.server.reactive.ServerHttpResponseDecorator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+
+/**
+ * Resposta que junta o corpo em memoria ate {@code tamanhoMaximoCorpo}, contando os bytes conforme
+ * chegam, para que o filtro guarde ou reparta a copia. Usada pelo cache de respostas e pela coalescencia.
+ * <p>
+ * O primeiro lote so sai antes do fim do corpo quando o limite estoura (ou o {@code Content-Length} ja
+ * passa dele); nesse caso {@link #emStreaming()} e avisado e o corpo segue para o cliente como veio.
+ * Os buffers juntados sao liberados aqui; quem recebe o corpo fica so com o {@code byte[]}.
+ */
+public abstract class RespostaAcumulada extends ServerHttpResponseDecorator {
+
+    /** Cabecalhos da conexao original, que nao valem para quem recebe uma copia do corpo. */
+    private static final List<String> CABECALHOS_DE_CONEXAO = List.of(HttpHeaders.CONTENT_LENGTH,
+            HttpHeaders.TRANSFER_ENCODING, HttpHeaders.CONNECTION, HttpHeaders.SET_COOKIE);
+
+    private final int tamanhoMaximoCorpo;
+
+    protected RespostaAcumulada(ServerHttpResponse delegate, int tamanhoMaximoCorpo) {
+        super(delegate);
+        this.tamanhoMaximoCorpo = tamanhoMaximoCorpo;
+    }
+
+    /** Se esta resposta deve ser juntada; as demais seguem direto, sem aviso. */
+    protected boolean acumular() {
+        return true;
+    }
+
+    /** O corpo passou do limite ou falhou e vai seguir em streaming. */
+    protected abstract void emStreaming();
+
+    /** O corpo inteiro, dentro do limite; cabe a implementacao escrever a resposta. */
+    protected abstract Mono<Void> concluir(byte[] corpo);
+
+    @Override
+    public final Mono<Void> writeWith(Publisher<? extends DataBuffer> body) {
+        if (!acumular()) {
+            return super.writeWith(body);
+        }
+        if (getHeaders().getContentLength() > tamanhoMaximoCorpo) {
+            emStreaming();
+            return super.writeWith(body);
+        }
+        int[] acumulado = {0};
+        return Flux.<DataBuffer>from(body)
+                .bufferUntil(buffer -> (acumulado[0] += buffer.readableByteCount()) > tamanhoMaximoCorpo)
+                .switchOnFirst((primeiro, lotes) -> {
+                    if (primeiro.isOnError() || acumulado[0] > tamanhoMaximoCorpo) {
+                        emStreaming();
+                        return super.writeWith(lotes.concatMapIterable(lote -> lote));
+                    }
+                    byte[] corpo = juntar(primeiro.hasValue() ? primeiro.get() : List.of(), acumulado[0]);
+                    return lotes.then(Mono.defer(() -> concluir(corpo)));
+                })
+                .then();
+    }
+
+    /** Escreve o corpo juntado de uma vez, com {@code Content-Length} no lugar do chunked. */
+    protected Mono<Void> escreverCorpo(byte[] corpo) {
+        getHeaders().remove(HttpHeaders.TRANSFER_ENCODING);
+        getHeaders().setContentLength(corpo.length);
+        return super.writeWith(Mono.just(bufferFactory().wrap(corpo)));
+    }
+
+    /** Copia dos cabecalhos sem os {@link #CABECALHOS_DE_CONEXAO}. */
+    public static HttpHeaders cabecalhosReutilizaveis(HttpHeaders origem) {
+        var cabecalhos = new HttpHeaders();
+        cabecalhos.putAll(origem);
+        CABECALHOS_DE_CONEXAO.forEach(cabecalhos::remove);
+        return cabecalhos;
+    }
+
+    private static byte[] juntar(List<DataBuffer> buffers, int tamanho) {
+        byte[] corpo = new byte[tamanho];
+        int posicao = 0;
+        for (DataBuffer buffer : buffers) {
+            int lidos = buffer.readableByteCount();
+            buffer.read(corpo, posicao, lidos);
+            posicao += lidos;
+            DataBufferUtils.release(buffer);
+        }
+        return corpo;
+    }
+}
@@ -0,0 +1,183 @@
+package br.com.helber.mscloudgateway.autenticacao;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+import com.sun.net.httpserver.HttpServer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.oauth2.jwt.BadJwtException;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.ReactiveJwtDecoder;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BooleanSupplier;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ChavesJwksTest {
+
+    static final String EMISSOR = "http://emissor.local/realms/teste";
+
+    private static RSAKey chaveAtual;
+    private static RSAKey chaveNova;
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final AtomicReference<String> publicadas = new AtomicReference<>();
+    private final AtomicInteger buscas = new AtomicInteger();
+    private final AtomicInteger statusResposta = new AtomicInteger(200);
+    private final long[] agora = {0};
+    private HttpServer servidor;
+    private ChavesJwks chaves;
+
+    @BeforeAll
+    static void gerarChaves() throws JOSEException {
+        chaveAtual = new RSAKeyGenerator(2048).keyID("chave-atual").generate();
+        chaveNova = new RSAKeyGenerator(2048).keyID("chave-nova").generate();
+    }
+
+    @BeforeEach
+    void setUp() throws IOException {
+        publicar(chaveAtual);
+        servidor = HttpServer.create(new InetSocketAddress("localhost", 0), 0);
+        servidor.createContext("/certs", troca -> {
+            buscas.incrementAndGet();
+            byte[] corpo = publicadas.get().getBytes(StandardCharsets.UTF_8);
+            troca.getResponseHeaders().set("Content-Type", "application/json");
+            troca.sendResponseHeaders(statusResposta.get(), corpo.length);
+            troca.getResponseBody().write(corpo);
+            troca.close();
+        });
+        servidor.start();
+        chaves = new ChavesJwks(WebClient.create(),
+                "http://localhost:" + servidor.getAddress().getPort() + "/certs",
+                Duration.ofMinutes(5), Duration.ofSeconds(30), Duration.ofSeconds(2), registry, () -> agora[0]);
+    }
+
+    @AfterEach
+    void tearDown() {
+        chaves.stop();
+        servidor.stop(0);
+    }
+
+    @Test
+    void startBuscaAsChavesEVerificaLocalmente() throws JOSEException {
+        chaves.start();
+        ReactiveJwtDecoder decodificador = chaves.decodificador(EMISSOR);
+
+        Jwt jwt = decodificador.decode(token(chaveAtual, Instant.now().plusSeconds(60))).block();
+        decodificador.decode(token(chaveAtual, Instant.now().plusSeconds(60))).block();
+
+        assertEquals("usuario", jwt.getSubject());
+        assertEquals(1, buscas.get());
+        assertEquals(1, registry.get("gateway.jwt.jwks.chaves").gauge().value());
+    }
+
+    @Test
+    void kidDesconhecidoFalhaNaHoraEAtualizaEmSegundoPlano() throws Exception {
+        chaves.start();
+        ReactiveJwtDecoder decodificador = chaves.decodificador(EMISSOR);
+        publicar(chaveAtual, chaveNova);
+        String tokenNovo = token(chaveNova, Instant.now().plusSeconds(60));
+
+        assertThrows(BadJwtException.class, () -> decodificador.decode(tokenNovo).block());
+        aguardar(() -> chaves.quantidade() == 2);
+
+        assertEquals("usuario", decodificador.decode(tokenNovo).block().getSubject());
+        assertEquals(2, buscas.get());
+    }
+
+    @Test
+    void atualizacaoForcadaRespeitaOIntervaloMinimo() throws Exception {
+        chaves.start();
+        ReactiveJwtDecoder decodificador = chaves.decodificador(EMISSOR);
+        String tokenNovo = token(chaveNova, Instant.now().plusSeconds(60));
+
+        assertThrows(BadJwtException.class, () -> decodificador.decode(tokenNovo).block());
+        aguardar(() -> buscas.get() == 2);
+        agora[0] += TimeUnit.SECONDS.toNanos(29);
+        assertThrows(BadJwtException.class, () -> decodificador.decode(tokenNovo).block());
+        Thread.sleep(100);
+        assertEquals(2, buscas.get());
+
+        agora[0] += TimeUnit.SECONDS.toNanos(1);
+        assertThrows(BadJwtException.class, () -> decodificador.decode(tokenNovo).block());
+        aguardar(() -> buscas.get() == 3);
+    }
+
+    @Test
+    void falhaNaBuscaMantemAsChavesAnteriores() throws JOSEException {
+        chaves.start();
+        statusResposta.set(500);
+
+        chaves.atualizar().block();
+
+        assertEquals(1, chaves.quantidade());
+        assertEquals(1, registry.get("gateway.jwt.jwks.atualizacoes").tag("resultado", "falha").counter().count());
+        String token = token(chaveAtual, Instant.now().plusSeconds(60));
+        assertNotNull(chaves.decodificador(EMISSOR).decode(token).block());
+    }
+
+    @Test
+    void remocaoDeChaveAvisaOsOuvintes() {
+        var avisos = new AtomicInteger();
+        chaves.aoRemoverChaves(avisos::incrementAndGet);
+        chaves.start();
+
+        publicar(chaveAtual, chaveNova);
+        chaves.atualizar().block();
+        assertEquals(0, avisos.get());
+
+        publicar(chaveNova);
+        chaves.atualizar().block();
+        assertEquals(1, avisos.get());
+    }
+
+    static String token(RSAKey chave, Instant expiracao) throws JOSEException {
+        var jwt = new SignedJWT(new JWSHeader.Builder(JWSAlgorithm.RS256).keyID(chave.getKeyID()).build(),
+                new JWTClaimsSet.Builder()
+                        .issuer(EMISSOR)
+                        .subject("usuario")
+                        .claim("azp", "parceiro")
+                        .issueTime(new Date())
+                        .expirationTime(Date.from(expiracao))
+                        .build());
+        jwt.sign(new RSASSASigner(chave));
+        return jwt.serialize();
+    }
+
+    private void publicar(RSAKey... chavesPublicadas) {
+        var publicas = new JWKSet(Arrays.stream(chavesPublicadas)
+                .map(RSAKey::toPublicJWK)
+                .collect(Collectors.toList()));
+        publicadas.set(publicas.toString());
+    }
+
+    private static void aguardar(BooleanSupplier condicao) throws InterruptedException {
+        long limite = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condicao.getAsBoolean() && System.nanoTime() < limite) {
+            Thread.sleep(10);
+        }
+        assertTrue(condicao.getAsBoolean());
+    }
+}
@@ -0,0 +1,180 @@
+package br.com.helber.mscloudgateway.autenticacao;
+
+import com.github.benmanes.caffeine.cache.Ticker;
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.jwt.JwtException;
+import org.springframework.security.oauth2.jwt.JwtValidators;
+import org.springframework.security.oauth2.jwt.NimbusReactiveJwtDecoder;
+import org.springframework.security.oauth2.jwt.ReactiveJwtDecoder;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static br.com.helber.mscloudgateway.autenticacao.ChavesJwksTest.EMISSOR;
+import static br.com.helber.mscloudgateway.autenticacao.ChavesJwksTest.token;
+import static org.junit.jupiter.api.Assertions.*;
+
+class DecodificadorJwtCacheTest {
+
+    private static RSAKey chave;
+    private static RSAKey outraChave;
+    private static ReactiveJwtDecoder verificador;
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final RelogioFalso relogio = new RelogioFalso(Instant.now());
+    private final AtomicInteger verificacoes = new AtomicInteger();
+    private final ReactiveJwtDecoder contado = token -> {
+        verificacoes.incrementAndGet();
+        return verificador.decode(token);
+    };
+
+    @BeforeAll
+    static void gerarChaves() throws JOSEException {
+        chave = new RSAKeyGenerator(2048).keyID("chave").generate();
+        outraChave = new RSAKeyGenerator(2048).keyID("chave").generate();
+        var nimbus = NimbusReactiveJwtDecoder.withPublicKey(chave.toRSAPublicKey()).build();
+        nimbus.setJwtValidator(JwtValidators.createDefaultWithIssuer(EMISSOR));
+        verificador = nimbus;
+    }
+
+    @Test
+    void tokenRepetidoNaoEVerificadoDeNovo() throws JOSEException {
+        var cache = cache(Duration.ofMinutes(5));
+        String token = token(chave, relogio.instant().plusSeconds(300));
+
+        Jwt primeiro = cache.decode(token).block();
+        Jwt segundo = cache.decode(token).block();
+
+        assertEquals(primeiro, segundo);
+        assertEquals(1, verificacoes.get());
+        assertEquals(1, contador("cache"));
+        assertEquals(1, contador("verificado"));
+    }
+
+    @Test
+    void entradaExpiraNoExpDoToken() throws JOSEException {
+        var cache = cache(Duration.ofMinutes(5));
+        String token = token(chave, relogio.instant().plusSeconds(60));
+        cache.decode(token).block();
+
+        relogio.avancar(Duration.ofSeconds(59));
+        cache.decode(token).block();
+        assertEquals(1, verificacoes.get());
+
+        relogio.avancar(Duration.ofSeconds(2));
+        cache.decode(token).block();
+        assertEquals(2, verificacoes.get());
+    }
+
+    @Test
+    void ttlMaximoLimitaTokensLongos() throws JOSEException {
+        var cache = cache(Duration.ofMinutes(5));
+        String token = token(chave, relogio.instant().plusSeconds(3600));
+        cache.decode(token).block();
+
+        relogio.avancar(Duration.ofMinutes(5).plusSeconds(1));
+        cache.decode(token).block();
+
+        assertEquals(2, verificacoes.get());
+    }
+
+    @Test
+    void tokenInvalidoNaoFicaNoCache() throws JOSEException {
+        var cache = cache(Duration.ofMinutes(5));
+        String forjado = token(outraChave, relogio.instant().plusSeconds(300));
+
+        assertThrows(JwtException.class, () -> cache.decode(forjado).block());
+        assertThrows(JwtException.class, () -> cache.decode(forjado).block());
+
+        assertEquals(2, verificacoes.get());
+        assertEquals(0, registry.get("gateway.jwt.cache.entradas").gauge().value());
+    }
+
+    @Test
+    void requisicoesSimultaneasCompartilhamAVerificacao() throws JOSEException {
+        Sinks.One<Jwt> resultado = Sinks.one();
+        ReactiveJwtDecoder lento = token -> {
+            verificacoes.incrementAndGet();
+            return resultado.asMono();
+        };
+        var cache = new DecodificadorJwtCache(lento, Duration.ofMinutes(5), 1000, registry, relogio, relogio);
+        String token = token(chave, relogio.instant().plusSeconds(300));
+
+        Mono<Jwt> primeira = cache.decode(token);
+        Mono<Jwt> segunda = cache.decode(token);
+        Jwt jwt = verificador.decode(token).block();
+        resultado.tryEmitValue(jwt);
+
+        assertEquals(jwt, primeira.block());
+        assertEquals(jwt, segunda.block());
+        assertEquals(1, verificacoes.get());
+    }
+
+    @Test
+    void invalidarEsvaziaOCache() throws JOSEException {
+        var cache = cache(Duration.ofMinutes(5));
+        String token = token(chave, relogio.instant().plusSeconds(300));
+        cache.decode(token).block();
+
+        cache.invalidar();
+        cache.decode(token).block();
+
+        assertEquals(2, verificacoes.get());
+    }
+
+    private DecodificadorJwtCache cache(Duration ttlMaximo) {
+        return new DecodificadorJwtCache(contado, ttlMaximo, 1000, registry, relogio, relogio);
+    }
+
+    private double contador(String resultado) {
+        return registry.get("gateway.jwt.validacoes").tag("resultado", resultado).counter().count();
+    }
+
+    /** Mesmo tempo para o {@code exp} (Clock) e para a expiracao do Caffeine (Ticker). */
+    private static final class RelogioFalso extends Clock implements Ticker {
+
+        private final Instant inicio;
+        private final AtomicLong decorrido = new AtomicLong();
+
+        RelogioFalso(Instant inicio) {
+            this.inicio = inicio;
+        }
+
+        void avancar(Duration duracao) {
+            decorrido.addAndGet(duracao.toNanos());
+        }
+
+        @Override
+        public long read() {
+            return decorrido.get();
+        }
+
+        @Override
+        public Instant instant() {
+            return inicio.plusNanos(decorrido.get());
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+    }
+}
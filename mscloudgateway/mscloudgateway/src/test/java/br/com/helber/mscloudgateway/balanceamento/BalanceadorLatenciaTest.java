@@ -0,0 +1,164 @@
+package br.com.helber.mscloudgateway.balanceamento;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.cloud.client.DefaultServiceInstance;
+import org.springframework.cloud.client.ServiceInstance;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerLifecycle;
+import org.springframework.cloud.client.loadbalancer.LoadBalancerProperties;
+import org.springframework.cloud.gateway.config.GatewayLoadBalancerProperties;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.ReactiveLoadBalancerClientFilter;
+import org.springframework.cloud.loadbalancer.core.ReactorServiceInstanceLoadBalancer;
+import org.springframework.cloud.loadbalancer.core.ServiceInstanceListSupplier;
+import org.springframework.cloud.loadbalancer.support.LoadBalancerClientFactory;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.net.URI;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+import static org.springframework.cloud.gateway.support.ServerWebExchangeUtils.GATEWAY_REQUEST_URL_ATTR;
+
+/**
+ * Passa pelo {@link ReactiveLoadBalancerClientFilter} das rotas {@code lb://}, que e quem chama o
+ * balanceador e os lifecycles no gateway. A cadeia e montada antes da escolha da instancia, por isso o
+ * servico simulado adia o trabalho com {@code Mono.defer}.
+ */
+class BalanceadorLatenciaTest {
+
+    private static final String SERVICO = "mscartoes";
+
+    private final List<ServiceInstance> instancias = new ArrayList<>();
+    private final EstatisticasInstancias estatisticas = new EstatisticasInstancias(10_000, 50, 1_000, () -> 0);
+    private ReactiveLoadBalancerClientFilter filtro;
+
+    @BeforeEach
+    void setUp() {
+        var beanFactory = new DefaultListableBeanFactory();
+        beanFactory.registerSingleton("fornecedor", new ServiceInstanceListSupplier() {
+            @Override
+            public String getServiceId() {
+                return SERVICO;
+            }
+
+            @Override
+            public Flux<List<ServiceInstance>> get() {
+                return Flux.defer(() -> Flux.just(List.copyOf(instancias)));
+            }
+        });
+        var balanceador = new BalanceadorLatencia(beanFactory.getBeanProvider(ServiceInstanceListSupplier.class),
+                SERVICO, estatisticas);
+
+        var clientFactory = mock(LoadBalancerClientFactory.class);
+        when(clientFactory.getInstance(SERVICO, ReactorServiceInstanceLoadBalancer.class)).thenReturn(balanceador);
+        Map<String, LoadBalancerLifecycle> lifecycles = Map.of("estatisticas",
+                new EstatisticasBalanceamentoLifecycle(estatisticas));
+        when(clientFactory.getInstances(SERVICO, LoadBalancerLifecycle.class)).thenReturn(lifecycles);
+        when(clientFactory.getProperties(SERVICO)).thenReturn(new LoadBalancerProperties());
+        filtro = new ReactiveLoadBalancerClientFilter(clientFactory, new GatewayLoadBalancerProperties());
+    }
+
+    private ServiceInstance instancia(String id) {
+        var instancia = new DefaultServiceInstance(id, SERVICO, "localhost", 8000 + instancias.size(), false);
+        instancias.add(instancia);
+        return instancia;
+    }
+
+    private MockServerWebExchange exchange() {
+        var exchange = MockServerWebExchange.from(MockServerHttpRequest.get("http://localhost/cartoes"));
+        exchange.getAttributes().put(GATEWAY_REQUEST_URL_ATTR, URI.create("lb://" + SERVICO + "/cartoes"));
+        return exchange;
+    }
+
+    private static int porta(ServerWebExchange exchange) {
+        URI destino = exchange.getAttribute(GATEWAY_REQUEST_URL_ATTR);
+        return destino.getPort();
+    }
+
+    @Test
+    void lifecycleRegistraALatenciaDaRequisicaoRoteada() {
+        var instancia = instancia("unica");
+        var emVooDuranteChamada = new AtomicInteger(-1);
+        GatewayFilterChain servico = exchange -> Mono.defer(() -> {
+            emVooDuranteChamada.set(estatisticas.emVoo(instancia));
+            return Mono.delay(Duration.ofMillis(80)).then();
+        });
+
+        var exchange = exchange();
+        filtro.filter(exchange, servico).block();
+
+        assertEquals(instancia.getPort(), porta(exchange));
+        assertEquals(1, emVooDuranteChamada.get());
+        assertEquals(0, estatisticas.emVoo(instancia));
+        double custo = estatisticas.custo(instancia);
+        assertTrue(custo >= TimeUnit.MILLISECONDS.toNanos(80), "custo: " + custo);
+        assertTrue(custo < TimeUnit.MILLISECONDS.toNanos(1_000), "custo: " + custo);
+    }
+
+    @Test
+    void falhaNaRotaRegistraAPenalidade() {
+        var instancia = instancia("unica");
+        GatewayFilterChain servico = exchange -> Mono.error(new IllegalStateException("conexao recusada"));
+
+        assertThrows(IllegalStateException.class, () -> filtro.filter(exchange(), servico).block());
+
+        assertEquals(0, estatisticas.emVoo(instancia));
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(1_000), estatisticas.custo(instancia), 1);
+    }
+
+    @Test
+    void rotaPassaAIrParaAInstanciaMaisRapida() {
+        var lenta = instancia("lenta");
+        var rapida = instancia("rapida");
+        var atendidasPelaLenta = new AtomicInteger();
+        GatewayFilterChain servico = exchange -> Mono.defer(() -> {
+            if (porta(exchange) == lenta.getPort()) {
+                atendidasPelaLenta.incrementAndGet();
+                return Mono.delay(Duration.ofMillis(100)).then();
+            }
+            return Mono.delay(Duration.ofMillis(5)).then();
+        });
+
+        var ultimas = new ArrayList<Integer>();
+        for (int i = 0; i < 10; i++) {
+            var exchange = exchange();
+            filtro.filter(exchange, servico).block();
+            if (i >= 5) {
+                ultimas.add(porta(exchange));
+            }
+        }
+
+        assertTrue(atendidasPelaLenta.get() <= 1, "lenta atendeu " + atendidasPelaLenta.get());
+        assertEquals(List.of(rapida.getPort(), rapida.getPort(), rapida.getPort(), rapida.getPort(),
+                rapida.getPort()), ultimas);
+        assertTrue(estatisticas.custo(rapida) < estatisticas.custo(lenta));
+    }
+
+    @Test
+    void instanciaQueSaiDoDiscoveryEEsquecida() {
+        var saiu = instancia("saiu");
+        GatewayFilterChain servico = exchange -> Mono.defer(() -> Mono.delay(Duration.ofMillis(80)).then());
+        filtro.filter(exchange(), servico).block();
+        assertTrue(estatisticas.custo(saiu) >= TimeUnit.MILLISECONDS.toNanos(80));
+
+        instancias.remove(saiu);
+        var nova = instancia("nova");
+        var exchange = exchange();
+        filtro.filter(exchange, servico).block();
+
+        assertEquals(nova.getPort(), porta(exchange));
+        assertEquals(TimeUnit.MILLISECONDS.toNanos(50), estatisticas.custo(saiu), 1);
+    }
+}
@@ -0,0 +1,186 @@
+package br.com.helber.mscloudgateway.cache;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.publisher.Flux;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CacheRespostaFilterTest {
+
+    private static final String CORPO = "[{\"nome\":\"Basico\",\"bandeira\":\"VISA\"}]";
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final AtomicInteger chamadas = new AtomicInteger();
+    private CacheRespostaFilter filtro;
+    private HttpStatus statusServico;
+    private Runnable duranteChamada;
+    private List<String> partesCorpo;
+
+    @BeforeEach
+    void setUp() {
+        filtro = new CacheRespostaFilter("cartoes-cliente", Duration.ofMinutes(1), 100, 1024, registry);
+        statusServico = HttpStatus.OK;
+        duranteChamada = () -> {};
+        partesCorpo = List.of(CORPO);
+    }
+
+    @Test
+    void segundaConsultaNaoChegaAoServico() {
+        var primeira = executar(MockServerHttpRequest.get("/cartoes?cpf=1"));
+        var segunda = executar(MockServerHttpRequest.get("/cartoes?cpf=1"));
+
+        assertEquals(1, chamadas.get());
+        assertEquals(CORPO, segunda.getResponse().getBodyAsString().block());
+        assertEquals(MediaType.APPLICATION_JSON, segunda.getResponse().getHeaders().getContentType());
+        assertEquals(primeira.getResponse().getHeaders().getETag(), segunda.getResponse().getHeaders().getETag());
+        assertEquals(CacheRespostaFilter.etag(CORPO.getBytes(StandardCharsets.UTF_8)),
+                segunda.getResponse().getHeaders().getETag());
+        assertEquals(1, contador("hit"));
+        assertEquals(1, contador("miss"));
+    }
+
+    @Test
+    void ifNoneMatchIgualRecebe304() {
+        String etag = executar(MockServerHttpRequest.get("/cartoes?cpf=1")).getResponse().getHeaders().getETag();
+
+        var revalidacao = executar(MockServerHttpRequest.get("/cartoes?cpf=1").header(HttpHeaders.IF_NONE_MATCH, etag));
+        var alterada = executar(MockServerHttpRequest.get("/cartoes?cpf=1").header(HttpHeaders.IF_NONE_MATCH, "\"x\""));
+
+        assertEquals(HttpStatus.NOT_MODIFIED, revalidacao.getResponse().getStatusCode());
+        assertEquals("", revalidacao.getResponse().getBodyAsString().defaultIfEmpty("").block());
+        assertEquals(etag, revalidacao.getResponse().getHeaders().getETag());
+        assertEquals(HttpStatus.OK, alterada.getResponse().getStatusCode());
+        assertEquals(1, chamadas.get());
+    }
+
+    @Test
+    void ifNoneMatchIgualRecebe304MesmoSemEntradaNoCache() {
+        String etag = CacheRespostaFilter.etag(CORPO.getBytes(StandardCharsets.UTF_8));
+
+        var resposta = executar(MockServerHttpRequest.get("/cartoes?cpf=1").header(HttpHeaders.IF_NONE_MATCH, etag));
+
+        assertEquals(HttpStatus.NOT_MODIFIED, resposta.getResponse().getStatusCode());
+        assertEquals(1, chamadas.get());
+    }
+
+    @Test
+    void invalidacaoPorParametroSoDerrubaOCpfAlterado() {
+        executar(MockServerHttpRequest.get("/cartoes?cpf=1"));
+        executar(MockServerHttpRequest.get("/cartoes?cpf=2"));
+
+        filtro.invalidarCpf("cpf", "1");
+        executar(MockServerHttpRequest.get("/cartoes?cpf=1"));
+        executar(MockServerHttpRequest.get("/cartoes?cpf=2"));
+
+        assertEquals(3, chamadas.get());
+    }
+
+    @Test
+    void invalidacaoPorCpfDerrubaAConsultaComCpfFormatado() {
+        executar(MockServerHttpRequest.get("/cartoes?cpf=123.456.789-09"));
+        executar(MockServerHttpRequest.get("/cartoes?cpf=00000000001"));
+
+        filtro.invalidarCpf("cpf", "12345678909");
+        executar(MockServerHttpRequest.get("/cartoes?cpf=123.456.789-09"));
+        executar(MockServerHttpRequest.get("/cartoes?cpf=00000000001"));
+
+        assertEquals(3, chamadas.get());
+
+        filtro.invalidarCpf("cpf", "1");
+        executar(MockServerHttpRequest.get("/cartoes?cpf=00000000001"));
+
+        assertEquals(4, chamadas.get());
+    }
+
+    @Test
+    void buscaIniciadaAntesDaInvalidacaoNaoEntraNoCache() {
+        duranteChamada = filtro::invalidar;
+        executar(MockServerHttpRequest.get("/cartoes?cpf=1"));
+
+        duranteChamada = () -> {};
+        executar(MockServerHttpRequest.get("/cartoes?cpf=1"));
+        executar(MockServerHttpRequest.get("/cartoes?cpf=1"));
+
+        assertEquals(2, chamadas.get());
+    }
+
+    @Test
+    void representacoesDiferentesSaoEntradasDiferentes() {
+        executar(MockServerHttpRequest.get("/cartoes?cpf=1").accept(MediaType.APPLICATION_JSON));
+        executar(MockServerHttpRequest.get("/cartoes?cpf=1").accept(MediaType.parseMediaType("application/x-cartoes")));
+        executar(MockServerHttpRequest.get("/cartoes?cpf=1").accept(MediaType.APPLICATION_JSON));
+
+        assertEquals(2, chamadas.get());
+    }
+
+    @Test
+    void respostaDeErroNaoEntraNoCache() {
+        statusServico = HttpStatus.SERVICE_UNAVAILABLE;
+        executar(MockServerHttpRequest.get("/cartoes?cpf=1"));
+        executar(MockServerHttpRequest.get("/cartoes?cpf=1"));
+
+        assertEquals(2, chamadas.get());
+    }
+
+    @Test
+    void corpoEmPartesAcimaDoLimiteSegueInteiroSemEntrarNoCache() {
+        String parte = "x".repeat(400);
+        partesCorpo = List.of(parte, parte, parte, parte);
+
+        var primeira = executar(MockServerHttpRequest.get("/cartoes?cpf=1"));
+        var segunda = executar(MockServerHttpRequest.get("/cartoes?cpf=1"));
+
+        assertEquals(parte.repeat(4), primeira.getResponse().getBodyAsString().block());
+        assertNull(primeira.getResponse().getHeaders().getETag());
+        assertEquals(parte.repeat(4), segunda.getResponse().getBodyAsString().block());
+        assertEquals(2, chamadas.get());
+    }
+
+    @Test
+    void corpoEmPartesDentroDoLimiteEJuntadoECacheado() {
+        partesCorpo = List.of(CORPO.substring(0, 10), CORPO.substring(10));
+
+        var primeira = executar(MockServerHttpRequest.get("/cartoes?cpf=1"));
+        var segunda = executar(MockServerHttpRequest.get("/cartoes?cpf=1"));
+
+        assertEquals(CORPO, primeira.getResponse().getBodyAsString().block());
+        assertEquals(CORPO.length(), primeira.getResponse().getHeaders().getContentLength());
+        assertEquals(CORPO, segunda.getResponse().getBodyAsString().block());
+        assertEquals(1, chamadas.get());
+    }
+
+    private MockServerWebExchange executar(MockServerHttpRequest.BaseBuilder<?> request) {
+        var exchange = MockServerWebExchange.from(request);
+        filtro.filter(exchange, servico()).block();
+        return exchange;
+    }
+
+    private GatewayFilterChain servico() {
+        return exchange -> {
+            chamadas.incrementAndGet();
+            duranteChamada.run();
+            var response = exchange.getResponse();
+            response.setStatusCode(statusServico);
+            response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+            return response.writeWith(Flux.fromIterable(partesCorpo)
+                    .map(parte -> response.bufferFactory().wrap(parte.getBytes(StandardCharsets.UTF_8))));
+        };
+    }
+
+    private double contador(String resultado) {
+        return registry.get("gateway.cache.requisicoes").tag("resultado", resultado).counter().count();
+    }
+}
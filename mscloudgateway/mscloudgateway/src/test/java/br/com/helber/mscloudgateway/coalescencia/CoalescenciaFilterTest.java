@@ -0,0 +1,142 @@
+package br.com.helber.mscloudgateway.coalescencia;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.http.MediaType;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.nio.charset.StandardCharsets;
+import java.security.Principal;
+import java.util.ArrayList;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CoalescenciaFilterTest {
+
+    private static final String CORPO = "{\"cliente\":{\"nome\":\"Cliente\"},\"cartoes\":[]}";
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final AtomicInteger chamadas = new AtomicInteger();
+    private final Sinks.Empty<Void> liberar = Sinks.empty();
+    @Test
+    void requisicoesIdenticasCompartilhamUmaChamada() {
+        var filtro = filtro(10, 1024);
+
+        var exchanges = new ArrayList<MockServerWebExchange>();
+        var concluidas = new ArrayList<CompletableFuture<Void>>();
+        for (int i = 0; i < 5; i++) {
+            var exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/situacao-cliente?cpf=1"));
+            exchanges.add(exchange);
+            concluidas.add(filtro.filter(comPrincipal(exchange, "parceiro"), servico()).toFuture());
+        }
+        liberar.tryEmitEmpty();
+        concluidas.forEach(CompletableFuture::join);
+
+        assertEquals(1, chamadas.get());
+        for (MockServerWebExchange exchange : exchanges) {
+            assertEquals(CORPO, exchange.getResponse().getBodyAsString().block());
+            assertEquals(MediaType.APPLICATION_JSON, exchange.getResponse().getHeaders().getContentType());
+        }
+        assertEquals(1, contador("lider"));
+        assertEquals(4, contador("compartilhada"));
+        assertEquals(4, registry.get("gateway.coalescencia.seguidores").summary().totalAmount());
+    }
+
+    @Test
+    void principaisDiferentesNaoCompartilham() {
+        var filtro = filtro(10, 1024);
+
+        var primeira = executar(filtro, "/situacao-cliente?cpf=1", "parceiro-a");
+        var segunda = executar(filtro, "/situacao-cliente?cpf=1", "parceiro-b");
+        liberar.tryEmitEmpty();
+        primeira.join();
+        segunda.join();
+
+        assertEquals(2, chamadas.get());
+    }
+
+    @Test
+    void seguidoresAlemDoMaximoSeguemSozinhos() {
+        var filtro = filtro(2, 1024);
+
+        var concluidas = new ArrayList<CompletableFuture<Void>>();
+        for (int i = 0; i < 5; i++) {
+            concluidas.add(executar(filtro, "/situacao-cliente?cpf=1", "parceiro"));
+        }
+        liberar.tryEmitEmpty();
+        concluidas.forEach(CompletableFuture::join);
+
+        assertEquals(3, chamadas.get());
+        assertEquals(2, contador("excedente"));
+    }
+
+    @Test
+    void respostaAcimaDoLimiteNaoECompartilhada() {
+        var filtro = filtro(10, 16);
+
+        var exchanges = new ArrayList<MockServerWebExchange>();
+        var concluidas = new ArrayList<CompletableFuture<Void>>();
+        for (int i = 0; i < 3; i++) {
+            var exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/situacao-cliente?cpf=1"));
+            exchanges.add(exchange);
+            concluidas.add(filtro.filter(comPrincipal(exchange, "parceiro"), servico()).toFuture());
+        }
+        liberar.tryEmitEmpty();
+        concluidas.forEach(CompletableFuture::join);
+
+        assertEquals(3, chamadas.get());
+        assertEquals(2, contador("nao-compartilhada"));
+        for (MockServerWebExchange exchange : exchanges) {
+            assertEquals(CORPO, exchange.getResponse().getBodyAsString().block());
+        }
+    }
+
+    @Test
+    void chaveSaiDoMapaAoFimDoVoo() {
+        var filtro = filtro(10, 1024);
+        liberar.tryEmitEmpty();
+
+        executar(filtro, "/situacao-cliente?cpf=1", "parceiro").join();
+        executar(filtro, "/situacao-cliente?cpf=1", "parceiro").join();
+
+        assertEquals(2, chamadas.get());
+        assertEquals(0, registry.get("gateway.coalescencia.em-voo").gauge().value());
+    }
+
+    private CoalescenciaFilter filtro(int maxSeguidores, int tamanhoMaximoCorpo) {
+        return new CoalescenciaFilter("situacao-cliente", maxSeguidores, tamanhoMaximoCorpo, registry);
+    }
+
+    private CompletableFuture<Void> executar(CoalescenciaFilter filtro, String url, String principal) {
+        var exchange = MockServerWebExchange.from(MockServerHttpRequest.get(url));
+        return filtro.filter(comPrincipal(exchange, principal), servico()).toFuture();
+    }
+
+    private static ServerWebExchange comPrincipal(MockServerWebExchange exchange, String nome) {
+        Principal principal = () -> nome;
+        return exchange.mutate().principal(Mono.just(principal)).build();
+    }
+
+    private GatewayFilterChain servico() {
+        return exchange -> {
+            chamadas.incrementAndGet();
+            return liberar.asMono().then(Mono.defer(() -> {
+                var response = exchange.getResponse();
+                response.getHeaders().setContentType(MediaType.APPLICATION_JSON);
+                byte[] corpo = CORPO.getBytes(StandardCharsets.UTF_8);
+                return response.writeWith(Mono.just(response.bufferFactory().wrap(corpo)));
+            }));
+        };
+    }
+
+    private double contador(String papel) {
+        return registry.get("gateway.coalescencia.requisicoes").tag("papel", papel).counter().count();
+    }
+}
@@ -0,0 +1,157 @@
+package br.com.helber.mscloudgateway.limite;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.cloud.gateway.filter.ratelimit.KeyResolver;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+import org.springframework.web.server.ServerWebExchange;
+import reactor.core.publisher.Mono;
+
+import java.security.Principal;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LimiteTaxaFilterTest {
+
+    private static final KeyResolver POR_CABECALHO =
+            exchange -> Mono.justOrEmpty(exchange.getRequest().getHeaders().getFirst("X-Parceiro"));
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final AtomicLong relogio = new AtomicLong(TimeUnit.SECONDS.toNanos(100));
+    private final AtomicInteger chamadas = new AtomicInteger();
+    private final GatewayFilterChain servico = exchange -> {
+        chamadas.incrementAndGet();
+        return Mono.empty();
+    };
+
+    @Test
+    void rajadaPassaEDepoisResponde429ComRetryAfter() {
+        var filtro = filtro(new CotaTaxa(0.5, 2));
+
+        var primeira = executar(filtro, "a");
+        var segunda = executar(filtro, "a");
+        var terceira = executar(filtro, "a");
+
+        assertEquals("1", primeira.getResponse().getHeaders().getFirst(LimiteTaxaFilter.CABECALHO_RESTANTES));
+        assertEquals("0", segunda.getResponse().getHeaders().getFirst(LimiteTaxaFilter.CABECALHO_RESTANTES));
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, terceira.getResponse().getStatusCode());
+        assertEquals("2", terceira.getResponse().getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+        assertEquals(2, chamadas.get());
+        assertEquals(1, registry.get("gateway.limite-taxa.requisicoes").tag("resultado", "rejeitada")
+                .counter().count());
+    }
+
+    @Test
+    void baldeVoltaAEncherComOTempo() {
+        var filtro = filtro(new CotaTaxa(10, 1));
+
+        executar(filtro, "a");
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, executar(filtro, "a").getResponse().getStatusCode());
+
+        relogio.addAndGet(TimeUnit.MILLISECONDS.toNanos(100));
+        assertNull(executar(filtro, "a").getResponse().getStatusCode());
+        assertEquals(2, chamadas.get());
+    }
+
+    @Test
+    void cadaChaveTemSeuBalde() {
+        var filtro = filtro(new CotaTaxa(1, 1));
+
+        executar(filtro, "a");
+        executar(filtro, "b");
+        executar(filtro, "a");
+
+        assertEquals(2, chamadas.get());
+    }
+
+    @Test
+    void mapaCheioRecusaChaveNovaSemDevolverOBaldeDeQuemJaFoiLimitado() {
+        var filtro = filtro(new CotaTaxa(1, 1), 2);
+        executar(filtro, "limitado");
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, executar(filtro, "limitado").getResponse().getStatusCode());
+        executar(filtro, "outro");
+
+        for (int i = 0; i < 10; i++) {
+            var inundacao = executar(filtro, "forjada-" + i);
+            assertEquals(HttpStatus.TOO_MANY_REQUESTS, inundacao.getResponse().getStatusCode());
+            assertEquals("1", inundacao.getResponse().getHeaders().getFirst(HttpHeaders.RETRY_AFTER));
+        }
+
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, executar(filtro, "limitado").getResponse().getStatusCode());
+        assertEquals(2, chamadas.get());
+        assertEquals(10, registry.get("gateway.limite-taxa.requisicoes").tag("resultado", "lotada")
+                .counter().count());
+    }
+
+    @Test
+    void baldeOciosoLiberaVagaParaChaveNova() {
+        var filtro = filtro(new CotaTaxa(1, 1), 1);
+        executar(filtro, "a");
+        assertEquals(HttpStatus.TOO_MANY_REQUESTS, executar(filtro, "b").getResponse().getStatusCode());
+
+        relogio.addAndGet(TimeUnit.MINUTES.toNanos(5) + 1);
+
+        assertNull(executar(filtro, "b").getResponse().getStatusCode());
+        assertEquals(2, chamadas.get());
+    }
+
+    @Test
+    void chaveDoJwtPrefereClientIdAoSubject() {
+        var resolver = new ClaimJwtKeyResolver(List.of("azp", "client_id", "sub"));
+
+        assertEquals("azp:parceiro", resolver.resolve(comJwt(jwt().claim("azp", "parceiro").build())).block());
+        assertEquals("sub:usuario", resolver.resolve(comJwt(jwt().build())).block());
+    }
+
+    @Test
+    void cotaDaRotaCaiNoPadraoNoQueNaoDefine() {
+        var environment = new MockEnvironment()
+                .withProperty("gateway.limite-taxa.padrao.taxa", "100")
+                .withProperty("gateway.limite-taxa.padrao.rajada", "200")
+                .withProperty("gateway.limite-taxa.rotas.avaliacoes-credito.taxa", "20");
+        var limites = new LimitesTaxa(environment, POR_CABECALHO, registry);
+
+        var cota = limites.cota("avaliacoes-credito");
+        assertEquals(20, cota.taxa());
+        assertEquals(200, cota.rajada());
+        assertEquals(100, limites.cota("clientes").taxa());
+    }
+
+    private LimiteTaxaFilter filtro(CotaTaxa cota) {
+        return filtro(cota, 1000);
+    }
+
+    private LimiteTaxaFilter filtro(CotaTaxa cota, long tamanhoMaximo) {
+        return new LimiteTaxaFilter("avaliacoes-credito", cota, POR_CABECALHO, Duration.ofMinutes(5), tamanhoMaximo,
+                registry, relogio::get);
+    }
+
+    private MockServerWebExchange executar(LimiteTaxaFilter filtro, String parceiro) {
+        var exchange = MockServerWebExchange.from(MockServerHttpRequest.get("/avaliacoes-credito")
+                .header("X-Parceiro", parceiro));
+        filtro.filter(exchange, servico).block();
+        return exchange;
+    }
+
+    private static Jwt.Builder jwt() {
+        return Jwt.withTokenValue("token").header("alg", "RS256").subject("usuario");
+    }
+
+    private static ServerWebExchange comJwt(Jwt jwt) {
+        Principal principal = new JwtAuthenticationToken(jwt);
+        return MockServerWebExchange.from(MockServerHttpRequest.get("/avaliacoes-credito"))
+                .mutate().principal(Mono.just(principal)).build();
+    }
+}
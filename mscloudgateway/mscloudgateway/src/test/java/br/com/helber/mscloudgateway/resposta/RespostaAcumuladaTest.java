@@ -0,0 +1,101 @@
+package br.com.helber.mscloudgateway.resposta;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.http.server.reactive.MockServerHttpResponse;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RespostaAcumuladaTest {
+
+    private final MockServerHttpResponse destino = new MockServerHttpResponse();
+    private final List<String> concluidos = new ArrayList<>();
+    private int streamings;
+
+    private RespostaAcumulada resposta(int tamanhoMaximoCorpo) {
+        return new RespostaAcumulada(destino, tamanhoMaximoCorpo) {
+            @Override
+            protected void emStreaming() {
+                streamings++;
+            }
+
+            @Override
+            protected Mono<Void> concluir(byte[] corpo) {
+                concluidos.add(new String(corpo, StandardCharsets.UTF_8));
+                return escreverCorpo(corpo);
+            }
+        };
+    }
+
+    private static Flux<DataBuffer> partes(String... partes) {
+        return Flux.fromArray(partes)
+                .map(parte -> DefaultDataBufferFactory.sharedInstance.wrap(parte.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    @Test
+    void partesDentroDoLimiteSaoJuntadasEmUmCorpo() {
+        var resposta = resposta(10);
+        resposta.getHeaders().set(HttpHeaders.TRANSFER_ENCODING, "chunked");
+
+        resposta.writeWith(partes("abc", "def", "ghij")).block();
+
+        assertEquals(List.of("abcdefghij"), concluidos);
+        assertEquals(0, streamings);
+        assertEquals("abcdefghij", destino.getBodyAsString().block());
+        assertEquals(10, destino.getHeaders().getContentLength());
+        assertFalse(destino.getHeaders().containsKey(HttpHeaders.TRANSFER_ENCODING));
+    }
+
+    @Test
+    void partesAcimaDoLimiteSeguemEmStreamingSemConcluir() {
+        resposta(5).writeWith(partes("abc", "def", "ghi")).block();
+
+        assertTrue(concluidos.isEmpty());
+        assertEquals(1, streamings);
+        assertEquals("abcdefghi", destino.getBodyAsString().block());
+    }
+
+    @Test
+    void contentLengthAcimaDoLimiteNemComecaAJuntar() {
+        var resposta = resposta(5);
+        resposta.getHeaders().setContentLength(6);
+
+        resposta.writeWith(partes("abcdef")).block();
+
+        assertTrue(concluidos.isEmpty());
+        assertEquals(1, streamings);
+        assertEquals("abcdef", destino.getBodyAsString().block());
+    }
+
+    @Test
+    void erroNoCorpoSegueParaOClienteSemConcluir() {
+        var corpo = Flux.concat(partes("abc"), Flux.<DataBuffer>error(new IllegalStateException("conexao caiu")));
+
+        assertThrows(IllegalStateException.class, () -> resposta(10).writeWith(corpo).block());
+
+        assertTrue(concluidos.isEmpty());
+        assertEquals(1, streamings);
+    }
+
+    @Test
+    void cabecalhosReutilizaveisNaoLevamOsDaConexao() {
+        var origem = new HttpHeaders();
+        origem.setContentLength(10);
+        origem.set(HttpHeaders.TRANSFER_ENCODING, "chunked");
+        origem.set(HttpHeaders.CONNECTION, "keep-alive");
+        origem.set(HttpHeaders.SET_COOKIE, "sessao=1");
+        origem.set(HttpHeaders.CONTENT_TYPE, "application/json");
+
+        var cabecalhos = RespostaAcumulada.cabecalhosReutilizaveis(origem);
+
+        assertEquals(List.of(HttpHeaders.CONTENT_TYPE), new ArrayList<>(cabecalhos.keySet()));
+    }
+}